@@ -399,11 +399,20 @@ CREATE TABLE IF NOT EXISTS ble_gateways (
     gateway_code    VARCHAR(30) NOT NULL,
     gateway_name    VARCHAR(150) NOT NULL,
     location_desc   VARCHAR(200),
+    zone_id         UUID REFERENCES tracking_zones(id),       -- zone the gateway covers (BLE ingestion)
+    floor_id        UUID REFERENCES floors(id),
+    api_key_hash    VARCHAR(64),                               -- SHA-256 hex of the gateway's ingestion key
     is_active       BOOLEAN NOT NULL DEFAULT TRUE,
     created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     UNIQUE (hospital_id, gateway_code)
 );
 
+-- Existing databases
+ALTER TABLE ble_gateways
+    ADD COLUMN IF NOT EXISTS zone_id      UUID REFERENCES tracking_zones(id),
+    ADD COLUMN IF NOT EXISTS floor_id     UUID REFERENCES floors(id),
+    ADD COLUMN IF NOT EXISTS api_key_hash VARCHAR(64);
+
 INSERT INTO ble_gateways (hospital_id, gateway_code, gateway_name, location_desc)
 SELECT h.id, v.code, v.name, v.loc
 FROM hospitals h
@@ -924,11 +933,19 @@ CREATE TABLE IF NOT EXISTS asset_ble_config (
     geo_fence_radius_m      INT,
     exit_alert_type_id      UUID REFERENCES geo_fence_alert_types(id),
     alert_recipients        TEXT,                                   -- comma-separated emails
+    -- Live state (written by BLE ingestion in periodic batches)
+    current_zone_id         UUID REFERENCES tracking_zones(id),     -- zone of nearest_gateway_id
+    geo_fence_exited_at     TIMESTAMPTZ,                            -- NULL = inside assigned zone
     created_at              TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     updated_at              TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     UNIQUE (asset_id)
 );
 
+-- Existing databases
+ALTER TABLE asset_ble_config
+    ADD COLUMN IF NOT EXISTS current_zone_id     UUID REFERENCES tracking_zones(id),
+    ADD COLUMN IF NOT EXISTS geo_fence_exited_at TIMESTAMPTZ;
+
 -- Additional BLE Beacons (multi-beacon per asset)
 CREATE TABLE IF NOT EXISTS asset_ble_beacons (
     id                  UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
@@ -944,6 +961,21 @@ CREATE TABLE IF NOT EXISTS asset_ble_beacons (
 
 CREATE INDEX idx_ble_beacons_asset ON asset_ble_beacons(asset_id);
 
+-- Geo-fence exits / returns detected by BLE ingestion
+CREATE TABLE IF NOT EXISTS ble_geo_fence_events (
+    id                  UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    asset_id            UUID NOT NULL REFERENCES assets(id) ON DELETE CASCADE,
+    event_type          VARCHAR(10) NOT NULL CHECK (event_type IN ('EXIT', 'RETURN')),
+    assigned_zone_id    UUID REFERENCES tracking_zones(id),
+    observed_zone_id    UUID REFERENCES tracking_zones(id),
+    gateway_id          UUID REFERENCES ble_gateways(id),
+    exit_alert_type_id  UUID REFERENCES geo_fence_alert_types(id),
+    occurred_at         TIMESTAMPTZ NOT NULL,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_geo_fence_events_asset ON ble_geo_fence_events(asset_id, occurred_at DESC);
+
 
 -- ============================================================================
 -- 9. VENDOR  (Tab 7)
@@ -1008,6 +1040,8 @@ CREATE TRIGGER trg_calc_warranty_end
     FOR EACH ROW
     EXECUTE FUNCTION calc_warranty_end();
 
+CREATE INDEX IF NOT EXISTS idx_asset_install_warranty_end ON asset_installation(warranty_end_date);
+
 
 -- ============================================================================
 -- 11. MAINTENANCE SCHEDULES  (Tab 9)
@@ -1080,6 +1114,7 @@ CREATE TABLE IF NOT EXISTS asset_contracts (
 
 CREATE INDEX idx_asset_contracts_asset ON asset_contracts(asset_id);
 CREATE INDEX idx_asset_contracts_contract ON asset_contracts(contract_id);
+CREATE INDEX IF NOT EXISTS idx_contracts_active_end ON contracts(contract_end) WHERE contract_status = 'Active';
 
 
 -- ============================================================================
@@ -1167,20 +1202,24 @@ LEFT JOIN asset_location al     ON al.asset_id = a.id
 LEFT JOIN departments dep       ON dep.id = al.department_id;
 
 -- 15b. Maintenance Due Soon (next 30 days)
+-- schedule_id .. maintenance_type_code: keys for the reminder scheduler
 CREATE OR REPLACE VIEW vw_maintenance_due_soon AS
 SELECT
     a.asset_id_display,
     dm.device_name,
     mt.type_name                  AS maintenance_type,
     ms.next_due_date,
-    mf.frequency_name,
+    ms.frequency_months,
     ma.assignee_name              AS assigned_to,
-    ms.is_enabled
+    ms.is_enabled,
+    ms.id                         AS schedule_id,
+    a.id                          AS asset_id,
+    a.hospital_id,
+    mt.type_code                  AS maintenance_type_code
 FROM asset_maintenance_schedules ms
 JOIN assets a                   ON a.id = ms.asset_id
 JOIN device_master dm           ON dm.id = a.device_id
 JOIN maintenance_types mt       ON mt.id = ms.maintenance_type_id
-LEFT JOIN maintenance_frequencies mf ON mf.id = ms.frequency_id
 LEFT JOIN maintenance_assignees ma  ON ma.id = ms.assigned_to_id
 WHERE ms.is_enabled = TRUE
   AND ms.next_due_date <= (CURRENT_DATE + INTERVAL '30 days')
@@ -1194,7 +1233,9 @@ SELECT
     ai.warranty_start_date,
     ai.warranty_end_date,
     ws.status_name                AS warranty_status,
-    ai.warranty_period_years
+    ai.warranty_period_years,
+    a.id                          AS asset_id,
+    a.hospital_id
 FROM asset_installation ai
 JOIN assets a                   ON a.id = ai.asset_id
 JOIN device_master dm           ON dm.id = a.device_id
@@ -1216,7 +1257,9 @@ SELECT
     fl.floor_name                 AS assigned_floor,
     gw.gateway_name               AS nearest_gateway,
     bc.geo_fence_enabled,
-    bc.last_signal_received
+    bc.last_signal_received,
+    cz.zone_name                  AS current_zone,
+    bc.geo_fence_exited_at
 FROM asset_ble_config bc
 JOIN assets a                   ON a.id = bc.asset_id
 JOIN device_master dm           ON dm.id = a.device_id
@@ -1225,6 +1268,7 @@ LEFT JOIN beacon_statuses bs    ON bs.id = bc.beacon_status_id
 LEFT JOIN tracking_zones tz     ON tz.id = bc.assigned_zone_id
 LEFT JOIN floors fl             ON fl.id = bc.assigned_floor_id
 LEFT JOIN ble_gateways gw       ON gw.id = bc.nearest_gateway_id
+LEFT JOIN tracking_zones cz     ON cz.id = bc.current_zone_id
 WHERE bc.ble_enabled = TRUE;
 
 
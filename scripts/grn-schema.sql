@@ -17,6 +17,7 @@ CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 -- 1a. Hospitals
 CREATE TABLE IF NOT EXISTS hospitals (
     id              UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    tenant_id       UUID,                                   -- FK to tenants (notification scope)
     hospital_name   VARCHAR(200) NOT NULL,
     code            VARCHAR(50) UNIQUE NOT NULL,
     address         TEXT,
@@ -30,6 +31,10 @@ CREATE TABLE IF NOT EXISTS hospitals (
 
 COMMENT ON TABLE hospitals IS 'Master list of hospitals in the network';
 
+-- Existing databases
+ALTER TABLE hospitals ADD COLUMN IF NOT EXISTS tenant_id UUID;
+CREATE INDEX IF NOT EXISTS idx_hospitals_tenant ON hospitals(tenant_id);
+
 -- 1b. Biomedical Stores (Store Master)
 CREATE TABLE IF NOT EXISTS biomedical_stores (
     id              UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
@@ -107,6 +107,8 @@ CREATE TABLE IF NOT EXISTS building (
 );
 
 CREATE INDEX idx_building_org ON building(tenant_id, org_id);
+-- keyset pagination: ORDER BY building_name, building_id within an org
+CREATE INDEX idx_building_org_name ON building(tenant_id, org_id, building_name, building_id);
 
 
 -- B2. floor
@@ -179,6 +181,36 @@ CREATE INDEX idx_bed_room ON bed(tenant_id, room_id);
 CREATE INDEX idx_bed_org  ON bed(tenant_id, org_id);
 
 
+-- B5. location_count_rollup  (materialized child counts per building/floor/room)
+-- ============================================================================
+-- Read by the expanded Building/Floor/Room projections instead of joining the
+-- whole subtree. Maintained incrementally by FloorService, RoomService and
+-- BedService in the same transaction as the child write.
+-- Counting rules match the old COUNT(DISTINCT CASE ...) aggregates:
+--   floor_count / room_count / bed_count -> children with is_active <> 'DELETED'
+--   active_bed_count                     -> beds with is_active = 'ACTIVE'
+-- (a child is counted on its own status, regardless of its parent's status)
+-- floor_count is only meaningful on BUILDING rows, room_count on BUILDING and
+-- FLOOR rows.
+-- ============================================================================
+CREATE TABLE IF NOT EXISTS location_count_rollup (
+    location_level    VARCHAR(10) NOT NULL CHECK (location_level IN ('BUILDING','FLOOR','ROOM')),
+    location_id       BIGINT NOT NULL,              -- building_id|floor_id|room_id
+    tenant_id         BIGINT NOT NULL,
+
+    floor_count       BIGINT NOT NULL DEFAULT 0,
+    room_count        BIGINT NOT NULL DEFAULT 0,
+    bed_count         BIGINT NOT NULL DEFAULT 0,
+    active_bed_count  BIGINT NOT NULL DEFAULT 0,
+
+    updated_at        TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (location_level, location_id)
+);
+
+CREATE INDEX idx_loc_rollup_tenant ON location_count_rollup(tenant_id);
+
+
 -- ============================================================================
 -- SECTION C: DEPARTMENT (LOGICAL) + LOCATION MAPPING
 -- ============================================================================
@@ -685,6 +717,97 @@ INSERT INTO department_location_map (tenant_id, dept_id, org_id, location_level_
 (1, 10, 2, 4, 167, FALSE); -- BED:  NEURO-B9 (bed_id=167)
 
 
+-- ============================================================================
+-- SECTION F: ROLLUP BACKFILL
+-- ============================================================================
+-- Rebuilds location_count_rollup from the base tables. Run once after seed
+-- data / migration, and again any time the rollup is suspected to have
+-- drifted (safe to re-run: overwrites existing rows).
+-- ============================================================================
+
+-- F1. Room level
+-- ============================================================================
+INSERT INTO location_count_rollup (location_level, location_id, tenant_id, bed_count, active_bed_count)
+SELECT 'ROOM', r.room_id, r.tenant_id,
+       COUNT(bd.bed_id) FILTER (WHERE bd.is_active <> 'DELETED'),
+       COUNT(bd.bed_id) FILTER (WHERE bd.is_active = 'ACTIVE')
+FROM room r
+LEFT JOIN bed bd ON bd.room_id = r.room_id
+GROUP BY r.room_id, r.tenant_id
+ON CONFLICT (location_level, location_id) DO UPDATE
+   SET bed_count        = EXCLUDED.bed_count,
+       active_bed_count = EXCLUDED.active_bed_count,
+       updated_at       = NOW();
+
+-- F2. Floor level
+-- ============================================================================
+INSERT INTO location_count_rollup (location_level, location_id, tenant_id, room_count, bed_count, active_bed_count)
+SELECT 'FLOOR', fl.floor_id, fl.tenant_id,
+       COUNT(DISTINCT r.room_id) FILTER (WHERE r.is_active <> 'DELETED'),
+       COUNT(bd.bed_id)          FILTER (WHERE bd.is_active <> 'DELETED'),
+       COUNT(bd.bed_id)          FILTER (WHERE bd.is_active = 'ACTIVE')
+FROM floor fl
+LEFT JOIN room r ON r.floor_id = fl.floor_id
+LEFT JOIN bed bd ON bd.room_id = r.room_id
+GROUP BY fl.floor_id, fl.tenant_id
+ON CONFLICT (location_level, location_id) DO UPDATE
+   SET room_count       = EXCLUDED.room_count,
+       bed_count        = EXCLUDED.bed_count,
+       active_bed_count = EXCLUDED.active_bed_count,
+       updated_at       = NOW();
+
+-- F3. Building level
+-- ============================================================================
+INSERT INTO location_count_rollup (location_level, location_id, tenant_id, floor_count, room_count, bed_count, active_bed_count)
+SELECT 'BUILDING', b.building_id, b.tenant_id,
+       COUNT(DISTINCT fl.floor_id) FILTER (WHERE fl.is_active <> 'DELETED'),
+       COUNT(DISTINCT r.room_id)   FILTER (WHERE r.is_active <> 'DELETED'),
+       COUNT(bd.bed_id)            FILTER (WHERE bd.is_active <> 'DELETED'),
+       COUNT(bd.bed_id)            FILTER (WHERE bd.is_active = 'ACTIVE')
+FROM building b
+LEFT JOIN floor fl ON fl.building_id = b.building_id
+LEFT JOIN room r   ON r.floor_id = fl.floor_id
+LEFT JOIN bed bd   ON bd.room_id = r.room_id
+GROUP BY b.building_id, b.tenant_id
+ON CONFLICT (location_level, location_id) DO UPDATE
+   SET floor_count      = EXCLUDED.floor_count,
+       room_count       = EXCLUDED.room_count,
+       bed_count        = EXCLUDED.bed_count,
+       active_bed_count = EXCLUDED.active_bed_count,
+       updated_at       = NOW();
+
+
+-- ============================================================================
+-- SECTION G: POOLED ID SEQUENCES FOR ROOM / BED
+-- ============================================================================
+-- Room.roomId and Bed.bedId use @SequenceGenerator(allocationSize = 50), so
+-- create-bulk / auto-generate get IDs in blocks and Hibernate can send the
+-- INSERTs as one JDBC batch (IDENTITY columns force a round trip per row).
+-- Run after seed data / on existing databases; safe to re-run.
+-- The sequence starts past MAX(id) + 50 so no pooled range overlaps old rows.
+-- Plain SQL inserts keep working through the column DEFAULT (IDs will have gaps).
+-- ============================================================================
+
+DO $$
+DECLARE
+    t RECORD;
+    start_at BIGINT;
+BEGIN
+    FOR t IN SELECT * FROM (VALUES ('room', 'room_id'), ('bed', 'bed_id')) AS v(tbl, col) LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY IF EXISTS', t.tbl, t.col);
+        EXECUTE format('SELECT COALESCE(MAX(%I), 0) + 51 FROM %I', t.col, t.tbl) INTO start_at;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 START WITH %s', t.tbl || '_id_seq', start_at);
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.%I', t.tbl || '_id_seq', t.tbl, t.col);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET DEFAULT nextval(%L)', t.tbl, t.col, t.tbl || '_id_seq');
+    END LOOP;
+END $$;
+
+-- Required application properties for the batch path:
+--   spring.jpa.properties.hibernate.jdbc.batch_size=50
+--   spring.jpa.properties.hibernate.order_inserts=true
+--   spring.datasource.url=jdbc:postgresql://...?reWriteBatchedInserts=true
+
+
 -- ============================================================================
 -- END OF SCHEMA
 -- ============================================================================
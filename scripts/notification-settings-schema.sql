@@ -224,7 +224,11 @@ CREATE TABLE notification_log (
 
     -- Reminder tracking (prevents duplicates)
     reminder_window     VARCHAR(50),            -- e.g. '30_days_before', 'on_date', 'recurring_7'
-    scheduled_for       TIMESTAMPTZ,            -- when the notification was intended
+    scheduled_for       TIMESTAMPTZ DEFAULT now(), -- when the notification was intended
+
+    -- Dispatch (NotificationDispatcher)
+    attempt_count       INT NOT NULL DEFAULT 0, -- incremented on every claim
+    next_attempt_at     TIMESTAMPTZ,            -- claim lease / retry backoff; NULL = due at scheduled_for
 
     -- Content
     title               VARCHAR(300),
@@ -236,8 +240,10 @@ CREATE TABLE notification_log (
     failed_reason       TEXT,
     created_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
 
-    -- Deduplication: same event + entity + user + reminder window = no duplicate
-    UNIQUE (tenant_id, event_code, entity_id, recipient_user_id, reminder_window)
+    -- Deduplication: same event + entity + user + channel + reminder window = no duplicate
+    -- (channel is part of the key so an in_app and an email reminder can coexist)
+    CONSTRAINT uq_notif_log_dedup
+        UNIQUE (tenant_id, event_code, entity_id, recipient_user_id, channel, reminder_window)
 );
 
 /* ==================================================================
@@ -275,6 +281,28 @@ CREATE INDEX idx_notif_log_entity ON notification_log(entity_type, entity_id);
 CREATE INDEX idx_notif_log_scheduled ON notification_log(scheduled_for) WHERE delivery_status = 'Queued';
 CREATE INDEX idx_notif_log_unread ON notification_log(recipient_user_id) WHERE read_status = 'Unread';
 
+-- Existing databases: dispatcher columns
+ALTER TABLE notification_log
+    ADD COLUMN IF NOT EXISTS attempt_count   INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
+ALTER TABLE notification_log ALTER COLUMN scheduled_for SET DEFAULT now();
+
+-- Existing databases: dedup key without channel -> uq_notif_log_dedup
+DO $$
+DECLARE
+    v_name TEXT;
+BEGIN
+    SELECT conname INTO v_name
+    FROM   pg_constraint
+    WHERE  conrelid = 'notification_log'::regclass AND contype = 'u' AND conname <> 'uq_notif_log_dedup';
+    IF v_name IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE notification_log DROP CONSTRAINT %I', v_name);
+        ALTER TABLE notification_log ADD CONSTRAINT uq_notif_log_dedup
+            UNIQUE (tenant_id, event_code, entity_id, recipient_user_id, channel, reminder_window);
+    END IF;
+END;
+$$;
+
 -- Filters
 CREATE INDEX idx_notif_filters_rule ON tenant_notification_rule_filters(rule_id);
 
@@ -313,11 +341,14 @@ END;
 $$;
 
 -- Check if notification already sent (deduplication per BRD Section 7)
+-- Same key as uq_notif_log_dedup: a reminder sent in_app does not block its email
+DROP FUNCTION IF EXISTS is_notification_duplicate(UUID, VARCHAR, UUID, UUID, VARCHAR);
 CREATE OR REPLACE FUNCTION is_notification_duplicate(
     p_tenant_id UUID,
     p_event_code VARCHAR(80),
     p_entity_id UUID,
     p_user_id UUID,
+    p_channel VARCHAR(20),
     p_reminder_window VARCHAR(50)
 )
 RETURNS BOOLEAN
@@ -329,6 +360,7 @@ BEGIN
           AND event_code = p_event_code
           AND entity_id = p_entity_id
           AND recipient_user_id = p_user_id
+          AND channel = p_channel
           AND reminder_window = p_reminder_window
     );
 END;
@@ -378,7 +410,8 @@ SELECT
 FROM tenant_notification_rules r
 JOIN notification_event_master em ON em.event_code = r.event_code;
 
--- Unread notifications per user
+-- Unread notifications per user (bell badge: in-app rows only; the same
+-- reminder also has email / sms rows)
 CREATE OR REPLACE VIEW vw_user_unread_notifications AS
 SELECT
     recipient_user_id,
@@ -387,6 +420,7 @@ SELECT
 FROM notification_log
 WHERE read_status = 'Unread'
   AND delivery_status = 'Sent'
+  AND channel = 'in_app'
 GROUP BY recipient_user_id;
 
 -- Pending escalations: notifications past escalation threshold
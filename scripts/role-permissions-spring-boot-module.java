@@ -337,11 +337,17 @@ import com.cmms.rbac.entity.RolePermission;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RolePermissionRepository extends JpaRepository<RolePermission, Long> {
@@ -448,8 +454,79 @@ public interface RolePermissionRepository extends JpaRepository<RolePermission,
             @Param("tenantId") Long tenantId
     );
 
-    // ---- Delete all permissions for a role (used in bulk save) ----
-    void deleteAllByRoleIdAndTenantId(Long roleId, Long tenantId);
+    // ---- Export: all permissions of the tenant (or one role), streamed ----
+    // Only through StreamingExportService (needs its read-only transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+        SELECT new com.cmms.rbac.dto.response.RolePermissionResponseExpanded(
+            rp.id, rp.tenantId,
+            r.id, r.name, r.code, r.scope,
+            res.id, res.resourceKey, res.resourceName, res.parentId,
+            a.id, a.actionKey, a.actionName,
+            rp.isAllowed, rp.grantedAt,
+            rp.grantedBy, u.name
+        )
+        FROM RolePermission rp
+        JOIN rp.role r
+        JOIN rp.resource res
+        JOIN rp.action a
+        LEFT JOIN rp.grantedByUser u
+        WHERE rp.tenantId = :tenantId
+          AND (:roleId IS NULL OR rp.roleId = :roleId)
+        ORDER BY r.name, res.resourceName, a.actionName
+    """)
+    Stream<RolePermissionResponseExpanded> streamAllForExport(
+            @Param("tenantId") Long tenantId,
+            @Param("roleId") Long roleId
+    );
+
+    // ---- Bulk save: current grant rows of a role (diffed in the service) ----
+    interface GrantState {
+        Long getId();
+        Long getResourceId();
+        Long getActionId();
+        Boolean getIsAllowed();
+    }
+
+    @Query("""
+        SELECT rp.id AS id, rp.resourceId AS resourceId, rp.actionId AS actionId, rp.isAllowed AS isAllowed
+        FROM RolePermission rp
+        WHERE rp.roleId = :roleId AND rp.tenantId = :tenantId
+    """)
+    List<GrantState> findGrantStates(@Param("roleId") Long roleId, @Param("tenantId") Long tenantId);
+
+    // ---- Bulk save: the role must belong to the caller's tenant ----
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM roles WHERE id = :roleId AND tenant_id = :tenantId)",
+           nativeQuery = true)
+    boolean existsRoleInTenant(@Param("roleId") Long roleId, @Param("tenantId") Long tenantId);
+
+    // ---- Bulk save: one INSERT for all new grants ----
+    // resourceIds[i] / actionIds[i] form one pair. A pair that exists with
+    // is_allowed = false is flipped to true by the ON CONFLICT branch -- only
+    // within the same tenant (the WHERE keeps another tenant's row untouched).
+    @Modifying
+    @Query(value = """
+        INSERT INTO role_permissions (tenant_id, role_id, resource_id, action_id, is_allowed, granted_at, granted_by)
+        SELECT :tenantId, :roleId, g.resource_id, g.action_id, TRUE, NOW(), :grantedBy
+        FROM unnest(CAST(:resourceIds AS BIGINT[]), CAST(:actionIds AS BIGINT[])) AS g(resource_id, action_id)
+        ON CONFLICT (role_id, resource_id, action_id)
+        DO UPDATE SET is_allowed = TRUE, granted_at = EXCLUDED.granted_at, granted_by = EXCLUDED.granted_by
+        WHERE role_permissions.tenant_id = EXCLUDED.tenant_id
+    """, nativeQuery = true)
+    int grantAll(@Param("tenantId") Long tenantId,
+                 @Param("roleId") Long roleId,
+                 @Param("grantedBy") Long grantedBy,
+                 @Param("resourceIds") Long[] resourceIds,
+                 @Param("actionIds") Long[] actionIds);
+
+    // ---- Bulk save: one DELETE for all revoked grants ----
+    @Modifying
+    @Query("DELETE FROM RolePermission rp WHERE rp.tenantId = :tenantId AND rp.id IN :ids")
+    int deleteAllByIdInAndTenantId(@Param("ids") Collection<Long> ids, @Param("tenantId") Long tenantId);
 
     // ---- Count permissions for a role ----
     long countByRoleIdAndTenantId(Long roleId, Long tenantId);
@@ -464,18 +541,25 @@ public interface RolePermissionRepository extends JpaRepository<RolePermission,
 package com.cmms.rbac.service;
 
 import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.exception.NotFoundException;
 import com.cmms.rbac.dto.request.*;
 import com.cmms.rbac.dto.response.*;
+import com.cmms.rbac.authz.AuthorizationEngine;
 import com.cmms.rbac.entity.RolePermission;
 import com.cmms.rbac.repository.RolePermissionRepository;
+import com.cmms.common.export.ExportColumn;
+import com.cmms.common.export.ExportFormat;
+import com.cmms.common.export.StreamingExportService;
 import com.cmms.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -486,8 +570,23 @@ import java.util.stream.Collectors;
 public class RolePermissionService {
 
     private final RolePermissionRepository repository;
+    private final AuthorizationEngine authorizationEngine;
+    private final PermissionMatrixService permissionMatrixService;
+    private final StreamingExportService exportService;
     private final JwtService jwtService;
 
+    private static final List<ExportColumn<RolePermissionResponseExpanded>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("Role Code", RolePermissionResponseExpanded::getRoleCode),
+            ExportColumn.of("Role", RolePermissionResponseExpanded::getRoleName),
+            ExportColumn.of("Scope", RolePermissionResponseExpanded::getRoleScope),
+            ExportColumn.of("Resource Key", RolePermissionResponseExpanded::getResourceKey),
+            ExportColumn.of("Resource", RolePermissionResponseExpanded::getResourceName),
+            ExportColumn.of("Action Key", RolePermissionResponseExpanded::getActionKey),
+            ExportColumn.of("Action", RolePermissionResponseExpanded::getActionName),
+            ExportColumn.of("Allowed", RolePermissionResponseExpanded::getIsAllowed),
+            ExportColumn.of("Granted At", RolePermissionResponseExpanded::getGrantedAt),
+            ExportColumn.of("Granted By", RolePermissionResponseExpanded::getGrantedByName));
+
     // ---- CREATE ----
     @Transactional(rollbackFor = Exception.class)
     public ResponseDto<RolePermissionResponseBasic> create(RolePermissionCreateRequest req) {
@@ -513,6 +612,7 @@ public class RolePermissionService {
                 .build();
 
         entity = repository.save(entity);
+        authorizationEngine.invalidate(tenantId);
 
         return ResponseDto.created(
                 mapToBasic(entity),
@@ -551,6 +651,7 @@ public class RolePermissionService {
         entity.setIsAllowed(req.getIsAllowed() != null ? req.getIsAllowed() : true);
 
         entity = repository.save(entity);
+        authorizationEngine.invalidate(tenantId);
 
         return ResponseDto.success(mapToBasic(entity), "Permission updated successfully");
     }
@@ -568,6 +669,7 @@ public class RolePermissionService {
         }
 
         repository.delete(entity);
+        authorizationEngine.invalidate(tenantId);
         return ResponseDto.success(null, "Permission deleted successfully");
     }
 
@@ -612,66 +714,77 @@ public class RolePermissionService {
     }
 
     // ---- BULK SAVE (Permission Matrix save) ----
-    // Replaces ALL permissions for a role with the new set
+    // Makes the role's grants equal to the isAllowed=true entries. Only the
+    // difference is written (one INSERT, one DELETE); unchanged rows keep
+    // their grantedAt / grantedBy.
     @Transactional(rollbackFor = Exception.class)
     public ResponseDto<Map<String, Object>> bulkSave(RolePermissionBulkSaveRequest req) {
         Long tenantId = jwtService.getTenantId();
         Long userId = jwtService.getUserId();
 
-        // Delete all existing permissions for this role
-        repository.deleteAllByRoleIdAndTenantId(req.getRoleId(), tenantId);
+        // Tenant guard: another tenant's role id must not reach grantAll
+        if (!repository.existsRoleInTenant(req.getRoleId(), tenantId)) {
+            throw new NotFoundException("Role not found");
+        }
 
-        // Insert new permissions
-        List<RolePermission> entities = req.getPermissions().stream()
+        Set<GrantKey> toGrant = req.getPermissions().stream()
                 .filter(p -> Boolean.TRUE.equals(p.getIsAllowed()))
-                .map(p -> RolePermission.builder()
-                        .tenantId(tenantId)
-                        .roleId(req.getRoleId())
-                        .resourceId(p.getResourceId())
-                        .actionId(p.getActionId())
-                        .isAllowed(true)
-                        .grantedAt(OffsetDateTime.now())
-                        .grantedBy(userId)
-                        .build())
-                .collect(Collectors.toList());
-
-        repository.saveAll(entities);
+                .map(p -> new GrantKey(p.getResourceId(), p.getActionId()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<Long> revokedIds = new ArrayList<>();
+        int unchanged = 0;
+        for (RolePermissionRepository.GrantState row : repository.findGrantStates(req.getRoleId(), tenantId)) {
+            GrantKey key = new GrantKey(row.getResourceId(), row.getActionId());
+            if (!toGrant.contains(key)) {
+                revokedIds.add(row.getId());
+            } else if (Boolean.TRUE.equals(row.getIsAllowed())) {
+                toGrant.remove(key);
+                unchanged++;
+            }
+            // else: row exists but is denied -- stays in toGrant, flipped by grantAll
+        }
 
-        return ResponseDto.success(
-                Map.of("roleId", req.getRoleId(), "permissionsCount", entities.size()),
-                "Permissions saved for role"
-        );
+        if (!toGrant.isEmpty()) {
+            repository.grantAll(tenantId, req.getRoleId(), userId,
+                    toGrant.stream().map(GrantKey::resourceId).toArray(Long[]::new),
+                    toGrant.stream().map(GrantKey::actionId).toArray(Long[]::new));
+        }
+        if (!revokedIds.isEmpty()) {
+            repository.deleteAllByIdInAndTenantId(revokedIds, tenantId);
+        }
+        if (!toGrant.isEmpty() || !revokedIds.isEmpty()) {
+            authorizationEngine.invalidate(tenantId);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("roleId", req.getRoleId());
+        result.put("permissionsCount", toGrant.size() + unchanged);
+        result.put("added", toGrant.size());
+        result.put("removed", revokedIds.size());
+        result.put("unchanged", unchanged);
+        return ResponseDto.success(result, "Permissions saved for role");
     }
 
+    private record GrantKey(Long resourceId, Long actionId) {}
+
     // ---- GET PERMISSION MATRIX (for UI grid) ----
     // Returns all resources x actions with isAllowed status for a given role
     public ResponseDto<RolePermissionMatrixResponse> getPermissionMatrix(Long roleId) {
-        Long tenantId = jwtService.getTenantId();
-
-        List<RolePermissionResponseExpanded> permissions = repository.findAllByRoleIdExpanded(roleId, tenantId);
-
-        // Build lookup: resourceId_actionId -> permission
-        Map<String, RolePermissionResponseExpanded> permLookup = permissions.stream()
-                .collect(Collectors.toMap(
-                        p -> p.getResourceId() + "_" + p.getActionId(),
-                        p -> p,
-                        (a, b) -> a
-                ));
-
-        // Build the matrix response
-        // (In production, you'd also load all resources and actions from their repositories)
-        RolePermissionMatrixResponse matrix = RolePermissionMatrixResponse.builder()
-                .roleId(roleId)
-                .totalPermissions(permissions.size())
-                .build();
+        return ResponseDto.success(loadPermissionMatrix(roleId).toResponse(), "Permission matrix loaded");
+    }
 
-        if (!permissions.isEmpty()) {
-            matrix.setRoleName(permissions.get(0).getRoleName());
-            matrix.setRoleCode(permissions.get(0).getRoleCode());
-            matrix.setRoleScope(permissions.get(0).getRoleScope());
-        }
+    // Compact form used by the controller to stream the grid
+    public PermissionMatrix loadPermissionMatrix(Long roleId) {
+        return permissionMatrixService.build(roleId, jwtService.getTenantId());
+    }
 
-        return ResponseDto.success(matrix, "Permission matrix loaded");
+    // ---- EXPORT (CSV / XLSX) ----
+    // roleId null = every role of the tenant
+    public ResponseEntity<StreamingResponseBody> export(Long roleId, ExportFormat format) {
+        Long tenantId = jwtService.getTenantId();
+        return exportService.export("role-permissions", format, EXPORT_COLUMNS,
+                () -> repository.streamAllForExport(tenantId, roleId));
     }
 
     // ---- Helper ----
@@ -698,17 +811,23 @@ public class RolePermissionService {
 package com.cmms.rbac.controller;
 
 import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.export.ExportFormat;
 import com.cmms.rbac.dto.request.*;
 import com.cmms.rbac.dto.response.*;
+import com.cmms.rbac.service.PermissionMatrix;
 import com.cmms.rbac.service.RolePermissionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -719,6 +838,7 @@ import java.util.Map;
 public class RolePermissionController {
 
     private final RolePermissionService service;
+    private final ObjectMapper objectMapper;
 
     // POST /api/role-permission/create
     @PostMapping("/create")
@@ -776,10 +896,33 @@ public class RolePermissionController {
     }
 
     // GET /api/role-permission/matrix?roleId=1
+    // Streamed: same body as ResponseDto<RolePermissionMatrixResponse>
     @GetMapping("/matrix")
-    public ResponseEntity<ResponseDto<RolePermissionMatrixResponse>> getMatrix(
+    public ResponseEntity<StreamingResponseBody> getMatrix(
             @RequestParam Long roleId) {
-        return ResponseEntity.ok(service.getPermissionMatrix(roleId));
+        PermissionMatrix matrix = service.loadPermissionMatrix(roleId);
+        String requestId = java.util.UUID.randomUUID().toString();
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeStringField("requestId", requestId);
+                gen.writeNumberField("statusCode", 200);
+                gen.writeStringField("message", "Permission matrix loaded");
+                gen.writeFieldName("data");
+                matrix.writeTo(gen);
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // GET /api/role-permission/export?roleId=1&format=csv|xlsx  (file download, streamed)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long roleId,
+            @RequestParam(defaultValue = "csv") String format) {
+        return service.export(roleId, ExportFormat.from(format));
     }
 }
 
@@ -824,6 +967,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ResponseDto<Void>> handleNotFound(NotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ResponseDto.error(404, ex.getMessage(), "NOT_FOUND"));
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ResponseDto<Void>> handleResponseStatus(ResponseStatusException ex) {
         int code = ex.getStatusCode().value();
@@ -1206,7 +1355,8 @@ RESPONSE (200 OK):
 ╠══════════════════════════════════════════════════════════════════════════════╣
 ║  API 8: POST /api/role-permission/bulk-save                                 ║
 ║  Purpose: Save entire permission grid for a role (Permission Matrix)        ║
-║  Behavior: Deletes all existing perms for role, inserts new set             ║
+║  Behavior: Diffs against current perms: inserts new, deletes revoked,       ║
+║            leaves unchanged rows (and their grantedAt/grantedBy) alone       ║
 ╠══════════════════════════════════════════════════════════════════════════════╣
 
 REQUEST:
@@ -1233,16 +1383,24 @@ RESPONSE (200 OK):
     "message": "Permissions saved for role",
     "data": {
         "roleId": 4,
-        "permissionsCount": 9
+        "permissionsCount": 9,
+        "added": 2,
+        "removed": 1,
+        "unchanged": 7
     }
 }
 
 Note: permissionsCount = 9 (not 10) because one entry had isAllowed=false
 and was filtered out. Only isAllowed=true entries are persisted.
+Here the role previously had 8 grants: 7 are kept as-is, 2 are new and 1
+(resource 10 / action 1) is revoked -- 3 rows written instead of 8 + 9.
 
 ╠══════════════════════════════════════════════════════════════════════════════╣
 ║  API 9: GET /api/role-permission/matrix?roleId=4                            ║
 ║  Purpose: Load permission matrix grid for UI (grouped by resource)          ║
+║  Behavior: Streamed; every ACTIVE leaf resource lists every ACTIVE action   ║
+║            (actions trimmed below for brevity). See rbac-permission-matrix  ║
+║            module.                                                           ║
 ╠══════════════════════════════════════════════════════════════════════════════╣
 
 RESPONSE (200 OK):
@@ -1375,8 +1533,9 @@ RESPONSE (200 OK):
 │  4 │ GET    │ /api/role-permission/get-all          │ List all (basic/expanded, paginated)   │ 200    │
 │  5 │ GET    │ /api/role-permission/get-by-id        │ Single permission (basic/expanded)     │ 200    │
 │  6 │ GET    │ /api/role-permission/get-by-role      │ All permissions for a role (expanded)  │ 200    │
-│  7 │ POST   │ /api/role-permission/bulk-save        │ Replace all perms for a role (matrix)  │ 200    │
+│  7 │ POST   │ /api/role-permission/bulk-save        │ Sync all perms for a role (matrix diff)│ 200    │
 │  8 │ GET    │ /api/role-permission/matrix           │ Permission matrix grid for UI          │ 200    │
+│  9 │ GET    │ /api/role-permission/export           │ CSV / XLSX download (streamed)         │ 200    │
 └────┴────────┴──────────────────────────────────────┴───────────────────────────────────────┴────────┘
 
 SCREEN-TO-API MAPPING:
@@ -1385,7 +1544,7 @@ SCREEN-TO-API MAPPING:
 • Resources Tab → existing Resources API
 • Permission Matrix Tab (checkbox grid):
     - Load:  GET  /get-by-role?roleId=X  or  GET /matrix?roleId=X
-    - Save:  POST /bulk-save  (replaces all perms for the selected role)
+    - Save:  POST /bulk-save  (syncs perms for the selected role; only changed cells are written)
     - Toggle single cell: POST /create  or  DELETE /delete/{id}
 • User Roles Tab → references roles assigned via user_org_memberships
 • Audit Log Tab → existing Audit Log API
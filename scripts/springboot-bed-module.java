@@ -29,8 +29,10 @@ import java.time.OffsetDateTime;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Bed {
 
+    // Pooled sequence (INCREMENT BY 50) -- see Room.roomId; lets auto-generate batch its inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bed_id_seq")
+    @SequenceGenerator(name = "bed_id_seq", sequenceName = "bed_id_seq", allocationSize = 50)
     @Column(name = "bed_id")
     private Long bedId;
 
@@ -246,9 +248,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BedRepository extends JpaRepository<Bed, Long> {
@@ -314,12 +322,105 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
                                                 @Param("roomId") Long roomId,
                                                 Pageable pageable);
 
+    // --- Keyset (seek) pages: (bedNo, bedId) > cursor, no COUNT query ---
+    // Served by UNIQUE (tenant_id, room_id, bed_no)
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BedResponseBasic(
+            bd.bedId, bd.tenantId, bd.orgId, bd.roomId,
+            bd.bedNo, bd.bedCode, CAST(bd.isActive AS string)
+        )
+        FROM Bed bd
+        WHERE bd.tenantId = :tenantId AND bd.roomId = :roomId AND bd.isActive <> 'DELETED'
+          AND (bd.bedNo, bd.bedId) > (:afterNo, :afterId)
+        ORDER BY bd.bedNo, bd.bedId
+    """)
+    List<BedResponseBasic> findVisibleAfter(@Param("tenantId") Long tenantId,
+                                            @Param("roomId") Long roomId,
+                                            @Param("afterNo") String afterNo,
+                                            @Param("afterId") Long afterId,
+                                            Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BedResponseExpanded(
+            bd.bedId, bd.tenantId, bd.orgId,
+            bd.roomId, r.roomNo, r.roomName,
+            fl.floorId, fl.floorName, fl.floorNo,
+            b.buildingId, b.buildingName,
+            bd.bedNo, bd.bedCode, CAST(bd.isActive AS string)
+        )
+        FROM Bed bd
+        JOIN Room r ON r.roomId = bd.roomId
+        JOIN Floor fl ON fl.floorId = r.floorId
+        JOIN Building b ON b.buildingId = fl.buildingId
+        WHERE bd.tenantId = :tenantId AND bd.roomId = :roomId AND bd.isActive <> 'DELETED'
+          AND (bd.bedNo, bd.bedId) > (:afterNo, :afterId)
+        ORDER BY bd.bedNo, bd.bedId
+    """)
+    List<BedResponseExpanded> findExpandedAfter(@Param("tenantId") Long tenantId,
+                                                @Param("roomId") Long roomId,
+                                                @Param("afterNo") String afterNo,
+                                                @Param("afterId") Long afterId,
+                                                Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BedResponseBasic(
+            bd.bedId, bd.tenantId, bd.orgId, bd.roomId,
+            bd.bedNo, bd.bedCode, CAST(bd.isActive AS string)
+        )
+        FROM Bed bd
+        WHERE bd.tenantId = :tenantId AND bd.roomId = :roomId AND bd.isActive = 'ACTIVE'
+          AND (bd.bedNo, bd.bedId) > (:afterNo, :afterId)
+        ORDER BY bd.bedNo, bd.bedId
+    """)
+    List<BedResponseBasic> findActiveAfter(@Param("tenantId") Long tenantId,
+                                           @Param("roomId") Long roomId,
+                                           @Param("afterNo") String afterNo,
+                                           @Param("afterId") Long afterId,
+                                           Pageable window);
+
     Optional<Bed> findByBedIdAndTenantId(Long bedId, Long tenantId);
 
+    // --- Set-based duplicate check for create-bulk / auto-generate: "roomId:bedno" keys already taken ---
+    @Query("""
+        SELECT CONCAT(bd.roomId, ':', LOWER(TRIM(bd.bedNo))) FROM Bed bd
+        WHERE bd.tenantId = :tenantId AND bd.roomId IN :roomIds
+        AND LOWER(TRIM(bd.bedNo)) IN :bedNos
+        AND bd.isActive <> 'DELETED'
+    """)
+    List<String> findTakenKeys(@Param("tenantId") Long tenantId,
+                               @Param("roomIds") Collection<Long> roomIds,
+                               @Param("bedNos") Collection<String> bedNos);
+
     // --- Count non-deleted beds for auto-generate offset ---
     @Query("SELECT COUNT(bd) FROM Bed bd WHERE bd.tenantId = :tenantId AND bd.roomId = :roomId AND bd.isActive <> 'DELETED'")
     long countVisibleByRoom(@Param("tenantId") Long tenantId, @Param("roomId") Long roomId);
 
+    // --- Export: every visible bed of the tenant (or one room) with breadcrumb ---
+    // Only through StreamingExportService (needs its read-only transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BedResponseExpanded(
+            bd.bedId, bd.tenantId, bd.orgId,
+            bd.roomId, r.roomNo, r.roomName,
+            fl.floorId, fl.floorName, fl.floorNo,
+            b.buildingId, b.buildingName,
+            bd.bedNo, bd.bedCode, CAST(bd.isActive AS string)
+        )
+        FROM Bed bd
+        JOIN Room r ON r.roomId = bd.roomId
+        JOIN Floor fl ON fl.floorId = r.floorId
+        JOIN Building b ON b.buildingId = fl.buildingId
+        WHERE bd.tenantId = :tenantId AND bd.isActive <> 'DELETED'
+        AND (:roomId IS NULL OR bd.roomId = :roomId)
+        ORDER BY b.buildingName, fl.floorNo, r.roomNo, bd.bedNo
+    """)
+    Stream<BedResponseExpanded> streamAllForExport(@Param("tenantId") Long tenantId,
+                                                   @Param("roomId") Long roomId);
+
     // --- Single expanded ---
     @Query("""
         SELECT new com.cmms.location.dto.response.BedResponseExpanded(
@@ -352,17 +453,28 @@ import com.cmms.location.dto.response.*;
 import com.cmms.location.entity.Bed;
 import com.cmms.location.repository.BedRepository;
 import com.cmms.location.repository.RoomRepository;
+import com.cmms.common.dto.CursorPage;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.StatusToggleRequest;
 import com.cmms.common.enums.RecordStatus;
 import com.cmms.common.exception.*;
+import com.cmms.common.export.ExportColumn;
+import com.cmms.common.export.ExportFormat;
+import com.cmms.common.export.StreamingExportService;
 import com.cmms.common.service.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -370,8 +482,21 @@ public class BedService {
 
     private final BedRepository bedRepository;
     private final RoomRepository roomRepository;
+    private final LocationRollupService rollupService;
+    private final StreamingExportService exportService;
     private final JwtService jwtService;
 
+    private static final List<ExportColumn<BedResponseExpanded>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("Building", BedResponseExpanded::getBuildingName),
+            ExportColumn.of("Floor No", BedResponseExpanded::getFloorNo),
+            ExportColumn.of("Floor", BedResponseExpanded::getFloorName),
+            ExportColumn.of("Room No", BedResponseExpanded::getRoomNo),
+            ExportColumn.of("Room", BedResponseExpanded::getRoomName),
+            ExportColumn.of("Bed No", BedResponseExpanded::getBedNo),
+            ExportColumn.of("Bed Code", BedResponseExpanded::getBedCode),
+            ExportColumn.of("Status", BedResponseExpanded::getIsActive),
+            ExportColumn.of("Bed ID", BedResponseExpanded::getBedId));
+
     @Transactional(rollbackFor = Exception.class)
     public BedResponseBasic create(BedCreateRequest req) {
         Long tenantId = jwtService.getTenantId();
@@ -396,14 +521,49 @@ public class BedService {
                 .isActive(initialIsActive)
                 .build();
         entity = bedRepository.save(entity);
+        rollupService.onBedCreated(entity.getRoomId(), initialIsActive);
         return mapToBasic(entity);
     }
 
+    // Same checks and error codes as create(), but set-based: one parent query, one
+    // duplicate query, one batched INSERT. The first failing item (in request order) aborts the batch.
     @Transactional(rollbackFor = Exception.class)
     public List<BedResponseBasic> createBulk(BedBulkCreateRequest req) {
-        List<BedResponseBasic> results = new ArrayList<>();
-        for (BedCreateRequest item : req.getBeds()) results.add(create(item));
-        return results;
+        Long tenantId = jwtService.getTenantId();
+        List<BedCreateRequest> items = req.getBeds();
+
+        Set<Long> roomIds = new LinkedHashSet<>();
+        Set<String> bedNos = new HashSet<>();
+        for (BedCreateRequest item : items) {
+            roomIds.add(item.getRoomId());
+            bedNos.add(normalize(item.getBedNo()));
+        }
+        items.stream().map(BedCreateRequest::getOrgId).distinct().forEach(this::validateOrgAccess);
+
+        Set<Long> existingRooms = new HashSet<>(roomRepository.findExistingIds(tenantId, roomIds));
+        Set<String> taken = new HashSet<>(bedRepository.findTakenKeys(tenantId, roomIds, bedNos));
+
+        List<Bed> entities = new ArrayList<>(items.size());
+        for (BedCreateRequest item : items) {
+            if (!existingRooms.contains(item.getRoomId())) {
+                throw new NotFoundException("Room not found: " + item.getRoomId());
+            }
+            // add() == false also catches duplicates inside the request itself
+            if (!taken.add(item.getRoomId() + ":" + normalize(item.getBedNo()))) {
+                throw new DuplicateException("DUPLICATE_BED_NO",
+                    "Bed number '" + item.getBedNo().trim() + "' already exists in this room");
+            }
+            entities.add(Bed.builder()
+                    .tenantId(tenantId).orgId(item.getOrgId()).roomId(item.getRoomId())
+                    .bedNo(item.getBedNo().trim())
+                    .bedCode(item.getBedCode() != null ? item.getBedCode().trim() : null)
+                    .isActive(item.getIsActive() != null ? RecordStatus.from(item.getIsActive()) : RecordStatus.ACTIVE)
+                    .build());
+        }
+
+        entities = bedRepository.saveAll(entities);
+        rollupService.onBedsCreated(entities);
+        return entities.stream().map(BedService::mapToBasic).toList();
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -417,20 +577,30 @@ public class BedService {
         long existingCount = bedRepository.countVisibleByRoom(tenantId, req.getRoomId());
         String prefix = req.getPrefix() != null ? req.getPrefix() : "";
 
-        List<BedResponseBasic> results = new ArrayList<>();
+        List<Bed> entities = new ArrayList<>(req.getCount());
         for (int i = 1; i <= req.getCount(); i++) {
             long seqNo = existingCount + i;
             String bedNo = String.valueOf(seqNo);
             String bedCode = prefix.isEmpty() ? bedNo : prefix + seqNo;
 
-            Bed entity = Bed.builder()
+            entities.add(Bed.builder()
                     .tenantId(tenantId).orgId(req.getOrgId()).roomId(req.getRoomId())
                     .bedNo(bedNo).bedCode(bedCode).isActive(RecordStatus.ACTIVE)
-                    .build();
-            entity = bedRepository.save(entity);
-            results.add(mapToBasic(entity));
+                    .build());
         }
-        return results;
+
+        // A hand-numbered bed can collide with the generated range; report it before the INSERT
+        List<String> taken = bedRepository.findTakenKeys(tenantId, List.of(req.getRoomId()),
+                entities.stream().map(Bed::getBedNo).toList());
+        if (!taken.isEmpty()) {
+            String bedNo = taken.get(0).substring(taken.get(0).indexOf(':') + 1);
+            throw new DuplicateException("DUPLICATE_BED_NO",
+                "Bed number '" + bedNo + "' already exists in this room");
+        }
+
+        entities = bedRepository.saveAll(entities);
+        rollupService.onBedsCreated(req.getRoomId(), entities.size(), entities.size());
+        return entities.stream().map(BedService::mapToBasic).toList();
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -450,6 +620,8 @@ public class BedService {
                 "Bed number '" + req.getBedNo().trim() + "' already exists in this room");
         }
 
+        rollupService.onBedMoved(entity.getRoomId(), req.getRoomId(), entity.getIsActive());
+
         entity.setOrgId(req.getOrgId()); entity.setRoomId(req.getRoomId());
         entity.setBedNo(req.getBedNo().trim());
         entity.setBedCode(req.getBedCode() != null ? req.getBedCode().trim() : null);
@@ -468,6 +640,7 @@ public class BedService {
             throw new InvalidStatusException("Bed is already deleted.");
         }
 
+        rollupService.onBedStatusChanged(entity.getRoomId(), entity.getIsActive(), RecordStatus.DELETED);
         entity.setIsActive(RecordStatus.DELETED);
         bedRepository.save(entity);
     }
@@ -488,6 +661,7 @@ public class BedService {
             throw new InvalidStatusException("Use DELETE endpoint to soft-delete.");
         }
 
+        rollupService.onBedStatusChanged(entity.getRoomId(), entity.getIsActive(), newIsActive);
         entity.setIsActive(newIsActive);
         entity = bedRepository.save(entity);
         return mapToBasic(entity);
@@ -503,6 +677,37 @@ public class BedService {
         return bedRepository.findAllActiveByRoom(jwtService.getTenantId(), roomId, pageable);
     }
 
+    // Keyset mode: cursor key is bedNo (same string order as the Page queries)
+    public CursorPage<?> getAllKeyset(Long roomId, boolean expand, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        if (expand) {
+            return CursorPage.of(
+                    bedRepository.findExpandedAfter(tenantId, roomId, after.getKey(), after.getId(),
+                            KeysetCursor.window(limit)),
+                    limit, b -> KeysetCursor.encode(b.getBedNo(), b.getBedId()));
+        }
+        return CursorPage.of(
+                bedRepository.findVisibleAfter(tenantId, roomId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, b -> KeysetCursor.encode(b.getBedNo(), b.getBedId()));
+    }
+
+    public CursorPage<BedResponseBasic> getAllActiveKeyset(Long roomId, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        return CursorPage.of(
+                bedRepository.findActiveAfter(jwtService.getTenantId(), roomId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, b -> KeysetCursor.encode(b.getBedNo(), b.getBedId()));
+    }
+
+    // roomId null = all beds of the tenant
+    public ResponseEntity<StreamingResponseBody> export(Long roomId, ExportFormat format) {
+        Long tenantId = jwtService.getTenantId();
+        return exportService.export("beds", format, EXPORT_COLUMNS,
+                () -> bedRepository.streamAllForExport(tenantId, roomId));
+    }
+
     public Object getById(Long bedId, boolean expand) {
         Long tenantId = jwtService.getTenantId();
         if (expand) return bedRepository.findByIdExpanded(bedId, tenantId)
@@ -512,7 +717,8 @@ public class BedService {
         return mapToBasic(entity);
     }
 
-    private BedResponseBasic mapToBasic(Bed e) {
+    // Package-private static: also called directly by the JMH mapping benchmark
+    static BedResponseBasic mapToBasic(Bed e) {
         return BedResponseBasic.builder()
                 .bedId(e.getBedId()).tenantId(e.getTenantId()).orgId(e.getOrgId())
                 .roomId(e.getRoomId()).bedNo(e.getBedNo()).bedCode(e.getBedCode())
@@ -520,6 +726,11 @@ public class BedService {
                 .build();
     }
 
+    // Matches LOWER(TRIM(bed_no)) in the duplicate queries
+    private static String normalize(String bedNo) {
+        return bedNo.trim().toLowerCase(Locale.ROOT);
+    }
+
     private void validateOrgAccess(Long orgId) {
         Long userOrgId = jwtService.getOrgId();
         if (userOrgId != null && !userOrgId.equals(0L) && !userOrgId.equals(orgId))
@@ -537,8 +748,10 @@ package com.cmms.location.controller;
 
 import com.cmms.location.dto.request.*;
 import com.cmms.location.service.BedService;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
+import com.cmms.common.export.ExportFormat;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -546,6 +759,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.UUID;
 
 @RestController
@@ -598,16 +812,24 @@ public class BedController {
     public ResponseEntity<ResponseDto> getAll(
             @RequestParam("roomId") Long roomId,
             @RequestParam(value = "expand", defaultValue = "false") boolean expand,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 100) Pageable pageable) {
-        var result = bedService.getAll(roomId, expand, pageable);
+        Object result = (cursor != null || limit != null)
+                ? bedService.getAllKeyset(roomId, expand, cursor, KeysetCursor.clampLimit(limit))
+                : bedService.getAll(roomId, expand, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Beds retrieved", result));
     }
 
     @PostMapping("/get-all-active")
     public ResponseEntity<ResponseDto> getAllActive(
             @RequestParam("roomId") Long roomId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 100) Pageable pageable) {
-        var result = bedService.getAllActive(roomId, pageable);
+        Object result = (cursor != null || limit != null)
+                ? bedService.getAllActiveKeyset(roomId, cursor, KeysetCursor.clampLimit(limit))
+                : bedService.getAllActive(roomId, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Active beds retrieved", result));
     }
 
@@ -618,6 +840,14 @@ public class BedController {
         var result = bedService.getById(id, expand);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Bed retrieved", result));
     }
+
+    // CSV / XLSX file, streamed; without roomId all beds of the tenant
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "roomId", required = false) Long roomId,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        return bedService.export(roomId, ExportFormat.from(format));
+    }
 }
 
 
@@ -737,6 +967,13 @@ RESPONSE (200):
 }
 (Note: DELETED beds never appear in get-all; bed 1 is deleted so excluded)
 
+--- GET /api/bed/export?format=csv ---
+RESPONSE (200, Content-Disposition: attachment; filename="beds-2026-10-17.csv"):
+Building,Floor No,Floor,Room No,Room,Bed No,Bed Code,Status,Bed ID
+Main Tower,0,Ground Floor,ER-001,Emergency,2,ER-B2,ACTIVE,2
+Main Tower,0,Ground Floor,ER-001,Emergency,3,ER-B3,INACTIVE,3
+(format=xlsx for Excel; roomId=2 limits to one room)
+
 --- ERROR 400 (toggle on deleted) ---
 {
     "statusCode": 400,
@@ -0,0 +1,664 @@
+// ============================================================================
+// BENCHMARK MODULE: cmms-benchmarks (JMH)
+// Tables      : building, floor, room, bed, location_count_rollup,
+//               roles, role_permissions (seeded); resources, actions (read)
+// Stack       : Java 17+, JMH 1.37, Spring Boot 3.x (repository suites only),
+//               Jackson, PostgreSQL (local instance, no Testcontainers)
+// PURPOSE     : Measure the location / RBAC hot paths so a change to e.g.
+//               RoomRepository.findAllExpandedByFloor or the permission matrix
+//               can be judged by numbers. Separate Maven module (cmms-benchmarks)
+//               depending on the application module; nothing here ships.
+//               Results are written as JMH JSON per commit and compared with
+//               BenchmarkCompare.
+//
+// Suites:
+//   RecordStatusBenchmark          RecordStatus.from -- valid / lower-case / invalid input
+//   LocationMappingBenchmark       RoomService / BedService.mapToBasic, RoomResponseExpanded
+//                                  projection constructor (one 50-row page)
+//   ResponseDtoJsonBenchmark       ResponseDto JSON for a room page and the permission matrix
+//   PermissionMatrixBenchmark      PermissionMatrixService.build + toResponse / writeTo
+//                                  over in-memory repositories (no DB)
+//   LocationRepositoryBenchmark    room / bed / rbac repository queries against
+//                                  local PostgreSQL seeded with 50 buildings,
+//                                  20k beds, 500 roles (BenchmarkDataSeeder)
+// ============================================================================
+
+
+// ============================================================================
+// 1. RecordStatusBenchmark.java
+// Package: com.cmms.bench
+// from() is called for every request that carries isActive; the invalid case
+// goes through valueOf's IllegalArgumentException.
+// ============================================================================
+
+package com.cmms.bench;
+
+import com.cmms.common.enums.RecordStatus;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordStatusBenchmark {
+
+    @Param({ "ACTIVE", "inactive", " Deleted ", "ARCHIVED", "" })
+    public String value;
+
+    @Benchmark
+    public RecordStatus from() {
+        return RecordStatus.from(value);
+    }
+}
+
+
+// ============================================================================
+// 2. LocationMappingBenchmark.java
+// Package: com.cmms.location.service   (same package: mapToBasic is package-private)
+// ============================================================================
+
+package com.cmms.location.service;
+
+import com.cmms.common.enums.RecordStatus;
+import com.cmms.location.dto.response.BedResponseBasic;
+import com.cmms.location.dto.response.RoomResponseBasic;
+import com.cmms.location.dto.response.RoomResponseExpanded;
+import com.cmms.location.entity.Bed;
+import com.cmms.location.entity.Room;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationMappingBenchmark {
+
+    // One default page
+    private static final int PAGE = 50;
+
+    private List<Room> rooms;
+    private List<Bed> beds;
+    private Object[][] expandedRows;
+
+    @Setup
+    public void setUp() {
+        rooms = new ArrayList<>(PAGE);
+        beds = new ArrayList<>(PAGE);
+        expandedRows = new Object[PAGE][];
+        for (int i = 0; i < PAGE; i++) {
+            RecordStatus status = i % 10 == 0 ? RecordStatus.INACTIVE : RecordStatus.ACTIVE;
+            rooms.add(Room.builder()
+                    .roomId(1000L + i).tenantId(1L).orgId(1L).floorId(10L)
+                    .roomNo("ICU-" + (300 + i)).roomName("Medical ICU " + i)
+                    .roomTypeId(2L).description("Bench room").isActive(status)
+                    .build());
+            beds.add(Bed.builder()
+                    .bedId(5000L + i).tenantId(1L).orgId(1L).roomId(1000L)
+                    .bedNo(String.valueOf(i + 1)).bedCode("ICU-B" + (i + 1)).isActive(status)
+                    .build());
+            expandedRows[i] = new Object[] {
+                    1000L + i, 1L, 1L, 10L, 3, "Third Floor", 1L, "Main Tower",
+                    "ICU-" + (300 + i), "Medical ICU " + i, 2L, "MICU", "Medical ICU",
+                    "Bench room", status.name(), 5L, 4L };
+        }
+    }
+
+    @Benchmark
+    public List<RoomResponseBasic> roomMapToBasic() {
+        return rooms.stream().map(RoomService::mapToBasic).toList();
+    }
+
+    @Benchmark
+    public List<BedResponseBasic> bedMapToBasic() {
+        return beds.stream().map(BedService::mapToBasic).toList();
+    }
+
+    // What Hibernate does per row for findAllExpandedByFloor's constructor expression
+    @Benchmark
+    public List<RoomResponseExpanded> roomExpandedProjection() {
+        List<RoomResponseExpanded> out = new ArrayList<>(PAGE);
+        for (Object[] r : expandedRows) {
+            out.add(new RoomResponseExpanded(
+                    (Long) r[0], (Long) r[1], (Long) r[2], (Long) r[3], (Integer) r[4], (String) r[5],
+                    (Long) r[6], (String) r[7], (String) r[8], (String) r[9],
+                    (Long) r[10], (String) r[11], (String) r[12], (String) r[13], (String) r[14],
+                    (Long) r[15], (Long) r[16]));
+        }
+        return out;
+    }
+}
+
+
+// ============================================================================
+// 3. PermissionMatrixBenchmark.java
+// Package: com.cmms.rbac.service
+// Catalog and grants come from in-memory repository proxies, so only the
+// assembly is measured: 300 resources (60 group headers) x 15 actions,
+// ~1,800 grant rows.
+// ============================================================================
+
+package com.cmms.rbac.service;
+
+import com.cmms.bench.BenchRepositories;
+import com.cmms.rbac.dto.response.RolePermissionMatrixResponse;
+import com.cmms.rbac.repository.PermissionCatalogRepository;
+import com.cmms.rbac.repository.PermissionCatalogRepository.ActionRow;
+import com.cmms.rbac.repository.PermissionCatalogRepository.ResourceRow;
+import com.cmms.rbac.repository.PermissionCatalogRepository.RoleHeader;
+import com.cmms.rbac.repository.RolePermissionRepository;
+import com.cmms.rbac.repository.RolePermissionRepository.GrantState;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionMatrixBenchmark {
+
+    static final int GROUPS = 60, LEAVES_PER_GROUP = 4, ACTIONS = 15;
+
+    private PermissionMatrixService service;
+    private PermissionMatrix matrix;
+    private List<ResourceRow> resources;
+    private List<ActionRow> actions;
+    private final JsonFactory json = new JsonFactory();
+
+    record Resource(Long getId, String getResourceKey, String getResourceName, Long getParentId)
+            implements ResourceRow {}
+    record Action(Long getId, String getActionKey, String getActionName) implements ActionRow {}
+    record Grant(Long getId, Long getResourceId, Long getActionId, Boolean getIsAllowed) implements GrantState {}
+    record Header(String getRoleName, String getRoleCode, String getRoleScope) implements RoleHeader {}
+
+    @Setup
+    public void setUp() {
+        resources = new ArrayList<>();
+        List<GrantState> grants = new ArrayList<>();
+        long id = 1, grantId = 1;
+        for (int g = 0; g < GROUPS; g++) {
+            long parent = id++;
+            resources.add(new Resource(parent, "MODULE_" + g, "Module " + g, null));
+            for (int l = 0; l < LEAVES_PER_GROUP; l++) {
+                long leaf = id++;
+                resources.add(new Resource(leaf, "MODULE_" + g + "_ENTITY_" + l, "Entity " + g + "." + l, parent));
+                // Roughly what a clinical role holds: most read actions, some writes
+                for (long a = 1; a <= ACTIONS; a++) {
+                    if ((leaf + a) % 2 == 0) grants.add(new Grant(grantId++, leaf, a, (leaf * a) % 7 != 0));
+                }
+            }
+        }
+        actions = new ArrayList<>();
+        for (long a = 1; a <= ACTIONS; a++) actions.add(new Action(a, "ACTION_" + a, "Action " + a));
+        Header header = new Header("Staff Nurse", "NURSE", "TENANT");
+
+        service = new PermissionMatrixService(
+                BenchRepositories.stub(PermissionCatalogRepository.class, Map.of(
+                        "findActiveResources", resources,
+                        "findActiveActions", actions,
+                        "findRoleHeader", List.of(header))),
+                BenchRepositories.stub(RolePermissionRepository.class, Map.of(
+                        "findGrantStates", grants)));
+        matrix = service.build(4L, 1L);
+    }
+
+    @Benchmark
+    public PermissionMatrix build() {
+        return service.build(4L, 1L);
+    }
+
+    @Benchmark
+    public RolePermissionMatrixResponse buildAndToResponse() {
+        return service.build(4L, 1L).toResponse();
+    }
+
+    // Streaming path used by GET /api/role-permission/matrix
+    @Benchmark
+    public void writeTo() throws IOException {
+        try (JsonGenerator gen = json.createGenerator(OutputStream.nullOutputStream())) {
+            matrix.writeTo(gen);
+        }
+    }
+
+    @Benchmark
+    public PermissionCatalog compileCatalog() {
+        return PermissionCatalog.compile(resources, actions);
+    }
+}
+
+
+// ============================================================================
+// 4. ResponseDtoJsonBenchmark.java
+// Package: com.cmms.bench
+// ObjectMapper built the way Spring Boot configures it (JavaTimeModule,
+// ISO dates), so the numbers match what the controllers pay.
+// ============================================================================
+
+package com.cmms.bench;
+
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.location.dto.response.RoomResponseExpanded;
+import com.cmms.rbac.service.PermissionMatrixBenchmark;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDtoJsonBenchmark {
+
+    private ObjectMapper mapper;
+    private ResponseDto roomPage;
+    private ResponseDto matrix;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<RoomResponseExpanded> rooms = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            rooms.add(new RoomResponseExpanded(1000L + i, 1L, 1L, 10L, 3, "Third Floor", 1L, "Main Tower",
+                    "ICU-" + (300 + i), "Medical ICU " + i, 2L, "MICU", "Medical ICU", null, "ACTIVE", 5L, 4L));
+        }
+        roomPage = ResponseDto.success("5f0c2a4e-9b1d-4c1e-8f00-000000000001", "Rooms fetched", rooms);
+
+        PermissionMatrixBenchmark pm = new PermissionMatrixBenchmark();
+        pm.setUp();
+        matrix = ResponseDto.success("5f0c2a4e-9b1d-4c1e-8f00-000000000002", "Permission matrix loaded",
+                pm.buildAndToResponse());
+    }
+
+    @Benchmark
+    public byte[] roomPage() throws Exception {
+        return mapper.writeValueAsBytes(roomPage);
+    }
+
+    @Benchmark
+    public byte[] permissionMatrix() throws Exception {
+        return mapper.writeValueAsBytes(matrix);
+    }
+}
+
+
+// ============================================================================
+// 5. BenchRepositories.java
+// Package: com.cmms.bench
+// Spring Data repository interfaces implemented by a JDK proxy that returns a
+// canned value per method name. Any other call fails loudly.
+// ============================================================================
+
+package com.cmms.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+public final class BenchRepositories {
+
+    private BenchRepositories() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (results.containsKey(method.getName())) return results.get(method.getName());
+            if (method.getName().equals("toString")) return "stub " + type.getSimpleName();
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+}
+
+
+// ============================================================================
+// 6. LocationRepositoryBenchmark.java
+// Package: com.cmms.bench
+// Boots only the JPA repositories (no web layer, no JwtService) against the
+// PostgreSQL given by -Dcmms.bench.jdbc-url (default localhost/cmms_bench).
+// The schema must already be applied; BenchmarkDataSeeder adds the bench
+// tenant's data on the first run and reuses it afterwards.
+// Each invocation picks a different floor / room / role (round robin) so the
+// numbers are not a single cached plan + hot page.
+// ============================================================================
+
+package com.cmms.bench;
+
+import com.cmms.location.dto.response.BedResponseExpanded;
+import com.cmms.location.dto.response.RoomResponseBasic;
+import com.cmms.location.dto.response.RoomResponseExpanded;
+import com.cmms.location.repository.BedRepository;
+import com.cmms.location.repository.RoomRepository;
+import com.cmms.rbac.repository.RolePermissionRepository;
+import com.cmms.rbac.service.PermissionMatrix;
+import com.cmms.rbac.service.PermissionMatrixService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationRepositoryBenchmark {
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.cmms")
+    @EnableJpaRepositories(basePackages = { "com.cmms.location.repository", "com.cmms.rbac.repository" })
+    @Import(PermissionMatrixService.class)
+    static class BenchApp {}
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50);
+
+    private ConfigurableApplicationContext ctx;
+    private RoomRepository roomRepository;
+    private BedRepository bedRepository;
+    private RolePermissionRepository rolePermissionRepository;
+    private PermissionMatrixService permissionMatrixService;
+    private TransactionTemplate readOnly;
+
+    private Long tenantId;
+    private List<Long> floorIds, roomIds, roleIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ctx = new SpringApplicationBuilder(BenchApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("cmms.bench.jdbc-url",
+                                "jdbc:postgresql://localhost:5432/cmms_bench"),
+                        "spring.datasource.username=" + System.getProperty("cmms.bench.jdbc-user", "postgres"),
+                        "spring.datasource.password=" + System.getProperty("cmms.bench.jdbc-password", "postgres"),
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.jpa.open-in-view=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        roomRepository = ctx.getBean(RoomRepository.class);
+        bedRepository = ctx.getBean(BedRepository.class);
+        rolePermissionRepository = ctx.getBean(RolePermissionRepository.class);
+        permissionMatrixService = ctx.getBean(PermissionMatrixService.class);
+        readOnly = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+        BenchmarkDataSeeder.Seeded seeded = new BenchmarkDataSeeder(jdbc).seedIfAbsent();
+        tenantId = seeded.tenantId();
+        floorIds = seeded.floorIds();
+        roomIds = seeded.roomIds();
+        roleIds = seeded.roleIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    private Long pick(List<Long> ids) {
+        return ids.get(Math.floorMod(next++, ids.size()));
+    }
+
+    @Benchmark
+    public Page<RoomResponseExpanded> roomFindAllExpandedByFloor() {
+        return readOnly.execute(s -> roomRepository.findAllExpandedByFloor(tenantId, pick(floorIds), FIRST_PAGE));
+    }
+
+    @Benchmark
+    public Page<RoomResponseBasic> roomFindAllVisibleByFloor() {
+        return readOnly.execute(s -> roomRepository.findAllVisibleByFloor(tenantId, pick(floorIds), FIRST_PAGE));
+    }
+
+    @Benchmark
+    public Boolean roomExistsDuplicate() {
+        return readOnly.execute(s -> roomRepository.existsDuplicate(tenantId, pick(floorIds), " 101 ", null));
+    }
+
+    @Benchmark
+    public Page<BedResponseExpanded> bedFindAllExpandedByRoom() {
+        return readOnly.execute(s -> bedRepository.findAllExpandedByRoom(tenantId, pick(roomIds), FIRST_PAGE));
+    }
+
+    @Benchmark
+    public List<RolePermissionRepository.GrantState> rolePermissionFindGrantStates() {
+        return readOnly.execute(s -> rolePermissionRepository.findGrantStates(pick(roleIds), tenantId));
+    }
+
+    // Catalog is cached after the first call: measures grants query + assembly
+    @Benchmark
+    public PermissionMatrix permissionMatrixBuild() {
+        return permissionMatrixService.build(pick(roleIds), tenantId);
+    }
+}
+
+
+// ============================================================================
+// 7. BenchmarkDataSeeder.java
+// Package: com.cmms.bench
+// Hospital-scale data for one bench tenant, written by the cmms-datagen
+// generator (DataGenConfig.bench: 50 buildings x 8 floors x 10 rooms x 5 beds
+// = 20,000 beds, 500 roles, rollup rebuilt). Skipped when the tenant already
+// has buildings.
+// ============================================================================
+
+package com.cmms.bench;
+
+import com.cmms.datagen.DataGenConfig;
+import com.cmms.datagen.SyntheticDataGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BenchmarkDataSeeder {
+
+    public static final long TENANT_ID = 9_001L;
+    public static final long ORG_ID = 1L;
+
+    public record Seeded(Long tenantId, List<Long> floorIds, List<Long> roomIds, List<Long> roleIds) {}
+
+    private final JdbcTemplate jdbc;
+
+    public Seeded seedIfAbsent() throws Exception {
+        Integer buildings = jdbc.queryForObject("SELECT COUNT(*) FROM building WHERE tenant_id = ?",
+                Integer.class, TENANT_ID);
+        if (buildings == null || buildings == 0) seed();
+        return new Seeded(TENANT_ID,
+                jdbc.queryForList("SELECT floor_id FROM floor WHERE tenant_id = ? AND is_active <> 'DELETED' ORDER BY floor_id",
+                        Long.class, TENANT_ID),
+                jdbc.queryForList("SELECT room_id FROM room WHERE tenant_id = ? AND is_active <> 'DELETED' ORDER BY room_id",
+                        Long.class, TENANT_ID),
+                jdbc.queryForList("SELECT id FROM roles WHERE tenant_id = ? ORDER BY id", Long.class, TENANT_ID));
+    }
+
+    private void seed() throws Exception {
+        new SyntheticDataGenerator(jdbc.getDataSource()).generate(DataGenConfig.bench(TENANT_ID));
+        jdbc.execute("ANALYZE building, floor, room, bed, location_count_rollup, role_permissions");
+    }
+}
+
+
+// ============================================================================
+// 8. BenchmarkMain.java / BenchmarkCompare.java
+// Package: com.cmms.bench
+// BenchmarkMain runs the suites (regex filter as first argument) and writes
+// target/jmh/<label>.json -- label = -Dcmms.bench.label, default the git
+// commit. BenchmarkCompare diffs two of those files and exits 1 when any
+// benchmark got slower than the threshold (default 10%), for CI.
+// ============================================================================
+
+package com.cmms.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        String label = System.getProperty("cmms.bench.label", gitCommit());
+        Path out = Path.of("target", "jmh", label + ".json");
+        Files.createDirectories(out.getParent());
+        new Runner(new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com\\.cmms\\..*Benchmark")
+                .resultFormat(ResultFormatType.JSON)
+                .result(out.toString())
+                .jvmArgsAppend("-Xms1g", "-Xmx1g")
+                .build()).run();
+        System.out.println("Results: " + out.toAbsolutePath());
+    }
+
+    private static String gitCommit() {
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+                String line = r.readLine();
+                return p.waitFor() == 0 && line != null ? line.trim() : "local";
+            }
+        } catch (Exception e) {
+            return "local";
+        }
+    }
+}
+
+package com.cmms.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class BenchmarkCompare {
+
+    // args: baseline.json candidate.json [thresholdPct]
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkCompare <baseline.json> <candidate.json> [thresholdPct]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> base = load(args[0]), cand = load(args[1]);
+
+        boolean regressed = false;
+        System.out.printf("%-75s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, JsonNode> e : cand.entrySet()) {
+            JsonNode b = base.get(e.getKey());
+            double c = e.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = e.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (b == null) {
+                System.out.printf("%-75s %14s %14.3f %9s  %s%n", e.getKey(), "-", c, "new", unit);
+                continue;
+            }
+            double s = b.path("primaryMetric").path("score").asDouble();
+            // AverageTime / SampleTime: higher is worse; Throughput: lower is worse
+            boolean timeMode = !"thrpt".equals(e.getValue().path("mode").asText());
+            double pct = s == 0 ? 0 : (c - s) / s * 100 * (timeMode ? 1 : -1);
+            boolean bad = pct > threshold;
+            regressed |= bad;
+            System.out.printf("%-75s %14.3f %14.3f %+8.1f%%  %s%s%n", e.getKey(), s, c, pct, unit, bad ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    // Key = benchmark method + params, e.g. com.cmms.bench.RecordStatusBenchmark.from{value=ACTIVE}
+    private static Map<String, JsonNode> load(String file) throws Exception {
+        Map<String, JsonNode> out = new LinkedHashMap<>();
+        for (JsonNode n : new ObjectMapper().readTree(new File(file))) {
+            StringBuilder key = new StringBuilder(n.path("benchmark").asText());
+            if (n.has("params")) key.append(n.path("params").toString());
+            out.put(key.toString(), n);
+        }
+        return out;
+    }
+}
+
+
+// ============================================================================
+// 9. NOTES
+// ============================================================================
+
+/*
+MODULE LAYOUT (Maven, sibling of the application module):
+  cmms-benchmarks/pom.xml
+    - dependency: the application module (classes, not the boot repackaged jar)
+    - dependency: cmms-datagen (seeds the repository suites)
+    - org.openjdk.jmh:jmh-core 1.37, jmh-generator-annprocess 1.37 (provided, annotation processor)
+    - org.postgresql:postgresql (runtime)
+    - maven-shade-plugin -> target/benchmarks.jar, Main-Class com.cmms.bench.BenchmarkMain
+  Sources: src/main/java (benchmarks are the product of this module, not tests)
+
+RUN:
+  createdb cmms_bench
+  psql cmms_bench -f scripts/location-department-db-design.sql
+  psql cmms_bench -f scripts/resources-setup.sql
+  (+ the rest of the schema listed under PREREQUISITES in the cmms-datagen notes)
+
+  java -jar cmms-benchmarks/target/benchmarks.jar                            # all suites
+  java -jar cmms-benchmarks/target/benchmarks.jar 'PermissionMatrix|RecordStatus'
+  java -Dcmms.bench.jdbc-url=jdbc:postgresql://db:5432/cmms_bench -jar ... LocationRepository
+
+  The first repository run seeds tenant 9001 (~20 s); later runs reuse it.
+  To reseed: cmms-datagen --url=... --profile=bench --first-tenant=9001 --replace
+
+COMPARE TWO COMMITS:
+  git checkout main        && mvn -q -pl cmms-benchmarks -am package && java -jar .../benchmarks.jar
+  git checkout my-branch   && mvn -q -pl cmms-benchmarks -am package && java -jar .../benchmarks.jar
+  java -cp .../benchmarks.jar com.cmms.bench.BenchmarkCompare target/jmh/<main>.json target/jmh/<branch>.json 10
+
+  benchmark                                                        baseline      candidate    change
+  com.cmms.bench.LocationRepositoryBenchmark.roomFindAllExpandedByFloor   412.118        398.502     -3.3%  us/op
+  com.cmms.rbac.service.PermissionMatrixBenchmark.buildAndToResponse       96.870        141.220    +45.8%  us/op  REGRESSION
+
+PRODUCTION CODE TOUCHED:
+  RoomService.mapToBasic / BedService.mapToBasic are package-private static
+  (were private instance methods; no behaviour change) so the mapping suite
+  calls the real code. PermissionMatrixBenchmark reaches the package-private
+  PermissionMatrix / PermissionCatalog API from its own package.
+
+GUIDELINES:
+  - Numbers from one machine only compare with the same machine; CI runs
+    baseline and candidate back to back on the same runner.
+  - Repository suites measure round trip + Hibernate mapping; for plan
+    changes look at EXPLAIN (ANALYZE, BUFFERS) as well.
+*/
@@ -0,0 +1,928 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: BLE telemetry ingestion
+// Table       : asset_ble_config (live columns), ble_geo_fence_events
+// Base Tables : asset_ble_config, asset_ble_beacons, ble_gateways
+// Stack       : Java 21+, Spring Boot 3.x, Spring JDBC, PostgreSQL
+// Base URL    : /api/ble  (+ optional UDP listener)
+// PURPOSE     : Accept batched RSSI sightings from gateways and keep the latest
+//               position of every beacon in memory. Sightings are deduped and
+//               smoothed per (beacon, gateway); nearest gateway, current zone
+//               and geo-fence exit / return are derived in a lock-striped
+//               index. Only changed state is written to asset_ble_config, in
+//               one JDBC batch every few seconds, instead of one UPDATE per
+//               advertisement.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.asset.ble.dto
+// ============================================================================
+
+// ---------- SightingBatchRequest.java ----------
+package com.cmms.asset.ble.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class SightingBatchRequest {
+
+    @NotNull(message = "gatewayId is required")
+    private UUID gatewayId;
+
+    @NotNull
+    @Size(max = 5000, message = "At most 5000 sightings per batch")
+    private List<@Valid Sighting> sightings;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Sighting {
+        @NotBlank
+        @Size(max = 20)
+        private String mac;                 // AA:BB:CC:DD:EE:FF
+
+        @NotNull
+        @Min(-127) @Max(20)
+        private Integer rssi;               // dBm
+
+        @Min(0) @Max(100)
+        private Integer batteryPct;         // when the advert carries it
+
+        private Long ts;                    // epoch ms at the gateway; server time if null
+    }
+}
+
+// ---------- IngestResult.java ----------
+package com.cmms.asset.ble.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor
+public class IngestResult {
+    private final int accepted;
+    private final int duplicates;
+    private final int belowThreshold;
+    private final int unknownBeacons;
+}
+
+// ---------- BleIngestionStats.java ----------
+package com.cmms.asset.ble.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor
+public class BleIngestionStats {
+    private final long sightingsReceived;
+    private final long sightingsAccepted;
+    private final long duplicates;
+    private final long belowThreshold;
+    private final long unknownBeacons;
+    private final long rowsFlushed;          // asset_ble_config UPDATEs
+    private final long geoFenceEvents;
+    private final int beaconsTracked;
+}
+
+// ---------- GeoFenceEvent.java (Domain Event) ----------
+// Published after the ble_geo_fence_events row is written; alerting listens
+package com.cmms.asset.ble.dto;
+
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter @AllArgsConstructor
+public class GeoFenceEvent {
+    public enum Type { EXIT, RETURN }
+
+    private final Type type;
+    private final UUID assetId;
+    private final UUID assignedZoneId;
+    private final UUID observedZoneId;
+    private final UUID gatewayId;
+    private final UUID exitAlertTypeId;
+    private final String alertRecipients;    // asset_ble_config.alert_recipients
+    private final Instant occurredAt;
+}
+
+
+// ============================================================================
+// 2. REPOSITORY: BleTelemetryRepository.java
+// Package: com.cmms.asset.ble.repository
+// ============================================================================
+
+package com.cmms.asset.ble.repository;
+
+import com.cmms.asset.ble.dto.GeoFenceEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class BleTelemetryRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record BeaconRow(String mac, UUID configId, UUID assetId, UUID hospitalId, Integer rssiThreshold,
+                            boolean geoFenceEnabled, UUID assignedZoneId, UUID exitAlertTypeId,
+                            String alertRecipients, UUID nearestGatewayId, UUID currentZoneId,
+                            Integer batteryPct, Timestamp lastSignal, Timestamp geoFenceExitedAt) {}
+
+    public record GatewayRow(UUID id, UUID hospitalId, UUID zoneId, String apiKeyHash) {}
+
+    public record BeaconUpdate(UUID configId, UUID nearestGatewayId, UUID currentZoneId, Integer batteryPct,
+                               Timestamp lastSignal, Timestamp geoFenceExitedAt) {}
+
+    // Primary beacon of each BLE-enabled asset plus its ACTIVE additional beacons
+    public List<BeaconRow> findBeacons() {
+        return jdbc.query("""
+            SELECT UPPER(b.mac) AS mac, c.id, c.asset_id, a.hospital_id, c.rssi_threshold_dbm, c.geo_fence_enabled,
+                   c.assigned_zone_id, c.exit_alert_type_id, c.alert_recipients, c.nearest_gateway_id,
+                   c.current_zone_id, c.battery_level_pct, c.last_signal_received, c.geo_fence_exited_at
+            FROM asset_ble_config c
+            JOIN assets a ON a.id = c.asset_id
+            JOIN (SELECT asset_id, beacon_mac_address AS mac FROM asset_ble_config
+                  WHERE beacon_mac_address IS NOT NULL
+                  UNION
+                  SELECT asset_id, beacon_mac FROM asset_ble_beacons WHERE status = 'ACTIVE') b
+              ON b.asset_id = c.asset_id
+            WHERE c.ble_enabled = TRUE
+            """,
+            (rs, i) -> new BeaconRow(rs.getString("mac"), rs.getObject("id", UUID.class),
+                    rs.getObject("asset_id", UUID.class), rs.getObject("hospital_id", UUID.class),
+                    (Integer) rs.getObject("rssi_threshold_dbm"),
+                    rs.getBoolean("geo_fence_enabled"), rs.getObject("assigned_zone_id", UUID.class),
+                    rs.getObject("exit_alert_type_id", UUID.class), rs.getString("alert_recipients"),
+                    rs.getObject("nearest_gateway_id", UUID.class), rs.getObject("current_zone_id", UUID.class),
+                    (Integer) rs.getObject("battery_level_pct"), rs.getTimestamp("last_signal_received"),
+                    rs.getTimestamp("geo_fence_exited_at")));
+    }
+
+    public List<GatewayRow> findGateways() {
+        return jdbc.query("SELECT id, hospital_id, zone_id, api_key_hash FROM ble_gateways WHERE is_active = TRUE",
+                (rs, i) -> new GatewayRow(rs.getObject("id", UUID.class), rs.getObject("hospital_id", UUID.class),
+                        rs.getObject("zone_id", UUID.class), rs.getString("api_key_hash")));
+    }
+
+    public void updateBeacons(List<BeaconUpdate> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("""
+            UPDATE asset_ble_config
+            SET    nearest_gateway_id   = ?,
+                   current_zone_id      = ?,
+                   battery_level_pct    = COALESCE(?, battery_level_pct),
+                   last_signal_received = GREATEST(COALESCE(last_signal_received, ?), ?),
+                   geo_fence_exited_at  = ?
+            WHERE  id = ?
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setObject(1, r.nearestGatewayId());
+                ps.setObject(2, r.currentZoneId());
+                ps.setObject(3, r.batteryPct());
+                ps.setTimestamp(4, r.lastSignal());
+                ps.setTimestamp(5, r.lastSignal());
+                ps.setTimestamp(6, r.geoFenceExitedAt());
+                ps.setObject(7, r.configId());
+            });
+    }
+
+    public void insertGeoFenceEvents(List<GeoFenceEvent> events) {
+        if (events.isEmpty()) return;
+        jdbc.batchUpdate("""
+            INSERT INTO ble_geo_fence_events (asset_id, event_type, assigned_zone_id, observed_zone_id,
+                                              gateway_id, exit_alert_type_id, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """,
+            events, events.size(), (ps, e) -> {
+                ps.setObject(1, e.getAssetId());
+                ps.setString(2, e.getType().name());
+                ps.setObject(3, e.getAssignedZoneId());
+                ps.setObject(4, e.getObservedZoneId());
+                ps.setObject(5, e.getGatewayId());
+                ps.setObject(6, e.getExitAlertTypeId());
+                ps.setTimestamp(7, Timestamp.from(e.getOccurredAt()));
+            });
+    }
+}
+
+
+// ============================================================================
+// 3. SERVICE: BeaconIndex.java
+// Package: com.cmms.asset.ble.service
+// Live state is per asset_ble_config row (configId): an asset's primary MAC
+// and its ACTIVE additional beacons are tags of one asset, so they share one
+// nearest gateway, zone and geo-fence state and write one row. STRIPES
+// independent HashMaps keyed by configId, each guarded by its own lock:
+// gateways reporting different assets never wait on each other.
+//
+// Per (tag, gateway): EWMA of RSSI; a sighting not newer than the last one
+// from that gateway is a duplicate (gateways repeat adverts / batches).
+// Nearest gateway: strongest smoothed RSSI of any tag within WINDOW_MS; it
+// only changes when another gateway is HYSTERESIS_DB stronger (no flapping
+// between two gateways in a corridor).
+// Geo-fence: EXIT after EXIT_DWELL_MS outside the assigned zone, RETURN on
+// the first sighting back inside.
+// ============================================================================
+
+package com.cmms.asset.ble.service;
+
+import com.cmms.asset.ble.dto.GeoFenceEvent;
+import com.cmms.asset.ble.repository.BleTelemetryRepository.BeaconRow;
+import com.cmms.asset.ble.repository.BleTelemetryRepository.BeaconUpdate;
+import com.cmms.asset.ble.repository.BleTelemetryRepository.GatewayRow;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class BeaconIndex {
+
+    enum Outcome { ACCEPTED, DUPLICATE, BELOW_THRESHOLD, UNKNOWN_BEACON }
+
+    private static final int STRIPES = 64;
+    private static final double ALPHA = 0.3;                 // EWMA weight of a new sample
+    private static final double HYSTERESIS_DB = 4.0;
+    private static final long WINDOW_MS = 10_000;
+    private static final long EXIT_DWELL_MS = 30_000;
+    private static final long ABSENCE_EXIT_MS = 120_000;     // no sighting at all: asset left coverage
+    private static final long SEEN_FLUSH_MS = 60_000;        // last_signal_received granularity
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private volatile Map<String, BeaconRow> byMac = Map.of();
+
+    BeaconIndex() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Map<UUID, AssetState> assets = new HashMap<>();
+        final Set<AssetState> dirty = new HashSet<>();
+        final List<GeoFenceEvent> events = new ArrayList<>();
+    }
+
+    private static final class Signal {
+        double ewma;
+        long lastTs;
+    }
+
+    // One beacon (MAC) of an asset
+    private static final class Tag {
+        final Map<UUID, Signal> signals = new HashMap<>(4);
+        Integer batteryPct;
+    }
+
+    private static final class AssetState {
+        BeaconRow reg;                                       // config columns are the same for every tag
+        final Map<String, Tag> tags = new HashMap<>(2);
+        UUID nearestGatewayId;
+        UUID zoneId;
+        Integer batteryPct;                                  // lowest of the tags: the one to replace first
+        long lastSeenMs;
+        long outsideSinceMs;
+        Instant exitedAt;
+        // as last written
+        UUID flushedGatewayId;
+        UUID flushedZoneId;
+        Integer flushedBattery;
+        long flushedSeenMs;
+        Instant flushedExitedAt;
+    }
+
+    // ---------- REGISTRY ----------
+    // Keeps live state of assets that are still registered; tags no longer registered are dropped
+    void reload(List<BeaconRow> rows) {
+        Map<String, BeaconRow> macs = new HashMap<>(rows.size() * 2);
+        Map<Integer, Map<UUID, List<BeaconRow>>> byStripe = new HashMap<>();
+        for (BeaconRow r : rows) {
+            macs.put(r.mac(), r);
+            byStripe.computeIfAbsent(stripeOf(r.configId()), k -> new HashMap<>())
+                    .computeIfAbsent(r.configId(), k -> new ArrayList<>()).add(r);
+        }
+
+        for (int i = 0; i < STRIPES; i++) {
+            Map<UUID, List<BeaconRow>> regs = byStripe.getOrDefault(i, Map.of());
+            Stripe s = stripes[i];
+            s.lock.lock();
+            try {
+                Map<UUID, AssetState> next = new HashMap<>(regs.size() * 2);
+                for (Map.Entry<UUID, List<BeaconRow>> e : regs.entrySet()) {
+                    AssetState a = s.assets.get(e.getKey());
+                    if (a == null) a = fromRow(e.getValue().get(0));
+                    a.reg = e.getValue().get(0);
+                    Set<String> registered = new HashSet<>();
+                    for (BeaconRow r : e.getValue()) registered.add(r.mac());
+                    a.tags.keySet().retainAll(registered);
+                    next.put(e.getKey(), a);
+                }
+                s.dirty.retainAll(next.values());
+                s.assets = next;
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        byMac = Map.copyOf(macs);
+    }
+
+    private static AssetState fromRow(BeaconRow r) {
+        AssetState a = new AssetState();
+        a.nearestGatewayId = a.flushedGatewayId = r.nearestGatewayId();
+        a.zoneId = a.flushedZoneId = r.currentZoneId();
+        a.batteryPct = a.flushedBattery = r.batteryPct();
+        a.lastSeenMs = a.flushedSeenMs = r.lastSignal() == null ? 0 : r.lastSignal().getTime();
+        a.exitedAt = a.flushedExitedAt = r.geoFenceExitedAt() == null ? null : r.geoFenceExitedAt().toInstant();
+        return a;
+    }
+
+    // ---------- SIGHTING ----------
+    Outcome apply(GatewayRow gateway, String mac, int rssi, Integer batteryPct, long ts,
+                  Map<UUID, GatewayRow> gateways) {
+        BeaconRow row = byMac.get(mac);
+        // A gateway only reports its own hospital's beacons
+        if (row == null || !row.hospitalId().equals(gateway.hospitalId())) return Outcome.UNKNOWN_BEACON;
+
+        Stripe s = stripes[stripeOf(row.configId())];
+        s.lock.lock();
+        try {
+            AssetState a = s.assets.get(row.configId());
+            if (a == null) return Outcome.UNKNOWN_BEACON;    // reload in between
+            if (a.reg.rssiThreshold() != null && rssi < a.reg.rssiThreshold()) return Outcome.BELOW_THRESHOLD;
+
+            Tag tag = a.tags.get(mac);
+            if (tag == null) {
+                tag = new Tag();
+                a.tags.put(mac, tag);
+            }
+            Signal sig = tag.signals.get(gateway.id());
+            if (sig != null && ts <= sig.lastTs) return Outcome.DUPLICATE;
+            if (sig == null) {
+                sig = new Signal();
+                sig.ewma = rssi;
+                tag.signals.put(gateway.id(), sig);
+            } else {
+                sig.ewma += ALPHA * (rssi - sig.ewma);
+            }
+            sig.lastTs = ts;
+            a.lastSeenMs = Math.max(a.lastSeenMs, ts);
+            if (batteryPct != null) {
+                tag.batteryPct = batteryPct;
+                a.batteryPct = lowestBattery(a);
+            }
+
+            updateNearest(a, ts, gateways);
+            updateGeoFence(s, a, ts);
+            if (isDirty(a)) s.dirty.add(a);
+            return Outcome.ACCEPTED;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    private static Integer lowestBattery(AssetState a) {
+        Integer low = null;
+        for (Tag t : a.tags.values()) {
+            if (t.batteryPct != null && (low == null || t.batteryPct < low)) low = t.batteryPct;
+        }
+        return low;
+    }
+
+    private static void updateNearest(AssetState a, long now, Map<UUID, GatewayRow> gateways) {
+        UUID best = null;
+        double bestRssi = Double.NEGATIVE_INFINITY;
+        double currentRssi = Double.NEGATIVE_INFINITY;
+        for (Tag t : a.tags.values()) {
+            t.signals.values().removeIf(sig -> now - sig.lastTs > WINDOW_MS);
+            for (Map.Entry<UUID, Signal> e : t.signals.entrySet()) {
+                double ewma = e.getValue().ewma;
+                if (ewma > bestRssi) {
+                    bestRssi = ewma;
+                    best = e.getKey();
+                }
+                if (e.getKey().equals(a.nearestGatewayId) && ewma > currentRssi) currentRssi = ewma;
+            }
+        }
+        if (best != null && bestRssi >= currentRssi + HYSTERESIS_DB) {
+            a.nearestGatewayId = best;
+            GatewayRow gw = gateways.get(best);
+            a.zoneId = gw == null ? null : gw.zoneId();
+        }
+    }
+
+    private static void updateGeoFence(Stripe s, AssetState a, long now) {
+        BeaconRow r = a.reg;
+        if (!r.geoFenceEnabled() || r.assignedZoneId() == null || a.zoneId == null) return;
+
+        if (!r.assignedZoneId().equals(a.zoneId)) {
+            if (a.outsideSinceMs == 0) a.outsideSinceMs = now;
+            if (a.exitedAt == null && now - a.outsideSinceMs >= EXIT_DWELL_MS) {
+                a.exitedAt = Instant.ofEpochMilli(a.outsideSinceMs);
+                s.events.add(event(GeoFenceEvent.Type.EXIT, a, a.exitedAt));
+            }
+        } else {
+            a.outsideSinceMs = 0;
+            if (a.exitedAt != null) {
+                a.exitedAt = null;
+                s.events.add(event(GeoFenceEvent.Type.RETURN, a, Instant.ofEpochMilli(now)));
+            }
+        }
+    }
+
+    // ---------- ABSENCE ----------
+    // updateGeoFence only runs on a sighting: an asset carried out of gateway
+    // coverage is never seen again and would never EXIT. Only assets sighted on
+    // this node (tags non-empty) are swept, so nodes serving other hospitals stay quiet.
+    void sweepAbsent(long now) {
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                for (AssetState a : s.assets.values()) {
+                    BeaconRow r = a.reg;
+                    if (!r.geoFenceEnabled() || r.assignedZoneId() == null || a.exitedAt != null
+                            || a.tags.isEmpty() || now - a.lastSeenMs < ABSENCE_EXIT_MS) continue;
+                    a.nearestGatewayId = null;                   // location unknown until the next sighting
+                    a.zoneId = null;
+                    a.outsideSinceMs = 0;
+                    a.exitedAt = Instant.ofEpochMilli(a.lastSeenMs);
+                    s.events.add(event(GeoFenceEvent.Type.EXIT, a, a.exitedAt));
+                    s.dirty.add(a);
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    private static GeoFenceEvent event(GeoFenceEvent.Type type, AssetState a, Instant at) {
+        BeaconRow r = a.reg;
+        return new GeoFenceEvent(type, r.assetId(), r.assignedZoneId(), a.zoneId, a.nearestGatewayId,
+                r.exitAlertTypeId(), r.alertRecipients(), at);
+    }
+
+    private static boolean isDirty(AssetState a) {
+        return !Objects.equals(a.nearestGatewayId, a.flushedGatewayId)
+                || !Objects.equals(a.zoneId, a.flushedZoneId)
+                || !Objects.equals(a.batteryPct, a.flushedBattery)
+                || !Objects.equals(a.exitedAt, a.flushedExitedAt)
+                || a.lastSeenMs - a.flushedSeenMs >= SEEN_FLUSH_MS;
+    }
+
+    // ---------- FLUSH ----------
+    // Marks drained state as written; failed writes go back through requeue()
+    void drain(List<BeaconUpdate> updates, List<UUID> configIds, List<GeoFenceEvent> events) {
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                for (AssetState a : s.dirty) {
+                    updates.add(new BeaconUpdate(a.reg.configId(), a.nearestGatewayId, a.zoneId, a.batteryPct,
+                            new Timestamp(a.lastSeenMs), a.exitedAt == null ? null : Timestamp.from(a.exitedAt)));
+                    configIds.add(a.reg.configId());
+                    a.flushedGatewayId = a.nearestGatewayId;
+                    a.flushedZoneId = a.zoneId;
+                    a.flushedBattery = a.batteryPct;
+                    a.flushedSeenMs = a.lastSeenMs;
+                    a.flushedExitedAt = a.exitedAt;
+                }
+                s.dirty.clear();
+                events.addAll(s.events);
+                s.events.clear();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    void requeue(List<UUID> configIds, List<GeoFenceEvent> events) {
+        for (UUID configId : configIds) {
+            Stripe s = stripes[stripeOf(configId)];
+            s.lock.lock();
+            try {
+                AssetState a = s.assets.get(configId);
+                if (a != null) {
+                    a.flushedSeenMs = 0;            // forces isDirty
+                    s.dirty.add(a);
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        if (!events.isEmpty()) {
+            Stripe s = stripes[0];
+            s.lock.lock();
+            try {
+                s.events.addAll(0, events);
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    // Registered beacons (MACs), all assets
+    int size() {
+        return byMac.size();
+    }
+
+    private static int stripeOf(UUID configId) {
+        return (configId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: BleIngestionService.java
+// Package: com.cmms.asset.ble.service
+// Requires @EnableScheduling on the application class.
+// ============================================================================
+
+package com.cmms.asset.ble.service;
+
+import com.cmms.asset.ble.dto.BleIngestionStats;
+import com.cmms.asset.ble.dto.GeoFenceEvent;
+import com.cmms.asset.ble.dto.IngestResult;
+import com.cmms.asset.ble.dto.SightingBatchRequest;
+import com.cmms.asset.ble.repository.BleTelemetryRepository;
+import com.cmms.asset.ble.repository.BleTelemetryRepository.BeaconUpdate;
+import com.cmms.asset.ble.repository.BleTelemetryRepository.GatewayRow;
+import com.cmms.common.exception.ForbiddenException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BleIngestionService {
+
+    private static final long MAX_CLOCK_SKEW_MS = 5_000;
+
+    private final BleTelemetryRepository repository;
+    private final ApplicationEventPublisher events;
+
+    private final BeaconIndex index = new BeaconIndex();
+    private volatile Map<UUID, GatewayRow> gateways = Map.of();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder belowThreshold = new LongAdder();
+    private final LongAdder unknownBeacons = new LongAdder();
+    private final LongAdder rowsFlushed = new LongAdder();
+    private final LongAdder geoFenceEvents = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        reloadRegistry();
+    }
+
+    // ---------- INGEST ----------
+    // Gateways have no user session: each one authenticates with its own key (ble_gateways.api_key_hash)
+    public IngestResult ingest(SightingBatchRequest req, String gatewayKey) {
+        GatewayRow gw = authenticate(req.getGatewayId(), gatewayKey);
+
+        long now = System.currentTimeMillis();
+        int ok = 0, dup = 0, weak = 0, unknown = 0;
+        for (SightingBatchRequest.Sighting s : req.getSightings()) {
+            // Gateway clocks drift: never accept a timestamp from the future
+            long ts = s.getTs() == null ? now : Math.min(s.getTs(), now + MAX_CLOCK_SKEW_MS);
+            switch (index.apply(gw, s.getMac().toUpperCase(Locale.ROOT), s.getRssi(), s.getBatteryPct(), ts, gateways)) {
+                case ACCEPTED -> ok++;
+                case DUPLICATE -> dup++;
+                case BELOW_THRESHOLD -> weak++;
+                case UNKNOWN_BEACON -> unknown++;
+            }
+        }
+        received.add(req.getSightings().size());
+        accepted.add(ok);
+        duplicates.add(dup);
+        belowThreshold.add(weak);
+        unknownBeacons.add(unknown);
+        return new IngestResult(ok, dup, weak, unknown);
+    }
+
+    // Same answer for unknown, inactive and keyless gateways and wrong keys
+    private GatewayRow authenticate(UUID gatewayId, String gatewayKey) {
+        GatewayRow gw = gateways.get(gatewayId);
+        if (gw == null || gw.apiKeyHash() == null || gatewayKey == null
+                || !MessageDigest.isEqual(sha256Hex(gatewayKey), gw.apiKeyHash().getBytes(StandardCharsets.US_ASCII))) {
+            throw new ForbiddenException("Unknown gateway or invalid gateway key");
+        }
+        return gw;
+    }
+
+    private static byte[] sha256Hex(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).getBytes(StandardCharsets.US_ASCII);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ---------- FLUSH ----------
+    // Absent assets are swept first, so their EXIT goes out in the same write
+    @Scheduled(fixedDelayString = "${cmms.ble.flush-interval-ms:5000}")
+    public void flush() {
+        index.sweepAbsent(System.currentTimeMillis());
+        List<BeaconUpdate> updates = new ArrayList<>();
+        List<UUID> configIds = new ArrayList<>();
+        List<GeoFenceEvent> fenceEvents = new ArrayList<>();
+        index.drain(updates, configIds, fenceEvents);
+        if (updates.isEmpty() && fenceEvents.isEmpty()) return;
+        try {
+            repository.updateBeacons(updates);
+            repository.insertGeoFenceEvents(fenceEvents);
+        } catch (RuntimeException e) {
+            log.warn("BLE flush failed ({} beacons, {} fence events), retrying next cycle: {}",
+                    updates.size(), fenceEvents.size(), e.getMessage());
+            index.requeue(configIds, fenceEvents);
+            return;
+        }
+        rowsFlushed.add(updates.size());
+        geoFenceEvents.add(fenceEvents.size());
+        fenceEvents.forEach(events::publishEvent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ---------- REGISTRY ----------
+    // Beacon / gateway edits are picked up within 5 minutes, or at once via invalidate()
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void reloadRegistry() {
+        Map<UUID, GatewayRow> gw = new HashMap<>();
+        for (GatewayRow g : repository.findGateways()) gw.put(g.id(), g);
+        gateways = Map.copyOf(gw);
+        index.reload(repository.findBeacons());
+    }
+
+    // Call from asset BLE config / gateway create, update and delete
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadRegistry();
+                }
+            });
+        } else {
+            reloadRegistry();
+        }
+    }
+
+    // ---------- METRICS ----------
+    public BleIngestionStats stats() {
+        return new BleIngestionStats(received.sum(), accepted.sum(), duplicates.sum(), belowThreshold.sum(),
+                unknownBeacons.sum(), rowsFlushed.sum(), geoFenceEvents.sum(), index.size());
+    }
+}
+
+
+// ============================================================================
+// 5. SERVICE: BleUdpReceiver.java
+// Package: com.cmms.asset.ble.service
+// Off unless cmms.ble.udp.port is set. One datagram = one gateway batch:
+//   line 1 : GATEWAY_UUID,GATEWAY_KEY
+//   line n : MAC,RSSI[,BATTERY_PCT[,EPOCH_MS]]
+// Parsed batches go through the same bean validation as POST /api/ble/sightings.
+// ============================================================================
+
+package com.cmms.asset.ble.service;
+
+import com.cmms.asset.ble.dto.SightingBatchRequest;
+import com.cmms.common.exception.ForbiddenException;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class BleUdpReceiver {
+
+    private static final int MAX_DATAGRAM = 65_507;
+
+    private record Datagram(SightingBatchRequest request, String gatewayKey) {}
+
+    private final BleIngestionService ingestion;
+    private final Validator validator;
+    private final int port;
+    private final LongAdder rejected = new LongAdder();
+    private volatile DatagramSocket socket;
+
+    public BleUdpReceiver(BleIngestionService ingestion, Validator validator,
+                          @Value("${cmms.ble.udp.port:0}") int port) {
+        this.ingestion = ingestion;
+        this.validator = validator;
+        this.port = port;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (port <= 0) return;
+        socket = new DatagramSocket(port);
+        socket.setReceiveBufferSize(4 * 1024 * 1024);
+        Thread.ofPlatform().daemon().name("ble-udp").start(this::receive);
+        log.info("BLE UDP listener on port {}", port);
+    }
+
+    private void receive() {
+        byte[] buf = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buf, buf.length);
+        while (socket != null && !socket.isClosed()) {
+            try {
+                socket.receive(packet);
+                Datagram d = parse(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.US_ASCII));
+                validate(d.request());
+                ingestion.ingest(d.request(), d.gatewayKey());
+            } catch (IllegalArgumentException | ForbiddenException e) {
+                rejected.increment();
+                log.debug("BLE datagram from {} rejected: {}", packet.getSocketAddress(), e.getMessage());
+            } catch (IOException e) {
+                if (socket != null && !socket.isClosed()) log.warn("BLE UDP receive failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    static Datagram parse(String text) {
+        String[] lines = text.split("\n");
+        String[] header = lines[0].trim().split(",", 2);
+        if (header.length < 2) throw new IllegalArgumentException("Missing gateway key");
+        SightingBatchRequest req = new SightingBatchRequest();
+        req.setGatewayId(UUID.fromString(header[0].trim()));
+        List<SightingBatchRequest.Sighting> sightings = new ArrayList<>(lines.length - 1);
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty()) continue;
+            String[] f = line.split(",");
+            if (f.length < 2) throw new IllegalArgumentException("Bad sighting line " + i);
+            sightings.add(new SightingBatchRequest.Sighting(f[0],
+                    Integer.parseInt(f[1]),
+                    f.length > 2 && !f[2].isEmpty() ? Integer.valueOf(f[2]) : null,
+                    f.length > 3 ? Long.valueOf(f[3]) : null));
+        }
+        req.setSightings(sightings);
+        return new Datagram(req, header[1].trim());
+    }
+
+    private void validate(SightingBatchRequest req) {
+        Set<ConstraintViolation<SightingBatchRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<SightingBatchRequest> v = violations.iterator().next();
+            throw new IllegalArgumentException(v.getPropertyPath() + " " + v.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        DatagramSocket s = socket;
+        socket = null;
+        if (s != null) s.close();
+    }
+}
+
+
+// ============================================================================
+// 6. CONTROLLER: BleIngestionController.java
+// Package: com.cmms.asset.ble.controller
+// ============================================================================
+
+package com.cmms.asset.ble.controller;
+
+import com.cmms.asset.ble.dto.SightingBatchRequest;
+import com.cmms.asset.ble.service.BleIngestionService;
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/ble")
+@RequiredArgsConstructor
+public class BleIngestionController {
+
+    private final BleIngestionService ingestion;
+    private final UserService userService;
+
+    // 202: applied to the in-memory index, written to the database on the next flush.
+    // Called by gateways, not users: authenticated by X-Gateway-Key, not the JWT
+    @PostMapping("/sightings")
+    public ResponseEntity<ResponseDto> ingest(@RequestHeader(value = "X-Gateway-Key", required = false) String gatewayKey,
+                                              @Valid @RequestBody SightingBatchRequest req) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ResponseDto.success(UUID.randomUUID().toString(),
+                "Sightings accepted", ingestion.ingest(req, gatewayKey)));
+    }
+
+    // Per node, all hospitals: signed-in asset readers only
+    @GetMapping("/ingestion-stats")
+    @PreAuthorize("@rbac.can('ASSET', 'READ')")
+    public ResponseEntity<ResponseDto> getStats(HttpServletRequest httpReq) {
+        userService.getCurrentUserContext(httpReq);            // no signed-in user -> rejected
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(),
+                "BLE ingestion stats retrieved", ingestion.stats()));
+    }
+}
+
+
+// ============================================================================
+// 7. SAMPLE / NOTES
+// ============================================================================
+
+/*
+--- GET /api/ble/ingestion-stats ---
+Signed-in user with the ASSET / READ grant (403 otherwise).
+
+--- POST /api/ble/sightings ---
+HEADER: X-Gateway-Key: <key issued to the gateway>   (403 if missing / wrong / gateway inactive)
+REQUEST:
+{
+    "gatewayId": "9b1d...-gw-001",
+    "sightings": [
+        { "mac": "AC:23:3F:A1:00:17", "rssi": -61, "batteryPct": 88, "ts": 1792209600123 },
+        { "mac": "AC:23:3F:A1:00:17", "rssi": -61, "ts": 1792209600123 },      <- duplicate
+        { "mac": "AC:23:3F:A1:00:42", "rssi": -93 },                           <- below rssi_threshold_dbm
+        { "mac": "DE:AD:00:00:00:01", "rssi": -70 }                            <- not registered, or another hospital's
+    ]
+}
+RESPONSE (202):
+{
+    "requestId": "bl1b2c3d-...",
+    "statusCode": 200,
+    "message": "Sightings accepted",
+    "data": { "accepted": 1, "duplicates": 1, "belowThreshold": 1, "unknownBeacons": 1 }
+}
+
+UDP (cmms.ble.udp.port: 5684):
+  9b1d...-gw-001,<gateway key>
+  AC:23:3F:A1:00:17,-61,88,1792209600123
+  AC:23:3F:A1:00:42,-77
+
+WRITES: one asset_ble_config UPDATE per asset per flush (5 s) and only when the
+nearest gateway, zone, battery or geo-fence state changed, or last_signal_received
+is more than 60 s behind. 2,000 beacons x 1 advert/s x 3 gateways = 6,000
+sightings/s -> typically a few dozen UPDATEs per flush.
+
+ZONES: current zone = ble_gateways.zone_id of the nearest gateway. Gateways
+without a zone leave current_zone_id NULL and never trigger a geo-fence event.
+
+TAGS: an asset with several beacons (primary MAC + ACTIVE asset_ble_beacons) is
+tracked once: nearest gateway = strongest tag, battery = lowest tag.
+
+GEO-FENCE: EXIT is raised 30 s after the asset's nearest gateway moves to a zone
+other than assigned_zone_id (geo_fence_enabled = TRUE); RETURN when it comes back.
+An asset this node has sighted that is not seen by any gateway for 120 s also
+EXITs (checked on every flush): exited_at = last sighting, nearest gateway and
+current zone are cleared; its next sighting in the assigned zone raises RETURN.
+Rows go to ble_geo_fence_events and GeoFenceEvent is published after the write;
+alert delivery (exit_alert_type_id, alert_recipients) listens to that event.
+
+GATEWAY KEYS: ble_gateways.api_key_hash = hex SHA-256 of the key; a gateway
+without one cannot ingest. Issue a key with
+  UPDATE ble_gateways SET api_key_hash = encode(sha256(convert_to(:key, 'UTF8')), 'hex') WHERE id = :id;
+then call BleIngestionService.invalidate(). Security config: permit
+POST /api/ble/sightings without a JWT (the key is checked here). The UDP key is
+sent in clear text: enable the listener only on the gateways' own network segment.
+
+MULTI-NODE: nearest-gateway needs all sightings of a beacon on one node. Route
+each hospital's gateways to the same node (load balancer hash on gatewayId or a
+per-hospital ingestion URL); beacons do not move between hospitals.
+*/
@@ -171,10 +171,10 @@ public class BuildingResponseExpanded {
     private String buildingCode;
     private String description;
     private String isActive;           // ACTIVE | INACTIVE | DELETED
-    private Long floorCount;         // aggregated (non-deleted)
-    private Long roomCount;          // aggregated (non-deleted)
-    private Long bedCount;           // aggregated (non-deleted)
-    private Long activeBedCount;     // aggregated (ACTIVE only)
+    private Long floorCount;         // from location_count_rollup (non-deleted)
+    private Long roomCount;          // from location_count_rollup (non-deleted)
+    private Long bedCount;           // from location_count_rollup (non-deleted)
+    private Long activeBedCount;     // from location_count_rollup (ACTIVE only)
 
     // Constructor for JPQL projection
     public BuildingResponseExpanded(Long buildingId, Long tenantId, Long orgId,
@@ -214,6 +214,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -246,23 +247,18 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
                                                 @Param("orgId") Long orgId,
                                                 Pageable pageable);
 
-    // --- Expanded projection (LEFT JOIN aggregated counts, non-deleted children) ---
+    // --- Expanded projection (counts read from location_count_rollup, no subtree join) ---
     @Query("""
         SELECT new com.cmms.location.dto.response.BuildingResponseExpanded(
             b.buildingId, b.tenantId, b.orgId,
             b.buildingName, b.buildingCode, b.description, CAST(b.isActive AS string),
-            COUNT(DISTINCT CASE WHEN fl.isActive <> 'DELETED' THEN fl.floorId END),
-            COUNT(DISTINCT CASE WHEN r.isActive <> 'DELETED' THEN r.roomId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.floorCount, 0L), COALESCE(lr.roomCount, 0L),
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Building b
-        LEFT JOIN Floor fl ON fl.buildingId = b.buildingId
-        LEFT JOIN Room r ON r.floorId = fl.floorId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'BUILDING' AND lr.locationId = b.buildingId
         WHERE b.tenantId = :tenantId AND b.orgId = :orgId AND b.isActive <> 'DELETED'
-        GROUP BY b.buildingId, b.tenantId, b.orgId,
-                 b.buildingName, b.buildingCode, b.description, b.isActive
         ORDER BY b.buildingName
     """)
     Page<BuildingResponseExpanded> findAllExpanded(@Param("tenantId") Long tenantId,
@@ -283,26 +279,75 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
                                                @Param("orgId") Long orgId,
                                                Pageable pageable);
 
+    // --- Keyset (seek) pages: (buildingName, buildingId) > cursor, no COUNT query ---
+    // Served by idx_building_org_name (tenant_id, org_id, building_name, building_id)
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BuildingResponseBasic(
+            b.buildingId, b.tenantId, b.orgId,
+            b.buildingName, b.buildingCode, b.description, CAST(b.isActive AS string)
+        )
+        FROM Building b
+        WHERE b.tenantId = :tenantId AND b.orgId = :orgId AND b.isActive <> 'DELETED'
+          AND (b.buildingName, b.buildingId) > (:afterName, :afterId)
+        ORDER BY b.buildingName, b.buildingId
+    """)
+    List<BuildingResponseBasic> findVisibleAfter(@Param("tenantId") Long tenantId,
+                                                 @Param("orgId") Long orgId,
+                                                 @Param("afterName") String afterName,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BuildingResponseExpanded(
+            b.buildingId, b.tenantId, b.orgId,
+            b.buildingName, b.buildingCode, b.description, CAST(b.isActive AS string),
+            COALESCE(lr.floorCount, 0L), COALESCE(lr.roomCount, 0L),
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
+        )
+        FROM Building b
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'BUILDING' AND lr.locationId = b.buildingId
+        WHERE b.tenantId = :tenantId AND b.orgId = :orgId AND b.isActive <> 'DELETED'
+          AND (b.buildingName, b.buildingId) > (:afterName, :afterId)
+        ORDER BY b.buildingName, b.buildingId
+    """)
+    List<BuildingResponseExpanded> findExpandedAfter(@Param("tenantId") Long tenantId,
+                                                     @Param("orgId") Long orgId,
+                                                     @Param("afterName") String afterName,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.BuildingResponseBasic(
+            b.buildingId, b.tenantId, b.orgId,
+            b.buildingName, b.buildingCode, b.description, CAST(b.isActive AS string)
+        )
+        FROM Building b
+        WHERE b.tenantId = :tenantId AND b.orgId = :orgId AND b.isActive = 'ACTIVE'
+          AND (b.buildingName, b.buildingId) > (:afterName, :afterId)
+        ORDER BY b.buildingName, b.buildingId
+    """)
+    List<BuildingResponseBasic> findActiveAfter(@Param("tenantId") Long tenantId,
+                                                @Param("orgId") Long orgId,
+                                                @Param("afterName") String afterName,
+                                                @Param("afterId") Long afterId,
+                                                Pageable window);
+
     // --- Single record by ID + tenant (any status, for internal lookups/audit) ---
     Optional<Building> findByBuildingIdAndTenantId(Long buildingId, Long tenantId);
 
-    // --- Expanded single record ---
+    // --- Expanded single record (counts from location_count_rollup) ---
     @Query("""
         SELECT new com.cmms.location.dto.response.BuildingResponseExpanded(
             b.buildingId, b.tenantId, b.orgId,
             b.buildingName, b.buildingCode, b.description, CAST(b.isActive AS string),
-            COUNT(DISTINCT CASE WHEN fl.isActive <> 'DELETED' THEN fl.floorId END),
-            COUNT(DISTINCT CASE WHEN r.isActive <> 'DELETED' THEN r.roomId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.floorCount, 0L), COALESCE(lr.roomCount, 0L),
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Building b
-        LEFT JOIN Floor fl ON fl.buildingId = b.buildingId
-        LEFT JOIN Room r ON r.floorId = fl.floorId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'BUILDING' AND lr.locationId = b.buildingId
         WHERE b.buildingId = :buildingId AND b.tenantId = :tenantId
-        GROUP BY b.buildingId, b.tenantId, b.orgId,
-                 b.buildingName, b.buildingCode, b.description, b.isActive
     """)
     Optional<BuildingResponseExpanded> findByIdExpanded(@Param("buildingId") Long buildingId,
                                                          @Param("tenantId") Long tenantId);
@@ -322,6 +367,8 @@ import com.cmms.location.dto.response.BuildingResponseBasic;
 import com.cmms.location.dto.response.BuildingResponseExpanded;
 import com.cmms.location.entity.Building;
 import com.cmms.location.repository.BuildingRepository;
+import com.cmms.common.dto.CursorPage;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
 import com.cmms.common.enums.RecordStatus;
@@ -341,6 +388,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class BuildingService {
 
     private final BuildingRepository buildingRepository;
+    private final LocationRollupService rollupService;
     private final JwtService jwtService;
 
     // ---------- CREATE ----------
@@ -372,6 +420,7 @@ public class BuildingService {
                 .build();
 
         entity = buildingRepository.save(entity);
+        rollupService.onBuildingCreated(tenantId, entity.getBuildingId());
         return mapToBasic(entity);
     }
 
@@ -458,6 +507,24 @@ public class BuildingService {
         return buildingRepository.findAllVisible(tenantId, orgId, pageable);
     }
 
+    // ---------- GET ALL (keyset / seek mode, no COUNT) ----------
+    public CursorPage<?> getAllKeyset(Long orgId, boolean expand, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        validateOrgAccess(orgId);
+
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        if (expand) {
+            return CursorPage.of(
+                    buildingRepository.findExpandedAfter(tenantId, orgId, after.getKey(), after.getId(),
+                            KeysetCursor.window(limit)),
+                    limit, b -> KeysetCursor.encode(b.getBuildingName(), b.getBuildingId()));
+        }
+        return CursorPage.of(
+                buildingRepository.findVisibleAfter(tenantId, orgId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, b -> KeysetCursor.encode(b.getBuildingName(), b.getBuildingId()));
+    }
+
     // ---------- GET ALL ACTIVE ----------
     public Page<BuildingResponseBasic> getAllActive(Long orgId, Pageable pageable) {
         Long tenantId = jwtService.getTenantId();
@@ -465,6 +532,18 @@ public class BuildingService {
         return buildingRepository.findAllActive(tenantId, orgId, pageable);
     }
 
+    // ---------- GET ALL ACTIVE (keyset / seek mode, no COUNT) ----------
+    public CursorPage<BuildingResponseBasic> getAllActiveKeyset(Long orgId, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        validateOrgAccess(orgId);
+
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        return CursorPage.of(
+                buildingRepository.findActiveAfter(tenantId, orgId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, b -> KeysetCursor.encode(b.getBuildingName(), b.getBuildingId()));
+    }
+
     // ---------- GET BY ID ----------
     public Object getById(Long buildingId, boolean expand) {
         Long tenantId = jwtService.getTenantId();
@@ -513,6 +592,7 @@ package com.cmms.location.controller;
 import com.cmms.location.dto.request.BuildingCreateRequest;
 import com.cmms.location.dto.request.BuildingUpdateRequest;
 import com.cmms.location.service.BuildingService;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
 import jakarta.validation.Valid;
@@ -556,20 +636,29 @@ public class BuildingController {
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Building status updated", result));
     }
 
+    // Keyset mode when cursor or limit is present; otherwise the original Page response
     @GetMapping("/get-all")
     public ResponseEntity<ResponseDto> getAll(
             @RequestParam("orgId") Long orgId,
             @RequestParam(value = "expand", defaultValue = "false") boolean expand,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 20, sort = "buildingId") Pageable pageable) {
-        var result = buildingService.getAll(orgId, expand, pageable);
+        Object result = (cursor != null || limit != null)
+                ? buildingService.getAllKeyset(orgId, expand, cursor, KeysetCursor.clampLimit(limit))
+                : buildingService.getAll(orgId, expand, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Buildings retrieved", result));
     }
 
     @PostMapping("/get-all-active")
     public ResponseEntity<ResponseDto> getAllActive(
             @RequestParam("orgId") Long orgId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 20) Pageable pageable) {
-        var result = buildingService.getAllActive(orgId, pageable);
+        Object result = (cursor != null || limit != null)
+                ? buildingService.getAllActiveKeyset(orgId, cursor, KeysetCursor.clampLimit(limit))
+                : buildingService.getAllActive(orgId, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Active buildings retrieved", result));
     }
 
@@ -713,6 +802,24 @@ RESPONSE (200):
 }
 (Note: DELETED buildings never appear in get-all)
 
+--- GET /api/building/get-all?orgId=1&limit=2 (keyset mode) ---
+RESPONSE (200):
+{
+    "requestId": "q7r8s9t0-...",
+    "statusCode": 200,
+    "message": "Buildings retrieved",
+    "data": {
+        "content": [
+            { "buildingId": 2, "buildingName": "Diagnostic Block", "buildingCode": "DX", "isActive": "ACTIVE" },
+            { "buildingId": 1, "buildingName": "Main Tower",       "buildingCode": "MT", "isActive": "ACTIVE" }
+        ],
+        "limit": 2,
+        "hasMore": true,
+        "nextCursor": "MTpNYWluIFRvd2Vy"
+    }
+}
+(Next page: GET /api/building/get-all?orgId=1&limit=2&cursor=MTpNYWluIFRvd2Vy)
+
 --- ERROR 400 (Invalid status on toggle) ---
 {
     "requestId": "x5y6z7a8-...",
@@ -120,6 +120,104 @@ public class ResponseDto {
 }
 
 
+// ============================================================================
+// 1b. CursorPage.java
+// Package: com.cmms.common.dto
+// Keyset (seek) page returned by get-all endpoints when cursor/limit is sent.
+// No totalElements/totalPages: the point is to skip the COUNT query.
+// ============================================================================
+
+package com.cmms.common.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor;       // null on the last page
+
+    /**
+     * rows must be fetched with limit + 1: the extra row only signals hasMore.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> content = hasMore ? rows.subList(0, limit) : rows;
+        String next = hasMore ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, limit, hasMore, next);
+    }
+}
+
+
+// ============================================================================
+// 1c. KeysetCursor.java
+// Package: com.cmms.common.dto
+// Opaque cursor = base64url("<id>:<sortKey>") of the last row on the page.
+// ============================================================================
+
+package com.cmms.common.dto;
+
+import com.cmms.common.exception.InvalidCursorException;
+import lombok.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter @AllArgsConstructor
+public class KeysetCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final String key;
+    private final Long id;
+
+    public static String encode(Object key, Long id) {
+        String raw = id + ":" + (key != null ? key : "");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Null/blank cursor = first page. (firstKey, 0) sorts before every real row,
+     * so the same "(key, id) > (:afterKey, :afterId)" query serves all pages.
+     */
+    public static KeysetCursor decodeOrFirst(String cursor, String firstKey) {
+        if (cursor == null || cursor.isBlank()) return new KeysetCursor(firstKey, 0L);
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new KeysetCursor(raw.substring(sep + 1), Long.parseLong(raw.substring(0, sep)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public Integer getKeyAsInt() {
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor key: " + key);
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit < 1) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // limit + 1 rows, unsorted (ORDER BY is in the query); List return type = no COUNT query
+    public static Pageable window(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+}
+
+
 // ============================================================================
 // 2. CUSTOM EXCEPTIONS
 // Package: com.cmms.common.exception
@@ -167,6 +265,15 @@ public class InvalidStatusException extends RuntimeException {
     }
 }
 
+// ---------- InvalidCursorException.java ----------
+package com.cmms.common.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
+
 
 // ============================================================================
 // 3. GlobalExceptionHandler.java
@@ -176,7 +283,9 @@ public class InvalidStatusException extends RuntimeException {
 package com.cmms.common.exception;
 
 import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.metrics.ApiErrorMetrics;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -188,35 +297,59 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ApiErrorMetrics errorMetrics;
+
     @ExceptionHandler(DuplicateException.class)
     public ResponseEntity<ResponseDto> handleDuplicate(DuplicateException ex) {
         log.warn("Duplicate: {}", ex.getMessage());
+        errorMetrics.duplicate(ex.getErrorCode());
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(ResponseDto.error(uuid(), 409, ex.getMessage(), ex.getErrorCode()));
     }
 
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ResponseDto> handleNotFound(NotFoundException ex) {
+        errorMetrics.notFound();
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ResponseDto.error(uuid(), 404, ex.getMessage(), "NOT_FOUND"));
     }
 
     @ExceptionHandler(ForbiddenException.class)
     public ResponseEntity<ResponseDto> handleForbidden(ForbiddenException ex) {
+        errorMetrics.forbidden();
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(ResponseDto.error(uuid(), 403, ex.getMessage(), "FORBIDDEN"));
     }
 
     @ExceptionHandler(InvalidStatusException.class)
     public ResponseEntity<ResponseDto> handleInvalidStatus(InvalidStatusException ex) {
+        errorMetrics.invalidStatus();
         return ResponseEntity.badRequest()
                 .body(ResponseDto.error(uuid(), 400, ex.getMessage(), "INVALID_STATUS"));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ResponseDto> handleInvalidCursor(InvalidCursorException ex) {
+        errorMetrics.invalidCursor();
+        return ResponseEntity.badRequest()
+                .body(ResponseDto.error(uuid(), 400, ex.getMessage(), "INVALID_CURSOR"));
+    }
+
+    // Only thrown with cmms.sql-budget.mode=fail (dev / test)
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ResponseDto> handleSqlBudget(SqlBudgetExceededException ex) {
+        log.error("SQL budget exceeded", ex);
+        errorMetrics.sqlBudgetExceeded();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ResponseDto.error(uuid(), 500, ex.getMessage(), "SQL_BUDGET_EXCEEDED"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ResponseDto> handleValidation(MethodArgumentNotValidException ex) {
+        errorMetrics.validation();
         var fieldErrors = ex.getBindingResult().getFieldErrors().stream()
                 .map(fe -> ResponseDto.FieldError.builder()
                         .field(fe.getField())
@@ -237,6 +370,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ResponseDto> handleConstraint(ConstraintViolationException ex) {
+        errorMetrics.constraint();
         return ResponseEntity.badRequest()
                 .body(ResponseDto.error(uuid(), 400, ex.getMessage(), "CONSTRAINT_VIOLATION"));
     }
@@ -244,6 +378,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseDto> handleGeneric(Exception ex) {
         log.error("Unhandled exception", ex);
+        errorMetrics.internal(ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDto.error(uuid(), 500, "An unexpected error occurred", "INTERNAL_ERROR"));
     }
@@ -317,41 +452,36 @@ public class RoomTypeResponseDto {
 // ---------- RoomTypeController.java ----------
 package com.cmms.location.controller;
 
-import com.cmms.location.dto.response.RoomTypeResponseDto;
-import com.cmms.location.repository.RoomTypeRepository;
+import com.cmms.location.service.LookupCacheService;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.service.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/room-type")
 @RequiredArgsConstructor
 public class RoomTypeController {
 
-    private final RoomTypeRepository roomTypeRepository;
+    private final LookupCacheService lookupCache;
     private final JwtService jwtService;
 
+    // Served from the tenant lookup cache; If-None-Match with the current ETag -> 304, no DB hit
     @GetMapping("/get-all")
     public ResponseEntity<ResponseDto> getAll(
-            @RequestParam(value = "activeOnly", defaultValue = "true") boolean activeOnly) {
-        Long tenantId = jwtService.getTenantId();
-        var entities = activeOnly
-                ? roomTypeRepository.findAllActiveByTenant(tenantId)
-                : roomTypeRepository.findAllVisibleByTenant(tenantId);
-
-        var data = entities.stream().map(rt -> RoomTypeResponseDto.builder()
-                .id(rt.getId()).code(rt.getCode()).name(rt.getName())
-                .description(rt.getDescription()).sortOrder(rt.getSortOrder())
-                .isActive(rt.getIsActive().name())
-                .build()
-        ).collect(Collectors.toList());
-
-        return ResponseEntity.ok(
-                ResponseDto.success(UUID.randomUUID().toString(), "Room types retrieved", data));
+            @RequestParam(value = "activeOnly", defaultValue = "true") boolean activeOnly,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        var cached = lookupCache.getRoomTypes(jwtService.getTenantId(), activeOnly);
+        if (cached.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.getEtag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(cached.getEtag()).cacheControl(CacheControl.noCache())
+                .body(ResponseDto.success(UUID.randomUUID().toString(), "Room types retrieved", cached.getData()));
     }
 }
 
@@ -369,6 +499,7 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
+@EntityListeners(com.cmms.location.service.LookupCacheInvalidator.class)
 @Table(name = "location_level",
        uniqueConstraints = @UniqueConstraint(
            name = "uq_location_level_tenant_code",
@@ -442,37 +573,212 @@ public class LocationLevelResponseDto {
 // ---------- LocationLevelController.java ----------
 package com.cmms.location.controller;
 
-import com.cmms.location.dto.response.LocationLevelResponseDto;
-import com.cmms.location.repository.LocationLevelRepository;
+import com.cmms.location.service.LookupCacheService;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.service.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/location-level")
 @RequiredArgsConstructor
 public class LocationLevelController {
 
-    private final LocationLevelRepository locationLevelRepository;
+    private final LookupCacheService lookupCache;
     private final JwtService jwtService;
 
     @GetMapping("/get-all")
-    public ResponseEntity<ResponseDto> getAll() {
-        Long tenantId = jwtService.getTenantId();
-        var entities = locationLevelRepository.findAllActiveByTenant(tenantId);
+    public ResponseEntity<ResponseDto> getAll(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        var cached = lookupCache.getLocationLevels(jwtService.getTenantId());
+        if (cached.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.getEtag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(cached.getEtag()).cacheControl(CacheControl.noCache())
+                .body(ResponseDto.success(UUID.randomUUID().toString(), "Location levels retrieved", cached.getData()));
+    }
+}
+
+
+// ============================================================================
+// 6b. LOOKUP CACHE (room_type / location_level)
+// Package: com.cmms.location.service
+// Per-tenant, in-process, LRU-bounded cache of the mapped lookup lists.
+// Invalidated by LookupCacheInvalidator whenever a RoomType / LocationLevel
+// row is written through JPA; the TTL covers out-of-band SQL edits.
+// ============================================================================
+
+// ---------- CachedLookup.java ----------
+package com.cmms.location.service;
+
+import lombok.*;
+import java.util.List;
 
-        var data = entities.stream().map(ll -> LocationLevelResponseDto.builder()
-                .id(ll.getId()).code(ll.getCode()).name(ll.getName())
-                .sortOrder(ll.getSortOrder()).isActive(ll.getIsActive().name())
-                .build()
-        ).collect(Collectors.toList());
+@Getter @AllArgsConstructor
+public class CachedLookup<T> {
 
-        return ResponseEntity.ok(
-                ResponseDto.success(UUID.randomUUID().toString(), "Location levels retrieved", data));
+    private final List<T> data;          // unmodifiable
+    private final String etag;           // quoted, e.g. "room-type:active-1-9f3a01c2"
+    private final long loadedAt;         // System.nanoTime()
+
+    /** If-None-Match may carry several tags, a weak W/ prefix, or "*". */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals("*") || t.equals(etag)) return true;
+        }
+        return false;
+    }
+}
+
+// ---------- LookupCacheService.java ----------
+package com.cmms.location.service;
+
+import com.cmms.location.dto.response.LocationLevelResponseDto;
+import com.cmms.location.dto.response.RoomTypeResponseDto;
+import com.cmms.location.repository.LocationLevelRepository;
+import com.cmms.location.repository.RoomTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+@Service
+@RequiredArgsConstructor
+public class LookupCacheService {
+
+    public static final int MAX_ENTRIES = 2_000;                 // (tenant, lookup) pairs
+    public static final Duration TTL = Duration.ofMinutes(15);
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final LocationLevelRepository locationLevelRepository;
+
+    private record Key(Long tenantId, String lookup) {}
+
+    // No @Transactional on the getters: a cache hit must not borrow a DB connection
+
+    // Access-ordered LinkedHashMap = LRU; eldest entry dropped past MAX_ENTRIES
+    private final Map<Key, CachedLookup<?>> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CachedLookup<?>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    // Bumped on invalidate; a load that raced with an invalidate is not stored
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CachedLookup<RoomTypeResponseDto> getRoomTypes(Long tenantId, boolean activeOnly) {
+        return get(tenantId, activeOnly ? "room-type:active" : "room-type:visible", () ->
+                (activeOnly ? roomTypeRepository.findAllActiveByTenant(tenantId)
+                            : roomTypeRepository.findAllVisibleByTenant(tenantId))
+                        .stream().map(rt -> RoomTypeResponseDto.builder()
+                                .id(rt.getId()).code(rt.getCode()).name(rt.getName())
+                                .description(rt.getDescription()).sortOrder(rt.getSortOrder())
+                                .isActive(rt.getIsActive().name())
+                                .build())
+                        .toList(),
+                rt -> rt.getId() + "|" + rt.getCode() + "|" + rt.getName() + "|" + rt.getDescription()
+                        + "|" + rt.getSortOrder() + "|" + rt.getIsActive());
+    }
+
+    public CachedLookup<LocationLevelResponseDto> getLocationLevels(Long tenantId) {
+        return get(tenantId, "location-level:active", () ->
+                locationLevelRepository.findAllActiveByTenant(tenantId)
+                        .stream().map(ll -> LocationLevelResponseDto.builder()
+                                .id(ll.getId()).code(ll.getCode()).name(ll.getName())
+                                .sortOrder(ll.getSortOrder()).isActive(ll.getIsActive().name())
+                                .build())
+                        .toList(),
+                ll -> ll.getId() + "|" + ll.getCode() + "|" + ll.getName()
+                        + "|" + ll.getSortOrder() + "|" + ll.getIsActive());
+    }
+
+    public void invalidate(Long tenantId) {
+        generations.computeIfAbsent(tenantId, k -> new AtomicLong()).incrementAndGet();
+        synchronized (cache) {
+            cache.keySet().removeIf(k -> k.tenantId().equals(tenantId));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CachedLookup<T> get(Long tenantId, String lookup,
+                                    Supplier<List<T>> loader, Function<T, String> fingerprint) {
+        Key key = new Key(tenantId, lookup);
+        CachedLookup<T> hit = (CachedLookup<T>) cache.get(key);
+        if (hit != null && System.nanoTime() - hit.getLoadedAt() < TTL.toNanos()) return hit;
+
+        long gen = generation(tenantId);
+        List<T> data = loader.get();
+
+        // ETag = content hash, so it is stable across restarts and app instances
+        CRC32 crc = new CRC32();
+        for (T row : data) crc.update((fingerprint.apply(row) + "\n").getBytes(StandardCharsets.UTF_8));
+        String etag = "\"" + lookup + "-" + tenantId + "-" + Long.toHexString(crc.getValue()) + "\"";
+
+        CachedLookup<T> loaded = new CachedLookup<>(List.copyOf(data), etag, System.nanoTime());
+        if (generation(tenantId) == gen) cache.put(key, loaded);
+        return loaded;
+    }
+
+    private long generation(Long tenantId) {
+        AtomicLong g = generations.get(tenantId);
+        return g != null ? g.get() : 0L;
+    }
+}
+
+// ---------- LookupCacheInvalidator.java ----------
+// JPA entity listener on RoomType / LocationLevel (Spring-managed via Hibernate's
+// SpringBeanContainer). Evicts immediately and again after commit, so a reader
+// that reloaded the old rows mid-transaction cannot keep them cached.
+package com.cmms.location.service;
+
+import com.cmms.location.entity.LocationLevel;
+import com.cmms.location.entity.RoomType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class LookupCacheInvalidator {
+
+    private final LookupCacheService lookupCache;
+
+    @PostPersist @PostUpdate @PostRemove
+    public void onWrite(Object entity) {
+        Long tenantId = (entity instanceof RoomType rt) ? rt.getTenantId()
+                : (entity instanceof LocationLevel ll) ? ll.getTenantId()
+                : null;
+        if (tenantId == null) return;
+
+        lookupCache.invalidate(tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lookupCache.invalidate(tenantId);
+                }
+            });
+        }
     }
 }
 
@@ -489,6 +795,7 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
+@EntityListeners(com.cmms.location.service.LookupCacheInvalidator.class)
 @Table(name = "room_type",
        uniqueConstraints = @UniqueConstraint(
            name = "uq_room_type_tenant_code",
@@ -558,6 +865,12 @@ RESPONSE (200):
 }
 (Note: DELETED records are never returned even with activeOnly=false)
 
+--- Conditional GET (lookup cache) ---
+Every get-all response carries   ETag: "room-type:active-1-9f3a01c2"   and   Cache-Control: no-cache
+GET /api/room-type/get-all?activeOnly=true
+If-None-Match: "room-type:active-1-9f3a01c2"
+RESPONSE (304 Not Modified, empty body) -- answered from the in-process cache, no DB query
+
 --- GET /api/location-level/get-all ---
 RESPONSE (200):
 {
@@ -590,6 +903,13 @@ is_active COLUMN AS EnumType.STRING RULES:
  - GET-ALL returns isActive <> 'DELETED' (i.e. visible records)
  - GET-ALL-ACTIVE returns isActive = 'ACTIVE' only
 
+KEYSET (SEEK) MODE on building/floor/room/bed get-all + get-all-active:
+ - Send ?limit=N (max 500) and/or ?cursor=<nextCursor> instead of page/size
+ - Response data is a CursorPage { content, limit, hasMore, nextCursor } -- no COUNT query
+ - Sort keys: building (buildingName, buildingId), floor (floorNo, floorId),
+              room (roomNo, roomId), bed (bedNo, bedId)
+ - Without cursor/limit the endpoints return the original Spring Page unchanged
+
 PREVENTING CONFLICTS:
  - isActive is a single enum column: ACTIVE | INACTIVE | DELETED
  - This prevents impossible states like active=true AND is_deleted=true
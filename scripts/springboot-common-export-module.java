@@ -0,0 +1,370 @@
+// ============================================================================
+// SPRING BOOT 3.x COMMON: Streaming list export (CSV / XLSX)
+// Used by     : /export endpoints of location (bed), device (equipment-type),
+//               rbac (role-permission) and store (store-item-config)
+// Stack       : Java 17+, Spring Boot 3.x, JPA/Hibernate, PostgreSQL,
+//               Apache POI (poi-ooxml, SXSSF) for XLSX
+// PURPOSE     : Write a whole list straight from a JPA Stream<> into the HTTP
+//               response in constant memory, instead of the browser paging
+//               through get-all and building the file itself.
+// ============================================================================
+
+
+// ============================================================================
+// 1. ExportFormat.java
+// Package: com.cmms.common.export
+// ============================================================================
+
+package com.cmms.common.export;
+
+public enum ExportFormat {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() { return contentType; }
+    public String extension()   { return extension; }
+
+    /**
+     * Safe parse: defaults to CSV if null/invalid.
+     */
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) return CSV;
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return CSV;
+        }
+    }
+}
+
+
+// ============================================================================
+// 2. ExportColumn.java
+// Package: com.cmms.common.export
+// ============================================================================
+
+package com.cmms.common.export;
+
+import java.util.function.Function;
+
+// One output column: header text + value taken from the row projection
+public record ExportColumn<T>(String header, Function<T, Object> value) {
+
+    public static <T> ExportColumn<T> of(String header, Function<T, Object> value) {
+        return new ExportColumn<>(header, value);
+    }
+}
+
+
+// ============================================================================
+// 3. TableWriter.java + CsvTableWriter.java + XlsxTableWriter.java
+// Package: com.cmms.common.export
+// ============================================================================
+
+package com.cmms.common.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+interface TableWriter extends Closeable {
+
+    void header(List<String> headers) throws IOException;
+
+    void row(Object[] values) throws IOException;
+
+    // Writes whatever is still buffered to the response
+    void finish(OutputStream out) throws IOException;
+}
+
+
+// ---------- CsvTableWriter.java ----------
+// RFC 4180 quoting, UTF-8 with BOM so Excel opens non-ASCII names correctly.
+// Cells starting with = + - @ are prefixed with ' (CSV formula injection).
+package com.cmms.common.export;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class CsvTableWriter implements TableWriter {
+
+    private final Writer w;
+
+    CsvTableWriter(OutputStream out) throws IOException {
+        this.w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        w.write('\uFEFF');
+    }
+
+    @Override
+    public void header(List<String> headers) throws IOException {
+        row(headers.toArray());
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) w.write(',');
+            cell(values[i]);
+        }
+        w.write("\r\n");
+    }
+
+    private void cell(Object v) throws IOException {
+        if (v == null) return;
+        String s = v.toString();                       // java.time types print as ISO-8601
+        if (!s.isEmpty() && !(v instanceof Number) && "=+-@".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            w.write(s);
+            return;
+        }
+        w.write('"');
+        w.write(s.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    // Rows already went to the response as they were written
+    @Override
+    public void finish(OutputStream out) throws IOException {
+        w.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        w.flush();
+    }
+}
+
+
+// ---------- XlsxTableWriter.java ----------
+// SXSSF keeps WINDOW rows in memory and spills the rest to a compressed temp
+// file; the .xlsx zip is only produced by finish(), after the DB read.
+package com.cmms.common.export;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.*;
+import java.util.Date;
+import java.util.List;
+
+final class XlsxTableWriter implements TableWriter {
+
+    private static final int WINDOW = 200;
+    private static final int MAX_ROWS = 1_048_576;     // Excel sheet limit
+
+    private final SXSSFWorkbook wb = new SXSSFWorkbook(WINDOW);
+    private final CellStyle dateStyle;
+    private SXSSFSheet sheet;
+    private int sheetNo;
+    private int rowNo;
+    private List<String> headers;
+
+    XlsxTableWriter() {
+        wb.setCompressTempFiles(true);
+        dateStyle = wb.createCellStyle();
+        dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    @Override
+    public void header(List<String> headers) {
+        this.headers = headers;
+        newSheet();
+    }
+
+    // Over a million rows continue on "Export (2)", "Export (3)", ...
+    private void newSheet() {
+        sheet = wb.createSheet(++sheetNo == 1 ? "Export" : "Export (" + sheetNo + ")");
+        rowNo = 0;
+        Row r = sheet.createRow(rowNo++);
+        for (int i = 0; i < headers.size(); i++) r.createCell(i).setCellValue(headers.get(i));
+        sheet.createFreezePane(0, 1);
+    }
+
+    @Override
+    public void row(Object[] values) {
+        if (rowNo == MAX_ROWS) newSheet();
+        Row r = sheet.createRow(rowNo++);
+        for (int i = 0; i < values.length; i++) {
+            Object v = values[i];
+            if (v == null) continue;
+            Cell c = r.createCell(i);
+            if (v instanceof Number n) {
+                c.setCellValue(n.doubleValue());
+            } else if (v instanceof Boolean b) {
+                c.setCellValue(b);
+            } else if (v instanceof LocalDateTime t) {
+                c.setCellValue(t);
+                c.setCellStyle(dateStyle);
+            } else if (v instanceof OffsetDateTime t) {
+                c.setCellValue(Date.from(t.toInstant()));
+                c.setCellStyle(dateStyle);
+            } else {
+                c.setCellValue(v.toString());
+            }
+        }
+    }
+
+    @Override
+    public void finish(OutputStream out) throws IOException {
+        wb.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        wb.close();
+        wb.dispose();                                   // temp files
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: StreamingExportService.java
+// Package: com.cmms.common.export
+//
+// The query runs in its own read-only transaction on the response thread: a
+// JPA Stream<> needs an open connection, and PostgreSQL only honours the
+// fetch size (cursor instead of full result set) inside a transaction.
+//   CSV  : rows go to the response as they are read.
+//   XLSX : rows go to the SXSSF temp file; the transaction commits before the
+//          workbook is sent, so a slow download does not hold it open.
+// Resolve tenant / hospital BEFORE calling export(): the body runs on an MVC
+// async thread without the request's security context.
+// Requires spring.jpa.open-in-view=false (otherwise the request's
+// EntityManager stays bound for the whole download).
+// ============================================================================
+
+package com.cmms.common.export;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class StreamingExportService {
+
+    private static final int CLEAR_EVERY = 1_000;
+
+    private final TransactionTemplate readOnlyTx;
+    private final EntityManager entityManager;
+
+    public StreamingExportService(PlatformTransactionManager txManager, EntityManager entityManager,
+                                  @Value("${cmms.export.tx-timeout-seconds:600}") int txTimeoutSeconds) {
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setTimeout(txTimeoutSeconds);
+        this.entityManager = entityManager;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> export(String fileBase, ExportFormat format,
+                                                            List<ExportColumn<T>> columns,
+                                                            Supplier<Stream<T>> query) {
+        String fileName = fileBase + "-" + LocalDate.now() + "." + format.extension();
+        StreamingResponseBody body = out -> write(format, columns, query, out, fileName);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    private <T> void write(ExportFormat format, List<ExportColumn<T>> columns, Supplier<Stream<T>> query,
+                           OutputStream out, String fileName) throws IOException {
+        long start = System.currentTimeMillis();
+        try (TableWriter writer = format == ExportFormat.XLSX ? new XlsxTableWriter() : new CsvTableWriter(out)) {
+            writer.header(columns.stream().map(ExportColumn::header).toList());
+            Long rows = readOnlyTx.execute(status -> copy(query, columns, writer));
+            writer.finish(out);
+            log.info("Export {}: {} rows in {} ms", fileName, rows, System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download; the transaction has been rolled back
+            log.debug("Export {} aborted: {}", fileName, e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private <T> long copy(Supplier<Stream<T>> query, List<ExportColumn<T>> columns, TableWriter writer) {
+        long n = 0;
+        Object[] values = new Object[columns.size()];
+        try (Stream<T> rows = query.get()) {
+            for (T row : (Iterable<T>) rows::iterator) {
+                for (int i = 0; i < values.length; i++) values[i] = columns.get(i).value().apply(row);
+                writer.row(values);
+                // Constructor projections are unmanaged; this only matters for entity streams
+                if (++n % CLEAR_EVERY == 0) entityManager.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return n;
+    }
+}
+
+
+// ============================================================================
+// 5. NOTES
+// ============================================================================
+
+/*
+REPOSITORY METHOD (pattern used by every /export endpoint):
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new ...Dto(...) FROM ... ORDER BY ...")
+    Stream<Dto> streamAllForExport(@Param("tenantId") Long tenantId);
+
+  - Constructor projection: no entities in the persistence context, no lazy loads.
+  - Only called through StreamingExportService (needs its transaction).
+
+ENDPOINTS:
+  GET /api/bed/export?roomId=&format=csv|xlsx
+  GET /api/device/equipment-type/export?inletPowerId=&format=csv|xlsx
+  GET /api/role-permission/export?roleId=&format=csv|xlsx
+  GET /api/store-item-config/export?storeId=&format=csv|xlsx
+
+  Without the filter parameter the whole tenant / hospital is exported.
+  DELETED rows are never exported (same as get-all).
+
+PROPERTIES:
+  spring.jpa.open-in-view=false
+  spring.mvc.async.request-timeout=-1     # long downloads are not cut at 30 s
+  cmms.export.tx-timeout-seconds=600      # upper bound on the read transaction
+
+MEMORY (500k rows):
+  CSV  : 64 KB writer buffer + JDBC fetch window of 1000 rows.
+  XLSX : 200-row SXSSF window; the rest lives in a gzip temp file
+         (~20-40 MB on disk for 500k x 15 columns), deleted on close.
+*/
@@ -215,6 +215,21 @@ public interface EquipmentClassOptionRepository extends JpaRepository<EquipmentC
     List<EquipmentClassResponseDto> findAllActiveByInletPower(@Param("tenantId") Long tenantId,
                                                                @Param("inletPowerId") Long inletPowerId);
 
+    // All ACTIVE for the tenant, ACTIVE parents only (device option-tree snapshot)
+    @Query("""
+        SELECT new com.cmms.device.dto.response.EquipmentClassResponseDto(
+            eco.id, eco.tenantId, eco.inletPowerId, ip.code, ip.name,
+            eco.code, eco.name, eco.isDefault, eco.sortOrder, CAST(eco.isActive AS string)
+        )
+        FROM EquipmentClassOption eco
+        JOIN InletPower ip ON ip.id = eco.inletPowerId AND ip.tenantId = eco.tenantId
+        WHERE eco.tenantId = :tenantId
+          AND eco.isActive = 'ACTIVE'
+          AND ip.isActive = 'ACTIVE'
+        ORDER BY eco.inletPowerId, eco.sortOrder, eco.name
+    """)
+    List<EquipmentClassResponseDto> findAllActiveByTenant(@Param("tenantId") Long tenantId);
+
     // Clear defaults
     @Query("""
         UPDATE EquipmentClassOption eco
@@ -257,6 +272,7 @@ public class EquipmentClassOptionService {
 
     private final EquipmentClassOptionRepository repository;
     private final InletPowerRepository inletPowerRepo;
+    private final DeviceOptionTreeService optionTree;
     private final JwtService jwtService;
 
     // ---------- CREATE ----------
@@ -290,6 +306,7 @@ public class EquipmentClassOptionService {
                 .build();
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
             repository.clearDefaultsForInletPower(tenantId, entity.getInletPowerId(), entity.getId());
@@ -322,6 +339,7 @@ public class EquipmentClassOptionService {
         if (req.getSortOrder() != null) entity.setSortOrder(req.getSortOrder());
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
             repository.clearDefaultsForInletPower(tenantId, entity.getInletPowerId(), entity.getId());
@@ -342,6 +360,7 @@ public class EquipmentClassOptionService {
         }
         entity.setIsActive(RecordStatus.DELETED);
         repository.save(entity);
+        optionTree.invalidate(tenantId);
     }
 
     // ---------- TOGGLE STATUS ----------
@@ -362,6 +381,7 @@ public class EquipmentClassOptionService {
 
         entity.setIsActive(newIsActive);
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
         InletPower parent = inletPowerRepo.findByIdAndTenantId(entity.getInletPowerId(), tenantId).orElse(null);
         return mapToDto(entity, parent);
     }
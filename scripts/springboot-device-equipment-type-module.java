@@ -159,10 +159,14 @@ import com.cmms.device.entity.EquipmentTypeOption;
 import com.cmms.device.dto.response.EquipmentTypeResponseDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EquipmentTypeOptionRepository extends JpaRepository<EquipmentTypeOption, Long> {
@@ -215,6 +219,43 @@ public interface EquipmentTypeOptionRepository extends JpaRepository<EquipmentTy
     List<EquipmentTypeResponseDto> findAllActiveByInletPower(@Param("tenantId") Long tenantId,
                                                               @Param("inletPowerId") Long inletPowerId);
 
+    // All ACTIVE for the tenant, ACTIVE parents only (device option-tree snapshot)
+    @Query("""
+        SELECT new com.cmms.device.dto.response.EquipmentTypeResponseDto(
+            eto.id, eto.tenantId, eto.inletPowerId, ip.code, ip.name,
+            eto.code, eto.name, eto.isDefault, eto.sortOrder, CAST(eto.isActive AS string)
+        )
+        FROM EquipmentTypeOption eto
+        JOIN InletPower ip ON ip.id = eto.inletPowerId AND ip.tenantId = eto.tenantId
+        WHERE eto.tenantId = :tenantId
+          AND eto.isActive = 'ACTIVE'
+          AND ip.isActive = 'ACTIVE'
+        ORDER BY eto.inletPowerId, eto.sortOrder, eto.name
+    """)
+    List<EquipmentTypeResponseDto> findAllActiveByTenant(@Param("tenantId") Long tenantId);
+
+    // Export: all visible for the tenant (or one inlet_power), streamed
+    // Only through StreamingExportService (needs its read-only transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+        SELECT new com.cmms.device.dto.response.EquipmentTypeResponseDto(
+            eto.id, eto.tenantId, eto.inletPowerId, ip.code, ip.name,
+            eto.code, eto.name, eto.isDefault, eto.sortOrder, CAST(eto.isActive AS string)
+        )
+        FROM EquipmentTypeOption eto
+        JOIN InletPower ip ON ip.id = eto.inletPowerId AND ip.tenantId = eto.tenantId
+        WHERE eto.tenantId = :tenantId
+          AND eto.isActive <> 'DELETED'
+          AND (:inletPowerId IS NULL OR eto.inletPowerId = :inletPowerId)
+        ORDER BY ip.code, eto.sortOrder, eto.name
+    """)
+    Stream<EquipmentTypeResponseDto> streamAllForExport(@Param("tenantId") Long tenantId,
+                                                        @Param("inletPowerId") Long inletPowerId);
+
     // Clear defaults
     @Query("""
         UPDATE EquipmentTypeOption eto
@@ -245,10 +286,15 @@ import com.cmms.device.repository.InletPowerRepository;
 import com.cmms.common.dto.StatusToggleRequest;
 import com.cmms.common.enums.RecordStatus;
 import com.cmms.common.exception.*;
+import com.cmms.common.export.ExportColumn;
+import com.cmms.common.export.ExportFormat;
+import com.cmms.common.export.StreamingExportService;
 import com.cmms.common.service.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @Service
@@ -257,8 +303,20 @@ public class EquipmentTypeOptionService {
 
     private final EquipmentTypeOptionRepository repository;
     private final InletPowerRepository inletPowerRepo;
+    private final DeviceOptionTreeService optionTree;
+    private final StreamingExportService exportService;
     private final JwtService jwtService;
 
+    private static final List<ExportColumn<EquipmentTypeResponseDto>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("Inlet Power Code", EquipmentTypeResponseDto::getInletPowerCode),
+            ExportColumn.of("Inlet Power", EquipmentTypeResponseDto::getInletPowerName),
+            ExportColumn.of("Code", EquipmentTypeResponseDto::getCode),
+            ExportColumn.of("Name", EquipmentTypeResponseDto::getName),
+            ExportColumn.of("Default", EquipmentTypeResponseDto::getIsDefault),
+            ExportColumn.of("Sort Order", EquipmentTypeResponseDto::getSortOrder),
+            ExportColumn.of("Status", EquipmentTypeResponseDto::getIsActive),
+            ExportColumn.of("ID", EquipmentTypeResponseDto::getId));
+
     // ---------- CREATE ----------
     @Transactional(rollbackFor = Exception.class)
     public EquipmentTypeResponseDto create(EquipmentTypeCreateRequest req) {
@@ -290,6 +348,7 @@ public class EquipmentTypeOptionService {
                 .build();
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
             repository.clearDefaultsForInletPower(tenantId, entity.getInletPowerId(), entity.getId());
@@ -322,6 +381,7 @@ public class EquipmentTypeOptionService {
         if (req.getSortOrder() != null) entity.setSortOrder(req.getSortOrder());
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
             repository.clearDefaultsForInletPower(tenantId, entity.getInletPowerId(), entity.getId());
@@ -342,6 +402,7 @@ public class EquipmentTypeOptionService {
         }
         entity.setIsActive(RecordStatus.DELETED);
         repository.save(entity);
+        optionTree.invalidate(tenantId);
     }
 
     // ---------- TOGGLE STATUS ----------
@@ -362,6 +423,7 @@ public class EquipmentTypeOptionService {
 
         entity.setIsActive(newIsActive);
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
         InletPower parent = inletPowerRepo.findByIdAndTenantId(entity.getInletPowerId(), tenantId).orElse(null);
         return mapToDto(entity, parent);
     }
@@ -376,6 +438,13 @@ public class EquipmentTypeOptionService {
         return repository.findAllActiveByInletPower(jwtService.getTenantId(), inletPowerId);
     }
 
+    // ---------- EXPORT (CSV / XLSX) ----------
+    public ResponseEntity<StreamingResponseBody> export(Long inletPowerId, ExportFormat format) {
+        Long tenantId = jwtService.getTenantId();
+        return exportService.export("equipment-types", format, EXPORT_COLUMNS,
+                () -> repository.streamAllForExport(tenantId, inletPowerId));
+    }
+
     // ---------- GET BY ID ----------
     public EquipmentTypeResponseDto getById(Long id) {
         Long tenantId = jwtService.getTenantId();
@@ -412,11 +481,13 @@ import com.cmms.device.dto.request.EquipmentTypeUpdateRequest;
 import com.cmms.device.service.EquipmentTypeOptionService;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
+import com.cmms.common.export.ExportFormat;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.UUID;
 
 @RestController
@@ -468,6 +539,14 @@ public class EquipmentTypeOptionController {
         var result = service.getById(id);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Equipment type fetched", result));
     }
+
+    // CSV / XLSX file, streamed; without inletPowerId all equipment types of the tenant
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "inletPowerId", required = false) Long inletPowerId,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        return service.export(inletPowerId, ExportFormat.from(format));
+    }
 }
 
 
@@ -516,4 +595,8 @@ RESPONSE:
   ]
 }
 
+--- GET /api/device/equipment-type/export?format=xlsx ---
+RESPONSE (200): equipment-types-2026-10-17.xlsx
+  Inlet Power Code | Inlet Power | Code | Name | Default | Sort Order | Status | ID
+
 */
@@ -260,6 +260,7 @@ import java.util.List;
 public class InletPowerService {
 
     private final InletPowerRepository repository;
+    private final DeviceOptionTreeService optionTree;
     private final JwtService jwtService;
 
     // ---------- CREATE ----------
@@ -285,6 +286,7 @@ public class InletPowerService {
                 .build();
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
         return mapToDto(entity);
     }
 
@@ -311,6 +313,7 @@ public class InletPowerService {
         // isActive NOT changed here -- use toggle-status or delete
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
         return mapToDto(entity);
     }
 
@@ -327,6 +330,7 @@ public class InletPowerService {
 
         entity.setIsActive(RecordStatus.DELETED);
         repository.save(entity);
+        optionTree.invalidate(tenantId);
     }
 
     // ---------- TOGGLE STATUS (ACTIVE <-> INACTIVE) ----------
@@ -347,6 +351,7 @@ public class InletPowerService {
 
         entity.setIsActive(newIsActive);
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
         return mapToDto(entity);
     }
 
@@ -0,0 +1,258 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: device option tree (Device form dropdown cascade)
+// Table       : (none -- read-only snapshot)
+// Base Tables : inlet_power, voltage_option, equipment_type_option, equipment_class_option
+// Stack       : Java 17+, Spring Boot 3.x, JPA/Hibernate, PostgreSQL, JWT
+// Base URL    : /api/device/option-tree
+// PURPOSE     : InletPower -> Voltage / EquipmentType / EquipmentClass for the
+//               tenant in one call, served from an in-memory snapshot, instead
+//               of get-all-active on inlet power + three calls per inlet power.
+// ============================================================================
+
+
+// ============================================================================
+// 1. RESPONSE DTOs
+// Package: com.cmms.device.dto.response
+// ============================================================================
+
+// ---------- InletPowerOptionNode.java ----------
+package com.cmms.device.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @AllArgsConstructor
+public class InletPowerOptionNode {
+    private final Long id;
+    private final String code;
+    private final String name;
+    private final Integer sortOrder;
+    private final List<VoltageOptionResponseDto> voltages;
+    private final List<EquipmentTypeResponseDto> equipmentTypes;
+    private final List<EquipmentClassResponseDto> equipmentClasses;
+}
+
+// ---------- DeviceOptionSnapshot.java ----------
+package com.cmms.device.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @AllArgsConstructor
+public class DeviceOptionSnapshot {
+    private final List<InletPowerOptionNode> inletPowers;    // unmodifiable
+    private final String etag;                               // strong, quoted: SHA-256 of the serialized tree
+}
+
+
+// ============================================================================
+// 2. SERVICE: DeviceOptionTreeService.java
+// Package: com.cmms.device.service
+// One immutable snapshot per tenant, built from four flat queries (ACTIVE rows
+// under ACTIVE inlet powers -- the same rows the get-all-active endpoints give).
+// Any create / update / delete / toggle-status in InletPowerService,
+// VoltageOptionService, EquipmentTypeOptionService or EquipmentClassOptionService
+// calls invalidate(tenantId); the next read rebuilds. Snapshots older than TTL
+// are rebuilt too: invalidate() only reaches this node, and SQL edits none.
+// ============================================================================
+
+package com.cmms.device.service;
+
+import com.cmms.device.dto.response.*;
+import com.cmms.device.repository.EquipmentClassOptionRepository;
+import com.cmms.device.repository.EquipmentTypeOptionRepository;
+import com.cmms.device.repository.InletPowerRepository;
+import com.cmms.device.repository.VoltageOptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DeviceOptionTreeService {
+
+    public static final Duration TTL = Duration.ofMinutes(15);
+
+    private final InletPowerRepository inletPowerRepo;
+    private final VoltageOptionRepository voltageRepo;
+    private final EquipmentTypeOptionRepository equipmentTypeRepo;
+    private final EquipmentClassOptionRepository equipmentClassRepo;
+    private final ObjectMapper objectMapper;
+
+    private record Entry(DeviceOptionSnapshot snapshot, long loadedAt) {}
+
+    private final Map<Long, Entry> snapshots = new ConcurrentHashMap<>();
+    // Bumped per tenant by invalidate(): a snapshot built across an invalidation is not kept
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // ---------- READ (no transaction: a snapshot hit must not touch the DB) ----------
+    // Built outside the map: the four queries must not hold a ConcurrentHashMap bin lock
+    public DeviceOptionSnapshot getSnapshot(Long tenantId) {
+        Entry e = snapshots.get(tenantId);
+        if (e != null && System.nanoTime() - e.loadedAt() < TTL.toNanos()) return e.snapshot();
+
+        long gen = generation(tenantId);
+        Entry fresh = new Entry(build(tenantId), System.nanoTime());
+        if (e == null) {
+            Entry raced = snapshots.putIfAbsent(tenantId, fresh);
+            if (raced != null) return raced.snapshot();
+        } else if (!snapshots.replace(tenantId, e, fresh)) {
+            return fresh.snapshot();                                      // someone else refreshed or evicted
+        }
+        if (gen != generation(tenantId)) snapshots.remove(tenantId, fresh);   // answer this read, rebuild next time
+        return fresh.snapshot();
+    }
+
+    // ---------- INVALIDATE ----------
+    // Evicts now and again after commit, so a rebuild that read the
+    // pre-commit rows in between is not served afterwards.
+    public void invalidate(Long tenantId) {
+        evict(tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long tenantId) {
+        generations.computeIfAbsent(tenantId, k -> new AtomicLong()).incrementAndGet();
+        snapshots.remove(tenantId);
+    }
+
+    private long generation(Long tenantId) {
+        AtomicLong g = generations.get(tenantId);
+        return g != null ? g.get() : 0L;
+    }
+
+    // ---------- BUILD ----------
+    private DeviceOptionSnapshot build(Long tenantId) {
+        List<InletPowerResponseDto> inletPowers = inletPowerRepo.findAllActive(tenantId);
+        Map<Long, List<VoltageOptionResponseDto>> voltages =
+                byInletPower(voltageRepo.findAllActiveByTenant(tenantId), VoltageOptionResponseDto::getInletPowerId);
+        Map<Long, List<EquipmentTypeResponseDto>> types =
+                byInletPower(equipmentTypeRepo.findAllActiveByTenant(tenantId), EquipmentTypeResponseDto::getInletPowerId);
+        Map<Long, List<EquipmentClassResponseDto>> classes =
+                byInletPower(equipmentClassRepo.findAllActiveByTenant(tenantId), EquipmentClassResponseDto::getInletPowerId);
+
+        List<InletPowerOptionNode> nodes = inletPowers.stream()
+                .map(ip -> new InletPowerOptionNode(
+                        ip.getId(), ip.getCode(), ip.getName(), ip.getSortOrder(),
+                        voltages.getOrDefault(ip.getId(), List.of()),
+                        types.getOrDefault(ip.getId(), List.of()),
+                        classes.getOrDefault(ip.getId(), List.of())))
+                .toList();
+
+        return new DeviceOptionSnapshot(nodes, etagOf(nodes));
+    }
+
+    // Rows arrive ordered by (inletPowerId, sortOrder, label); grouping keeps that order
+    private static <T> Map<Long, List<T>> byInletPower(List<T> rows, Function<T, Long> parentId) {
+        return rows.stream().collect(Collectors.groupingBy(parentId, HashMap::new,
+                Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
+    }
+
+    private String etagOf(List<InletPowerOptionNode> nodes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(nodes));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint device option tree", e);
+        }
+    }
+}
+
+
+// ============================================================================
+// 3. CONTROLLER: DeviceOptionTreeController.java
+// Package: com.cmms.device.controller
+// ============================================================================
+
+package com.cmms.device.controller;
+
+import com.cmms.device.service.DeviceOptionTreeService;
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Arrays;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/device")
+@RequiredArgsConstructor
+public class DeviceOptionTreeController {
+
+    private final DeviceOptionTreeService optionTreeService;
+    private final JwtService jwtService;
+
+    @GetMapping("/option-tree")
+    public ResponseEntity<ResponseDto> getOptionTree(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        var snapshot = optionTreeService.getSnapshot(jwtService.getTenantId());
+
+        // Strong comparison only: weak (W/) validators never match
+        if (ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim).anyMatch(t -> t.equals(snapshot.getEtag()) || t.equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).cacheControl(CacheControl.noCache())
+                .body(ResponseDto.success(UUID.randomUUID().toString(), "Device option tree retrieved",
+                        snapshot.getInletPowers()));
+    }
+}
+
+
+// ============================================================================
+// 4. SAMPLE REQUEST / RESPONSE
+// ============================================================================
+
+/*
+--- GET /api/device/option-tree ---
+RESPONSE (200)   ETag: "5d1c0e9a7b3f42c8e61a90d4b2f7c315"   Cache-Control: no-cache
+{
+    "requestId": "ot1a2b3c-...",
+    "statusCode": 200,
+    "message": "Device option tree retrieved",
+    "data": [
+        {
+            "id": 1, "code": "AC", "name": "AC Power", "sortOrder": 1,
+            "voltages": [
+                { "id": 1, "inletPowerId": 1, "displayLabel": "230V / 50Hz", "voltageV": 230.00, "frequencyHz": 50, "isDefault": true,  "sortOrder": 1, "isActive": "ACTIVE" },
+                { "id": 2, "inletPowerId": 1, "displayLabel": "110V / 60Hz", "voltageV": 110.00, "frequencyHz": 60, "isDefault": false, "sortOrder": 2, "isActive": "ACTIVE" }
+            ],
+            "equipmentTypes":   [ { "id": 1, "inletPowerId": 1, "code": "FIXED", "name": "Fixed",   "isDefault": true, "sortOrder": 1, "isActive": "ACTIVE" } ],
+            "equipmentClasses": [ { "id": 1, "inletPowerId": 1, "code": "I",     "name": "Class I", "isDefault": true, "sortOrder": 1, "isActive": "ACTIVE" } ]
+        }
+    ]
+}
+
+--- GET /api/device/option-tree   If-None-Match: "5d1c0e9a7b3f42c8e61a90d4b2f7c315" ---
+RESPONSE (304 Not Modified, empty body) -- answered from memory, no DB query
+
+INVALIDATION:
+ - create / update / delete / toggle-status on inlet-power, voltage-option,
+   equipment-type, equipment-class -> DeviceOptionTreeService.invalidate(tenantId)
+ - Other app nodes and direct SQL edits: picked up within TTL (15 min, as the
+   lookup cache); the ETag changes with the rebuilt content
+ - Snapshot content = exactly what the four get-all-active endpoints return
+   (ACTIVE children of ACTIVE inlet powers)
+*/
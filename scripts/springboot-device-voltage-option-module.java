@@ -231,6 +231,22 @@ public interface VoltageOptionRepository extends JpaRepository<VoltageOption, Lo
     List<VoltageOptionResponseDto> findAllActiveByInletPower(@Param("tenantId") Long tenantId,
                                                              @Param("inletPowerId") Long inletPowerId);
 
+    // All ACTIVE for the tenant, ACTIVE parents only (device option-tree snapshot)
+    @Query("""
+        SELECT new com.cmms.device.dto.response.VoltageOptionResponseDto(
+            vo.id, vo.tenantId, vo.inletPowerId, ip.code, ip.name,
+            vo.displayLabel, vo.voltageV, vo.frequencyHz,
+            vo.isDefault, vo.sortOrder, CAST(vo.isActive AS string)
+        )
+        FROM VoltageOption vo
+        JOIN InletPower ip ON ip.id = vo.inletPowerId AND ip.tenantId = vo.tenantId
+        WHERE vo.tenantId = :tenantId
+          AND vo.isActive = 'ACTIVE'
+          AND ip.isActive = 'ACTIVE'
+        ORDER BY vo.inletPowerId, vo.sortOrder, vo.displayLabel
+    """)
+    List<VoltageOptionResponseDto> findAllActiveByTenant(@Param("tenantId") Long tenantId);
+
     // Clear any existing default for the same inlet_power (before setting a new one)
     @Query("""
         UPDATE VoltageOption vo
@@ -273,6 +289,7 @@ public class VoltageOptionService {
 
     private final VoltageOptionRepository repository;
     private final InletPowerRepository inletPowerRepo;
+    private final DeviceOptionTreeService optionTree;
     private final JwtService jwtService;
 
     // ---------- CREATE ----------
@@ -308,6 +325,7 @@ public class VoltageOptionService {
                 .build();
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         // Ensure only one default per inlet_power
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
@@ -343,6 +361,7 @@ public class VoltageOptionService {
         // isActive NOT changed here
 
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         if (Boolean.TRUE.equals(entity.getIsDefault())) {
             repository.clearDefaultsForInletPower(tenantId, entity.getInletPowerId(), entity.getId());
@@ -365,6 +384,7 @@ public class VoltageOptionService {
 
         entity.setIsActive(RecordStatus.DELETED);
         repository.save(entity);
+        optionTree.invalidate(tenantId);
     }
 
     // ---------- TOGGLE STATUS ----------
@@ -385,6 +405,7 @@ public class VoltageOptionService {
 
         entity.setIsActive(newIsActive);
         entity = repository.save(entity);
+        optionTree.invalidate(tenantId);
 
         InletPower parent = inletPowerRepo.findByIdAndTenantId(entity.getInletPowerId(), tenantId).orElse(null);
         return mapToDto(entity, parent);
@@ -199,9 +199,9 @@ public class FloorResponseExpanded {
     private String floorName;
     private String description;
     private String isActive;           // ACTIVE | INACTIVE | DELETED
-    private Long roomCount;          // non-deleted
-    private Long bedCount;           // non-deleted
-    private Long activeBedCount;     // ACTIVE only
+    private Long roomCount;          // non-deleted (location_count_rollup)
+    private Long bedCount;           // non-deleted (location_count_rollup)
+    private Long activeBedCount;     // ACTIVE only (location_count_rollup)
 
     // Constructor for JPQL projection
     public FloorResponseExpanded(Long floorId, Long tenantId, Long orgId,
@@ -234,6 +234,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -266,24 +268,19 @@ public interface FloorRepository extends JpaRepository<Floor, Long> {
                                                        @Param("buildingId") Long buildingId,
                                                        Pageable pageable);
 
-    // --- Expanded: floors with room/bed counts (non-deleted children) ---
+    // --- Expanded: floors with room/bed counts (from location_count_rollup) ---
     @Query("""
         SELECT new com.cmms.location.dto.response.FloorResponseExpanded(
             f.floorId, f.tenantId, f.orgId,
             f.buildingId, b.buildingName, b.buildingCode,
             f.floorNo, f.floorName, f.description, CAST(f.isActive AS string),
-            COUNT(DISTINCT CASE WHEN r.isActive <> 'DELETED' THEN r.roomId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.roomCount, 0L), COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Floor f
         JOIN Building b ON b.buildingId = f.buildingId
-        LEFT JOIN Room r ON r.floorId = f.floorId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'FLOOR' AND lr.locationId = f.floorId
         WHERE f.tenantId = :tenantId AND f.buildingId = :buildingId AND f.isActive <> 'DELETED'
-        GROUP BY f.floorId, f.tenantId, f.orgId,
-                 f.buildingId, b.buildingName, b.buildingCode,
-                 f.floorNo, f.floorName, f.description, f.isActive
         ORDER BY f.floorNo
     """)
     Page<FloorResponseExpanded> findAllExpandedByBuilding(@Param("tenantId") Long tenantId,
@@ -304,27 +301,82 @@ public interface FloorRepository extends JpaRepository<Floor, Long> {
                                                       @Param("buildingId") Long buildingId,
                                                       Pageable pageable);
 
+    // --- Keyset (seek) pages: (floorNo, floorId) > cursor, no COUNT query ---
+    // Served by UNIQUE (tenant_id, building_id, floor_no)
+    @Query("""
+        SELECT new com.cmms.location.dto.response.FloorResponseBasic(
+            f.floorId, f.tenantId, f.orgId, f.buildingId,
+            f.floorNo, f.floorName, f.description, CAST(f.isActive AS string)
+        )
+        FROM Floor f
+        WHERE f.tenantId = :tenantId AND f.buildingId = :buildingId AND f.isActive <> 'DELETED'
+          AND (f.floorNo, f.floorId) > (:afterNo, :afterId)
+        ORDER BY f.floorNo, f.floorId
+    """)
+    List<FloorResponseBasic> findVisibleAfter(@Param("tenantId") Long tenantId,
+                                              @Param("buildingId") Long buildingId,
+                                              @Param("afterNo") Integer afterNo,
+                                              @Param("afterId") Long afterId,
+                                              Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.FloorResponseExpanded(
+            f.floorId, f.tenantId, f.orgId,
+            f.buildingId, b.buildingName, b.buildingCode,
+            f.floorNo, f.floorName, f.description, CAST(f.isActive AS string),
+            COALESCE(lr.roomCount, 0L), COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
+        )
+        FROM Floor f
+        JOIN Building b ON b.buildingId = f.buildingId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'FLOOR' AND lr.locationId = f.floorId
+        WHERE f.tenantId = :tenantId AND f.buildingId = :buildingId AND f.isActive <> 'DELETED'
+          AND (f.floorNo, f.floorId) > (:afterNo, :afterId)
+        ORDER BY f.floorNo, f.floorId
+    """)
+    List<FloorResponseExpanded> findExpandedAfter(@Param("tenantId") Long tenantId,
+                                                  @Param("buildingId") Long buildingId,
+                                                  @Param("afterNo") Integer afterNo,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.FloorResponseBasic(
+            f.floorId, f.tenantId, f.orgId, f.buildingId,
+            f.floorNo, f.floorName, f.description, CAST(f.isActive AS string)
+        )
+        FROM Floor f
+        WHERE f.tenantId = :tenantId AND f.buildingId = :buildingId AND f.isActive = 'ACTIVE'
+          AND (f.floorNo, f.floorId) > (:afterNo, :afterId)
+        ORDER BY f.floorNo, f.floorId
+    """)
+    List<FloorResponseBasic> findActiveAfter(@Param("tenantId") Long tenantId,
+                                             @Param("buildingId") Long buildingId,
+                                             @Param("afterNo") Integer afterNo,
+                                             @Param("afterId") Long afterId,
+                                             Pageable window);
+
     // --- Single record ---
     Optional<Floor> findByFloorIdAndTenantId(Long floorId, Long tenantId);
 
-    // --- Single expanded ---
+    // --- Which of these floors exist for the tenant (room create-bulk parent check) ---
+    @Query("SELECT f.floorId FROM Floor f WHERE f.tenantId = :tenantId AND f.floorId IN :floorIds")
+    List<Long> findExistingIds(@Param("tenantId") Long tenantId,
+                               @Param("floorIds") Collection<Long> floorIds);
+
+    // --- Single expanded (counts from location_count_rollup) ---
     @Query("""
         SELECT new com.cmms.location.dto.response.FloorResponseExpanded(
             f.floorId, f.tenantId, f.orgId,
             f.buildingId, b.buildingName, b.buildingCode,
             f.floorNo, f.floorName, f.description, CAST(f.isActive AS string),
-            COUNT(DISTINCT CASE WHEN r.isActive <> 'DELETED' THEN r.roomId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.roomCount, 0L), COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Floor f
         JOIN Building b ON b.buildingId = f.buildingId
-        LEFT JOIN Room r ON r.floorId = f.floorId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'FLOOR' AND lr.locationId = f.floorId
         WHERE f.floorId = :floorId AND f.tenantId = :tenantId
-        GROUP BY f.floorId, f.tenantId, f.orgId,
-                 f.buildingId, b.buildingName, b.buildingCode,
-                 f.floorNo, f.floorName, f.description, f.isActive
     """)
     Optional<FloorResponseExpanded> findByIdExpanded(@Param("floorId") Long floorId,
                                                       @Param("tenantId") Long tenantId);
@@ -346,6 +398,8 @@ import com.cmms.location.dto.response.FloorResponseExpanded;
 import com.cmms.location.entity.Floor;
 import com.cmms.location.repository.FloorRepository;
 import com.cmms.location.repository.BuildingRepository;
+import com.cmms.common.dto.CursorPage;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.StatusToggleRequest;
 import com.cmms.common.enums.RecordStatus;
 import com.cmms.common.exception.*;
@@ -364,6 +418,7 @@ public class FloorService {
 
     private final FloorRepository floorRepository;
     private final BuildingRepository buildingRepository;
+    private final LocationRollupService rollupService;
     private final JwtService jwtService;
 
     @Transactional(rollbackFor = Exception.class)
@@ -392,6 +447,7 @@ public class FloorService {
                 .build();
 
         entity = floorRepository.save(entity);
+        rollupService.onFloorCreated(tenantId, entity.getFloorId(), entity.getBuildingId(), initialIsActive);
         return mapToBasic(entity);
     }
 
@@ -421,6 +477,8 @@ public class FloorService {
                 "Floor number " + req.getFloorNo() + " already exists in this building");
         }
 
+        rollupService.onFloorMoved(entity.getFloorId(), entity.getBuildingId(), req.getBuildingId(), entity.getIsActive());
+
         entity.setOrgId(req.getOrgId());
         entity.setBuildingId(req.getBuildingId());
         entity.setFloorNo(req.getFloorNo());
@@ -443,6 +501,7 @@ public class FloorService {
             throw new InvalidStatusException("Floor is already deleted.");
         }
 
+        rollupService.onFloorStatusChanged(entity.getBuildingId(), entity.getIsActive(), RecordStatus.DELETED);
         entity.setIsActive(RecordStatus.DELETED);
         floorRepository.save(entity);
     }
@@ -463,6 +522,7 @@ public class FloorService {
             throw new InvalidStatusException("Use DELETE endpoint to soft-delete.");
         }
 
+        rollupService.onFloorStatusChanged(entity.getBuildingId(), entity.getIsActive(), newIsActive);
         entity.setIsActive(newIsActive);
         entity = floorRepository.save(entity);
         return mapToBasic(entity);
@@ -479,6 +539,31 @@ public class FloorService {
         return floorRepository.findAllActiveByBuilding(tenantId, buildingId, pageable);
     }
 
+    // Keyset mode: cursor key is floorNo; first page starts below any real floor (basements are negative)
+    public CursorPage<?> getAllKeyset(Long buildingId, boolean expand, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, String.valueOf(Integer.MIN_VALUE));
+        if (expand) {
+            return CursorPage.of(
+                    floorRepository.findExpandedAfter(tenantId, buildingId, after.getKeyAsInt(), after.getId(),
+                            KeysetCursor.window(limit)),
+                    limit, f -> KeysetCursor.encode(f.getFloorNo(), f.getFloorId()));
+        }
+        return CursorPage.of(
+                floorRepository.findVisibleAfter(tenantId, buildingId, after.getKeyAsInt(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, f -> KeysetCursor.encode(f.getFloorNo(), f.getFloorId()));
+    }
+
+    public CursorPage<FloorResponseBasic> getAllActiveKeyset(Long buildingId, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, String.valueOf(Integer.MIN_VALUE));
+        return CursorPage.of(
+                floorRepository.findActiveAfter(tenantId, buildingId, after.getKeyAsInt(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, f -> KeysetCursor.encode(f.getFloorNo(), f.getFloorId()));
+    }
+
     public Object getById(Long floorId, boolean expand) {
         Long tenantId = jwtService.getTenantId();
         if (expand) {
@@ -517,6 +602,7 @@ package com.cmms.location.controller;
 
 import com.cmms.location.dto.request.*;
 import com.cmms.location.service.FloorService;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
 import jakarta.validation.Valid;
@@ -571,16 +657,24 @@ public class FloorController {
     public ResponseEntity<ResponseDto> getAll(
             @RequestParam("buildingId") Long buildingId,
             @RequestParam(value = "expand", defaultValue = "false") boolean expand,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 50, sort = "floorNo") Pageable pageable) {
-        var result = floorService.getAll(buildingId, expand, pageable);
+        Object result = (cursor != null || limit != null)
+                ? floorService.getAllKeyset(buildingId, expand, cursor, KeysetCursor.clampLimit(limit))
+                : floorService.getAll(buildingId, expand, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Floors retrieved", result));
     }
 
     @PostMapping("/get-all-active")
     public ResponseEntity<ResponseDto> getAllActive(
             @RequestParam("buildingId") Long buildingId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 50) Pageable pageable) {
-        var result = floorService.getAllActive(buildingId, pageable);
+        Object result = (cursor != null || limit != null)
+                ? floorService.getAllActiveKeyset(buildingId, cursor, KeysetCursor.clampLimit(limit))
+                : floorService.getAllActive(buildingId, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Active floors retrieved", result));
     }
 
@@ -0,0 +1,803 @@
+// ============================================================================
+// TOOL MODULE: cmms-loadtest (end-to-end HTTP load test with SLO gate)
+// Tables      : (reads ids only) floor, room, roles, biomedical_stores, inlet_power,
+//               resources, actions -- data comes from cmms-datagen
+// Stack       : Java 17+, java.net.http.HttpClient, HdrHistogram 2.x, Jackson,
+//               Spring Boot 3.x (to boot the app in-process, profile "loadtest")
+// PURPOSE     : p50 / p99 / p99.9 per endpoint under an OPEN workload: requests
+//               are issued at a constant arrival rate whether or not earlier ones
+//               have returned, and latency is measured from the request's
+//               *intended* start time -- a slow server cannot slow the client
+//               down and hide its own queueing (no coordinated omission).
+//               The run fails (exit 1) when any scenario breaches its SLO.
+//
+// Scenarios (built in, rates / SLOs from the plan file):
+//   room-get-all-expanded      GET  /api/room/get-all?floorId=&expand=true
+//   bed-auto-generate          POST /api/bed/auto-generate
+//   role-permission-bulk-save  POST /api/role-permission/bulk-save
+//   store-item-config-list     GET  /api/store-item-config/store/{storeId}
+//   store-low-stock            GET  /api/store-item-config/store/{storeId}/low-stock
+//   device-option-tree         GET  /api/device/option-tree
+//   device-equipment-types     GET  /api/device/equipment-type/get-all?inletPowerId=
+// ============================================================================
+
+
+// ============================================================================
+// 1. LoadTestIdentityConfig.java
+// Package: com.cmms.loadtest.support
+// Active only with spring.profiles.active=loadtest. Replaces the JWT-backed
+// identity beans with ones that read the caller from request headers, so one
+// run can spread load over many tenants without minting tokens:
+//   X-LoadTest-Tenant, X-LoadTest-Org, X-LoadTest-User, X-LoadTest-Role
+// Never enable this profile outside a load-test environment.
+// ============================================================================
+
+package com.cmms.loadtest.support;
+
+import com.cmms.datagen.SyntheticDataGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Configuration
+@Profile("loadtest")
+public class LoadTestIdentityConfig {
+
+    public static final String TENANT = "X-LoadTest-Tenant";
+    public static final String ORG = "X-LoadTest-Org";
+    public static final String USER = "X-LoadTest-User";
+    public static final String ROLE = "X-LoadTest-Role";
+
+    @Bean
+    @Primary
+    public com.cmms.common.service.JwtService loadTestJwtService() {
+        return new com.cmms.common.service.JwtService() {
+            public Long getTenantId() { return longHeader(TENANT); }
+            public Long getOrgId()    { return longHeader(ORG); }
+            public Long getUserId()   { return longHeader(USER); }
+            public String getRole()   { return header(ROLE); }
+        };
+    }
+
+    @Bean
+    @Primary
+    public com.cmms.security.JwtService loadTestSecurityJwtService() {
+        return new com.cmms.security.JwtService() {
+            public Long getTenantId() { return longHeader(TENANT); }
+            public Long getOrgId()    { return longHeader(ORG); }
+            public Long getUserId()   { return longHeader(USER); }
+            public String getRole()   { return header(ROLE); }
+        };
+    }
+
+    // Store module: tenant / hospital UUIDs derived the same way cmms-datagen wrote them
+    @Bean
+    @Primary
+    public UserService loadTestUserService() {
+        return new UserService() {
+            @Override
+            public UserContext getCurrentUserContext(HttpServletRequest request) {
+                long tenantId = Long.parseLong(request.getHeader(TENANT));
+                long orgId = Long.parseLong(request.getHeader(ORG));
+                return UserContext.builder()
+                        .tenantId(UUID.nameUUIDFromBytes(("cmms-datagen:tenant:" + tenantId)
+                                .getBytes(StandardCharsets.UTF_8)))
+                        .hospitalId(SyntheticDataGenerator.hospitalId(tenantId, orgId))
+                        .build();
+            }
+        };
+    }
+
+    private static String header(String name) {
+        HttpServletRequest req = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        return req.getHeader(name);
+    }
+
+    private static Long longHeader(String name) {
+        String v = header(name);
+        return v == null ? null : Long.valueOf(v);
+    }
+}
+
+
+// ============================================================================
+// 2. LoadTestPlan.java
+// Package: com.cmms.loadtest
+// JSON plan (see NOTES). Every scenario has its own constant arrival rate and
+// SLO; scenarios not listed are not run.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor
+public class LoadTestPlan {
+
+    private String baseUrl;                    // null = boot the app in-process
+    private int warmupSeconds = 30;            // load applied, nothing recorded
+    private int durationSeconds = 120;         // recorded
+    private long firstTenantId = 10_000L;      // cmms-datagen tenant range
+    private int tenants = 1;
+    private String role = "ROLE_0001";         // sent as X-LoadTest-Role
+    private int maxInFlight = 2_000;           // per scenario; beyond it a request counts as failed
+    private int requestTimeoutSeconds = 30;
+    private List<ScenarioPlan> scenarios = new ArrayList<>();
+
+    @Getter @Setter @NoArgsConstructor
+    public static class ScenarioPlan {
+        private String name;
+        private double ratePerSecond;
+        private Slo slo = new Slo();
+    }
+
+    // Latency limits in milliseconds; null = not checked
+    @Getter @Setter @NoArgsConstructor
+    public static class Slo {
+        private Double p50Ms;
+        private Double p99Ms;
+        private Double p999Ms;
+        private double maxErrorPct = 0.1;
+    }
+}
+
+
+// ============================================================================
+// 3. Dataset.java
+// Package: com.cmms.loadtest
+// Ids the scenarios pick from, loaded once per run for the tenant range.
+// Only ACTIVE rows, so requests do not fail on purpose.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import com.cmms.datagen.SyntheticDataGenerator;
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+
+public final class Dataset {
+
+    public record Room(long roomId, long orgId) {}
+    public record Store(UUID storeId, long orgId) {}
+
+    public static final class Tenant {
+        final long tenantId;
+        final List<Long> floorIds = new ArrayList<>();
+        final List<Room> rooms = new ArrayList<>();
+        final List<Long> roleIds = new ArrayList<>();
+        final List<Store> stores = new ArrayList<>();
+        final List<Long> inletPowerIds = new ArrayList<>();
+
+        Tenant(long tenantId) { this.tenantId = tenantId; }
+
+        public long tenantId() { return tenantId; }
+    }
+
+    final List<Tenant> tenants = new ArrayList<>();
+    final long[] leafResourceIds;
+    final long[] actionIds;
+
+    private Dataset(List<Tenant> tenants, long[] leafResourceIds, long[] actionIds) {
+        this.tenants.addAll(tenants);
+        this.leafResourceIds = leafResourceIds;
+        this.actionIds = actionIds;
+    }
+
+    public static Dataset load(DataSource ds, long firstTenantId, int count) throws SQLException {
+        long last = firstTenantId + count - 1;
+        Map<Long, Tenant> byId = new LinkedHashMap<>();
+        for (long t = firstTenantId; t <= last; t++) byId.put(t, new Tenant(t));
+
+        try (Connection con = ds.getConnection()) {
+            rows(con, "SELECT tenant_id, floor_id FROM floor WHERE tenant_id BETWEEN ? AND ? AND is_active = 'ACTIVE'",
+                    firstTenantId, last, rs -> byId.get(rs.getLong(1)).floorIds.add(rs.getLong(2)));
+            // Rooms with a DELETED bed are left out: bed auto-generate numbers from the visible beds,
+            // and a deleted bed still holds its bed_no in UNIQUE (tenant_id, room_id, bed_no)
+            rows(con, """
+                    SELECT r.tenant_id, r.room_id, r.org_id FROM room r
+                    WHERE r.tenant_id BETWEEN ? AND ? AND r.is_active = 'ACTIVE'
+                      AND NOT EXISTS (SELECT 1 FROM bed b WHERE b.tenant_id = r.tenant_id AND b.room_id = r.room_id
+                                                            AND b.is_active = 'DELETED')
+                    """,
+                    firstTenantId, last, rs -> byId.get(rs.getLong(1)).rooms.add(new Room(rs.getLong(2), rs.getLong(3))));
+            rows(con, "SELECT tenant_id, id FROM roles WHERE tenant_id BETWEEN ? AND ?",
+                    firstTenantId, last, rs -> byId.get(rs.getLong(1)).roleIds.add(rs.getLong(2)));
+            rows(con, "SELECT tenant_id, id, org_id FROM biomedical_stores WHERE tenant_id BETWEEN ? AND ? AND is_active = 'ACTIVE'",
+                    firstTenantId, last, rs -> byId.get(rs.getLong(1)).stores.add(
+                            new Store(rs.getObject(2, UUID.class), rs.getLong(3))));
+            rows(con, "SELECT tenant_id, id FROM inlet_power WHERE tenant_id BETWEEN ? AND ? AND is_active = 'ACTIVE'",
+                    firstTenantId, last, rs -> byId.get(rs.getLong(1)).inletPowerIds.add(rs.getLong(2)));
+
+            List<Long> leaves = new ArrayList<>(), actions = new ArrayList<>();
+            ids(con, """
+                    SELECT r.id FROM resources r WHERE r.is_active = 'ACTIVE'
+                      AND NOT EXISTS (SELECT 1 FROM resources c WHERE c.parent_id = r.id AND c.is_active = 'ACTIVE')
+                    """, leaves);
+            ids(con, "SELECT id FROM actions WHERE is_active = 'ACTIVE'", actions);
+
+            for (Tenant t : byId.values()) {
+                if (t.floorIds.isEmpty() || t.roleIds.isEmpty())
+                    throw new IllegalStateException("Tenant " + t.tenantId + " has no generated data -- run cmms-datagen first");
+            }
+            return new Dataset(new ArrayList<>(byId.values()),
+                    leaves.stream().mapToLong(Long::longValue).toArray(),
+                    actions.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    public static UUID hospitalId(Tenant t, Store s) {
+        return SyntheticDataGenerator.hospitalId(t.tenantId, s.orgId());
+    }
+
+    interface RowConsumer {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    private static void ids(Connection con, String sql, List<Long> into) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) into.add(rs.getLong(1));
+        }
+    }
+
+    private static void rows(Connection con, String sql, long a, long b, RowConsumer consumer) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, a);
+            ps.setLong(2, b);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) consumer.accept(rs);
+            }
+        }
+    }
+}
+
+
+// ============================================================================
+// 4. Scenarios.java
+// Package: com.cmms.loadtest
+// Request builders by scenario name. Each call picks a random tenant (uniform)
+// and random ids inside it; identity goes in the X-LoadTest-* headers.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import com.cmms.loadtest.support.LoadTestIdentityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+final class Scenarios {
+
+    interface Scenario {
+        HttpRequest next();
+
+        // Response (or error) for a request from next() is in
+        default void done(HttpRequest request) {}
+    }
+
+    private record RoomLease(Queue<Dataset.Room> free, Dataset.Room room) {}
+
+    private final Dataset data;
+    private final String baseUrl;
+    private final String role;
+    private final Duration timeout;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Function<Scenarios, Scenario>> catalog = Map.of(
+            "room-get-all-expanded", Scenarios::roomGetAllExpanded,
+            "bed-auto-generate", Scenarios::bedAutoGenerate,
+            "role-permission-bulk-save", Scenarios::rolePermissionBulkSave,
+            "store-item-config-list", Scenarios::storeItemConfigList,
+            "store-low-stock", Scenarios::storeLowStock,
+            "device-option-tree", Scenarios::deviceOptionTree,
+            "device-equipment-types", Scenarios::deviceEquipmentTypes);
+
+    Scenarios(Dataset data, String baseUrl, String role, Duration timeout) {
+        this.data = data;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.role = role;
+        this.timeout = timeout;
+    }
+
+    Scenario get(String name) {
+        Function<Scenarios, Scenario> f = catalog.get(name);
+        if (f == null) throw new IllegalArgumentException("Unknown scenario '" + name + "', known: " + catalog.keySet());
+        return f.apply(this);
+    }
+
+    // ---------- SCENARIOS ----------
+    private Scenario roomGetAllExpanded() {
+        return () -> {
+            Dataset.Tenant t = tenant();
+            return request(t, 1L, "/api/room/get-all?expand=true&floorId=" + pick(t.floorIds)).GET().build();
+        };
+    }
+
+    // bed_no = visible beds in the room + i, so two calls on one room in flight at once would
+    // pick the same numbers. Each room is leased to one request at a time and goes to the back
+    // of its tenant's queue when the response arrives. A request that timed out on the client
+    // may still be running on the server; keep requestTimeoutSeconds above the p99.9.
+    private Scenario bedAutoGenerate() {
+        Map<Dataset.Tenant, Queue<Dataset.Room>> free = new HashMap<>();
+        for (Dataset.Tenant t : data.tenants) {
+            List<Dataset.Room> rooms = new ArrayList<>(t.rooms);
+            Collections.shuffle(rooms);
+            free.put(t, new ConcurrentLinkedQueue<>(rooms));
+        }
+        // HttpRequest equality is method + URI + headers: key by identity
+        Map<HttpRequest, RoomLease> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+        return new Scenario() {
+            @Override
+            public HttpRequest next() {
+                Dataset.Tenant t = tenant();
+                Queue<Dataset.Room> rooms = free.get(t);
+                Dataset.Room room = rooms.poll();
+                if (room == null) throw new IllegalStateException("No free room in tenant " + t.tenantId());
+                String prefix = "LT" + Long.toString(sequence.incrementAndGet(), 36) + "-";
+                HttpRequest req = post(t, room.orgId(), "/api/bed/auto-generate",
+                        Map.of("orgId", room.orgId(), "roomId", room.roomId(), "count", 4, "prefix", prefix));
+                leases.put(req, new RoomLease(rooms, room));
+                return req;
+            }
+
+            @Override
+            public void done(HttpRequest request) {
+                RoomLease lease = leases.remove(request);
+                if (lease != null) lease.free().add(lease.room());
+            }
+        };
+    }
+
+    // A realistic grid save: every leaf x action cell, ~half allowed
+    private Scenario rolePermissionBulkSave() {
+        return () -> {
+            Dataset.Tenant t = tenant();
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            List<Map<String, Object>> permissions = new ArrayList<>(data.leafResourceIds.length * data.actionIds.length);
+            for (long r : data.leafResourceIds) {
+                for (long a : data.actionIds) {
+                    permissions.add(Map.of("resourceId", r, "actionId", a, "isAllowed", rnd.nextBoolean()));
+                }
+            }
+            return post(t, 1L, "/api/role-permission/bulk-save",
+                    Map.of("roleId", pick(t.roleIds), "permissions", permissions));
+        };
+    }
+
+    private Scenario storeItemConfigList() {
+        return () -> {
+            Dataset.Tenant t = tenant();
+            Dataset.Store s = pick(t.stores);
+            return request(t, s.orgId(), "/api/store-item-config/store/" + s.storeId()).GET().build();
+        };
+    }
+
+    private Scenario storeLowStock() {
+        return () -> {
+            Dataset.Tenant t = tenant();
+            Dataset.Store s = pick(t.stores);
+            return request(t, s.orgId(), "/api/store-item-config/store/" + s.storeId() + "/low-stock").GET().build();
+        };
+    }
+
+    // No If-None-Match: measures the full body, not the 304 path
+    private Scenario deviceOptionTree() {
+        return () -> request(tenant(), 1L, "/api/device/option-tree").GET().build();
+    }
+
+    private Scenario deviceEquipmentTypes() {
+        return () -> {
+            Dataset.Tenant t = tenant();
+            return request(t, 1L, "/api/device/equipment-type/get-all?inletPowerId=" + pick(t.inletPowerIds)).GET().build();
+        };
+    }
+
+    // ---------- HELPERS ----------
+    private HttpRequest.Builder request(Dataset.Tenant t, long orgId, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header(LoadTestIdentityConfig.TENANT, String.valueOf(t.tenantId()))
+                .header(LoadTestIdentityConfig.ORG, String.valueOf(orgId))
+                .header(LoadTestIdentityConfig.USER, "1")
+                .header(LoadTestIdentityConfig.ROLE, role)
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest post(Dataset.Tenant t, long orgId, String path, Object body) {
+        try {
+            return request(t, orgId, path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Dataset.Tenant tenant() {
+        return pick(data.tenants);
+    }
+
+    private static <T> T pick(List<T> list) {
+        if (list.isEmpty()) throw new IllegalStateException("No generated rows to pick from");
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
+    }
+}
+
+
+// ============================================================================
+// 5. OpenModelDriver.java
+// Package: com.cmms.loadtest
+// One pacing thread per scenario: request i is due at start + i / rate. The
+// thread sleeps until it is due, fires it asynchronously and moves on; it
+// never waits for a response. Latency = completion - due time, so time a
+// request spent queued behind a slow server (or a late pacing thread) counts.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class OpenModelDriver {
+
+    // 1 us .. 5 min, 3 significant digits
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    @Getter
+    static final class ScenarioStats {
+        private final String name;
+        private final double targetRate;
+        private final Recorder latency = new Recorder(HIGHEST_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder saturated = new LongAdder();            // not sent: maxInFlight reached
+        private final Map<String, LongAdder> failuresByCause = new ConcurrentHashMap<>();
+        private Histogram histogram;
+
+        ScenarioStats(String name, double targetRate) {
+            this.name = name;
+            this.targetRate = targetRate;
+        }
+
+        void fail(String cause) {
+            failed.increment();
+            failuresByCause.computeIfAbsent(cause, k -> new LongAdder()).increment();
+        }
+    }
+
+    private final HttpClient client;
+    private final int maxInFlight;
+
+    OpenModelDriver(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+    }
+
+    List<ScenarioStats> run(Map<String, Scenarios.Scenario> scenarios, Map<String, Double> rates,
+                            int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<ScenarioStats> stats = new ArrayList<>();
+        List<Thread> pacers = new ArrayList<>();
+        List<AtomicInteger> inFlight = new ArrayList<>();
+        for (Map.Entry<String, Scenarios.Scenario> e : scenarios.entrySet()) {
+            ScenarioStats s = new ScenarioStats(e.getKey(), rates.get(e.getKey()));
+            AtomicInteger open = new AtomicInteger();
+            stats.add(s);
+            inFlight.add(open);
+            Thread t = new Thread(() -> pace(e.getValue(), s, open, start, measureFrom, end), "pacer-" + e.getKey());
+            t.setDaemon(true);
+            pacers.add(t);
+        }
+        pacers.forEach(Thread::start);
+        for (Thread t : pacers) t.join();
+
+        // Let in-flight requests finish (bounded by the request timeout)
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.stream().anyMatch(a -> a.get() > 0) && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+        for (ScenarioStats s : stats) s.histogram = s.latency.getIntervalHistogram();
+        return stats;
+    }
+
+    private void pace(Scenarios.Scenario scenario, ScenarioStats stats, AtomicInteger inFlight,
+                      long start, long measureFrom, long end) {
+        double intervalNanos = 1e9 / stats.targetRate;
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end) return;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            boolean measured = due >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) stats.saturated.increment();
+                continue;
+            }
+            HttpRequest request;
+            try {
+                request = scenario.next();
+            } catch (IllegalStateException e) {
+                // Scenario cannot build a request right now (e.g. every room leased)
+                if (measured) stats.fail(e.getMessage());
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, err) -> {
+                        inFlight.decrementAndGet();
+                        scenario.done(request);
+                        if (!measured) return;
+                        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due), HIGHEST_MICROS);
+                        stats.latency.recordValue(Math.max(1, micros));
+                        if (err != null) stats.fail(err.getClass().getSimpleName());
+                        else if (resp.statusCode() >= 400) stats.fail("HTTP " + resp.statusCode());
+                        else stats.ok.increment();
+                    });
+        }
+    }
+}
+
+
+// ============================================================================
+// 6. SloReport.java
+// Package: com.cmms.loadtest
+// Console table + JSON file (target/loadtest/<timestamp>.json). Saturated
+// requests count as errors: under an open model they are users who got nothing.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+final class SloReport {
+
+    record Row(String scenario, double targetRate, double achievedRate, long requests, long errors,
+               double errorPct, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+               Map<String, Long> failures, List<String> breaches) {}
+
+    private final List<Row> rows = new ArrayList<>();
+
+    SloReport(List<OpenModelDriver.ScenarioStats> stats, Map<String, LoadTestPlan.Slo> slos, int durationSeconds) {
+        for (OpenModelDriver.ScenarioStats s : stats) {
+            Histogram h = s.getHistogram();
+            long errors = s.getFailed().sum() + s.getSaturated().sum();
+            long requests = s.getOk().sum() + errors;
+            double errorPct = requests == 0 ? 0 : errors * 100.0 / requests;
+            Map<String, Long> failures = new TreeMap<>();
+            s.getFailuresByCause().forEach((k, v) -> failures.put(k, v.sum()));
+            if (s.getSaturated().sum() > 0) failures.put("client saturated", s.getSaturated().sum());
+
+            Row row = new Row(s.getName(), s.getTargetRate(), (double) requests / durationSeconds, requests, errors,
+                    errorPct, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0,
+                    failures, new ArrayList<>());
+            LoadTestPlan.Slo slo = slos.get(s.getName());
+            check(row, "p50", row.p50Ms(), slo.getP50Ms());
+            check(row, "p99", row.p99Ms(), slo.getP99Ms());
+            check(row, "p99.9", row.p999Ms(), slo.getP999Ms());
+            if (errorPct > slo.getMaxErrorPct())
+                row.breaches().add(String.format("errors %.2f%% > %.2f%%", errorPct, slo.getMaxErrorPct()));
+            if (requests == 0) row.breaches().add("no requests completed");
+            rows.add(row);
+        }
+    }
+
+    boolean passed() {
+        return rows.stream().allMatch(r -> r.breaches().isEmpty());
+    }
+
+    void print() {
+        System.out.printf("%n%-28s %8s %8s %9s %7s %9s %9s %9s %9s %9s  %s%n",
+                "scenario", "target/s", "actual/s", "requests", "err%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "SLO");
+        for (Row r : rows) {
+            System.out.printf("%-28s %8.1f %8.1f %9d %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    r.scenario(), r.targetRate(), r.achievedRate(), r.requests(), r.errorPct(),
+                    r.p50Ms(), r.p90Ms(), r.p99Ms(), r.p999Ms(), r.maxMs(),
+                    r.breaches().isEmpty() ? "ok" : "BREACH " + String.join("; ", r.breaches()));
+            if (!r.failures().isEmpty()) System.out.printf("%-28s failures: %s%n", "", r.failures());
+        }
+        System.out.println(passed() ? "\nSLO: PASSED" : "\nSLO: FAILED");
+    }
+
+    Path write() throws Exception {
+        Path out = Path.of("target", "loadtest",
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.createDirectories(out.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(out.toFile(), Map.of("passed", passed(), "scenarios", rows));
+        return out;
+    }
+
+    private static void check(Row row, String label, double actual, Double limit) {
+        if (limit != null && actual > limit)
+            row.breaches().add(String.format("%s %.1f ms > %.1f ms", label, actual, limit));
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
+
+
+// ============================================================================
+// 7. LoadTestMain.java
+// Package: com.cmms.loadtest
+// java -jar cmms-loadtest.jar --plan=plan.json --jdbc-url=jdbc:postgresql://localhost/cmms_load
+//      [--jdbc-user=] [--jdbc-password=] [--app-class=com.cmms.CmmsApplication]
+// Without baseUrl in the plan the application is booted in this JVM on a
+// random port with the "loadtest" profile against the same database.
+// Exit code: 0 = all SLOs met, 1 = breach, 2 = bad arguments.
+// ============================================================================
+
+package com.cmms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.File;
+import java.time.Duration;
+import java.util.*;
+
+public final class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (!a.startsWith("--") || eq < 0) usage("Unexpected argument: " + a);
+            opts.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        if (!opts.containsKey("plan") || !opts.containsKey("jdbc-url")) usage(null);
+
+        LoadTestPlan plan = new ObjectMapper().readValue(new File(opts.get("plan")), LoadTestPlan.class);
+        if (plan.getScenarios().isEmpty()) usage("Plan has no scenarios");
+
+        PGSimpleDataSource ds = new PGSimpleDataSource();
+        ds.setUrl(opts.get("jdbc-url"));
+        ds.setUser(opts.getOrDefault("jdbc-user", "postgres"));
+        ds.setPassword(opts.getOrDefault("jdbc-password", "postgres"));
+        Dataset data = Dataset.load(ds, plan.getFirstTenantId(), plan.getTenants());
+
+        ConfigurableApplicationContext app = null;
+        String baseUrl = plan.getBaseUrl();
+        if (baseUrl == null) {
+            app = new SpringApplicationBuilder(Class.forName(opts.getOrDefault("app-class", "com.cmms.CmmsApplication")))
+                    .profiles("loadtest")
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=" + opts.get("jdbc-url"),
+                            "spring.datasource.username=" + ds.getUser(),
+                            "spring.datasource.password=" + ds.getPassword(),
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN")
+                    .run();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        }
+
+        try {
+            Scenarios catalog = new Scenarios(data, baseUrl, plan.getRole(),
+                    Duration.ofSeconds(plan.getRequestTimeoutSeconds()));
+            Map<String, Scenarios.Scenario> scenarios = new LinkedHashMap<>();
+            Map<String, Double> rates = new HashMap<>();
+            Map<String, LoadTestPlan.Slo> slos = new HashMap<>();
+            for (LoadTestPlan.ScenarioPlan s : plan.getScenarios()) {
+                if (s.getRatePerSecond() <= 0) usage("ratePerSecond must be > 0 for " + s.getName());
+                scenarios.put(s.getName(), catalog.get(s.getName()));
+                rates.put(s.getName(), s.getRatePerSecond());
+                slos.put(s.getName(), s.getSlo());
+            }
+
+            System.out.printf("Load test against %s: %d scenario(s), %d tenant(s), warmup %ds, measure %ds%n",
+                    baseUrl, scenarios.size(), plan.getTenants(), plan.getWarmupSeconds(), plan.getDurationSeconds());
+            List<OpenModelDriver.ScenarioStats> stats = new OpenModelDriver(plan.getMaxInFlight())
+                    .run(scenarios, rates, plan.getWarmupSeconds(), plan.getDurationSeconds());
+
+            SloReport report = new SloReport(stats, slos, plan.getDurationSeconds());
+            report.print();
+            System.out.println("Report: " + report.write().toAbsolutePath());
+            System.exit(report.passed() ? 0 : 1);
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("usage: cmms-loadtest --plan=<plan.json> --jdbc-url=<url> [--jdbc-user=] [--jdbc-password=] "
+                + "[--app-class=<@SpringBootApplication class>]");
+        System.exit(2);
+    }
+}
+
+
+// ============================================================================
+// 8. NOTES
+// ============================================================================
+
+/*
+MODULE:
+  cmms-loadtest/pom.xml -- depends on the application module and cmms-datagen;
+  org.hdrhistogram:HdrHistogram 2.1.12, org.postgresql:postgresql, jackson-databind.
+  Shaded jar, Main-Class com.cmms.loadtest.LoadTestMain.
+  LoadTestIdentityConfig lives under com.cmms so the app's component scan finds it;
+  it only activates with the "loadtest" profile. It assumes UserService can be
+  subclassed and UserContext has a builder (tenantId / hospitalId as UUID).
+
+RUN:
+  1. cmms-datagen --url=jdbc:postgresql://localhost/cmms_load --profile=large --replace
+  2. java -jar cmms-loadtest.jar --plan=loadtest/plan-default.json --jdbc-url=jdbc:postgresql://localhost/cmms_load
+
+PLAN (loadtest/plan-default.json):
+{
+  "warmupSeconds": 30,
+  "durationSeconds": 120,
+  "firstTenantId": 10000,
+  "tenants": 20,
+  "role": "ROLE_0001",
+  "maxInFlight": 2000,
+  "scenarios": [
+    { "name": "room-get-all-expanded",     "ratePerSecond": 200, "slo": { "p50Ms": 15, "p99Ms": 80,  "p999Ms": 250, "maxErrorPct": 0.1 } },
+    { "name": "bed-auto-generate",         "ratePerSecond": 10,  "slo": { "p50Ms": 40, "p99Ms": 200, "p999Ms": 500, "maxErrorPct": 0.1 } },
+    { "name": "role-permission-bulk-save", "ratePerSecond": 5,   "slo": { "p50Ms": 60, "p99Ms": 300, "p999Ms": 800, "maxErrorPct": 0.1 } },
+    { "name": "store-item-config-list",    "ratePerSecond": 50,  "slo": { "p50Ms": 30, "p99Ms": 150, "maxErrorPct": 0.1 } },
+    { "name": "store-low-stock",           "ratePerSecond": 20,  "slo": { "p50Ms": 30, "p99Ms": 150, "maxErrorPct": 0.1 } },
+    { "name": "device-option-tree",        "ratePerSecond": 100, "slo": { "p50Ms": 5,  "p99Ms": 30,  "maxErrorPct": 0.1 } },
+    { "name": "device-equipment-types",    "ratePerSecond": 50,  "slo": { "p50Ms": 10, "p99Ms": 50,  "maxErrorPct": 0.1 } }
+  ]
+}
+  The SLO numbers above are starting points -- set them from a baseline run.
+
+OUTPUT:
+  scenario                     target/s actual/s  requests    err%    p50 ms    p90 ms    p99 ms  p99.9 ms    max ms  SLO
+  room-get-all-expanded           200.0    199.9     23990    0.00       8.4      14.1      41.3     112.0     180.2  ok
+  role-permission-bulk-save         5.0      5.0       600    0.00      71.2     140.8     352.3     611.1     611.1  BREACH p50 71.2 ms > 60.0 ms; p99 352.3 ms > 300.0 ms
+  SLO: FAILED
+  Report: target/loadtest/20261017-101500.json
+
+CAVEATS:
+  - bed-auto-generate and role-permission-bulk-save write: re-generate the
+    dataset (cmms-datagen --replace) before comparing runs
+  - The role in X-LoadTest-Role goes through the RBAC authorization engine; 403s
+    show up as "HTTP 403" failures -- use a role that holds the needed grants
+  - Run the load generator on a different machine (or pinned cores) from the
+    app for numbers you want to compare; in-process boot is for smoke runs / CI
+*/
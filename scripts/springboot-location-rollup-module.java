@@ -0,0 +1,398 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: location_count_rollup
+// Table       : location_count_rollup
+// Base Tables : building, floor, room, bed
+// Stack       : Java 17+, Spring Boot 3.x, JPA/Hibernate, PostgreSQL, JWT
+// Base URL    : (none -- internal, maintained by Floor/Room/Bed services)
+// PURPOSE     : Materialized floor/room/bed counts read by the expanded
+//               Building/Floor/Room projections, replacing the
+//               LEFT JOIN ... COUNT(DISTINCT CASE ...) subtree aggregation.
+// ============================================================================
+
+
+// ============================================================================
+// 1. ENTITY: LocationCountRollup.java
+// Package: com.cmms.location.entity
+// ============================================================================
+
+package com.cmms.location.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "location_count_rollup")
+@IdClass(LocationCountRollup.RollupKey.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class LocationCountRollup {
+
+    public enum RollupLevel { BUILDING, FLOOR, ROOM }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "location_level", nullable = false, length = 10)
+    private RollupLevel locationLevel;
+
+    @Id
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;             // building_id | floor_id | room_id
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "floor_count", nullable = false)
+    private Long floorCount;             // BUILDING rows only (non-deleted)
+
+    @Column(name = "room_count", nullable = false)
+    private Long roomCount;              // BUILDING / FLOOR rows (non-deleted)
+
+    @Column(name = "bed_count", nullable = false)
+    private Long bedCount;               // non-deleted
+
+    @Column(name = "active_bed_count", nullable = false)
+    private Long activeBedCount;         // ACTIVE only
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class RollupKey implements Serializable {
+        private RollupLevel locationLevel;
+        private Long locationId;
+    }
+}
+
+
+// ============================================================================
+// 2. REPOSITORY: LocationCountRollupRepository.java
+// Package: com.cmms.location.repository
+// All writes are single-statement relative updates (col = col + :delta), so
+// concurrent child writes never lose increments and need no row read first.
+// ============================================================================
+
+package com.cmms.location.repository;
+
+import com.cmms.location.entity.LocationCountRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface LocationCountRollupRepository
+        extends JpaRepository<LocationCountRollup, LocationCountRollup.RollupKey> {
+
+    Optional<LocationCountRollup> findByLocationLevelAndLocationId(
+            LocationCountRollup.RollupLevel locationLevel, Long locationId);
+
+    // --- Create the (zeroed) rollup row for a new building/floor/room ---
+    @Modifying
+    @Query(value = """
+        INSERT INTO location_count_rollup (location_level, location_id, tenant_id)
+        VALUES (:level, :locationId, :tenantId)
+        ON CONFLICT (location_level, location_id) DO NOTHING
+    """, nativeQuery = true)
+    void ensureRow(@Param("level") String level,
+                   @Param("locationId") Long locationId,
+                   @Param("tenantId") Long tenantId);
+
+    // --- Same, for a whole create-bulk batch in one statement ---
+    @Modifying
+    @Query(value = """
+        INSERT INTO location_count_rollup (location_level, location_id, tenant_id)
+        SELECT :level, id, :tenantId FROM unnest(CAST(:locationIds AS BIGINT[])) AS id
+        ON CONFLICT (location_level, location_id) DO NOTHING
+    """, nativeQuery = true)
+    void ensureRows(@Param("level") String level,
+                    @Param("locationIds") Long[] locationIds,
+                    @Param("tenantId") Long tenantId);
+
+    // --- Building row only (floor create/delete/toggle/move) ---
+    @Modifying
+    @Query(value = """
+        UPDATE location_count_rollup
+           SET floor_count      = floor_count + :dFloor,
+               room_count       = room_count + :dRoom,
+               bed_count        = bed_count + :dBed,
+               active_bed_count = active_bed_count + :dActiveBed,
+               updated_at       = NOW()
+         WHERE location_level = 'BUILDING' AND location_id = :buildingId
+    """, nativeQuery = true)
+    int addToBuilding(@Param("buildingId") Long buildingId,
+                      @Param("dFloor") long dFloor,
+                      @Param("dRoom") long dRoom,
+                      @Param("dBed") long dBed,
+                      @Param("dActiveBed") long dActiveBed);
+
+    // --- Floor row + its building (room create/delete/toggle/move) ---
+    @Modifying
+    @Query(value = """
+        UPDATE location_count_rollup
+           SET room_count       = room_count + :dRoom,
+               bed_count        = bed_count + :dBed,
+               active_bed_count = active_bed_count + :dActiveBed,
+               updated_at       = NOW()
+         WHERE (location_level = 'FLOOR' AND location_id = :floorId)
+            OR (location_level = 'BUILDING'
+                AND location_id = (SELECT fl.building_id FROM floor fl WHERE fl.floor_id = :floorId))
+    """, nativeQuery = true)
+    int addToFloorChain(@Param("floorId") Long floorId,
+                        @Param("dRoom") long dRoom,
+                        @Param("dBed") long dBed,
+                        @Param("dActiveBed") long dActiveBed);
+
+    // --- Room row + its floor + its building (bed create/delete/toggle/move) ---
+    @Modifying
+    @Query(value = """
+        UPDATE location_count_rollup
+           SET bed_count        = bed_count + :dBed,
+               active_bed_count = active_bed_count + :dActiveBed,
+               updated_at       = NOW()
+         WHERE (location_level = 'ROOM' AND location_id = :roomId)
+            OR (location_level = 'FLOOR'
+                AND location_id = (SELECT r.floor_id FROM room r WHERE r.room_id = :roomId))
+            OR (location_level = 'BUILDING'
+                AND location_id = (SELECT fl.building_id FROM room r
+                                   JOIN floor fl ON fl.floor_id = r.floor_id
+                                   WHERE r.room_id = :roomId))
+    """, nativeQuery = true)
+    int addToRoomChain(@Param("roomId") Long roomId,
+                       @Param("dBed") long dBed,
+                       @Param("dActiveBed") long dActiveBed);
+
+    // --- Location import: pre-summed deltas of a whole chunk, one statement ---
+    // levels[i] / locationIds[i] / d*[i] form one row
+    @Modifying
+    @Query(value = """
+        UPDATE location_count_rollup r
+           SET floor_count      = r.floor_count + d.d_floor,
+               room_count       = r.room_count + d.d_room,
+               bed_count        = r.bed_count + d.d_bed,
+               active_bed_count = r.active_bed_count + d.d_active_bed,
+               updated_at       = NOW()
+          FROM unnest(CAST(:levels AS VARCHAR[]), CAST(:locationIds AS BIGINT[]),
+                      CAST(:dFloor AS BIGINT[]), CAST(:dRoom AS BIGINT[]),
+                      CAST(:dBed AS BIGINT[]), CAST(:dActiveBed AS BIGINT[]))
+               AS d(location_level, location_id, d_floor, d_room, d_bed, d_active_bed)
+         WHERE r.location_level = d.location_level AND r.location_id = d.location_id
+    """, nativeQuery = true)
+    int addAll(@Param("levels") String[] levels,
+               @Param("locationIds") Long[] locationIds,
+               @Param("dFloor") Long[] dFloor,
+               @Param("dRoom") Long[] dRoom,
+               @Param("dBed") Long[] dBed,
+               @Param("dActiveBed") Long[] dActiveBed);
+}
+
+
+// ============================================================================
+// 3. SERVICE: LocationRollupService.java
+// Package: com.cmms.location.service
+// Called from inside the caller's @Transactional write (MANDATORY propagation),
+// so the rollup commits or rolls back together with the child row.
+// ============================================================================
+
+package com.cmms.location.service;
+
+import com.cmms.location.entity.Bed;
+import com.cmms.location.entity.LocationCountRollup;
+import com.cmms.location.entity.LocationCountRollup.RollupLevel;
+import com.cmms.location.entity.Room;
+import com.cmms.location.repository.LocationCountRollupRepository;
+import com.cmms.common.enums.RecordStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class LocationRollupService {
+
+    private final LocationCountRollupRepository rollupRepository;
+
+    // ---------- BUILDING ----------
+    public void onBuildingCreated(Long tenantId, Long buildingId) {
+        rollupRepository.ensureRow(RollupLevel.BUILDING.name(), buildingId, tenantId);
+    }
+
+    // ---------- FLOOR ----------
+    public void onFloorCreated(Long tenantId, Long floorId, Long buildingId, RecordStatus isActive) {
+        rollupRepository.ensureRow(RollupLevel.FLOOR.name(), floorId, tenantId);
+        if (isActive.isVisible()) rollupRepository.addToBuilding(buildingId, 1, 0, 0, 0);
+    }
+
+    public void onFloorStatusChanged(Long buildingId, RecordStatus oldStatus, RecordStatus newStatus) {
+        long dFloor = visible(newStatus) - visible(oldStatus);
+        if (dFloor != 0) rollupRepository.addToBuilding(buildingId, dFloor, 0, 0, 0);
+    }
+
+    // Moves the floor and its whole subtree's counts to the new building
+    public void onFloorMoved(Long floorId, Long oldBuildingId, Long newBuildingId, RecordStatus isActive) {
+        if (oldBuildingId.equals(newBuildingId)) return;
+        LocationCountRollup own = load(RollupLevel.FLOOR, floorId);
+        long f = visible(isActive);
+        rollupRepository.addToBuilding(oldBuildingId, -f, -own.getRoomCount(), -own.getBedCount(), -own.getActiveBedCount());
+        rollupRepository.addToBuilding(newBuildingId,  f,  own.getRoomCount(),  own.getBedCount(),  own.getActiveBedCount());
+    }
+
+    // ---------- ROOM ----------
+    public void onRoomCreated(Long tenantId, Long roomId, Long floorId, RecordStatus isActive) {
+        rollupRepository.ensureRow(RollupLevel.ROOM.name(), roomId, tenantId);
+        if (isActive.isVisible()) rollupRepository.addToFloorChain(floorId, 1, 0, 0);
+    }
+
+    // Batch variant for create-bulk: one INSERT for all rollup rows, one UPDATE per floor
+    public void onRoomsCreated(Long tenantId, List<Room> rooms) {
+        if (rooms.isEmpty()) return;
+        rollupRepository.ensureRows(RollupLevel.ROOM.name(),
+                rooms.stream().map(Room::getRoomId).toArray(Long[]::new), tenantId);
+
+        Map<Long, Long> visibleByFloor = new LinkedHashMap<>();
+        for (Room r : rooms) visibleByFloor.merge(r.getFloorId(), visible(r.getIsActive()), Long::sum);
+        visibleByFloor.forEach((floorId, dRoom) -> {
+            if (dRoom != 0) rollupRepository.addToFloorChain(floorId, dRoom, 0, 0);
+        });
+    }
+
+    public void onRoomStatusChanged(Long floorId, RecordStatus oldStatus, RecordStatus newStatus) {
+        long dRoom = visible(newStatus) - visible(oldStatus);
+        if (dRoom != 0) rollupRepository.addToFloorChain(floorId, dRoom, 0, 0);
+    }
+
+    // Moves the room and its beds' counts to the new floor (and building)
+    public void onRoomMoved(Long roomId, Long oldFloorId, Long newFloorId, RecordStatus isActive) {
+        if (oldFloorId.equals(newFloorId)) return;
+        LocationCountRollup own = load(RollupLevel.ROOM, roomId);
+        long r = visible(isActive);
+        rollupRepository.addToFloorChain(oldFloorId, -r, -own.getBedCount(), -own.getActiveBedCount());
+        rollupRepository.addToFloorChain(newFloorId,  r,  own.getBedCount(),  own.getActiveBedCount());
+    }
+
+    // ---------- BED ----------
+    public void onBedCreated(Long roomId, RecordStatus isActive) {
+        onBedsCreated(roomId, visible(isActive), active(isActive));
+    }
+
+    // Batch variant: one UPDATE for N new beds in the same room
+    public void onBedsCreated(Long roomId, long visibleCount, long activeCount) {
+        if (visibleCount != 0 || activeCount != 0) {
+            rollupRepository.addToRoomChain(roomId, visibleCount, activeCount);
+        }
+    }
+
+    // Batch variant for create-bulk (beds may span rooms): one UPDATE per room
+    public void onBedsCreated(List<Bed> beds) {
+        Map<Long, long[]> byRoom = new LinkedHashMap<>();
+        for (Bed b : beds) {
+            long[] c = byRoom.computeIfAbsent(b.getRoomId(), k -> new long[2]);
+            c[0] += visible(b.getIsActive());
+            c[1] += active(b.getIsActive());
+        }
+        byRoom.forEach((roomId, c) -> onBedsCreated(roomId, c[0], c[1]));
+    }
+
+    public void onBedStatusChanged(Long roomId, RecordStatus oldStatus, RecordStatus newStatus) {
+        long dBed = visible(newStatus) - visible(oldStatus);
+        long dActive = active(newStatus) - active(oldStatus);
+        if (dBed != 0 || dActive != 0) rollupRepository.addToRoomChain(roomId, dBed, dActive);
+    }
+
+    public void onBedMoved(Long oldRoomId, Long newRoomId, RecordStatus isActive) {
+        if (oldRoomId.equals(newRoomId)) return;
+        long b = visible(isActive), a = active(isActive);
+        if (b == 0 && a == 0) return;
+        rollupRepository.addToRoomChain(oldRoomId, -b, -a);
+        rollupRepository.addToRoomChain(newRoomId,  b,  a);
+    }
+
+    // ---------- IMPORT ----------
+    // Zeroed rollup rows for one inserted chunk of buildings / floors / rooms
+    public void onLocationsCreated(Long tenantId, RollupLevel level, List<Long> locationIds) {
+        if (!locationIds.isEmpty()) {
+            rollupRepository.ensureRows(level.name(), locationIds.toArray(Long[]::new), tenantId);
+        }
+    }
+
+    // The caller sums the counts per ancestor itself (it already holds the whole
+    // chain in memory), so one chunk costs one UPDATE, not one per room
+    public void onImported(Deltas deltas) {
+        if (deltas.byLocation.isEmpty()) return;
+        int n = deltas.byLocation.size();
+        String[] levels = new String[n];
+        Long[] ids = new Long[n], dFloor = new Long[n], dRoom = new Long[n], dBed = new Long[n], dActive = new Long[n];
+        int i = 0;
+        for (Map.Entry<LocationCountRollup.RollupKey, long[]> e : deltas.byLocation.entrySet()) {
+            levels[i] = e.getKey().getLocationLevel().name();
+            ids[i] = e.getKey().getLocationId();
+            long[] d = e.getValue();
+            dFloor[i] = d[0]; dRoom[i] = d[1]; dBed[i] = d[2]; dActive[i] = d[3];
+            i++;
+        }
+        rollupRepository.addAll(levels, ids, dFloor, dRoom, dBed, dActive);
+    }
+
+    public static final class Deltas {
+        private final Map<LocationCountRollup.RollupKey, long[]> byLocation = new LinkedHashMap<>();
+
+        public void add(RollupLevel level, Long locationId, long dFloor, long dRoom, long dBed, long dActiveBed) {
+            long[] d = byLocation.computeIfAbsent(new LocationCountRollup.RollupKey(level, locationId), k -> new long[4]);
+            d[0] += dFloor; d[1] += dRoom; d[2] += dBed; d[3] += dActiveBed;
+        }
+    }
+
+    // ---------- HELPERS ----------
+    private LocationCountRollup load(RollupLevel level, Long locationId) {
+        return rollupRepository.findByLocationLevelAndLocationId(level, locationId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Missing location_count_rollup row for " + level + " " + locationId
+                        + " -- run the rollup backfill (location-department-db-design.sql, Section F)"));
+    }
+
+    private static long visible(RecordStatus s) { return s.isVisible() ? 1 : 0; }
+
+    private static long active(RecordStatus s) { return s == RecordStatus.ACTIVE ? 1 : 0; }
+}
+
+
+// ============================================================================
+// 4. WIRING SUMMARY
+// ============================================================================
+
+/*
+┌──────────────┬──────────────────────────────┬─────────────────────────────────────────┐
+│ Service      │ Operation                    │ Rollup call                              │
+├──────────────┼──────────────────────────────┼─────────────────────────────────────────┤
+│ Building     │ create                       │ onBuildingCreated                        │
+│ Floor        │ create                       │ onFloorCreated                           │
+│ Floor        │ update (buildingId changed)  │ onFloorMoved                             │
+│ Floor        │ delete / toggle-status       │ onFloorStatusChanged                     │
+│ Room         │ create                       │ onRoomCreated                            │
+│ Room         │ create-bulk                  │ onRoomsCreated (one UPDATE per floor)    │
+│ Room         │ update (floorId changed)     │ onRoomMoved                              │
+│ Room         │ delete / toggle-status       │ onRoomStatusChanged                      │
+│ Bed          │ create                       │ onBedCreated                             │
+│ Bed          │ create-bulk                  │ onBedsCreated(List) (one UPDATE per room)│
+│ Bed          │ auto-generate                │ onBedsCreated (one UPDATE per batch)     │
+│ Bed          │ update (roomId changed)      │ onBedMoved                               │
+│ Bed          │ delete / toggle-status       │ onBedStatusChanged                       │
+│ Import       │ insert chunk (any level)     │ onLocationsCreated + onImported          │
+└──────────────┴──────────────────────────────┴─────────────────────────────────────────┘
+
+READ SIDE:
+ - BuildingRepository.findAllExpanded / findByIdExpanded  -> LEFT JOIN rollup (BUILDING)
+ - FloorRepository.findAllExpandedByBuilding / findByIdExpanded -> LEFT JOIN rollup (FLOOR)
+ - RoomRepository.findAllExpandedByFloor / findByIdExpanded -> LEFT JOIN rollup (ROOM)
+ No GROUP BY, so the Page count query is a plain COUNT over the parent table.
+
+DRIFT / RECOVERY:
+ - Re-run Section F of location-department-db-design.sql to rebuild from base tables.
+*/
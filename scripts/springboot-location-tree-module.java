@@ -0,0 +1,335 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: location tree
+// Table       : (none -- read-only view over the location hierarchy)
+// Base Tables : building, floor, room, bed
+// Stack       : Java 17+, Spring Boot 3.x, JPA/Hibernate, PostgreSQL, JWT
+// Base URL    : /api/location
+// PURPOSE     : Whole Building -> Floor -> Room -> Bed hierarchy for an org in
+//               one response (location picker), instead of one get-all call
+//               per building / floor / room.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.location.dto.response
+// ============================================================================
+
+// ---------- LocationTreeRow.java ----------
+// Flat scan row, same shape for all four levels:
+//   BUILDING: no = buildingCode, name = buildingName, parentId = null
+//   FLOOR   : no = floorNo,      name = floorName,    parentId = buildingId
+//   ROOM    : no = roomNo,       name = roomName,     parentId = floorId
+//   BED     : no = bedNo,        name = bedCode,      parentId = roomId
+package com.cmms.location.dto.response;
+
+import lombok.*;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class LocationTreeRow {
+    private Long id;
+    private Long parentId;
+    private String no;
+    private String name;
+    private String isActive;           // ACTIVE | INACTIVE
+}
+
+// ---------- LocationTreeNode.java ----------
+package com.cmms.location.dto.response;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @NoArgsConstructor @AllArgsConstructor
+public class LocationTreeNode {
+    private String level;              // BUILDING | FLOOR | ROOM | BED (location_level.code)
+    private long id;
+    private String no;
+    private String name;
+    private String isActive;
+    private List<LocationTreeNode> children;   // null on leaves / below the depth limit
+
+    public static LocationTreeNode of(String level, LocationTreeRow row) {
+        return new LocationTreeNode(level, row.getId(), row.getNo(), row.getName(), row.getIsActive(), null);
+    }
+
+    public void addChild(LocationTreeNode child) {
+        if (children == null) children = new ArrayList<>();
+        children.add(child);
+    }
+}
+
+
+// ============================================================================
+// 2. REPOSITORY: LocationTreeRepository.java
+// Package: com.cmms.location.repository
+// Four flat scans, one per level. Each filters on the denormalized org_id
+// (idx_building_org, idx_floor_org, idx_room_org, idx_bed_org) -- no joins --
+// and is ordered by (parent, sort key) so children arrive already sorted.
+// ============================================================================
+
+package com.cmms.location.repository;
+
+import com.cmms.location.entity.Building;
+import com.cmms.location.dto.response.LocationTreeRow;
+import com.cmms.common.enums.RecordStatus;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+@org.springframework.stereotype.Repository
+public interface LocationTreeRepository extends Repository<Building, Long> {
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.LocationTreeRow(
+            b.buildingId, CAST(NULL AS Long), b.buildingCode, b.buildingName, CAST(b.isActive AS string)
+        )
+        FROM Building b
+        WHERE b.tenantId = :tenantId AND b.orgId = :orgId AND b.isActive IN :statuses
+        ORDER BY b.buildingName, b.buildingId
+    """)
+    List<LocationTreeRow> scanBuildings(@Param("tenantId") Long tenantId,
+                                        @Param("orgId") Long orgId,
+                                        @Param("statuses") Collection<RecordStatus> statuses);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.LocationTreeRow(
+            f.floorId, f.buildingId, CAST(f.floorNo AS string), f.floorName, CAST(f.isActive AS string)
+        )
+        FROM Floor f
+        WHERE f.tenantId = :tenantId AND f.orgId = :orgId AND f.isActive IN :statuses
+        ORDER BY f.buildingId, f.floorNo, f.floorId
+    """)
+    List<LocationTreeRow> scanFloors(@Param("tenantId") Long tenantId,
+                                     @Param("orgId") Long orgId,
+                                     @Param("statuses") Collection<RecordStatus> statuses);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.LocationTreeRow(
+            r.roomId, r.floorId, r.roomNo, r.roomName, CAST(r.isActive AS string)
+        )
+        FROM Room r
+        WHERE r.tenantId = :tenantId AND r.orgId = :orgId AND r.isActive IN :statuses
+        ORDER BY r.floorId, r.roomNo, r.roomId
+    """)
+    List<LocationTreeRow> scanRooms(@Param("tenantId") Long tenantId,
+                                    @Param("orgId") Long orgId,
+                                    @Param("statuses") Collection<RecordStatus> statuses);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.LocationTreeRow(
+            bd.bedId, bd.roomId, bd.bedNo, bd.bedCode, CAST(bd.isActive AS string)
+        )
+        FROM Bed bd
+        WHERE bd.tenantId = :tenantId AND bd.orgId = :orgId AND bd.isActive IN :statuses
+        ORDER BY bd.roomId, bd.bedNo, bd.bedId
+    """)
+    List<LocationTreeRow> scanBeds(@Param("tenantId") Long tenantId,
+                                   @Param("orgId") Long orgId,
+                                   @Param("statuses") Collection<RecordStatus> statuses);
+}
+
+
+// ============================================================================
+// 3. SERVICE: LocationTreeService.java
+// Package: com.cmms.location.service
+// ============================================================================
+
+package com.cmms.location.service;
+
+import com.cmms.location.dto.response.LocationTreeNode;
+import com.cmms.location.dto.response.LocationTreeRow;
+import com.cmms.location.repository.LocationTreeRepository;
+import com.cmms.common.enums.RecordStatus;
+import com.cmms.common.exception.ForbiddenException;
+import com.cmms.common.service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class LocationTreeService {
+
+    public static final int MAX_DEPTH = 4;     // 1 = buildings ... 4 = down to beds
+
+    private final LocationTreeRepository treeRepository;
+    private final JwtService jwtService;
+
+    /**
+     * activeOnly = false: visible records (ACTIVE + INACTIVE), same as get-all.
+     * activeOnly = true : ACTIVE only, same as get-all-active. A child whose parent
+     *                     is filtered out is dropped with it (no orphans in the tree).
+     */
+    @Transactional(readOnly = true)
+    public List<LocationTreeNode> getTree(Long orgId, boolean activeOnly, int depth) {
+        Long tenantId = jwtService.getTenantId();
+        validateOrgAccess(orgId);
+
+        int levels = Math.max(1, Math.min(depth, MAX_DEPTH));
+        Set<RecordStatus> statuses = EnumSet.noneOf(RecordStatus.class);
+        for (RecordStatus s : RecordStatus.values()) {
+            if (activeOnly ? s == RecordStatus.ACTIVE : s.isVisible()) statuses.add(s);
+        }
+
+        List<LocationTreeNode> roots = new ArrayList<>();
+        Map<Long, LocationTreeNode> buildings = index("BUILDING",
+                treeRepository.scanBuildings(tenantId, orgId, statuses), null, roots);
+        if (levels < 2) return roots;
+
+        Map<Long, LocationTreeNode> floors = index("FLOOR",
+                treeRepository.scanFloors(tenantId, orgId, statuses), buildings, null);
+        if (levels < 3) return roots;
+
+        Map<Long, LocationTreeNode> rooms = index("ROOM",
+                treeRepository.scanRooms(tenantId, orgId, statuses), floors, null);
+        if (levels < 4) return roots;
+
+        index("BED", treeRepository.scanBeds(tenantId, orgId, statuses), rooms, null);
+        return roots;
+    }
+
+    // Single pass per level: attach each row to its parent (by id) and return
+    // this level's id -> node map for the next level down.
+    private static Map<Long, LocationTreeNode> index(String level, List<LocationTreeRow> rows,
+                                                     Map<Long, LocationTreeNode> parents,
+                                                     List<LocationTreeNode> roots) {
+        Map<Long, LocationTreeNode> byId = new HashMap<>(Math.max(16, rows.size() * 4 / 3 + 1));
+        for (LocationTreeRow row : rows) {
+            LocationTreeNode node = LocationTreeNode.of(level, row);
+            if (parents == null) {
+                roots.add(node);
+            } else {
+                LocationTreeNode parent = parents.get(row.getParentId());
+                if (parent == null) continue;          // parent filtered out
+                parent.addChild(node);
+            }
+            byId.put(row.getId(), node);
+        }
+        return byId;
+    }
+
+    private void validateOrgAccess(Long orgId) {
+        Long userOrgId = jwtService.getOrgId();
+        if (userOrgId != null && !userOrgId.equals(0L) && !userOrgId.equals(orgId))
+            throw new ForbiddenException("Access denied to organization: " + orgId);
+    }
+}
+
+
+// ============================================================================
+// 4. CONTROLLER: LocationTreeController.java
+// Package: com.cmms.location.controller
+// The tree is assembled first (inside the read-only transaction), then written
+// node by node with a JsonGenerator -- the full JSON document is never held in
+// memory. The envelope matches ResponseDto.success(...).
+// ============================================================================
+
+package com.cmms.location.controller;
+
+import com.cmms.location.dto.response.LocationTreeNode;
+import com.cmms.location.service.LocationTreeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/location")
+@RequiredArgsConstructor
+public class LocationTreeController {
+
+    private final LocationTreeService treeService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/tree")
+    public ResponseEntity<StreamingResponseBody> getTree(
+            @RequestParam("orgId") Long orgId,
+            @RequestParam(value = "activeOnly", defaultValue = "false") boolean activeOnly,
+            @RequestParam(value = "depth", defaultValue = "4") int depth) {
+        List<LocationTreeNode> roots = treeService.getTree(orgId, activeOnly, depth);
+        String requestId = UUID.randomUUID().toString();
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeStringField("requestId", requestId);
+                gen.writeNumberField("statusCode", 200);
+                gen.writeStringField("message", "Location tree retrieved");
+                gen.writeArrayFieldStart("data");
+                for (LocationTreeNode root : roots) writeNode(gen, root);
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void writeNode(JsonGenerator gen, LocationTreeNode node) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("level", node.getLevel());
+        gen.writeNumberField("id", node.getId());
+        gen.writeStringField("no", node.getNo());
+        if (node.getName() != null) gen.writeStringField("name", node.getName());
+        gen.writeStringField("isActive", node.getIsActive());
+        if (node.getChildren() != null) {
+            gen.writeArrayFieldStart("children");
+            for (LocationTreeNode child : node.getChildren()) writeNode(gen, child);
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+}
+
+
+// ============================================================================
+// 5. SAMPLE REQUEST / RESPONSE
+// ============================================================================
+
+/*
+--- GET /api/location/tree?orgId=1&activeOnly=true&depth=4 ---
+RESPONSE (200):
+{
+    "requestId": "t1u2v3w4-...",
+    "statusCode": 200,
+    "message": "Location tree retrieved",
+    "data": [
+        {
+            "level": "BUILDING", "id": 1, "no": "MT", "name": "Main Tower", "isActive": "ACTIVE",
+            "children": [
+                {
+                    "level": "FLOOR", "id": 5, "no": "3", "name": "3rd Floor", "isActive": "ACTIVE",
+                    "children": [
+                        {
+                            "level": "ROOM", "id": 11, "no": "CICU-303", "name": "CICU", "isActive": "ACTIVE",
+                            "children": [
+                                { "level": "BED", "id": 61, "no": "1", "name": "CICU-B1", "isActive": "ACTIVE" },
+                                { "level": "BED", "id": 62, "no": "2", "name": "CICU-B2", "isActive": "ACTIVE" }
+                            ]
+                        }
+                    ]
+                }
+            ]
+        }
+    ]
+}
+
+PARAMETERS:
+ - activeOnly=false (default): ACTIVE + INACTIVE (DELETED never appears), like get-all
+ - activeOnly=true           : ACTIVE only, like get-all-active; children of an
+                               INACTIVE parent are not returned either
+ - depth=1..4 (default 4)    : 1 = buildings, 2 = + floors, 3 = + rooms, 4 = + beds.
+                               Levels below the limit are not queried at all.
+
+COST: at most 4 queries per request regardless of tree size.
+*/
@@ -0,0 +1,657 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: notification dispatcher
+// Table       : notification_log (see notification-settings-schema.sql)
+// Base Tables : notification_log, users (email / mobile of the recipient)
+// Stack       : Java 21+, Spring Boot 3.2+, Spring JDBC, spring-boot-starter-mail, PostgreSQL
+// Base URL    : /api/notifications/dispatcher-stats
+// PURPOSE     : Deliver notification_log rows queued by the notification engine.
+//               Every app node claims due 'Queued' rows in batches with
+//               FOR UPDATE SKIP LOCKED, delivers them per channel (in_app,
+//               email, sms) on virtual threads with a concurrency limit per
+//               channel, and writes Sent / Failed / Skipped / retry back in
+//               one JDBC batch per outcome.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.notification.dto
+// ============================================================================
+
+// ---------- QueuedNotification.java ----------
+// Claimed notification_log row plus the recipient's contact details
+package com.cmms.notification.dto;
+
+import java.util.UUID;
+
+public record QueuedNotification(
+        UUID id,
+        UUID tenantId,
+        String eventCode,
+        UUID recipientUserId,
+        String channel,             // in_app | email | sms
+        String title,
+        String body,
+        String actionUrl,
+        int attemptCount,           // after this claim (1 = first attempt)
+        String email,
+        String mobile) {}
+
+// ---------- DispatcherStats.java ----------
+package com.cmms.notification.dto;
+
+import lombok.*;
+import java.util.Map;
+
+@Getter @AllArgsConstructor
+public class DispatcherStats {
+    private final long batchesClaimed;
+    private final long rowsClaimed;
+    private final long sent;
+    private final long retried;
+    private final long failed;
+    private final long skipped;
+    private final Map<String, Integer> channelPermitsFree;   // channel -> free delivery slots now
+}
+
+
+// ============================================================================
+// 2. CHANNELS
+// Package: com.cmms.notification.channel
+// ============================================================================
+
+// ---------- DeliveryException.java ----------
+package com.cmms.notification.channel;
+
+import lombok.Getter;
+
+@Getter
+public class DeliveryException extends Exception {
+
+    public enum Outcome { RETRY, FAILED, SKIPPED }
+
+    private final Outcome outcome;
+
+    private DeliveryException(Outcome outcome, String message, Throwable cause) {
+        super(message, cause);
+        this.outcome = outcome;
+    }
+
+    // Gateway down / timeout: try again after backoff
+    public static DeliveryException retry(String message, Throwable cause) {
+        return new DeliveryException(Outcome.RETRY, message, cause);
+    }
+
+    // Rejected by the gateway (bad address, auth): retrying will not help
+    public static DeliveryException failed(String message, Throwable cause) {
+        return new DeliveryException(Outcome.FAILED, message, cause);
+    }
+
+    // Nothing to send to (no email / mobile on the user)
+    public static DeliveryException skipped(String message) {
+        return new DeliveryException(Outcome.SKIPPED, message, null);
+    }
+}
+
+// ---------- NotificationChannel.java ----------
+package com.cmms.notification.channel;
+
+import com.cmms.notification.dto.QueuedNotification;
+
+public interface NotificationChannel {
+
+    // Value of notification_log.channel handled by this bean
+    String key();
+
+    // Deliveries of this channel running at the same time on one node
+    int maxConcurrency();
+
+    // Blocking call; runs on a virtual thread
+    void send(QueuedNotification n) throws DeliveryException;
+}
+
+// ---------- InAppChannel.java ----------
+// The notification_log row is the in-app notification: marking it Sent makes
+// it visible in the bell list (vw_user_unread_notifications).
+package com.cmms.notification.channel;
+
+import com.cmms.notification.dto.QueuedNotification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InAppChannel implements NotificationChannel {
+
+    @Override
+    public String key() {
+        return "in_app";
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return 1_000;
+    }
+
+    @Override
+    public void send(QueuedNotification n) {
+        // nothing to call
+    }
+}
+
+// ---------- EmailChannel.java ----------
+package com.cmms.notification.channel;
+
+import com.cmms.notification.dto.QueuedNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmailChannel implements NotificationChannel {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int maxConcurrency;
+
+    public EmailChannel(JavaMailSender mailSender,
+                        @Value("${cmms.notification.email.from:no-reply@cmms.local}") String from,
+                        @Value("${cmms.notification.email.max-concurrency:20}") int maxConcurrency) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public String key() {
+        return "email";
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void send(QueuedNotification n) throws DeliveryException {
+        if (n.email() == null || n.email().isBlank()) throw DeliveryException.skipped("Recipient has no email address");
+
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom(from);
+        msg.setTo(n.email());
+        msg.setSubject(n.title());
+        msg.setText(n.actionUrl() == null ? n.body() : n.body() + "\n\n" + n.actionUrl());
+        try {
+            mailSender.send(msg);
+        } catch (MailAuthenticationException | MailParseException | MailPreparationException e) {
+            throw DeliveryException.failed(e.getMessage(), e);
+        } catch (MailException e) {
+            throw DeliveryException.retry(e.getMessage(), e);
+        }
+    }
+}
+
+// ---------- SmsChannel.java ----------
+// HTTP SMS gateway: POST {url} {"to": "...", "message": "..."}
+package com.cmms.notification.channel;
+
+import com.cmms.notification.dto.QueuedNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import java.util.Map;
+
+@Component
+public class SmsChannel implements NotificationChannel {
+
+    private static final int MAX_LENGTH = 480;     // 3 SMS parts
+
+    private final RestClient client;
+    private final int maxConcurrency;
+
+    public SmsChannel(RestClient.Builder builder,
+                      @Value("${cmms.notification.sms.url:http://localhost:8089/sms}") String url,
+                      @Value("${cmms.notification.sms.api-key:}") String apiKey,
+                      @Value("${cmms.notification.sms.max-concurrency:10}") int maxConcurrency) {
+        this.client = builder.baseUrl(url).defaultHeader("X-Api-Key", apiKey).build();
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public String key() {
+        return "sms";
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void send(QueuedNotification n) throws DeliveryException {
+        if (n.mobile() == null || n.mobile().isBlank()) throw DeliveryException.skipped("Recipient has no mobile number");
+
+        String text = n.title() == null ? n.body() : n.title() + ": " + n.body();
+        if (text != null && text.length() > MAX_LENGTH) text = text.substring(0, MAX_LENGTH);
+        try {
+            client.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("to", n.mobile(), "message", text == null ? "" : text))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            throw DeliveryException.retry("SMS gateway rate limit", e);
+        } catch (HttpClientErrorException e) {
+            throw DeliveryException.failed("SMS gateway rejected: " + e.getStatusCode(), e);
+        } catch (RestClientException e) {
+            throw DeliveryException.retry(e.getMessage(), e);
+        }
+    }
+}
+
+
+// ============================================================================
+// 3. REPOSITORY: NotificationDispatchRepository.java
+// Package: com.cmms.notification.repository
+// Claiming sets next_attempt_at = now() + lease: the rows stay 'Queued' but no
+// node claims them again until the lease runs out, so a node that dies
+// mid-batch only delays its rows. Result updates match on attempt_count so a
+// node whose lease expired cannot overwrite a newer attempt.
+// ============================================================================
+
+package com.cmms.notification.repository;
+
+import com.cmms.notification.dto.QueuedNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationDispatchRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record Attempt(UUID id, int attemptCount) {}
+
+    public record Retry(UUID id, int attemptCount, Timestamp nextAttemptAt, String reason) {}
+
+    public record Closed(UUID id, int attemptCount, String status, String reason) {}   // Failed | Skipped
+
+    // users(id, email, mobile) belongs to the user module
+    public List<QueuedNotification> claimDue(int limit, Duration lease) {
+        return jdbc.query("""
+            WITH claimed AS (
+                UPDATE notification_log n
+                SET    attempt_count   = n.attempt_count + 1,
+                       next_attempt_at = now() + make_interval(secs => ?)
+                WHERE  n.id IN (
+                    SELECT id FROM notification_log
+                    WHERE  delivery_status = 'Queued'
+                      AND  (scheduled_for IS NULL OR scheduled_for <= now())
+                      AND  (next_attempt_at IS NULL OR next_attempt_at <= now())
+                    ORDER BY scheduled_for NULLS FIRST
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING n.id, n.tenant_id, n.event_code, n.recipient_user_id, n.channel,
+                          n.title, n.body, n.action_url, n.attempt_count)
+            SELECT c.*, u.email, u.mobile
+            FROM   claimed c
+            LEFT JOIN users u ON u.id = c.recipient_user_id
+            """,
+            (rs, i) -> new QueuedNotification(
+                    rs.getObject("id", UUID.class), rs.getObject("tenant_id", UUID.class),
+                    rs.getString("event_code"), rs.getObject("recipient_user_id", UUID.class),
+                    rs.getString("channel"), rs.getString("title"), rs.getString("body"),
+                    rs.getString("action_url"), rs.getInt("attempt_count"),
+                    rs.getString("email"), rs.getString("mobile")),
+            lease.toSeconds(), limit);
+    }
+
+    // Per row: 1 = marked, 0 = lease lost to a newer attempt
+    public int[][] markSent(List<Attempt> rows) {
+        if (rows.isEmpty()) return new int[0][];
+        return jdbc.batchUpdate("""
+            UPDATE notification_log
+            SET    delivery_status = 'Sent', sent_at = now(), next_attempt_at = NULL, failed_reason = NULL
+            WHERE  id = ? AND attempt_count = ? AND delivery_status = 'Queued'
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setObject(1, r.id());
+                ps.setInt(2, r.attemptCount());
+            });
+    }
+
+    // Stays 'Queued'; claimable again at nextAttemptAt
+    public void markRetry(List<Retry> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("""
+            UPDATE notification_log
+            SET    next_attempt_at = ?, failed_reason = ?
+            WHERE  id = ? AND attempt_count = ? AND delivery_status = 'Queued'
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setTimestamp(1, r.nextAttemptAt());
+                ps.setString(2, r.reason());
+                ps.setObject(3, r.id());
+                ps.setInt(4, r.attemptCount());
+            });
+    }
+
+    public void markClosed(List<Closed> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("""
+            UPDATE notification_log
+            SET    delivery_status = ?::notification_delivery_status, failed_reason = ?, next_attempt_at = NULL
+            WHERE  id = ? AND attempt_count = ? AND delivery_status = 'Queued'
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setString(1, r.status());
+                ps.setString(2, r.reason());
+                ps.setObject(3, r.id());
+                ps.setInt(4, r.attemptCount());
+            });
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: NotificationDispatcher.java
+// Package: com.cmms.notification.service
+// Requires @EnableScheduling on the application class.
+// ============================================================================
+
+package com.cmms.notification.service;
+
+import com.cmms.notification.channel.DeliveryException;
+import com.cmms.notification.channel.NotificationChannel;
+import com.cmms.notification.dto.DispatcherStats;
+import com.cmms.notification.dto.QueuedNotification;
+import com.cmms.notification.repository.NotificationDispatchRepository;
+import com.cmms.notification.repository.NotificationDispatchRepository.Attempt;
+import com.cmms.notification.repository.NotificationDispatchRepository.Closed;
+import com.cmms.notification.repository.NotificationDispatchRepository.Retry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private final NotificationDispatchRepository repository;
+    private final UnreadCounterService unreadCounter;
+    private final Map<String, NotificationChannel> channels = new HashMap<>();
+    private final Map<String, Semaphore> permits = new HashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private volatile boolean running = true;
+
+    private final LongAdder batchesClaimed = new LongAdder();
+    private final LongAdder rowsClaimed = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public NotificationDispatcher(NotificationDispatchRepository repository,
+                                  UnreadCounterService unreadCounter,
+                                  List<NotificationChannel> channelBeans,
+                                  @Value("${cmms.notification.dispatch.batch-size:200}") int batchSize,
+                                  @Value("${cmms.notification.dispatch.max-attempts:5}") int maxAttempts,
+                                  @Value("${cmms.notification.dispatch.lease:PT5M}") Duration lease,
+                                  @Value("${cmms.notification.dispatch.backoff-base:PT30S}") Duration backoffBase,
+                                  @Value("${cmms.notification.dispatch.backoff-max:PT1H}") Duration backoffMax) {
+        this.repository = repository;
+        this.unreadCounter = unreadCounter;
+        for (NotificationChannel c : channelBeans) {
+            channels.put(c.key(), c);
+            permits.put(c.key(), new Semaphore(c.maxConcurrency()));
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+    }
+
+    private record Result(QueuedNotification n, DeliveryException.Outcome outcome, String reason) {}
+
+    // ---------- POLL ----------
+    // Keeps claiming while batches come back full, then waits for the next tick
+    @Scheduled(fixedDelayString = "${cmms.notification.dispatch.poll-interval-ms:1000}")
+    public void poll() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (running && claimed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        List<QueuedNotification> batch = repository.claimDue(batchSize, lease);
+        if (batch.isEmpty()) return 0;
+        batchesClaimed.increment();
+        rowsClaimed.add(batch.size());
+
+        List<Future<Result>> futures = new ArrayList<>(batch.size());
+        for (QueuedNotification n : batch) futures.add(executor.submit(() -> deliver(n)));
+
+        List<Attempt> sentRows = new ArrayList<>();
+        List<QueuedNotification> sentItems = new ArrayList<>();
+        List<Retry> retryRows = new ArrayList<>();
+        List<Closed> closedRows = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            QueuedNotification n = batch.get(i);
+            Result r;
+            try {
+                r = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                r = new Result(n, DeliveryException.Outcome.RETRY, "Dispatcher interrupted");
+            } catch (ExecutionException e) {
+                r = new Result(n, DeliveryException.Outcome.RETRY, String.valueOf(e.getCause()));
+            }
+
+            if (r.outcome() == null) {
+                sentRows.add(new Attempt(n.id(), n.attemptCount()));
+                sentItems.add(n);
+            } else if (r.outcome() == DeliveryException.Outcome.RETRY && n.attemptCount() < maxAttempts) {
+                retryRows.add(new Retry(n.id(), n.attemptCount(), nextAttempt(n.attemptCount()), r.reason()));
+            } else if (r.outcome() == DeliveryException.Outcome.SKIPPED) {
+                closedRows.add(new Closed(n.id(), n.attemptCount(), "Skipped", r.reason()));
+            } else {
+                closedRows.add(new Closed(n.id(), n.attemptCount(), "Failed", r.reason()));
+            }
+        }
+
+        int[][] marked = repository.markSent(sentRows);
+        repository.markRetry(retryRows);
+        repository.markClosed(closedRows);
+
+        sent.add(sentRows.size());
+        retried.add(retryRows.size());
+        closedRows.forEach(c -> ("Skipped".equals(c.status()) ? skipped : failed).increment());
+
+        // A Sent in_app row is a new unread bell entry
+        List<UUID> delivered = new ArrayList<>();
+        int k = 0;
+        for (int[] counts : marked) {
+            for (int c : counts) {
+                QueuedNotification n = sentItems.get(k++);
+                if (c > 0 && "in_app".equals(n.channel())) delivered.add(n.recipientUserId());
+            }
+        }
+        unreadCounter.publishDelivered(delivered);
+        return batch.size();
+    }
+
+    // outcome null = sent
+    private Result deliver(QueuedNotification n) {
+        NotificationChannel channel = channels.get(n.channel());
+        if (channel == null) {
+            return new Result(n, DeliveryException.Outcome.SKIPPED, "Unsupported channel " + n.channel());
+        }
+        Semaphore slot = permits.get(n.channel());
+        try {
+            slot.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(n, DeliveryException.Outcome.RETRY, "Dispatcher interrupted");
+        }
+        try {
+            channel.send(n);
+            return new Result(n, null, null);
+        } catch (DeliveryException e) {
+            log.debug("Notification {} via {}: {} ({})", n.id(), n.channel(), e.getOutcome(), e.getMessage());
+            return new Result(n, e.getOutcome(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Notification {} via {} failed unexpectedly", n.id(), n.channel(), e);
+            return new Result(n, DeliveryException.Outcome.RETRY, e.toString());
+        } finally {
+            slot.release();
+        }
+    }
+
+    // base * 2^(attempt-1), capped, +-20% jitter so retries from one outage spread out
+    private Timestamp nextAttempt(int attempt) {
+        long millis = backoffBase.toMillis() << Math.min(attempt - 1, 20);
+        millis = Math.min(millis, backoffMax.toMillis());
+        millis += (long) (millis * (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.4);
+        return Timestamp.from(Instant.now().plusMillis(millis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.close();       // waits for deliveries in flight
+    }
+
+    // ---------- METRICS ----------
+    public DispatcherStats stats() {
+        Map<String, Integer> free = new TreeMap<>();
+        permits.forEach((k, s) -> free.put(k, s.availablePermits()));
+        return new DispatcherStats(batchesClaimed.sum(), rowsClaimed.sum(), sent.sum(), retried.sum(),
+                failed.sum(), skipped.sum(), free);
+    }
+}
+
+
+// ============================================================================
+// 5. CONTROLLER: NotificationDispatcherController.java
+// Package: com.cmms.notification.controller
+// ============================================================================
+
+package com.cmms.notification.controller;
+
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.service.UserService;
+import com.cmms.notification.service.NotificationDispatcher;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+public class NotificationDispatcherController {
+
+    private final NotificationDispatcher dispatcher;
+    private final UserService userService;
+
+    // Per node, all tenants: notification log readers only
+    @GetMapping("/dispatcher-stats")
+    @PreAuthorize("@rbac.can('NOTIFICATION_LOG', 'READ')")
+    public ResponseEntity<ResponseDto> getDispatcherStats(HttpServletRequest httpReq) {
+        userService.getCurrentUserContext(httpReq);            // no signed-in user -> rejected, as in the inbox
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(),
+                "Notification dispatcher stats retrieved", dispatcher.stats()));
+    }
+}
+
+
+// ============================================================================
+// 6. CONFIG / SAMPLE
+// ============================================================================
+
+/*
+application.yml:
+  spring:
+    mail:
+      host: smtp.example.com
+      port: 587
+  cmms:
+    notification:
+      dispatch:
+        batch-size: 200
+        max-attempts: 5            # then delivery_status = 'Failed'
+        lease: PT5M                # must exceed the slowest batch
+        backoff-base: PT30S        # 30 s, 1 min, 2 min, 4 min ... capped at backoff-max
+        backoff-max: PT1H
+        poll-interval-ms: 1000
+      email:
+        from: no-reply@cmms.example.com
+        max-concurrency: 20
+      sms:
+        url: https://sms-gateway.example.com/v1/send
+        api-key: ${SMS_API_KEY}
+        max-concurrency: 10
+
+application-local.yml (local stubs):
+  spring.mail.host: localhost
+  spring.mail.port: 1025                           # MailHog / Mailpit: UI on http://localhost:8025
+  cmms.notification.sms.url: http://localhost:8089/sms   # WireMock: POST /sms -> 200
+
+  docker run -p 1025:1025 -p 8025:8025 axllent/mailpit
+  docker run -p 8089:8080 wiremock/wiremock     (stub POST /sms, 503 / 400 stubs for retry / failed paths)
+
+PRODUCERS: insert notification_log rows with delivery_status 'Queued' (default);
+scheduled_for defaults to now(), set it in the future for deferred sends.
+
+MULTI-NODE: every node runs the same poll; SKIP LOCKED gives each claim a disjoint
+set of rows and the next_attempt_at lease keeps claimed rows away from other nodes
+until they are marked. No coordination beyond the table.
+
+--- GET /api/notifications/dispatcher-stats ---
+Signed-in user with the NOTIFICATION_LOG / READ grant (403 otherwise).
+RESPONSE (200):
+{
+    "requestId": "nd1b2c3d-...",
+    "statusCode": 200,
+    "message": "Notification dispatcher stats retrieved",
+    "data": {
+        "batchesClaimed": 311,
+        "rowsClaimed": 18240,
+        "sent": 18102,
+        "retried": 97,
+        "failed": 3,
+        "skipped": 38,
+        "channelPermitsFree": { "email": 20, "in_app": 1000, "sms": 10 }
+    }
+}
+*/
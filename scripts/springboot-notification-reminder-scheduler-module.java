@@ -0,0 +1,859 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: notification reminder scheduler
+// Table       : notification_log (rows inserted as 'Queued')
+// Base Tables : tenant_notification_rules (+ recipients, reminder_days, filters),
+//               notification_event_master, vw_maintenance_due_soon,
+//               vw_warranty_expiring_soon, contracts / asset_contracts, hospitals, users
+// Stack       : Java 17+, Spring Boot 3.x, Spring JDBC, PostgreSQL
+// Base URL    : /api/notification-settings/reminders/run (manual run)
+// PURPOSE     : Nightly job generating Scheduled-event reminders (PM / safety /
+//               calibration due, PM overdue, warranty and AMC expiry). Per tenant
+//               the rules are compiled once, the due items are streamed with a
+//               server-side cursor and matched in memory, and reminders are
+//               written in JDBC batches of INSERT ... ON CONFLICT DO NOTHING on
+//               uq_notif_log_dedup instead of calling is_notification_duplicate()
+//               per row. Tenants run in parallel on a fixed pool.
+//               NotificationDispatcher delivers the inserted rows.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.notification.dto
+// ============================================================================
+
+// ---------- DueItem.java ----------
+// One row of a reminder source
+package com.cmms.notification.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record DueItem(
+        Source source,
+        UUID entityId,              // schedule id / asset id / contract id
+        UUID assetId,               // null for contracts
+        UUID hospitalId,            // notification_log.org_id
+        LocalDate dueDate,
+        String typeCode,            // maintenance_type_code (MAINTENANCE only)
+        String reference,           // asset_id_display / contract_no
+        String name) {              // device_name / contract_type
+
+    public enum Source {
+        MAINTENANCE("MaintenanceSchedule"),
+        WARRANTY("Asset"),
+        CONTRACT("Contract");
+
+        private final String entityType;
+
+        Source(String entityType) {
+            this.entityType = entityType;
+        }
+
+        public String entityType() {
+            return entityType;
+        }
+    }
+}
+
+// ---------- ReminderRunSummary.java ----------
+package com.cmms.notification.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor
+public class ReminderRunSummary {
+    private final int tenants;
+    private final int tenantsFailed;
+    private final long itemsScanned;
+    private final long remindersPlanned;     // rows offered to INSERT
+    private final long remindersInserted;    // new rows (rest already existed)
+    private final long durationMs;
+}
+
+
+// ============================================================================
+// 2. REPOSITORIES
+// Package: com.cmms.notification.repository
+// ============================================================================
+
+// ---------- ReminderRuleRepository.java ----------
+package com.cmms.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ReminderRuleRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record RuleRow(UUID id, String eventCode, String eventName, String template, String scope,
+                          Integer beforeDays, boolean recurringEnabled, Integer recurringInterval,
+                          boolean inApp, boolean email, boolean sms) {}
+
+    public record RuleValue(UUID ruleId, String value) {}
+
+    public record RuleDays(UUID ruleId, int days) {}
+
+    public record UserRow(UUID id, UUID orgId, String roleCode) {}
+
+    public record ReminderRow(UUID tenantId, UUID ruleId, String eventCode, String entityType, UUID entityId,
+                              UUID orgId, UUID recipientUserId, String recipientRoleCode, String channel,
+                              String reminderWindow, String title, String body, String actionUrl) {}
+
+    public List<UUID> findTenantsWithScheduledRules() {
+        return jdbc.queryForList("""
+            SELECT DISTINCT r.tenant_id
+            FROM tenant_notification_rules r
+            JOIN notification_event_master em ON em.event_code = r.event_code
+            WHERE r.enabled = TRUE AND em.trigger_type = 'Scheduled' AND em.is_active = TRUE
+            """, UUID.class);
+    }
+
+    public List<RuleRow> findScheduledRules(UUID tenantId) {
+        return jdbc.query("""
+            SELECT r.id, r.event_code, em.event_name, em.default_template, r.recipient_scope::TEXT AS scope,
+                   r.before_days, r.recurring_enabled, r.recurring_interval,
+                   r.channel_in_app, r.channel_email, r.channel_sms
+            FROM tenant_notification_rules r
+            JOIN notification_event_master em ON em.event_code = r.event_code
+            WHERE r.tenant_id = ? AND r.enabled = TRUE
+              AND em.trigger_type = 'Scheduled' AND em.is_active = TRUE
+            """,
+            (rs, i) -> new RuleRow(rs.getObject("id", UUID.class), rs.getString("event_code"),
+                    rs.getString("event_name"), rs.getString("default_template"), rs.getString("scope"),
+                    (Integer) rs.getObject("before_days"), rs.getBoolean("recurring_enabled"),
+                    (Integer) rs.getObject("recurring_interval"), rs.getBoolean("channel_in_app"),
+                    rs.getBoolean("channel_email"), rs.getBoolean("channel_sms")),
+            tenantId);
+    }
+
+    public List<RuleValue> findRecipientRoles(UUID tenantId) {
+        return jdbc.query("""
+            SELECT rr.rule_id, rr.role_code
+            FROM tenant_notification_rule_recipients rr
+            JOIN tenant_notification_rules r ON r.id = rr.rule_id
+            WHERE r.tenant_id = ? AND r.enabled = TRUE
+            """,
+            (rs, i) -> new RuleValue(rs.getObject("rule_id", UUID.class), rs.getString("role_code")),
+            tenantId);
+    }
+
+    public List<RuleDays> findReminderDays(UUID tenantId) {
+        return jdbc.query("""
+            SELECT rd.rule_id, rd.days_before
+            FROM tenant_notification_reminder_days rd
+            JOIN tenant_notification_rules r ON r.id = rd.rule_id
+            WHERE r.tenant_id = ? AND r.enabled = TRUE
+            """,
+            (rs, i) -> new RuleDays(rs.getObject("rule_id", UUID.class), rs.getInt("days_before")),
+            tenantId);
+    }
+
+    public List<RuleValue> findFilters(UUID tenantId) {
+        return jdbc.query("""
+            SELECT f.rule_id, f.filter_type || ':' || f.filter_value AS filter
+            FROM tenant_notification_rule_filters f
+            JOIN tenant_notification_rules r ON r.id = f.rule_id
+            WHERE r.tenant_id = ? AND r.enabled = TRUE
+            """,
+            (rs, i) -> new RuleValue(rs.getObject("rule_id", UUID.class), rs.getString("filter")),
+            tenantId);
+    }
+
+    // users(id, tenant_id, org_id, role_code, is_active) belongs to the user module
+    public List<UserRow> findRecipients(UUID tenantId, String[] roleCodes) {
+        return jdbc.query("""
+            SELECT id, org_id, role_code FROM users
+            WHERE tenant_id = ? AND is_active = TRUE AND role_code = ANY (?)
+            """,
+            ps -> {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", roleCodes));
+            },
+            (rs, i) -> new UserRow(rs.getObject("id", UUID.class), rs.getObject("org_id", UUID.class),
+                    rs.getString("role_code")));
+    }
+
+    // Returns the number of rows actually inserted (duplicates count 0). A driver that rewrites
+    // the batch (pgjdbc reWriteBatchedInserts) reports SUCCESS_NO_INFO per row: counted as
+    // inserted, so the figure is an upper bound there.
+    public int insertReminders(List<ReminderRow> rows) {
+        if (rows.isEmpty()) return 0;
+        int[][] counts = jdbc.batchUpdate("""
+            INSERT INTO notification_log (tenant_id, rule_id, event_code, entity_type, entity_id, org_id,
+                                          recipient_user_id, recipient_role_code, channel, reminder_window,
+                                          title, body, action_url)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT ON CONSTRAINT uq_notif_log_dedup DO NOTHING
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setObject(1, r.tenantId());
+                ps.setObject(2, r.ruleId());
+                ps.setString(3, r.eventCode());
+                ps.setString(4, r.entityType());
+                ps.setObject(5, r.entityId());
+                ps.setObject(6, r.orgId());
+                ps.setObject(7, r.recipientUserId());
+                ps.setString(8, r.recipientRoleCode());
+                ps.setString(9, r.channel());
+                ps.setString(10, r.reminderWindow());
+                ps.setString(11, r.title());
+                ps.setString(12, r.body());
+                ps.setString(13, r.actionUrl());
+            });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                if (c > 0) inserted += c;
+                else if (c == Statement.SUCCESS_NO_INFO) inserted++;
+            }
+        }
+        return inserted;
+    }
+}
+
+// ---------- ReminderSourceRepository.java ----------
+// Row-by-row streaming: with a fetch size inside a transaction the PostgreSQL
+// driver reads through a cursor, fetchSize rows per round trip, instead of
+// materialising the whole result.
+package com.cmms.notification.repository;
+
+import com.cmms.notification.dto.DueItem;
+import com.cmms.notification.dto.DueItem.Source;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+public class ReminderSourceRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate cursor;
+
+    public ReminderSourceRepository(DataSource dataSource) {
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(FETCH_SIZE);
+    }
+
+    // Includes overdue schedules (view has no lower bound)
+    public void streamMaintenanceDue(UUID tenantId, Consumer<DueItem> sink) {
+        cursor.query("""
+            SELECT v.schedule_id, v.asset_id, v.hospital_id, v.next_due_date, v.maintenance_type_code,
+                   v.asset_id_display, v.device_name
+            FROM vw_maintenance_due_soon v
+            JOIN hospitals h ON h.id = v.hospital_id
+            WHERE h.tenant_id = ?
+            """,
+            rs -> {
+                sink.accept(new DueItem(Source.MAINTENANCE, rs.getObject("schedule_id", UUID.class),
+                        rs.getObject("asset_id", UUID.class), rs.getObject("hospital_id", UUID.class),
+                        rs.getObject("next_due_date", LocalDate.class),
+                        rs.getString("maintenance_type_code"), rs.getString("asset_id_display"),
+                        rs.getString("device_name")));
+            },
+            tenantId);
+    }
+
+    public void streamWarrantyExpiring(UUID tenantId, Consumer<DueItem> sink) {
+        cursor.query("""
+            SELECT v.asset_id, v.hospital_id, v.warranty_end_date, v.asset_id_display, v.device_name
+            FROM vw_warranty_expiring_soon v
+            JOIN hospitals h ON h.id = v.hospital_id
+            WHERE h.tenant_id = ?
+            """,
+            rs -> {
+                UUID assetId = rs.getObject("asset_id", UUID.class);
+                sink.accept(new DueItem(Source.WARRANTY, assetId, assetId, rs.getObject("hospital_id", UUID.class),
+                        rs.getObject("warranty_end_date", LocalDate.class), null,
+                        rs.getString("asset_id_display"), rs.getString("device_name")));
+            },
+            tenantId);
+    }
+
+    // One row per (contract, hospital of a linked asset)
+    public void streamContractsExpiring(UUID tenantId, int horizonDays, Consumer<DueItem> sink) {
+        cursor.query("""
+            SELECT DISTINCT c.id, a.hospital_id, c.contract_end, c.contract_no, c.contract_type
+            FROM contracts c
+            JOIN asset_contracts ac ON ac.contract_id = c.id
+            JOIN assets a           ON a.id = ac.asset_id
+            JOIN hospitals h        ON h.id = a.hospital_id
+            WHERE h.tenant_id = ?
+              AND c.contract_status = 'Active'
+              AND c.contract_end BETWEEN CURRENT_DATE AND CURRENT_DATE + ?::INT
+            """,
+            rs -> {
+                sink.accept(new DueItem(Source.CONTRACT, rs.getObject("id", UUID.class), null,
+                        rs.getObject("hospital_id", UUID.class),
+                        rs.getObject("contract_end", LocalDate.class), null,
+                        rs.getString("contract_no"), rs.getString("contract_type")));
+            },
+            tenantId, horizonDays);
+    }
+}
+
+
+// ============================================================================
+// 3. COMPILED RULES
+// Package: com.cmms.notification.reminder
+// ============================================================================
+
+// ---------- CompiledReminderRule.java ----------
+package com.cmms.notification.reminder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+record CompiledReminderRule(
+        UUID ruleId,
+        String eventCode,
+        String title,
+        String template,
+        boolean orgScoped,              // recipient_scope = 'Org'
+        int[] daysBefore,               // ascending
+        int recurringInterval,          // 0 = no repeat
+        List<String> roles,
+        List<String> channels,          // in_app | email | sms
+        Set<UUID> orgFilter) {          // empty = every org
+
+    boolean appliesTo(UUID orgId) {
+        return orgFilter.isEmpty() || orgFilter.contains(orgId);
+    }
+
+    // Reminder window for an item due in daysUntil days, or null when no reminder
+    // is due yet. Only the current window is produced: a missed night does not
+    // replay earlier windows.
+    String windowFor(long daysUntil) {
+        if (daysUntil == 0) return "on_date";
+        if (daysUntil < 0) {
+            long overdue = -daysUntil;
+            if (recurringInterval <= 0 || overdue < recurringInterval) return "overdue";
+            return "recurring_" + (overdue / recurringInterval) * recurringInterval;
+        }
+        for (int d : daysBefore) {
+            if (d >= daysUntil) return d + "_days_before";
+        }
+        return null;
+    }
+
+    int horizon() {
+        return daysBefore.length == 0 ? 0 : daysBefore[daysBefore.length - 1];
+    }
+}
+
+// ---------- RecipientDirectory.java ----------
+package com.cmms.notification.reminder;
+
+import com.cmms.notification.repository.ReminderRuleRepository.UserRow;
+import java.util.*;
+
+final class RecipientDirectory {
+
+    private final Map<String, List<UUID>> byRole = new HashMap<>();
+    private final Map<String, Map<UUID, List<UUID>>> byRoleAndOrg = new HashMap<>();
+
+    RecipientDirectory(List<UserRow> users) {
+        for (UserRow u : users) {
+            byRole.computeIfAbsent(u.roleCode(), k -> new ArrayList<>()).add(u.id());
+            if (u.orgId() != null) {
+                byRoleAndOrg.computeIfAbsent(u.roleCode(), k -> new HashMap<>())
+                        .computeIfAbsent(u.orgId(), k -> new ArrayList<>()).add(u.id());
+            }
+        }
+    }
+
+    // orgId null = every user of the role in the tenant
+    List<UUID> users(String roleCode, UUID orgId) {
+        if (orgId == null) return byRole.getOrDefault(roleCode, List.of());
+        return byRoleAndOrg.getOrDefault(roleCode, Map.of()).getOrDefault(orgId, List.of());
+    }
+}
+
+// ---------- TenantReminderPlan.java ----------
+package com.cmms.notification.reminder;
+
+import com.cmms.notification.dto.DueItem;
+import com.cmms.notification.repository.ReminderRuleRepository.ReminderRow;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public final class TenantReminderPlan {
+
+    private final UUID tenantId;
+    private final Map<String, CompiledReminderRule> rulesByEvent;
+    private final RecipientDirectory recipients;
+
+    TenantReminderPlan(UUID tenantId, Map<String, CompiledReminderRule> rulesByEvent, RecipientDirectory recipients) {
+        this.tenantId = tenantId;
+        this.rulesByEvent = rulesByEvent;
+        this.recipients = recipients;
+    }
+
+    public boolean isEmpty() {
+        return rulesByEvent.isEmpty();
+    }
+
+    public boolean hasAny(String... eventCodes) {
+        for (String e : eventCodes) if (rulesByEvent.containsKey(e)) return true;
+        return false;
+    }
+
+    // Largest days_before among the given events (how far ahead to read)
+    public int horizon(String... eventCodes) {
+        int max = 0;
+        for (String e : eventCodes) {
+            CompiledReminderRule r = rulesByEvent.get(e);
+            if (r != null) max = Math.max(max, r.horizon());
+        }
+        return max;
+    }
+
+    // Emits one row per recipient and channel; returns how many
+    public int plan(DueItem item, LocalDate today, Consumer<ReminderRow> out) {
+        long daysUntil = ChronoUnit.DAYS.between(today, item.dueDate());
+        CompiledReminderRule rule = rulesByEvent.get(eventFor(item, daysUntil));
+        if (rule == null || !rule.appliesTo(item.hospitalId())) return 0;
+        String window = rule.windowFor(daysUntil);
+        if (window == null) return 0;
+        // The due date is part of the window: next cycle's "30_days_before" is a new reminder
+        window = window + "@" + item.dueDate();
+
+        Map<UUID, String> users = new LinkedHashMap<>();        // user -> first matching role
+        for (String role : rule.roles()) {
+            for (UUID u : recipients.users(role, rule.orgScoped() ? item.hospitalId() : null)) {
+                users.putIfAbsent(u, role);
+            }
+        }
+        if (users.isEmpty()) return 0;
+
+        String body = render(rule, item, daysUntil);
+        String actionUrl = item.assetId() != null ? "/assets/" + item.assetId() : "/contracts/" + item.entityId();
+        int n = 0;
+        for (Map.Entry<UUID, String> u : users.entrySet()) {
+            for (String channel : rule.channels()) {
+                out.accept(new ReminderRow(tenantId, rule.ruleId(), rule.eventCode(), item.source().entityType(),
+                        item.entityId(), item.hospitalId(), u.getKey(), u.getValue(), channel, window,
+                        rule.title(), body, actionUrl));
+                n++;
+            }
+        }
+        return n;
+    }
+
+    static String eventFor(DueItem item, long daysUntil) {
+        return switch (item.source()) {
+            case MAINTENANCE -> {
+                if (daysUntil < 0) yield "PM_OVERDUE";
+                if ("EST".equals(item.typeCode())) yield "SAFETY_TEST_DUE_UPCOMING";
+                if ("CALIBRATION".equals(item.typeCode())) yield "CALIBRATION_DUE_UPCOMING";
+                yield "PM_DUE_UPCOMING";
+            }
+            case WARRANTY -> daysUntil == 0 ? "WARRANTY_EXPIRED" : "WARRANTY_EXPIRY_UPCOMING";
+            case CONTRACT -> daysUntil == 0 ? "AMC_EXPIRED" : "AMC_EXPIRY_UPCOMING";
+        };
+    }
+
+    // {{asset_name}} {{asset_id}} {{contract_no}} {{due_date}} {{expiry_date}} {{days}}
+    private static String render(CompiledReminderRule rule, DueItem item, long daysUntil) {
+        if (rule.template() == null) {
+            return item.name() + " (" + item.reference() + ") - " + rule.title() + " on " + item.dueDate();
+        }
+        String date = item.dueDate().toString();
+        return rule.template()
+                .replace("{{asset_name}}", String.valueOf(item.name()))
+                .replace("{{asset_id}}", String.valueOf(item.reference()))
+                .replace("{{contract_no}}", String.valueOf(item.reference()))
+                .replace("{{due_date}}", date)
+                .replace("{{expiry_date}}", date)
+                .replace("{{days}}", String.valueOf(Math.abs(daysUntil)));
+    }
+}
+
+// ---------- ReminderRuleCompiler.java ----------
+package com.cmms.notification.reminder;
+
+import com.cmms.notification.repository.ReminderRuleRepository;
+import com.cmms.notification.repository.ReminderRuleRepository.RuleDays;
+import com.cmms.notification.repository.ReminderRuleRepository.RuleRow;
+import com.cmms.notification.repository.ReminderRuleRepository.RuleValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReminderRuleCompiler {
+
+    private static final String ORG_FILTER = "ORGANIZATION:";
+
+    private final ReminderRuleRepository repository;
+
+    // Five queries per tenant, whatever the number of rules and assets
+    public TenantReminderPlan compile(UUID tenantId) {
+        Map<UUID, List<String>> roles = group(repository.findRecipientRoles(tenantId));
+        Map<UUID, List<String>> filters = group(repository.findFilters(tenantId));
+        Map<UUID, List<Integer>> days = new HashMap<>();
+        for (RuleDays d : repository.findReminderDays(tenantId)) {
+            days.computeIfAbsent(d.ruleId(), k -> new ArrayList<>()).add(d.days());
+        }
+
+        Map<String, CompiledReminderRule> rules = new HashMap<>();
+        Set<String> roleCodes = new TreeSet<>();
+        for (RuleRow r : repository.findScheduledRules(tenantId)) {
+            List<String> ruleRoles = roles.getOrDefault(r.id(), List.of());
+            List<String> channels = new ArrayList<>(3);
+            if (r.inApp()) channels.add("in_app");
+            if (r.email()) channels.add("email");
+            if (r.sms()) channels.add("sms");
+            if (ruleRoles.isEmpty() || channels.isEmpty()) continue;
+
+            Set<UUID> orgs = new HashSet<>();
+            for (String f : filters.getOrDefault(r.id(), List.of())) {
+                if (f.startsWith(ORG_FILTER)) {
+                    orgs.add(UUID.fromString(f.substring(ORG_FILTER.length())));
+                } else {
+                    log.debug("Rule {}: filter {} is not applied by the reminder scheduler", r.id(), f);
+                }
+            }
+
+            int[] before = days.getOrDefault(r.id(), List.of()).stream().mapToInt(Integer::intValue).sorted().toArray();
+            if (before.length == 0 && r.beforeDays() != null) before = new int[] { r.beforeDays() };
+            int interval = r.recurringEnabled() && r.recurringInterval() != null ? r.recurringInterval() : 0;
+
+            rules.put(r.eventCode(), new CompiledReminderRule(r.id(), r.eventCode(), r.eventName(), r.template(),
+                    "Org".equals(r.scope()), before, interval, List.copyOf(ruleRoles), List.copyOf(channels),
+                    Set.copyOf(orgs)));
+            roleCodes.addAll(ruleRoles);
+        }
+
+        RecipientDirectory directory = new RecipientDirectory(roleCodes.isEmpty() ? List.of()
+                : repository.findRecipients(tenantId, roleCodes.toArray(String[]::new)));
+        return new TenantReminderPlan(tenantId, rules, directory);
+    }
+
+    private static Map<UUID, List<String>> group(List<RuleValue> values) {
+        Map<UUID, List<String>> map = new HashMap<>();
+        for (RuleValue v : values) map.computeIfAbsent(v.ruleId(), k -> new ArrayList<>()).add(v.value());
+        return map;
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: ReminderScheduler.java
+// Package: com.cmms.notification.service
+// Requires @EnableScheduling on the application class.
+// Memory per running tenant: compiled rules + recipient directory + one insert
+// buffer (flush-size rows); at most `parallelism` tenants at a time, each on
+// one pooled connection (keep parallelism below the Hikari pool size).
+// ============================================================================
+
+package com.cmms.notification.service;
+
+import com.cmms.notification.dto.DueItem;
+import com.cmms.notification.dto.ReminderRunSummary;
+import com.cmms.notification.reminder.ReminderRuleCompiler;
+import com.cmms.notification.reminder.TenantReminderPlan;
+import com.cmms.notification.repository.ReminderRuleRepository;
+import com.cmms.notification.repository.ReminderRuleRepository.ReminderRow;
+import com.cmms.notification.repository.ReminderSourceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class ReminderScheduler {
+
+    private static final int LOCK_CLASS = 0x7A12;          // advisory lock namespace: reminder run
+    private static final String[] MAINTENANCE_EVENTS =
+            { "PM_DUE_UPCOMING", "PM_OVERDUE", "SAFETY_TEST_DUE_UPCOMING", "CALIBRATION_DUE_UPCOMING" };
+    private static final String[] WARRANTY_EVENTS = { "WARRANTY_EXPIRY_UPCOMING", "WARRANTY_EXPIRED" };
+    private static final String[] CONTRACT_EVENTS = { "AMC_EXPIRY_UPCOMING", "AMC_EXPIRED" };
+
+    private final ReminderRuleRepository ruleRepository;
+    private final ReminderSourceRepository sourceRepository;
+    private final ReminderRuleCompiler compiler;
+    private final TransactionTemplate tx;
+    private final DataSource dataSource;
+    private final int parallelism;
+    private final int flushSize;
+
+    public ReminderScheduler(ReminderRuleRepository ruleRepository,
+                             ReminderSourceRepository sourceRepository,
+                             ReminderRuleCompiler compiler,
+                             PlatformTransactionManager txManager,
+                             DataSource dataSource,
+                             @Value("${cmms.notification.reminders.parallelism:4}") int parallelism,
+                             @Value("${cmms.notification.reminders.flush-size:1000}") int flushSize) {
+        this.ruleRepository = ruleRepository;
+        this.sourceRepository = sourceRepository;
+        this.compiler = compiler;
+        this.tx = new TransactionTemplate(txManager);
+        this.dataSource = dataSource;
+        this.parallelism = parallelism;
+        this.flushSize = flushSize;
+    }
+
+    private record TenantResult(long scanned, long planned, long inserted) {}
+
+    @Scheduled(cron = "${cmms.notification.reminders.cron:0 30 1 * * *}")
+    public void runNightly() {
+        ReminderRunSummary s = run(LocalDate.now());
+        if (s != null) {
+            log.info("Reminder run: {} tenants ({} failed), {} items, {} planned, {} inserted in {} ms",
+                    s.getTenants(), s.getTenantsFailed(), s.getItemsScanned(), s.getRemindersPlanned(),
+                    s.getRemindersInserted(), s.getDurationMs());
+        }
+    }
+
+    // null when another node is running it
+    public ReminderRunSummary run(LocalDate today) {
+        return locked(() -> runAll(today, ruleRepository.findTenantsWithScheduledRules()));
+    }
+
+    // Manual run from the settings screen: one tenant only; null while a run is in progress
+    public ReminderRunSummary runForTenant(UUID tenantId, LocalDate today) {
+        return locked(() -> runAll(today, List.of(tenantId)));
+    }
+
+    private ReminderRunSummary locked(Supplier<ReminderRunSummary> body) {
+        try (Connection lock = dataSource.getConnection()) {
+            if (!advisory(lock, "SELECT pg_try_advisory_lock(?, 0)")) {
+                log.info("Reminder run skipped: running on another node");
+                return null;
+            }
+            try {
+                return body.get();
+            } finally {
+                // session lock: the pool keeps the connection open, release explicitly
+                advisory(lock, "SELECT pg_advisory_unlock(?, 0)");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Reminder run lock unavailable", e);
+        }
+    }
+
+    private ReminderRunSummary runAll(LocalDate today, List<UUID> tenants) {
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tenants.size())));
+        try {
+            List<Future<TenantResult>> futures = new ArrayList<>(tenants.size());
+            for (UUID tenantId : tenants) futures.add(pool.submit(() -> runTenant(tenantId, today)));
+
+            int failed = 0;
+            long scanned = 0, planned = 0, inserted = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    TenantResult r = futures.get(i).get();
+                    scanned += r.scanned();
+                    planned += r.planned();
+                    inserted += r.inserted();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Reminder run failed for tenant {}", tenants.get(i), e.getCause());
+                }
+            }
+            return new ReminderRunSummary(tenants.size(), failed, scanned, planned, inserted,
+                    System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reminder run interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean advisory(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, LOCK_CLASS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private TenantResult runTenant(UUID tenantId, LocalDate today) {
+        TenantReminderPlan plan = compiler.compile(tenantId);
+        if (plan.isEmpty()) return new TenantResult(0, 0, 0);
+
+        Buffer buffer = new Buffer();
+        long scanned = 0;
+        Consumer<DueItem> sink = item -> plan.plan(item, today, buffer);
+
+        // One transaction per source: the cursor needs one, and the buffered
+        // inserts run on the same connection while it is open.
+        if (plan.hasAny(MAINTENANCE_EVENTS)) {
+            scanned += stream(buffer, s -> sourceRepository.streamMaintenanceDue(tenantId, s), sink);
+        }
+        if (plan.hasAny(WARRANTY_EVENTS)) {
+            scanned += stream(buffer, s -> sourceRepository.streamWarrantyExpiring(tenantId, s), sink);
+        }
+        if (plan.hasAny(CONTRACT_EVENTS)) {
+            int horizon = plan.horizon(CONTRACT_EVENTS);
+            scanned += stream(buffer, s -> sourceRepository.streamContractsExpiring(tenantId, horizon, s), sink);
+        }
+        return new TenantResult(scanned, buffer.planned, buffer.inserted);
+    }
+
+    private long stream(Buffer buffer, Consumer<Consumer<DueItem>> source, Consumer<DueItem> sink) {
+        long[] scanned = { 0 };
+        tx.executeWithoutResult(status -> {
+            source.accept(item -> {
+                scanned[0]++;
+                sink.accept(item);
+            });
+            buffer.flush();
+        });
+        return scanned[0];
+    }
+
+    // Per tenant, single thread
+    private final class Buffer implements Consumer<ReminderRow> {
+        private final List<ReminderRow> rows = new ArrayList<>(flushSize);
+        long planned;
+        long inserted;
+
+        @Override
+        public void accept(ReminderRow row) {
+            rows.add(row);
+            planned++;
+            if (rows.size() >= flushSize) flush();
+        }
+
+        void flush() {
+            inserted += ruleRepository.insertReminders(rows);
+            rows.clear();
+        }
+    }
+}
+
+
+// ============================================================================
+// 5. CONTROLLER: ReminderSchedulerController.java
+// Package: com.cmms.notification.controller
+// ============================================================================
+
+package com.cmms.notification.controller;
+
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.dto.UserContext;
+import com.cmms.common.service.UserService;
+import com.cmms.notification.dto.ReminderRunSummary;
+import com.cmms.notification.service.ReminderScheduler;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notification-settings/reminders")
+@RequiredArgsConstructor
+public class ReminderSchedulerController {
+
+    private final ReminderScheduler scheduler;
+    private final UserService userService;
+
+    // The nightly run for the caller's tenant; safe to repeat (dedup key)
+    @PostMapping("/run")
+    @PreAuthorize("@rbac.can('NOTIFICATION_RULE', 'CONFIGURE_NOTIFICATIONS')")
+    public ResponseEntity<ResponseDto> run(HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        ReminderRunSummary summary = scheduler.runForTenant(ctx.getTenantId(), LocalDate.now());
+        if (summary == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ResponseDto.error(UUID.randomUUID().toString(),
+                    409, "Reminder run already in progress", "REMINDER_RUN_IN_PROGRESS"));
+        }
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Reminder run completed", summary));
+    }
+}
+
+
+// ============================================================================
+// 6. NOTES / SAMPLE
+// ============================================================================
+
+/*
+application.yml:
+  cmms.notification.reminders:
+    cron: "0 30 1 * * *"      # 01:30 every night
+    parallelism: 4            # tenants at a time (one connection each)
+    flush-size: 1000          # rows per INSERT batch
+
+WINDOWS (rule 60/30/15/7/1 days_before, recurring_interval 7):
+  due in 20 days   -> "30_days_before@2026-11-06"
+  due in 5 days    -> "7_days_before@2026-11-06"    (only the current window, not 60/30/15 as well)
+  due today        -> "on_date@2026-11-06"
+  3 days overdue   -> PM_OVERDUE "overdue@2026-11-06"
+  15 days overdue  -> PM_OVERDUE "recurring_14@2026-11-06"
+  The due date in the window keeps next cycle's reminders from colliding with this
+  cycle's on uq_notif_log_dedup.
+
+EVENTS:
+  vw_maintenance_due_soon   : EST -> SAFETY_TEST_DUE_UPCOMING, CALIBRATION -> CALIBRATION_DUE_UPCOMING,
+                              other types -> PM_DUE_UPCOMING, past due -> PM_OVERDUE
+  vw_warranty_expiring_soon : WARRANTY_EXPIRY_UPCOMING, WARRANTY_EXPIRED (on the day)
+  contracts (Active)        : AMC_EXPIRY_UPCOMING, AMC_EXPIRED (on the day)
+  The views look 30 / 90 days ahead; reminder days beyond that are not reached
+  for maintenance / warranty. Contracts are read up to the largest AMC days_before.
+
+RECIPIENTS: users(id, tenant_id, org_id, role_code, is_active) of the rule's roles;
+recipient_scope 'Org' limits them to the asset's hospital (org_id). Only
+ORGANIZATION rule filters are applied here. hospitals.tenant_id maps assets to tenants.
+
+--- POST /api/notification-settings/reminders/run ---
+Needs the NOTIFICATION_RULE / CONFIGURE_NOTIFICATIONS grant (403 otherwise); runs the
+caller's tenant only (tenants = 1). 409 while the nightly run holds the lock:
+{ "statusCode": 409, "message": "Reminder run already in progress", "errorCode": "REMINDER_RUN_IN_PROGRESS", ... }
+RESPONSE (200):
+{
+    "requestId": "rs1b2c3d-...",
+    "statusCode": 200,
+    "message": "Reminder run completed",
+    "data": {
+        "tenants": 1,
+        "tenantsFailed": 0,
+        "itemsScanned": 4120,
+        "remindersPlanned": 806,
+        "remindersInserted": 193,
+        "durationMs": 540
+    }
+}
+*/
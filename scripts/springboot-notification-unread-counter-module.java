@@ -0,0 +1,549 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: unread notification counter + push
+// Table       : notification_log (read_status, idx_notif_log_unread)
+// Base Tables : notification_log
+// Stack       : Java 21+, Spring Boot 3.x, Spring MVC (SseEmitter), Spring JDBC, PostgreSQL (LISTEN / NOTIFY)
+// Base URL    : /api/notifications
+// PURPOSE     : Bell badge without polling COUNT(*). Each node keeps the unread
+//               count of the users it has seen in a ConcurrentHashMap and pushes
+//               changes over Server-Sent Events. Every change (in_app delivery,
+//               read, acknowledge) is announced with pg_notify('cmms_unread'),
+//               which all nodes receive once the notifying statement commits.
+//               An entry that is cold (new, stale, or possibly missed changes)
+//               is re-counted from notification_log on next use.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTO: UnreadCountResponse.java
+// Package: com.cmms.notification.dto
+// ============================================================================
+
+package com.cmms.notification.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor
+public class UnreadCountResponse {
+    private final int unreadCount;
+}
+
+
+// ============================================================================
+// 2. REPOSITORY: NotificationReadRepository.java
+// Package: com.cmms.notification.repository
+// Unread = read_status 'Unread', delivery_status 'Sent', channel 'in_app'
+// (same as vw_user_unread_notifications).
+// ============================================================================
+
+package com.cmms.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationReadRepository {
+
+    public static final String CHANNEL = "cmms_unread";
+
+    private final JdbcTemplate jdbc;
+
+    // idx_notif_log_unread (recipient_user_id) WHERE read_status = 'Unread'
+    public int countUnread(UUID userId) {
+        Integer n = jdbc.queryForObject("""
+            SELECT COUNT(*) FROM notification_log
+            WHERE recipient_user_id = ? AND read_status = 'Unread'
+              AND delivery_status = 'Sent' AND channel = 'in_app'
+            """, Integer.class, userId);
+        return n == null ? 0 : n;
+    }
+
+    // Previous read_status of the row, or null when not found / not the user's / already in that state.
+    // 'Unread' means the badge goes down by one.
+    public String markRead(UUID id, UUID userId) {
+        return transition(id, userId, "Read", "read_at", "'Unread'");
+    }
+
+    public String markAcknowledged(UUID id, UUID userId) {
+        return transition(id, userId, "Acknowledged", "acknowledged_at", "'Unread', 'Read'");
+    }
+
+    private String transition(UUID id, UUID userId, String to, String stampColumn, String fromStates) {
+        List<String> previous = jdbc.queryForList("""
+            UPDATE notification_log n
+            SET    read_status = '%s', %s = now()
+            FROM  (SELECT id, read_status, channel, delivery_status FROM notification_log
+                   WHERE id = ? AND recipient_user_id = ? FOR UPDATE) o
+            WHERE  n.id = o.id AND o.read_status IN (%s)
+            RETURNING CASE WHEN o.channel = 'in_app' AND o.delivery_status = 'Sent'
+                           THEN o.read_status::TEXT END
+            """.formatted(to, stampColumn, fromStates), String.class, id, userId);
+        return previous.isEmpty() ? null : previous.get(0);
+    }
+
+    public int countOwned(UUID id, UUID userId) {
+        Integer n = jdbc.queryForObject("SELECT COUNT(*) FROM notification_log WHERE id = ? AND recipient_user_id = ?",
+                Integer.class, id, userId);
+        return n == null ? 0 : n;
+    }
+
+    public int markAllRead(UUID userId) {
+        return jdbc.update("""
+            UPDATE notification_log SET read_status = 'Read', read_at = now()
+            WHERE recipient_user_id = ? AND read_status = 'Unread'
+              AND delivery_status = 'Sent' AND channel = 'in_app'
+            """, userId);
+    }
+
+    // Payload "<userId>:<delta>" or "<userId>:R" (re-count). Delivered to
+    // listeners only when the surrounding transaction commits.
+    public void notifyChanges(UUID[] userIds, String[] changes) {
+        if (userIds.length == 0) return;
+        jdbc.query("SELECT pg_notify(?, u::TEXT || ':' || c) FROM unnest(?::uuid[], ?::text[]) AS t(u, c)",
+                ps -> {
+                    ps.setString(1, CHANNEL);
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", userIds));
+                    ps.setArray(3, ps.getConnection().createArrayOf("text", changes));
+                },
+                rs -> { });
+    }
+}
+
+
+// ============================================================================
+// 3. SERVICE: UnreadCounterService.java
+// Package: com.cmms.notification.service
+// Drift between a warm entry and the table (e.g. a delta arriving while the
+// entry is being re-counted) is bounded by MAX_AGE: entries older than that
+// are re-counted on next use. The LISTEN thread never runs SQL: it applies
+// deltas or marks entries cold; users with an open stream are re-counted on
+// a 2-thread pool, everyone else on their next request.
+// ============================================================================
+
+package com.cmms.notification.service;
+
+import com.cmms.notification.repository.NotificationReadRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final long MAX_AGE_MS = Duration.ofMinutes(10).toMillis();
+    private static final long IDLE_EVICT_MS = Duration.ofMinutes(30).toMillis();
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();   // client reconnects
+
+    private final NotificationReadRepository repository;
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    // Bounded: a listener reconnect must not turn into one COUNT per stream at once
+    private final ExecutorService recounts =
+            Executors.newFixedThreadPool(2, Thread.ofPlatform().daemon().name("unread-recount-", 0).factory());
+
+    private static final class Counter {
+        final AtomicInteger unread = new AtomicInteger();
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final AtomicBoolean recountQueued = new AtomicBoolean();
+        volatile boolean warm;
+        volatile long reconciledAt;
+        volatile long lastAccess = System.currentTimeMillis();
+    }
+
+    // ---------- READ ----------
+    public int unreadCount(UUID userId) {
+        Counter c = counters.computeIfAbsent(userId, k -> new Counter());
+        c.lastAccess = System.currentTimeMillis();
+        if (!c.warm || c.lastAccess - c.reconciledAt > MAX_AGE_MS) reconcile(userId, c);
+        return c.unread.get();
+    }
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Counter c = counters.computeIfAbsent(userId, k -> new Counter());
+        c.emitters.add(emitter);
+        emitter.onCompletion(() -> c.emitters.remove(emitter));
+        emitter.onTimeout(() -> c.emitters.remove(emitter));
+        emitter.onError(e -> c.emitters.remove(emitter));
+        send(c, emitter, unreadCount(userId));
+        return emitter;
+    }
+
+    // ---------- PUBLISH ----------
+    // pg_notify goes out when the transaction it runs in commits: the writer's
+    // own for NotificationReadService, an autocommit statement right after the
+    // sent rows are marked for NotificationDispatcher. In the second case a
+    // re-count between the two can see the row and then get its +1 as well;
+    // MAX_AGE bounds that drift.
+    public void publishDelivered(List<UUID> userIds) {
+        if (userIds.isEmpty()) return;
+        Map<UUID, Integer> perUser = new HashMap<>();
+        for (UUID u : userIds) perUser.merge(u, 1, Integer::sum);
+        publish(perUser);
+    }
+
+    public void publishRead(UUID userId) {
+        publish(Map.of(userId, -1));
+    }
+
+    public void publishRecount(UUID userId) {
+        repository.notifyChanges(new UUID[] { userId }, new String[] { "R" });
+    }
+
+    private void publish(Map<UUID, Integer> deltas) {
+        UUID[] users = deltas.keySet().toArray(UUID[]::new);
+        String[] changes = new String[users.length];
+        for (int i = 0; i < users.length; i++) changes[i] = String.valueOf(deltas.get(users[i]));
+        repository.notifyChanges(users, changes);
+    }
+
+    // ---------- APPLY (from UnreadChangeListener, every node) ----------
+    void onChange(String payload) {
+        int sep = payload.lastIndexOf(':');
+        if (sep < 0) return;
+        UUID userId;
+        try {
+            userId = UUID.fromString(payload.substring(0, sep));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unread change '{}'", payload);
+            return;
+        }
+        Counter c = counters.get(userId);
+        if (c == null) return;                       // user not on this node
+
+        String change = payload.substring(sep + 1);
+        if ("R".equals(change) || !c.warm) {
+            recountLater(userId, c);
+            return;
+        }
+        int delta = Integer.parseInt(change);
+        push(userId, c, c.unread.updateAndGet(v -> Math.max(0, v + delta)));
+    }
+
+    // Listener (re)connected: changes may have been missed
+    void markAllCold() {
+        counters.forEach(this::recountLater);
+    }
+
+    // Called on the LISTEN thread: no SQL here. One queued re-count per user;
+    // the flag is cleared before counting so a change during the COUNT queues another.
+    private void recountLater(UUID userId, Counter c) {
+        c.warm = false;
+        if (c.emitters.isEmpty() || !c.recountQueued.compareAndSet(false, true)) return;
+        try {
+            recounts.execute(() -> {
+                c.recountQueued.set(false);
+                try {
+                    push(userId, c, unreadCount(userId));
+                } catch (RuntimeException e) {
+                    log.warn("Unread re-count failed for {}: {}", userId, e.getMessage());   // stays cold
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            c.recountQueued.set(false);              // shutting down
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recounts.shutdownNow();
+    }
+
+    private void reconcile(UUID userId, Counter c) {
+        synchronized (c) {
+            if (c.warm && System.currentTimeMillis() - c.reconciledAt <= MAX_AGE_MS) return;
+            c.unread.set(repository.countUnread(userId));
+            c.reconciledAt = System.currentTimeMillis();
+            c.warm = true;
+        }
+    }
+
+    // ---------- SSE ----------
+    private void push(UUID userId, Counter c, int unread) {
+        for (SseEmitter e : c.emitters) send(c, e, unread);
+    }
+
+    private void send(Counter c, SseEmitter emitter, int unread) {
+        try {
+            emitter.send(SseEmitter.event().name("unread").data(Map.of("unreadCount", unread)));
+        } catch (IOException | IllegalStateException e) {
+            c.emitters.remove(emitter);
+        }
+    }
+
+    // Keeps proxies / load balancers from closing idle streams
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        for (Counter c : counters.values()) {
+            for (SseEmitter e : c.emitters) {
+                try {
+                    e.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException ex) {
+                    c.emitters.remove(e);
+                }
+            }
+        }
+    }
+
+    // Users without an open stream who have not asked for a while
+    @Scheduled(fixedDelay = 300_000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_EVICT_MS;
+        counters.entrySet().removeIf(en -> en.getValue().emitters.isEmpty() && en.getValue().lastAccess < cutoff);
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: UnreadChangeListener.java
+// Package: com.cmms.notification.service
+// One pooled connection per node stays in LISTEN cmms_unread.
+// ============================================================================
+
+package com.cmms.notification.service;
+
+import com.cmms.notification.repository.NotificationReadRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadChangeListener {
+
+    private final DataSource dataSource;
+    private final UnreadCounterService counters;
+
+    private volatile boolean running = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform().daemon().name("unread-listener").start(this::listen);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(true);
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + NotificationReadRepository.CHANNEL);
+                }
+                counters.markAllCold();
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(5_000);
+                    if (batch == null) continue;
+                    for (PGNotification n : batch) counters.onChange(n.getParameter());
+                }
+            } catch (SQLException e) {
+                log.warn("Unread listener connection lost: {}", e.getMessage());
+                sleepQuietly();
+            } catch (RuntimeException e) {
+                log.error("Unread listener error", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(2_000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+}
+
+
+// ============================================================================
+// 5. SERVICE: NotificationReadService.java
+// Package: com.cmms.notification.service
+// ============================================================================
+
+package com.cmms.notification.service;
+
+import com.cmms.common.exception.NotFoundException;
+import com.cmms.notification.repository.NotificationReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationReadService {
+
+    private final NotificationReadRepository repository;
+    private final UnreadCounterService unreadCounter;
+
+    @Transactional
+    public void markRead(UUID id, UUID userId) {
+        String previous = repository.markRead(id, userId);
+        if ("Unread".equals(previous)) unreadCounter.publishRead(userId);
+        else if (previous == null) requireOwned(id, userId);
+    }
+
+    @Transactional
+    public void acknowledge(UUID id, UUID userId) {
+        String previous = repository.markAcknowledged(id, userId);
+        if ("Unread".equals(previous)) unreadCounter.publishRead(userId);
+        else if (previous == null) requireOwned(id, userId);
+    }
+
+    // Count can be large: tell every node to re-count rather than sending -n
+    @Transactional
+    public int markAllRead(UUID userId) {
+        int n = repository.markAllRead(userId);
+        if (n > 0) unreadCounter.publishRecount(userId);
+        return n;
+    }
+
+    // null from the UPDATE is also "already read" / "not in_app": only 404 a foreign or missing id
+    private void requireOwned(UUID id, UUID userId) {
+        if (repository.countOwned(id, userId) == 0) throw new NotFoundException("Notification not found");
+    }
+}
+
+
+// ============================================================================
+// 6. CONTROLLER: NotificationInboxController.java
+// Package: com.cmms.notification.controller
+// UserService / UserContext: same request-scoped user lookup as the
+// store item config module.
+// ============================================================================
+
+package com.cmms.notification.controller;
+
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.dto.UserContext;
+import com.cmms.common.service.UserService;
+import com.cmms.notification.dto.UnreadCountResponse;
+import com.cmms.notification.service.NotificationReadService;
+import com.cmms.notification.service.UnreadCounterService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+public class NotificationInboxController {
+
+    private final UnreadCounterService unreadCounter;
+    private final NotificationReadService readService;
+    private final UserService userService;
+
+    // Badge count; kept for clients that still poll
+    @GetMapping("/unread-count")
+    public ResponseEntity<ResponseDto> getUnreadCount(HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Unread count retrieved",
+                new UnreadCountResponse(unreadCounter.unreadCount(ctx.getUserId()))));
+    }
+
+    // event: unread, data: {"unreadCount": n} on connect and on every change
+    @GetMapping(value = "/unread/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUnread(HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        return unreadCounter.subscribe(ctx.getUserId());
+    }
+
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<ResponseDto> markRead(@PathVariable UUID id, HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        readService.markRead(id, ctx.getUserId());
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Notification marked as read", null));
+    }
+
+    @PatchMapping("/{id}/acknowledge")
+    public ResponseEntity<ResponseDto> acknowledge(@PathVariable UUID id, HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        readService.acknowledge(id, ctx.getUserId());
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Notification acknowledged", null));
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<ResponseDto> markAllRead(HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        int updated = readService.markAllRead(ctx.getUserId());
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Notifications marked as read",
+                Map.of("updated", updated)));
+    }
+}
+
+
+// ============================================================================
+// 7. SAMPLE
+// ============================================================================
+
+/*
+CLIENT (app shell):
+  const es = new EventSource("/api/notifications/unread/stream", { withCredentials: true });
+  es.addEventListener("unread", e => setBadge(JSON.parse(e.data).unreadCount));
+  // EventSource reconnects by itself after the 30 min emitter timeout or a node restart
+
+--- GET /api/notifications/unread/stream ---
+event:unread
+data:{"unreadCount":4}
+
+:ping
+
+event:unread
+data:{"unreadCount":5}          <- dispatcher marked an in_app row Sent (any node)
+
+event:unread
+data:{"unreadCount":4}          <- PATCH /api/notifications/{id}/read
+
+--- GET /api/notifications/unread-count ---
+RESPONSE (200):
+{
+    "requestId": "uc1b2c3d-...",
+    "statusCode": 200,
+    "message": "Unread count retrieved",
+    "data": { "unreadCount": 4 }
+}
+
+LOAD: 3000 connected clinicians -> 0 COUNT(*) per poll interval; one indexed
+COUNT per user on first connect / after MAX_AGE (10 min) / after read-all.
+Servlet threads are not held by open streams (SseEmitter is async); size the
+container's max connections for the number of open streams.
+*/
@@ -0,0 +1,634 @@
+// ============================================================================
+// MODULE: Observability -- Micrometer metrics, Prometheus actuator endpoint
+// Base URL    : /actuator/prometheus (management port, see NOTES)
+// Stack       : Spring Boot 3.x actuator, micrometer-registry-prometheus,
+//               Spring Data repository invocation listeners, Hibernate 6
+//               StatementInspector
+// Meters:
+//   cmms.http.endpoint          Timer    endpoint, tenant.tier, expand, outcome
+//   cmms.http.sql.statements    Summary  endpoint            (Hibernate statements / request)
+//   cmms.repository.query       Timer    repository, method, state
+//   cmms.api.errors             Counter  exception, error.code, status
+// Hot path: meters are created once per tag combination and cached in arrays
+// keyed by index; recording is a lookup + Timer.record(long, unit) -- no Tags,
+// no boxing, no lambdas per request. Latency percentiles are published as
+// histogram buckets so they aggregate across instances in Prometheus.
+// ============================================================================
+
+
+// ============================================================================
+// 1. TenantTierResolver.java
+// Package: com.cmms.common.metrics
+// Tags by tier, never by tenant id (unbounded cardinality).
+//   cmms.metrics.tenant-tiers=101:enterprise,102:enterprise,900:trial
+// Tenants not listed are "standard"; requests without a tenant are "none".
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.*;
+
+@Component
+public class TenantTierResolver {
+
+    public static final int NONE = 0;
+    public static final int STANDARD = 1;
+
+    private final Map<Long, Integer> tierByTenant = new HashMap<>();
+    private final List<String> names = new ArrayList<>(List.of("none", "standard"));
+
+    public TenantTierResolver(@Value("${cmms.metrics.tenant-tiers:}") String spec) {
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] kv = entry.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("cmms.metrics.tenant-tiers: bad entry '" + entry + "'");
+            String tier = kv[1].trim().toLowerCase(Locale.ROOT);
+            int index = names.indexOf(tier);
+            if (index < 0) {
+                names.add(tier);
+                index = names.size() - 1;
+            }
+            tierByTenant.put(Long.valueOf(kv[0].trim()), index);
+        }
+    }
+
+    public int indexOf(Long tenantId) {
+        if (tenantId == null) return NONE;
+        Integer index = tierByTenant.get(tenantId);
+        return index == null ? STANDARD : index;
+    }
+
+    public String name(int index) { return names.get(index); }
+
+    public int size() { return names.size(); }
+}
+
+
+// ============================================================================
+// 2. SqlStatementCounter.java
+// Package: com.cmms.common.metrics
+// Hibernate calls inspect() once per JDBC statement it prepares (queries,
+// inserts, batched flushes, native SQL). The count is per thread and reset by
+// EndpointMetricsFilter at the start of every request. JdbcTemplate SQL
+// (location import, permission matrix, exports) does not go through here.
+// The first KEPT statements are held by reference (no copy) so SqlBudgetGuard
+// can fingerprint them when a request goes over its budget. They are kept only
+// while a budget is armed (budget() .. reset()): scheduler and listener threads
+// are never reset, so there the count just saturates and nothing is retained.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import com.cmms.common.exception.SqlBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import java.util.Arrays;
+import java.util.List;
+
+public class SqlStatementCounter implements StatementInspector {
+
+    static final int UNLIMITED = Integer.MAX_VALUE;
+    static final int KEPT = 64;
+
+    private static final ThreadLocal<Trace> TRACE = ThreadLocal.withInitial(Trace::new);
+
+    static final class Trace {
+        int count;
+        int budget = UNLIMITED;
+        boolean active;                  // budget armed for the current request
+        boolean failFast;
+        String endpoint;
+        final String[] statements = new String[KEPT];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Trace t = TRACE.get();
+        if (!t.active) {
+            if (t.count < UNLIMITED) t.count++;
+            return sql;
+        }
+        if (t.count >= 0 && t.count < KEPT) t.statements[t.count] = sql;
+        if (++t.count > t.budget && t.failFast) {
+            t.failFast = false;          // once per request; error handling may still run SQL
+            throw new SqlBudgetExceededException(t.endpoint, t.budget,
+                    SqlFingerprint.describe(statements(t)));
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        Trace t = TRACE.get();
+        Arrays.fill(t.statements, 0, Math.min(t.count, KEPT), null);
+        t.count = 0;
+        t.budget = UNLIMITED;
+        t.active = false;
+        t.failFast = false;
+        t.endpoint = null;
+    }
+
+    public static int current() {
+        return TRACE.get().count;
+    }
+
+    static void budget(String endpoint, int budget, boolean failFast) {
+        Trace t = TRACE.get();
+        t.endpoint = endpoint;
+        t.budget = budget;
+        t.active = true;
+        t.failFast = failFast;
+    }
+
+    static Trace trace() {
+        return TRACE.get();
+    }
+
+    static List<String> statements(Trace t) {
+        return Arrays.asList(Arrays.copyOf(t.statements, Math.min(t.count, KEPT)));
+    }
+}
+
+
+// ============================================================================
+// 3. EndpointMeters.java
+// Package: com.cmms.common.metrics
+// All meters of one controller method. Timers are created on first use of a
+// (tier, expand, outcome) combination; a racing double create is harmless --
+// the registry returns the same Timer for the same id.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+
+final class EndpointMeters {
+
+    static final int EXPAND_NONE = 0;
+    static final int EXPAND_FALSE = 1;
+    static final int EXPAND_TRUE = 2;
+
+    private static final String[] EXPAND = {"none", "false", "true"};
+    private static final String[] OUTCOME = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry registry;
+    private final TenantTierResolver tiers;
+    private final String endpoint;
+    private final Timer[] latency;
+    final DistributionSummary statements;
+
+    EndpointMeters(MeterRegistry registry, TenantTierResolver tiers, String endpoint) {
+        this.registry = registry;
+        this.tiers = tiers;
+        this.endpoint = endpoint;
+        this.latency = new Timer[tiers.size() * EXPAND.length * OUTCOME.length];
+        this.statements = DistributionSummary.builder("cmms.http.sql.statements")
+                .description("Hibernate JDBC statements per request")
+                .tag("endpoint", endpoint)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                .register(registry);
+    }
+
+    Timer latency(int tier, int expand, int status) {
+        int outcome = Math.min(Math.max(status / 100, 1), 5) - 1;
+        int i = (tier * EXPAND.length + expand) * OUTCOME.length + outcome;
+        Timer t = latency[i];
+        if (t == null) {
+            t = Timer.builder("cmms.http.endpoint")
+                    .description("Server-side latency per controller method")
+                    .tag("endpoint", endpoint)
+                    .tag("tenant.tier", tiers.name(tier))
+                    .tag("expand", EXPAND[expand])
+                    .tag("outcome", OUTCOME[outcome])
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+            latency[i] = t;
+        }
+        return t;
+    }
+}
+
+
+// ============================================================================
+// 4. EndpointMetricsFilter.java
+// Package: com.cmms.common.metrics
+// Runs before Spring Security so authorization time is part of the latency.
+// The handler is known only after dispatch, so the controller method is read
+// back from the request attribute Spring MVC leaves behind. The tenant tier
+// likewise: once the chain has returned the security context is cleared, so
+// EndpointTenantInterceptor records it while the request is inside.
+// Async requests (StreamingResponseBody exports) are timed by an AsyncListener
+// when the response completes; their SQL runs on other threads and is not
+// counted. SSE streams are left out: their duration is the client's session.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class EndpointMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final TenantTierResolver tiers;
+    private final SqlBudgetGuard budgetGuard;
+    private final ConcurrentHashMap<Method, EndpointMeters> endpoints = new ConcurrentHashMap<>();
+
+    public EndpointMetricsFilter(MeterRegistry registry, TenantTierResolver tiers, SqlBudgetGuard budgetGuard) {
+        this.registry = registry;
+        this.tiers = tiers;
+        this.budgetGuard = budgetGuard;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Async: the response is still open, the time so far means nothing
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncCompletion(start));
+            } else {
+                record(request, response, System.nanoTime() - start, true);
+                budgetGuard.afterRequest();
+            }
+            SqlStatementCounter.reset();
+        }
+    }
+
+    private final class AsyncCompletion implements AsyncListener {
+        private final long start;
+
+        AsyncCompletion(long start) {
+            this.start = start;
+        }
+
+        // Also called after a timeout or error, once the container has finished the response
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletRequest request = (HttpServletRequest) event.getAsyncContext().getRequest();
+            HttpServletResponse response = (HttpServletResponse) event.getAsyncContext().getResponse();
+            String type = response.getContentType();
+            if (type != null && type.startsWith("text/event-stream")) return;
+            record(request, response, System.nanoTime() - start, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) { }
+
+        @Override
+        public void onError(AsyncEvent event) { }
+
+        // A new startAsync() drops registered listeners
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    // statements: false on async completion (another thread, counter already reset)
+    private void record(HttpServletRequest request, HttpServletResponse response, long nanos, boolean statements) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod hm)) return;
+
+        EndpointMeters meters = endpoints.get(hm.getMethod());
+        if (meters == null) {
+            meters = endpoints.computeIfAbsent(hm.getMethod(), m -> new EndpointMeters(registry, tiers,
+                    hm.getBeanType().getSimpleName() + "." + m.getName()));
+        }
+        meters.latency(tier(request), expand(request), response.getStatus())
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (statements) meters.statements.record(SqlStatementCounter.current());
+    }
+
+    // Requests stopped before the handler (401 / 403 from the security chain) have no tier
+    private static int tier(HttpServletRequest request) {
+        return request.getAttribute(EndpointTenantInterceptor.TIER_ATTRIBUTE) instanceof Integer tier
+                ? tier : TenantTierResolver.NONE;
+    }
+
+    private static int expand(HttpServletRequest request) {
+        String v = request.getParameter("expand");
+        if (v == null) return EndpointMeters.EXPAND_NONE;
+        return "true".equalsIgnoreCase(v) ? EndpointMeters.EXPAND_TRUE : EndpointMeters.EXPAND_FALSE;
+    }
+}
+
+
+// ============================================================================
+// 4b. EndpointTenantInterceptor.java
+// Package: com.cmms.common.metrics
+// preHandle runs after Spring Security, with the caller's JWT in place.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import com.cmms.common.service.JwtService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class EndpointTenantInterceptor implements HandlerInterceptor {
+
+    static final String TIER_ATTRIBUTE = EndpointTenantInterceptor.class.getName() + ".tier";
+
+    private final TenantTierResolver tiers;
+    private final JwtService jwtService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(TIER_ATTRIBUTE, tiers.indexOf(tenantId()));
+        return true;
+    }
+
+    // Public / unauthenticated requests have no tenant
+    private Long tenantId() {
+        try {
+            return jwtService.getTenantId();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
+
+
+// ============================================================================
+// 5. RepositoryQueryMetrics.java
+// Package: com.cmms.common.metrics
+// Spring Data calls afterInvocation for every repository method (derived,
+// @Query, CRUD). One Timer per (method, result state), cached by Method.
+// Replaces Boot's spring.data.repository.invocations, which builds its Tags
+// on every call -- disable that one (see NOTES).
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class RepositoryQueryMetrics implements RepositoryMethodInvocationListener {
+
+    private static final RepositoryMethodInvocationResult.State[] STATES = RepositoryMethodInvocationResult.State.values();
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public RepositoryQueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        RepositoryMethodInvocationResult result = invocation.getResult();
+        int state = result == null ? RepositoryMethodInvocationResult.State.SUCCESS.ordinal() : result.getState().ordinal();
+
+        Method method = invocation.getMethod();
+        Timer[] byState = timers.get(method);
+        if (byState == null) byState = timers.computeIfAbsent(method, m -> new Timer[STATES.length]);
+
+        Timer t = byState[state];
+        if (t == null) {
+            t = Timer.builder("cmms.repository.query")
+                    .description("Spring Data repository method duration")
+                    .tag("repository", invocation.getRepositoryInterface().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("state", STATES[state].name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry);
+            byState[state] = t;
+        }
+        t.record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+}
+
+
+// ============================================================================
+// 6. ApiErrorMetrics.java
+// Package: com.cmms.common.metrics
+// Used by GlobalExceptionHandler. Fixed error codes get their Counter up front;
+// DuplicateException codes (DUPLICATE_ROOM_NO, ...) are constants in code, so
+// the per-code cache stays small.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ApiErrorMetrics {
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, Counter> duplicates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Counter> internal = new ConcurrentHashMap<>();
+    private final Counter notFound;
+    private final Counter forbidden;
+    private final Counter invalidStatus;
+    private final Counter invalidCursor;
+    private final Counter validation;
+    private final Counter constraint;
+    private final Counter sqlBudgetExceeded;
+
+    public ApiErrorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.notFound = counter("NotFoundException", "NOT_FOUND", 404);
+        this.forbidden = counter("ForbiddenException", "FORBIDDEN", 403);
+        this.invalidStatus = counter("InvalidStatusException", "INVALID_STATUS", 400);
+        this.invalidCursor = counter("InvalidCursorException", "INVALID_CURSOR", 400);
+        this.validation = counter("MethodArgumentNotValidException", "VALIDATION_ERROR", 400);
+        this.constraint = counter("ConstraintViolationException", "CONSTRAINT_VIOLATION", 400);
+        this.sqlBudgetExceeded = counter("SqlBudgetExceededException", "SQL_BUDGET_EXCEEDED", 500);
+    }
+
+    public void duplicate(String errorCode) {
+        String code = errorCode == null ? "DUPLICATE" : errorCode;
+        Counter c = duplicates.get(code);
+        if (c == null) c = duplicates.computeIfAbsent(code, k -> counter("DuplicateException", k, 409));
+        c.increment();
+    }
+
+    public void notFound()      { notFound.increment(); }
+    public void forbidden()     { forbidden.increment(); }
+    public void invalidStatus() { invalidStatus.increment(); }
+    public void invalidCursor() { invalidCursor.increment(); }
+    public void validation()    { validation.increment(); }
+    public void constraint()    { constraint.increment(); }
+    public void sqlBudgetExceeded() { sqlBudgetExceeded.increment(); }
+
+    public void internal(Exception ex) {
+        Counter c = internal.get(ex.getClass());
+        if (c == null) c = internal.computeIfAbsent(ex.getClass(), k -> counter(k.getSimpleName(), "INTERNAL_ERROR", 500));
+        c.increment();
+    }
+
+    private Counter counter(String exception, String errorCode, int status) {
+        return Counter.builder("cmms.api.errors")
+                .description("Errors returned by GlobalExceptionHandler")
+                .tag("exception", exception)
+                .tag("error.code", errorCode)
+                .tag("status", String.valueOf(status))
+                .register(registry);
+    }
+}
+
+
+// ============================================================================
+// 7. MetricsConfig.java
+// Package: com.cmms.common.metrics
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final EndpointTenantInterceptor tenantInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tenantInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> cmmsMeterRegistryCustomizer() {
+        return registry -> registry.config()
+                .commonTags("application", "cmms-api")
+                // Guard rail: a mapping bug must not turn into thousands of series
+                .meterFilter(MeterFilter.maximumAllowableTags("cmms.http.endpoint", "endpoint", 500, MeterFilter.deny()))
+                .meterFilter(MeterFilter.maximumAllowableTags("cmms.repository.query", "method", 1000, MeterFilter.deny()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<EndpointMetricsFilter> endpointMetricsFilter(MeterRegistry registry,
+                                                                               TenantTierResolver tiers,
+                                                                               SqlBudgetGuard budgetGuard) {
+        FilterRegistrationBean<EndpointMetricsFilter> bean =
+                new FilterRegistrationBean<>(new EndpointMetricsFilter(registry, tiers, budgetGuard));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);      // before the security filter chain (-100)
+        return bean;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public RepositoryQueryMetrics repositoryQueryMetrics(MeterRegistry registry) {
+        return new RepositoryQueryMetrics(registry);
+    }
+
+    // static: must not pull MeterRegistry into the post-processor phase
+    @Bean
+    public static BeanPostProcessor repositoryQueryMetricsPostProcessor(ObjectProvider<RepositoryQueryMetrics> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(
+                            factory -> factory.addInvocationListener(listener.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
+
+
+// ============================================================================
+// 8. NOTES
+// ============================================================================
+
+/*
+DEPENDENCIES:
+  spring-boot-starter-actuator
+  io.micrometer:micrometer-registry-prometheus
+
+application.yml:
+  management:
+    server.port: 8081                       # scrape port, not exposed through the gateway
+    endpoints.web.exposure.include: health,prometheus
+    metrics.data.repository.autotime.enabled: false   # replaced by cmms.repository.query
+  cmms:
+    metrics:
+      tenant-tiers: "101:enterprise,102:enterprise,900:trial"
+
+  The security filter chain only covers the application port; with a separate
+  management port /actuator/prometheus needs no permitAll rule.
+
+SAMPLE OUTPUT (GET :8081/actuator/prometheus):
+  cmms_http_endpoint_seconds_bucket{endpoint="RoomController.getAll",expand="true",outcome="2xx",tenant_tier="enterprise",le="0.016777216"} 18211
+  cmms_http_sql_statements_bucket{endpoint="RoomController.getAll",le="1.0"} 18090
+  cmms_repository_query_seconds_count{repository="RoomRepository",method="findAllExpandedByFloor",state="success"} 18102
+  cmms_repository_query_seconds_count{repository="BedRepository",method="existsDuplicate",state="success"} 412
+  cmms_api_errors_total{error_code="DUPLICATE_BED_NO",exception="DuplicateException",status="409"} 7
+
+PROMQL:
+  p99 per endpoint / tier:
+    histogram_quantile(0.99, sum by (endpoint, tenant_tier, le) (rate(cmms_http_endpoint_seconds_bucket[5m])))
+  N+1 watch -- share of requests above 10 statements:
+    1 - sum by (endpoint) (rate(cmms_http_sql_statements_bucket{le="10.0"}[15m]))
+          / sum by (endpoint) (rate(cmms_http_sql_statements_count[15m]))
+  Errors by code:
+    sum by (error_code) (rate(cmms_api_errors_total[5m]))
+
+WHAT IS NOT COVERED:
+  - SQL sent through JdbcTemplate (imports, exports, permission matrix,
+    datagen) is timed only as part of the endpoint, not counted per statement
+  - SSE streams (notification stream) are not timed. Other async requests
+    (StreamingResponseBody exports) are timed to completion, without a
+    statement count or SQL budget
+*/
@@ -0,0 +1,370 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: rbac authorization engine
+// Table       : (none -- in-memory, compiled from role_permissions)
+// Base Tables : role_permissions, roles, resources, actions
+// Stack       : Java 17+, Spring Boot 3.x, Spring Security 6, JPA/Hibernate, PostgreSQL, JWT
+// Base URL    : (none -- used by SecurityFilterChain / @PreAuthorize)
+// PURPOSE     : O(1) isAllowed(role, resourceKey, actionKey) without a DB query.
+//               Each tenant's grants are compiled into one bitset per role,
+//               indexed by (resource ordinal, action ordinal).
+// ============================================================================
+
+
+// ============================================================================
+// 1. REPOSITORY: AuthorizationGrantRepository.java
+// Package: com.cmms.rbac.repository
+// One query per tenant snapshot rebuild (uses idx_rp_tenant).
+// ============================================================================
+
+package com.cmms.rbac.repository;
+
+import com.cmms.rbac.entity.RolePermission;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+@org.springframework.stereotype.Repository
+public interface AuthorizationGrantRepository extends Repository<RolePermission, Long> {
+
+    interface GrantRow {
+        Long getRoleId();
+        String getRoleCode();
+        String getResourceKey();
+        String getActionKey();
+    }
+
+    // Only allowed grants: a missing bit means "denied"
+    @Query("""
+        SELECT rp.roleId AS roleId, r.code AS roleCode,
+               res.resourceKey AS resourceKey, a.actionKey AS actionKey
+        FROM RolePermission rp
+        JOIN rp.role r
+        JOIN rp.resource res
+        JOIN rp.action a
+        WHERE rp.tenantId = :tenantId AND rp.isAllowed = true
+    """)
+    List<GrantRow> findAllowedGrants(@Param("tenantId") Long tenantId);
+}
+
+
+// ============================================================================
+// 2. PermissionSnapshot.java
+// Package: com.cmms.rbac.authz
+// Immutable. Resource / action keys get dense ordinals; grant (r, a) of a role
+// is bit (r * actionCount + a) in that role's long[] words.
+// ============================================================================
+
+package com.cmms.rbac.authz;
+
+import com.cmms.rbac.repository.AuthorizationGrantRepository.GrantRow;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PermissionSnapshot {
+
+    private final Map<String, Integer> resourceOrdinals;
+    private final Map<String, Integer> actionOrdinals;
+    private final Map<Long, long[]> roleBits;
+    private final Map<String, Long> roleIdsByCode;
+    private final int actionCount;
+
+    private PermissionSnapshot(Map<String, Integer> resourceOrdinals, Map<String, Integer> actionOrdinals,
+                               Map<Long, long[]> roleBits, Map<String, Long> roleIdsByCode) {
+        this.resourceOrdinals = resourceOrdinals;
+        this.actionOrdinals = actionOrdinals;
+        this.roleBits = roleBits;
+        this.roleIdsByCode = roleIdsByCode;
+        this.actionCount = actionOrdinals.size();
+    }
+
+    public static PermissionSnapshot compile(List<GrantRow> grants) {
+        Map<String, Integer> resources = new HashMap<>();
+        Map<String, Integer> actions = new HashMap<>();
+        Map<String, Long> roles = new HashMap<>();
+        for (GrantRow g : grants) {
+            resources.putIfAbsent(g.getResourceKey(), resources.size());
+            actions.putIfAbsent(g.getActionKey(), actions.size());
+            roles.putIfAbsent(g.getRoleCode(), g.getRoleId());
+        }
+
+        int words = (resources.size() * actions.size() + 63) >>> 6;
+        Map<Long, long[]> bits = new HashMap<>();
+        for (GrantRow g : grants) {
+            int bit = resources.get(g.getResourceKey()) * actions.size() + actions.get(g.getActionKey());
+            bits.computeIfAbsent(g.getRoleId(), k -> new long[words])[bit >>> 6] |= 1L << bit;
+        }
+        return new PermissionSnapshot(Map.copyOf(resources), Map.copyOf(actions), Map.copyOf(bits), Map.copyOf(roles));
+    }
+
+    public boolean isAllowed(Long roleId, String resourceKey, String actionKey) {
+        if (roleId == null || resourceKey == null || actionKey == null) return false;
+        long[] words = roleBits.get(roleId);
+        Integer r = resourceOrdinals.get(resourceKey);
+        Integer a = actionOrdinals.get(actionKey);
+        if (words == null || r == null || a == null) return false;
+        int bit = r * actionCount + a;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public Long roleIdOf(String roleCode) {
+        return roleCode != null ? roleIdsByCode.get(roleCode) : null;
+    }
+}
+
+
+// ============================================================================
+// 3. SERVICE: AuthorizationEngine.java
+// Package: com.cmms.rbac.authz
+// Per-tenant snapshots, rebuilt lazily after RolePermissionService
+// create / update / delete / bulkSave calls invalidate(tenantId).
+// invalidate() also sends pg_notify('cmms_rbac', tenantId) in the writer's
+// transaction; every node's PermissionChangeListener evicts the tenant when
+// it commits. SNAPSHOT_TTL bounds staleness if a notification is missed
+// (listener reconnecting, SQL edits that bypass the service).
+// ============================================================================
+
+package com.cmms.rbac.authz;
+
+import com.cmms.rbac.repository.AuthorizationGrantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class AuthorizationEngine {
+
+    public static final String CHANNEL = "cmms_rbac";
+    public static final Duration SNAPSHOT_TTL = Duration.ofSeconds(30);
+
+    private final AuthorizationGrantRepository grantRepository;
+    private final JdbcTemplate jdbc;
+
+    private record Entry(PermissionSnapshot snapshot, long loadedAt) {}
+
+    private final Map<Long, Entry> snapshots = new ConcurrentHashMap<>();
+    // Bumped per tenant on eviction: a snapshot compiled across it is not kept
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public boolean isAllowed(Long tenantId, Long roleId, String resourceKey, String actionKey) {
+        return snapshot(tenantId).isAllowed(roleId, resourceKey, actionKey);
+    }
+
+    public boolean isAllowedForRoleCode(Long tenantId, String roleCode, String resourceKey, String actionKey) {
+        PermissionSnapshot s = snapshot(tenantId);
+        return s.isAllowed(s.roleIdOf(roleCode), resourceKey, actionKey);
+    }
+
+    // Evicts now and again after commit, so a rebuild that read the
+    // pre-commit grants in between is not kept. The notification reaches
+    // the other nodes (and this one) only if the transaction commits.
+    public void invalidate(Long tenantId) {
+        evict(tenantId);
+        jdbc.query("SELECT pg_notify(?, ?)", rs -> { }, CHANNEL, String.valueOf(tenantId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId);
+                }
+            });
+        }
+    }
+
+    // From PermissionChangeListener
+    void evict(Long tenantId) {
+        generations.computeIfAbsent(tenantId, k -> new AtomicLong()).incrementAndGet();
+        snapshots.remove(tenantId);
+    }
+
+    // Listener (re)connected: notifications sent while it was away are lost
+    void evictAll() {
+        for (Long tenantId : snapshots.keySet()) evict(tenantId);
+    }
+
+    // Compiled outside the map: the grant query must not hold a ConcurrentHashMap bin lock
+    private PermissionSnapshot snapshot(Long tenantId) {
+        Entry e = snapshots.get(tenantId);
+        if (e != null && System.nanoTime() - e.loadedAt() < SNAPSHOT_TTL.toNanos()) return e.snapshot();
+
+        long gen = generation(tenantId);
+        Entry fresh = new Entry(PermissionSnapshot.compile(grantRepository.findAllowedGrants(tenantId)), System.nanoTime());
+        if (e == null ? snapshots.putIfAbsent(tenantId, fresh) == null : snapshots.replace(tenantId, e, fresh)) {
+            if (gen != generation(tenantId)) snapshots.remove(tenantId, fresh);   // answer this check, recompile next time
+        }
+        return fresh.snapshot();
+    }
+
+    private long generation(Long tenantId) {
+        AtomicLong g = generations.get(tenantId);
+        return g != null ? g.get() : 0L;
+    }
+}
+
+// ---------- PermissionChangeListener.java ----------
+// One pooled connection per node stays in LISTEN cmms_rbac.
+package com.cmms.rbac.authz;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionChangeListener {
+
+    private final DataSource dataSource;
+    private final AuthorizationEngine engine;
+
+    private volatile boolean running = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform().daemon().name("rbac-listener").start(this::listen);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(true);
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + AuthorizationEngine.CHANNEL);
+                }
+                engine.evictAll();
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(5_000);
+                    if (batch == null) continue;
+                    for (PGNotification n : batch) engine.evict(Long.valueOf(n.getParameter()));
+                }
+            } catch (SQLException e) {
+                log.warn("RBAC listener connection lost: {}", e.getMessage());
+                sleepQuietly();
+            } catch (RuntimeException e) {
+                log.error("RBAC listener error", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(2_000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+}
+
+
+// ============================================================================
+// 4. SPRING SECURITY ADAPTERS
+// Package: com.cmms.rbac.authz
+// ============================================================================
+
+// ---------- RbacAuthorizationManagers.java ----------
+// URL rules in the SecurityFilterChain:
+//   .requestMatchers(HttpMethod.GET,  "/api/work-order/**").access(rbac.require("WORK_ORDER", "VIEW"))
+//   .requestMatchers(HttpMethod.POST, "/api/work-order/**").access(rbac.require("WORK_ORDER", "CREATE"))
+package com.cmms.rbac.authz;
+
+import com.cmms.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RbacAuthorizationManagers {
+
+    private static final AuthenticationTrustResolver TRUST = new AuthenticationTrustResolverImpl();
+
+    private final AuthorizationEngine engine;
+    private final JwtService jwtService;
+
+    public AuthorizationManager<RequestAuthorizationContext> require(String resourceKey, String actionKey) {
+        return (authentication, context) -> {
+            // AnonymousAuthenticationToken reports isAuthenticated() = true: deny it explicitly
+            Authentication auth = authentication.get();
+            if (auth == null || TRUST.isAnonymous(auth) || !auth.isAuthenticated()) {
+                return new AuthorizationDecision(false);
+            }
+            return new AuthorizationDecision(engine.isAllowedForRoleCode(
+                    jwtService.getTenantId(), jwtService.getRole(), resourceKey, actionKey));
+        };
+    }
+}
+
+// ---------- RbacPermissionEvaluator.java ----------
+// Method security: @PreAuthorize("@rbac.can('ASSET', 'DELETE')")
+package com.cmms.rbac.authz;
+
+import com.cmms.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component("rbac")
+@RequiredArgsConstructor
+public class RbacPermissionEvaluator {
+
+    private final AuthorizationEngine engine;
+    private final JwtService jwtService;
+
+    public boolean can(String resourceKey, String actionKey) {
+        return engine.isAllowedForRoleCode(jwtService.getTenantId(), jwtService.getRole(), resourceKey, actionKey);
+    }
+}
+
+
+// ============================================================================
+// 5. NOTES
+// ============================================================================
+
+/*
+SNAPSHOT CONTENTS (per tenant):
+ - Only role_permissions rows with is_allowed = true are compiled in
+ - Ordinals cover only the resource / action keys that appear in some grant;
+   an unknown key, role or bit means DENY
+ - Size: roles x ceil(resources x actions / 64) longs -- e.g. 20 roles x 40
+   resources x 10 actions = 20 x 7 longs
+
+COST:
+ - isAllowed: 3 HashMap lookups + 1 bit test, no DB access
+ - Rebuild: one JOIN query on role_permissions (idx_rp_tenant), on the first
+   check after a write to the tenant's grants and at most every SNAPSHOT_TTL (30 s)
+
+INVALIDATION (RolePermissionService):
+ - create / update / delete / bulkSave -> AuthorizationEngine.invalidate(tenantId)
+ - Other nodes: pg_notify('cmms_rbac', tenantId) in the same transaction; each
+   node's PermissionChangeListener evicts the tenant on commit (milliseconds)
+ - Listener reconnect: every snapshot is evicted (notifications may be lost)
+ - Writes made directly in SQL are picked up within SNAPSHOT_TTL
+*/
@@ -0,0 +1,403 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: rbac permission matrix
+// Table       : (none -- read-only, built per request)
+// Base Tables : resources, actions, role_permissions
+// Stack       : Java 17+, Spring Boot 3.x, JPA/Hibernate, PostgreSQL, JWT
+// Base URL    : /api/role-permission/matrix (served by RolePermissionController)
+// PURPOSE     : Full resources x actions grid for one role. Resources (tree via
+//               parent_id) and actions are global master data, loaded once into
+//               a cached PermissionCatalog; per request only the role's grant
+//               rows are read and dropped into a cell array by ordinal.
+// ============================================================================
+
+
+// ============================================================================
+// 1. REPOSITORY: PermissionCatalogRepository.java
+// Package: com.cmms.rbac.repository
+// Aliases are quoted: PostgreSQL folds unquoted aliases to lower case.
+// ============================================================================
+
+package com.cmms.rbac.repository;
+
+import com.cmms.rbac.entity.RolePermission;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+import java.util.Optional;
+
+@org.springframework.stereotype.Repository
+public interface PermissionCatalogRepository extends Repository<RolePermission, Long> {
+
+    interface ResourceRow {
+        Long getId();
+        String getResourceKey();
+        String getResourceName();
+        Long getParentId();
+    }
+
+    interface ActionRow {
+        Long getId();
+        String getActionKey();
+        String getActionName();
+    }
+
+    interface RoleHeader {
+        String getRoleName();
+        String getRoleCode();
+        String getRoleScope();
+    }
+
+    @Query(value = """
+        SELECT id, resource_key AS "resourceKey", resource_name AS "resourceName", parent_id AS "parentId"
+        FROM resources
+        WHERE is_active = 'ACTIVE'
+        ORDER BY sort_order, resource_name, id
+    """, nativeQuery = true)
+    List<ResourceRow> findActiveResources();
+
+    @Query(value = """
+        SELECT id, action_key AS "actionKey", action_name AS "actionName"
+        FROM actions
+        WHERE is_active = 'ACTIVE'
+        ORDER BY id
+    """, nativeQuery = true)
+    List<ActionRow> findActiveActions();
+
+    // Tenant-scoped: another tenant's role id finds nothing
+    @Query(value = """
+        SELECT name AS "roleName", code AS "roleCode", scope AS "roleScope"
+        FROM roles
+        WHERE id = :roleId AND tenant_id = :tenantId
+    """, nativeQuery = true)
+    Optional<RoleHeader> findRoleHeader(@Param("roleId") Long roleId, @Param("tenantId") Long tenantId);
+}
+
+
+// ============================================================================
+// 2. PermissionCatalog.java
+// Package: com.cmms.rbac.service
+// Immutable. Resources are stored in display order (each parent followed by its
+// children, depth-first, by sort_order); actions by id. Id -> ordinal lookups
+// are binary searches over sorted long[] -- no boxing, no string keys.
+// ============================================================================
+
+package com.cmms.rbac.service;
+
+import com.cmms.rbac.repository.PermissionCatalogRepository.ActionRow;
+import com.cmms.rbac.repository.PermissionCatalogRepository.ResourceRow;
+import java.util.*;
+
+public final class PermissionCatalog {
+
+    // Resources, indexed by ordinal (= display position)
+    final long[] resourceIds;
+    final String[] resourceKeys;
+    final String[] resourceNames;
+    final Long[] parentIds;
+    final boolean[] isParent;
+
+    // Actions, indexed by ordinal (sorted by id)
+    final long[] actionIds;
+    final String[] actionKeys;
+    final String[] actionNames;
+
+    // resourceId -> ordinal: sortedResourceIds[i] sits at ordinal resourceOrdinals[i]
+    private final long[] sortedResourceIds;
+    private final int[] resourceOrdinals;
+
+    final long loadedAt = System.nanoTime();
+
+    private PermissionCatalog(List<ResourceRow> ordered, Set<Long> parents, List<ActionRow> actions) {
+        int n = ordered.size();
+        resourceIds = new long[n];
+        resourceKeys = new String[n];
+        resourceNames = new String[n];
+        parentIds = new Long[n];
+        isParent = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            ResourceRow r = ordered.get(i);
+            resourceIds[i] = r.getId();
+            resourceKeys[i] = r.getResourceKey();
+            resourceNames[i] = r.getResourceName();
+            parentIds[i] = r.getParentId();
+            isParent[i] = parents.contains(r.getId());
+        }
+
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) byId[i] = i;
+        Arrays.sort(byId, Comparator.comparingLong(i -> resourceIds[i]));
+        sortedResourceIds = new long[n];
+        resourceOrdinals = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedResourceIds[i] = resourceIds[byId[i]];
+            resourceOrdinals[i] = byId[i];
+        }
+
+        int m = actions.size();
+        actionIds = new long[m];
+        actionKeys = new String[m];
+        actionNames = new String[m];
+        for (int i = 0; i < m; i++) {
+            ActionRow a = actions.get(i);
+            actionIds[i] = a.getId();
+            actionKeys[i] = a.getActionKey();
+            actionNames[i] = a.getActionName();
+        }
+    }
+
+    // resources: ordered by sort_order; actions: ordered by id
+    public static PermissionCatalog compile(List<ResourceRow> resources, List<ActionRow> actions) {
+        Set<Long> activeIds = new HashSet<>();
+        for (ResourceRow r : resources) activeIds.add(r.getId());
+
+        // A resource whose parent is missing / inactive is shown as a root
+        List<ResourceRow> roots = new ArrayList<>();
+        Map<Long, List<ResourceRow>> children = new HashMap<>();
+        for (ResourceRow r : resources) {
+            if (r.getParentId() != null && activeIds.contains(r.getParentId())) {
+                children.computeIfAbsent(r.getParentId(), k -> new ArrayList<>()).add(r);
+            } else {
+                roots.add(r);
+            }
+        }
+
+        List<ResourceRow> ordered = new ArrayList<>(resources.size());
+        Set<Long> visited = new HashSet<>();
+        for (ResourceRow root : roots) appendDepthFirst(root, children, ordered, visited);
+        return new PermissionCatalog(ordered, children.keySet(), actions);
+    }
+
+    private static void appendDepthFirst(ResourceRow node, Map<Long, List<ResourceRow>> children,
+                                         List<ResourceRow> out, Set<Long> visited) {
+        if (!visited.add(node.getId())) return;      // parent_id cycle guard
+        out.add(node);
+        for (ResourceRow child : children.getOrDefault(node.getId(), List.of())) {
+            appendDepthFirst(child, children, out, visited);
+        }
+    }
+
+    public int resourceCount() { return resourceIds.length; }
+
+    public int actionCount() { return actionIds.length; }
+
+    // -1 if the resource is not (or no longer) active
+    public int resourceOrdinal(long resourceId) {
+        int i = Arrays.binarySearch(sortedResourceIds, resourceId);
+        return i >= 0 ? resourceOrdinals[i] : -1;
+    }
+
+    // -1 if the action is not (or no longer) active
+    public int actionOrdinal(long actionId) {
+        int i = Arrays.binarySearch(actionIds, actionId);
+        return i >= 0 ? i : -1;
+    }
+}
+
+
+// ============================================================================
+// 3. PermissionMatrix.java
+// Package: com.cmms.rbac.service
+// One role's grid: cell (r, a) = r * actionCount + a. Parent resources carry
+// no actions (matches the UI: parent rows are group headers).
+// ============================================================================
+
+package com.cmms.rbac.service;
+
+import com.cmms.rbac.dto.response.RolePermissionMatrixResponse;
+import com.cmms.rbac.dto.response.RolePermissionMatrixResponse.ActionPermission;
+import com.cmms.rbac.dto.response.RolePermissionMatrixResponse.ResourcePermissionGroup;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PermissionMatrix {
+
+    private final PermissionCatalog catalog;
+    private final Long roleId;
+    private final String roleName;
+    private final String roleCode;
+    private final String roleScope;
+    private final int totalPermissions;
+    private final long[] permissionIds;     // 0 = no row for the cell
+    private final boolean[] allowed;
+
+    PermissionMatrix(PermissionCatalog catalog, Long roleId, String roleName, String roleCode, String roleScope,
+                     int totalPermissions, long[] permissionIds, boolean[] allowed) {
+        this.catalog = catalog;
+        this.roleId = roleId;
+        this.roleName = roleName;
+        this.roleCode = roleCode;
+        this.roleScope = roleScope;
+        this.totalPermissions = totalPermissions;
+        this.permissionIds = permissionIds;
+        this.allowed = allowed;
+    }
+
+    public RolePermissionMatrixResponse toResponse() {
+        int actions = catalog.actionCount();
+        List<ResourcePermissionGroup> groups = new ArrayList<>(catalog.resourceCount());
+        for (int r = 0; r < catalog.resourceCount(); r++) {
+            List<ActionPermission> cells = new ArrayList<>(catalog.isParent[r] ? 0 : actions);
+            if (!catalog.isParent[r]) {
+                for (int a = 0, cell = r * actions; a < actions; a++, cell++) {
+                    cells.add(ActionPermission.builder()
+                            .actionId(catalog.actionIds[a])
+                            .actionKey(catalog.actionKeys[a])
+                            .actionName(catalog.actionNames[a])
+                            .isAllowed(allowed[cell])
+                            .permissionId(permissionIds[cell] != 0 ? permissionIds[cell] : null)
+                            .build());
+                }
+            }
+            groups.add(ResourcePermissionGroup.builder()
+                    .resourceId(catalog.resourceIds[r])
+                    .resourceKey(catalog.resourceKeys[r])
+                    .resourceName(catalog.resourceNames[r])
+                    .parentId(catalog.parentIds[r])
+                    .isParent(catalog.isParent[r])
+                    .actions(cells)
+                    .build());
+        }
+        return RolePermissionMatrixResponse.builder()
+                .roleId(roleId).roleName(roleName).roleCode(roleCode).roleScope(roleScope)
+                .totalPermissions(totalPermissions)
+                .resourceGroups(groups)
+                .build();
+    }
+
+    // Same JSON as toResponse(), written cell by cell without building the DTO graph
+    public void writeTo(JsonGenerator gen) throws IOException {
+        int actions = catalog.actionCount();
+        gen.writeStartObject();
+        gen.writeNumberField("roleId", roleId);
+        if (roleName != null) gen.writeStringField("roleName", roleName);
+        if (roleCode != null) gen.writeStringField("roleCode", roleCode);
+        if (roleScope != null) gen.writeStringField("roleScope", roleScope);
+        gen.writeNumberField("totalPermissions", totalPermissions);
+        gen.writeArrayFieldStart("resourceGroups");
+        for (int r = 0; r < catalog.resourceCount(); r++) {
+            gen.writeStartObject();
+            gen.writeNumberField("resourceId", catalog.resourceIds[r]);
+            gen.writeStringField("resourceKey", catalog.resourceKeys[r]);
+            gen.writeStringField("resourceName", catalog.resourceNames[r]);
+            if (catalog.parentIds[r] != null) gen.writeNumberField("parentId", catalog.parentIds[r]);
+            else gen.writeNullField("parentId");
+            gen.writeBooleanField("isParent", catalog.isParent[r]);
+            gen.writeArrayFieldStart("actions");
+            if (!catalog.isParent[r]) {
+                for (int a = 0, cell = r * actions; a < actions; a++, cell++) {
+                    gen.writeStartObject();
+                    gen.writeNumberField("actionId", catalog.actionIds[a]);
+                    gen.writeStringField("actionKey", catalog.actionKeys[a]);
+                    gen.writeStringField("actionName", catalog.actionNames[a]);
+                    gen.writeBooleanField("isAllowed", allowed[cell]);
+                    if (permissionIds[cell] != 0) gen.writeNumberField("permissionId", permissionIds[cell]);
+                    else gen.writeNullField("permissionId");
+                    gen.writeEndObject();
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: PermissionMatrixService.java
+// Package: com.cmms.rbac.service
+// The catalog is global (resources / actions have no tenant_id) and is reloaded
+// after CATALOG_TTL or an explicit invalidateCatalog() from the Resources /
+// Actions APIs. Per request: one role header query + one grant query.
+// ============================================================================
+
+package com.cmms.rbac.service;
+
+import com.cmms.rbac.repository.PermissionCatalogRepository;
+import com.cmms.rbac.repository.PermissionCatalogRepository.RoleHeader;
+import com.cmms.rbac.repository.RolePermissionRepository;
+import com.cmms.rbac.repository.RolePermissionRepository.GrantState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PermissionMatrixService {
+
+    public static final Duration CATALOG_TTL = Duration.ofMinutes(15);
+
+    private final PermissionCatalogRepository catalogRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+
+    private volatile PermissionCatalog catalog;
+
+    // ---------- BUILD (single pass over the role's grant rows) ----------
+    @Transactional(readOnly = true)
+    public PermissionMatrix build(Long roleId, Long tenantId) {
+        PermissionCatalog c = catalog();
+        List<GrantState> grants = rolePermissionRepository.findGrantStates(roleId, tenantId);
+
+        long[] permissionIds = new long[c.resourceCount() * c.actionCount()];
+        boolean[] allowed = new boolean[permissionIds.length];
+        for (GrantState g : grants) {
+            int r = c.resourceOrdinal(g.getResourceId());
+            int a = c.actionOrdinal(g.getActionId());
+            if (r < 0 || a < 0) continue;            // grant on an inactive resource / action
+            int cell = r * c.actionCount() + a;
+            permissionIds[cell] = g.getId();
+            allowed[cell] = Boolean.TRUE.equals(g.getIsAllowed());
+        }
+
+        RoleHeader h = catalogRepository.findRoleHeader(roleId, tenantId).orElse(null);
+        return new PermissionMatrix(c, roleId,
+                h != null ? h.getRoleName() : null,
+                h != null ? h.getRoleCode() : null,
+                h != null ? h.getRoleScope() : null,
+                grants.size(), permissionIds, allowed);
+    }
+
+    // ---------- CATALOG ----------
+    public void invalidateCatalog() {
+        catalog = null;
+    }
+
+    private PermissionCatalog catalog() {
+        PermissionCatalog c = catalog;
+        if (c == null || System.nanoTime() - c.loadedAt >= CATALOG_TTL.toNanos()) {
+            c = PermissionCatalog.compile(catalogRepository.findActiveResources(), catalogRepository.findActiveActions());
+            catalog = c;
+        }
+        return c;
+    }
+}
+
+
+// ============================================================================
+// 5. NOTES
+// ============================================================================
+
+/*
+GET /api/role-permission/matrix?roleId=4
+ - Response body is unchanged (see role-permissions module, API 9); it is now
+   streamed with PermissionMatrix.writeTo, so a 300 resources x 15 actions grid
+   never exists as 4,500 ActionPermission objects
+ - Every ACTIVE leaf resource gets every ACTIVE action; cells without a row have
+   isAllowed=false, permissionId=null. Parent resources have "actions": []
+
+QUERIES PER REQUEST:
+ - role_permissions WHERE tenant_id = ? AND role_id = ?   (idx_rp_role)
+ - role header: roles WHERE id = ? AND tenant_id = ? (primary key), also for a
+   role without grant rows
+ - resources + actions: only on the first request after CATALOG_TTL / invalidateCatalog()
+
+CATALOG INVALIDATION:
+ - Resources / Actions create, update, delete -> PermissionMatrixService.invalidateCatalog()
+ - Otherwise edits become visible within CATALOG_TTL (15 min)
+*/
@@ -29,8 +29,11 @@ import java.time.OffsetDateTime;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Room {
 
+    // Pooled sequence (INCREMENT BY 50): IDs are handed out in blocks, so
+    // create-bulk / auto-generate inserts go out as JDBC batches (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_id_seq")
+    @SequenceGenerator(name = "room_id_seq", sequenceName = "room_id_seq", allocationSize = 50)
     @Column(name = "room_id")
     private Long roomId;
 
@@ -217,8 +220,8 @@ public class RoomResponseExpanded {
     private String roomTypeName;
     private String description;
     private String isActive;           // ACTIVE | INACTIVE | DELETED
-    private Long bedCount;           // non-deleted
-    private Long activeBedCount;     // ACTIVE only
+    private Long bedCount;           // non-deleted (location_count_rollup)
+    private Long activeBedCount;     // ACTIVE only (location_count_rollup)
 
     // Constructor for JPQL projection
     public RoomResponseExpanded(Long roomId, Long tenantId, Long orgId,
@@ -255,6 +258,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -287,7 +292,7 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
                                                    @Param("floorId") Long floorId,
                                                    Pageable pageable);
 
-    // --- Expanded: rooms with bed counts + FK enrichment (non-deleted children) ---
+    // --- Expanded: rooms with bed counts (location_count_rollup) + FK enrichment ---
     @Query("""
         SELECT new com.cmms.location.dto.response.RoomResponseExpanded(
             r.roomId, r.tenantId, r.orgId,
@@ -296,21 +301,15 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             r.roomNo, r.roomName,
             r.roomTypeId, rt.code, rt.name,
             r.description, CAST(r.isActive AS string),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Room r
         JOIN Floor fl ON fl.floorId = r.floorId
         JOIN Building b ON b.buildingId = fl.buildingId
         LEFT JOIN RoomType rt ON rt.id = r.roomTypeId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'ROOM' AND lr.locationId = r.roomId
         WHERE r.tenantId = :tenantId AND r.floorId = :floorId AND r.isActive <> 'DELETED'
-        GROUP BY r.roomId, r.tenantId, r.orgId,
-                 r.floorId, fl.floorNo, fl.floorName,
-                 b.buildingId, b.buildingName,
-                 r.roomNo, r.roomName,
-                 r.roomTypeId, rt.code, rt.name,
-                 r.description, r.isActive
         ORDER BY r.roomNo
     """)
     Page<RoomResponseExpanded> findAllExpandedByFloor(@Param("tenantId") Long tenantId,
@@ -331,9 +330,85 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
                                                   @Param("floorId") Long floorId,
                                                   Pageable pageable);
 
+    // --- Keyset (seek) pages: (roomNo, roomId) > cursor, no COUNT query ---
+    // Served by UNIQUE (tenant_id, floor_id, room_no)
+    @Query("""
+        SELECT new com.cmms.location.dto.response.RoomResponseBasic(
+            r.roomId, r.tenantId, r.orgId, r.floorId,
+            r.roomNo, r.roomName, r.roomTypeId, r.description, CAST(r.isActive AS string)
+        )
+        FROM Room r
+        WHERE r.tenantId = :tenantId AND r.floorId = :floorId AND r.isActive <> 'DELETED'
+          AND (r.roomNo, r.roomId) > (:afterNo, :afterId)
+        ORDER BY r.roomNo, r.roomId
+    """)
+    List<RoomResponseBasic> findVisibleAfter(@Param("tenantId") Long tenantId,
+                                             @Param("floorId") Long floorId,
+                                             @Param("afterNo") String afterNo,
+                                             @Param("afterId") Long afterId,
+                                             Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.RoomResponseExpanded(
+            r.roomId, r.tenantId, r.orgId,
+            r.floorId, fl.floorNo, fl.floorName,
+            b.buildingId, b.buildingName,
+            r.roomNo, r.roomName,
+            r.roomTypeId, rt.code, rt.name,
+            r.description, CAST(r.isActive AS string),
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
+        )
+        FROM Room r
+        JOIN Floor fl ON fl.floorId = r.floorId
+        JOIN Building b ON b.buildingId = fl.buildingId
+        LEFT JOIN RoomType rt ON rt.id = r.roomTypeId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'ROOM' AND lr.locationId = r.roomId
+        WHERE r.tenantId = :tenantId AND r.floorId = :floorId AND r.isActive <> 'DELETED'
+          AND (r.roomNo, r.roomId) > (:afterNo, :afterId)
+        ORDER BY r.roomNo, r.roomId
+    """)
+    List<RoomResponseExpanded> findExpandedAfter(@Param("tenantId") Long tenantId,
+                                                 @Param("floorId") Long floorId,
+                                                 @Param("afterNo") String afterNo,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable window);
+
+    @Query("""
+        SELECT new com.cmms.location.dto.response.RoomResponseBasic(
+            r.roomId, r.tenantId, r.orgId, r.floorId,
+            r.roomNo, r.roomName, r.roomTypeId, r.description, CAST(r.isActive AS string)
+        )
+        FROM Room r
+        WHERE r.tenantId = :tenantId AND r.floorId = :floorId AND r.isActive = 'ACTIVE'
+          AND (r.roomNo, r.roomId) > (:afterNo, :afterId)
+        ORDER BY r.roomNo, r.roomId
+    """)
+    List<RoomResponseBasic> findActiveAfter(@Param("tenantId") Long tenantId,
+                                            @Param("floorId") Long floorId,
+                                            @Param("afterNo") String afterNo,
+                                            @Param("afterId") Long afterId,
+                                            Pageable window);
+
     Optional<Room> findByRoomIdAndTenantId(Long roomId, Long tenantId);
 
-    // --- Single expanded ---
+    // --- Which of these rooms exist for the tenant (bed create-bulk parent check) ---
+    @Query("SELECT r.roomId FROM Room r WHERE r.tenantId = :tenantId AND r.roomId IN :roomIds")
+    List<Long> findExistingIds(@Param("tenantId") Long tenantId,
+                               @Param("roomIds") Collection<Long> roomIds);
+
+    // --- Set-based duplicate check for create-bulk: "floorId:roomno" keys already taken ---
+    @Query("""
+        SELECT CONCAT(r.floorId, ':', LOWER(TRIM(r.roomNo))) FROM Room r
+        WHERE r.tenantId = :tenantId AND r.floorId IN :floorIds
+        AND LOWER(TRIM(r.roomNo)) IN :roomNos
+        AND r.isActive <> 'DELETED'
+    """)
+    List<String> findTakenKeys(@Param("tenantId") Long tenantId,
+                               @Param("floorIds") Collection<Long> floorIds,
+                               @Param("roomNos") Collection<String> roomNos);
+
+    // --- Single expanded (counts from location_count_rollup) ---
     @Query("""
         SELECT new com.cmms.location.dto.response.RoomResponseExpanded(
             r.roomId, r.tenantId, r.orgId,
@@ -342,21 +417,15 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             r.roomNo, r.roomName,
             r.roomTypeId, rt.code, rt.name,
             r.description, CAST(r.isActive AS string),
-            COUNT(DISTINCT CASE WHEN bd.isActive <> 'DELETED' THEN bd.bedId END),
-            COUNT(DISTINCT CASE WHEN bd.isActive = 'ACTIVE' THEN bd.bedId END)
+            COALESCE(lr.bedCount, 0L), COALESCE(lr.activeBedCount, 0L)
         )
         FROM Room r
         JOIN Floor fl ON fl.floorId = r.floorId
         JOIN Building b ON b.buildingId = fl.buildingId
         LEFT JOIN RoomType rt ON rt.id = r.roomTypeId
-        LEFT JOIN Bed bd ON bd.roomId = r.roomId
+        LEFT JOIN LocationCountRollup lr
+               ON lr.locationLevel = 'ROOM' AND lr.locationId = r.roomId
         WHERE r.roomId = :roomId AND r.tenantId = :tenantId
-        GROUP BY r.roomId, r.tenantId, r.orgId,
-                 r.floorId, fl.floorNo, fl.floorName,
-                 b.buildingId, b.buildingName,
-                 r.roomNo, r.roomName,
-                 r.roomTypeId, rt.code, rt.name,
-                 r.description, r.isActive
     """)
     Optional<RoomResponseExpanded> findByIdExpanded(@Param("roomId") Long roomId,
                                                      @Param("tenantId") Long tenantId);
@@ -375,6 +444,8 @@ import com.cmms.location.dto.response.*;
 import com.cmms.location.entity.Room;
 import com.cmms.location.repository.RoomRepository;
 import com.cmms.location.repository.FloorRepository;
+import com.cmms.common.dto.CursorPage;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.StatusToggleRequest;
 import com.cmms.common.enums.RecordStatus;
 import com.cmms.common.exception.*;
@@ -384,8 +455,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -393,6 +468,7 @@ public class RoomService {
 
     private final RoomRepository roomRepository;
     private final FloorRepository floorRepository;
+    private final LocationRollupService rollupService;
     private final JwtService jwtService;
 
     @Transactional(rollbackFor = Exception.class)
@@ -420,14 +496,50 @@ public class RoomService {
                 .isActive(initialIsActive)
                 .build();
         entity = roomRepository.save(entity);
+        rollupService.onRoomCreated(tenantId, entity.getRoomId(), entity.getFloorId(), initialIsActive);
         return mapToBasic(entity);
     }
 
+    // Same checks and error codes as create(), but set-based: one parent query, one
+    // duplicate query, one batched INSERT. The first failing item (in request order) aborts the batch.
     @Transactional(rollbackFor = Exception.class)
     public List<RoomResponseBasic> createBulk(RoomBulkCreateRequest req) {
-        List<RoomResponseBasic> results = new ArrayList<>();
-        for (RoomCreateRequest item : req.getRooms()) results.add(create(item));
-        return results;
+        Long tenantId = jwtService.getTenantId();
+        List<RoomCreateRequest> items = req.getRooms();
+
+        Set<Long> floorIds = new LinkedHashSet<>();
+        Set<String> roomNos = new HashSet<>();
+        for (RoomCreateRequest item : items) {
+            floorIds.add(item.getFloorId());
+            roomNos.add(normalize(item.getRoomNo()));
+        }
+        items.stream().map(RoomCreateRequest::getOrgId).distinct().forEach(this::validateOrgAccess);
+
+        Set<Long> existingFloors = new HashSet<>(floorRepository.findExistingIds(tenantId, floorIds));
+        Set<String> taken = new HashSet<>(roomRepository.findTakenKeys(tenantId, floorIds, roomNos));
+
+        List<Room> entities = new ArrayList<>(items.size());
+        for (RoomCreateRequest item : items) {
+            if (!existingFloors.contains(item.getFloorId())) {
+                throw new NotFoundException("Floor not found: " + item.getFloorId());
+            }
+            // add() == false also catches duplicates inside the request itself
+            if (!taken.add(item.getFloorId() + ":" + normalize(item.getRoomNo()))) {
+                throw new DuplicateException("DUPLICATE_ROOM_NO",
+                    "Room number '" + item.getRoomNo().trim() + "' already exists on this floor");
+            }
+            entities.add(Room.builder()
+                    .tenantId(tenantId).orgId(item.getOrgId()).floorId(item.getFloorId())
+                    .roomNo(item.getRoomNo().trim())
+                    .roomName(item.getRoomName() != null ? item.getRoomName().trim() : null)
+                    .roomTypeId(item.getRoomTypeId()).description(item.getDescription())
+                    .isActive(item.getIsActive() != null ? RecordStatus.from(item.getIsActive()) : RecordStatus.ACTIVE)
+                    .build());
+        }
+
+        entities = roomRepository.saveAll(entities);
+        rollupService.onRoomsCreated(tenantId, entities);
+        return entities.stream().map(RoomService::mapToBasic).toList();
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -447,6 +559,8 @@ public class RoomService {
                 "Room number '" + req.getRoomNo().trim() + "' already exists on this floor");
         }
 
+        rollupService.onRoomMoved(entity.getRoomId(), entity.getFloorId(), req.getFloorId(), entity.getIsActive());
+
         entity.setOrgId(req.getOrgId()); entity.setFloorId(req.getFloorId());
         entity.setRoomNo(req.getRoomNo().trim());
         entity.setRoomName(req.getRoomName() != null ? req.getRoomName().trim() : null);
@@ -466,6 +580,7 @@ public class RoomService {
             throw new InvalidStatusException("Room is already deleted.");
         }
 
+        rollupService.onRoomStatusChanged(entity.getFloorId(), entity.getIsActive(), RecordStatus.DELETED);
         entity.setIsActive(RecordStatus.DELETED);
         roomRepository.save(entity);
     }
@@ -486,6 +601,7 @@ public class RoomService {
             throw new InvalidStatusException("Use DELETE endpoint to soft-delete.");
         }
 
+        rollupService.onRoomStatusChanged(entity.getFloorId(), entity.getIsActive(), newIsActive);
         entity.setIsActive(newIsActive);
         entity = roomRepository.save(entity);
         return mapToBasic(entity);
@@ -501,6 +617,30 @@ public class RoomService {
         return roomRepository.findAllActiveByFloor(jwtService.getTenantId(), floorId, pageable);
     }
 
+    // Keyset mode: cursor key is roomNo (same string order as the Page queries)
+    public CursorPage<?> getAllKeyset(Long floorId, boolean expand, String cursor, int limit) {
+        Long tenantId = jwtService.getTenantId();
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        if (expand) {
+            return CursorPage.of(
+                    roomRepository.findExpandedAfter(tenantId, floorId, after.getKey(), after.getId(),
+                            KeysetCursor.window(limit)),
+                    limit, r -> KeysetCursor.encode(r.getRoomNo(), r.getRoomId()));
+        }
+        return CursorPage.of(
+                roomRepository.findVisibleAfter(tenantId, floorId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, r -> KeysetCursor.encode(r.getRoomNo(), r.getRoomId()));
+    }
+
+    public CursorPage<RoomResponseBasic> getAllActiveKeyset(Long floorId, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor, "");
+        return CursorPage.of(
+                roomRepository.findActiveAfter(jwtService.getTenantId(), floorId, after.getKey(), after.getId(),
+                        KeysetCursor.window(limit)),
+                limit, r -> KeysetCursor.encode(r.getRoomNo(), r.getRoomId()));
+    }
+
     public Object getById(Long roomId, boolean expand) {
         Long tenantId = jwtService.getTenantId();
         if (expand) return roomRepository.findByIdExpanded(roomId, tenantId)
@@ -510,7 +650,8 @@ public class RoomService {
         return mapToBasic(entity);
     }
 
-    private RoomResponseBasic mapToBasic(Room e) {
+    // Package-private static: also called directly by the JMH mapping benchmark
+    static RoomResponseBasic mapToBasic(Room e) {
         return RoomResponseBasic.builder()
                 .roomId(e.getRoomId()).tenantId(e.getTenantId()).orgId(e.getOrgId())
                 .floorId(e.getFloorId()).roomNo(e.getRoomNo()).roomName(e.getRoomName())
@@ -519,6 +660,11 @@ public class RoomService {
                 .build();
     }
 
+    // Matches LOWER(TRIM(room_no)) in the duplicate queries
+    private static String normalize(String roomNo) {
+        return roomNo.trim().toLowerCase(Locale.ROOT);
+    }
+
     private void validateOrgAccess(Long orgId) {
         Long userOrgId = jwtService.getOrgId();
         if (userOrgId != null && !userOrgId.equals(0L) && !userOrgId.equals(orgId))
@@ -536,6 +682,7 @@ package com.cmms.location.controller;
 
 import com.cmms.location.dto.request.*;
 import com.cmms.location.service.RoomService;
+import com.cmms.common.dto.KeysetCursor;
 import com.cmms.common.dto.ResponseDto;
 import com.cmms.common.dto.StatusToggleRequest;
 import jakarta.validation.Valid;
@@ -590,16 +737,24 @@ public class RoomController {
     public ResponseEntity<ResponseDto> getAll(
             @RequestParam("floorId") Long floorId,
             @RequestParam(value = "expand", defaultValue = "false") boolean expand,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 50) Pageable pageable) {
-        var result = roomService.getAll(floorId, expand, pageable);
+        Object result = (cursor != null || limit != null)
+                ? roomService.getAllKeyset(floorId, expand, cursor, KeysetCursor.clampLimit(limit))
+                : roomService.getAll(floorId, expand, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Rooms retrieved", result));
     }
 
     @PostMapping("/get-all-active")
     public ResponseEntity<ResponseDto> getAllActive(
             @RequestParam("floorId") Long floorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
             @PageableDefault(size = 50) Pageable pageable) {
-        var result = roomService.getAllActive(floorId, pageable);
+        Object result = (cursor != null || limit != null)
+                ? roomService.getAllActiveKeyset(floorId, cursor, KeysetCursor.clampLimit(limit))
+                : roomService.getAllActive(floorId, pageable);
         return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(), "Active rooms retrieved", result));
     }
 
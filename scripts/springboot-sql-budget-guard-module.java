@@ -0,0 +1,270 @@
+// ============================================================================
+// MODULE: SQL statement budget per request (N+1 guard)
+// Builds on   : observability module (SqlStatementCounter, EndpointMetricsFilter)
+// Stack       : Spring MVC HandlerInterceptor, Hibernate 6 StatementInspector
+// PURPOSE     : Every controller method has a budget of JDBC statements per
+//               request. Going over it means a loop is issuing queries (N+1,
+//               re-fetch after save, per-item create) -- caught here instead of
+//               under production load.
+//   mode=fail (dev / test): the statement that crosses the budget throws
+//                           SqlBudgetExceededException -> 500 SQL_BUDGET_EXCEEDED,
+//                           transaction rolled back, stack trace points at the loop
+//   mode=log  (production): request completes; WARN log with the fingerprints
+//                           of the repeated statements + cmms.sql.budget.exceeded
+//   mode=off
+// Counting is the existing per-thread int; fingerprints are computed only for
+// requests that went over budget.
+// ============================================================================
+
+
+// ============================================================================
+// 1. SqlBudgetExceededException.java
+// Package: com.cmms.common.exception
+// ============================================================================
+
+package com.cmms.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class SqlBudgetExceededException extends RuntimeException {
+    private final String endpoint;
+    private final int budget;
+
+    public SqlBudgetExceededException(String endpoint, int budget, String statements) {
+        super("SQL statement budget of " + budget + " exceeded by " + endpoint + "; statements so far:\n" + statements);
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+}
+
+
+// ============================================================================
+// 2. SqlFingerprint.java
+// Package: com.cmms.common.metrics
+// Literals and IN-lists folded, whitespace collapsed, so the 40 executions of
+// "select ... from item_master where id=?" group into one line.
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+final class SqlFingerprint {
+
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+    private static final int SAMPLE_LENGTH = 160;
+
+    record Group(String fingerprint, int count, String sample) {}
+
+    private SqlFingerprint() {}
+
+    static String normalize(String sql) {
+        String s = STRING.matcher(sql).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?)");
+        return SPACE.matcher(s).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String of(String normalized) {
+        return String.format("%08x", normalized.hashCode());
+    }
+
+    // Most repeated first
+    static List<Group> group(List<String> statements) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String sql : statements) counts.merge(normalize(sql), 1, Integer::sum);
+        List<Group> groups = new ArrayList<>(counts.size());
+        counts.forEach((sql, n) -> groups.add(new Group(of(sql), n,
+                sql.length() > SAMPLE_LENGTH ? sql.substring(0, SAMPLE_LENGTH) + "..." : sql)));
+        groups.sort(Comparator.comparingInt(Group::count).reversed());
+        return groups;
+    }
+
+    static String describe(List<String> statements) {
+        StringBuilder sb = new StringBuilder();
+        for (Group g : group(statements)) {
+            sb.append("  ").append(g.count()).append("x [").append(g.fingerprint()).append("] ")
+              .append(g.sample()).append('\n');
+        }
+        return sb.toString();
+    }
+}
+
+
+// ============================================================================
+// 3. SqlBudgetGuard.java
+// Package: com.cmms.common.metrics
+// preHandle: resolve the controller method's budget (cached per Method) and
+// arm the counter. afterRequest (from EndpointMetricsFilter, once the response
+// is done): compare, log, count.
+//   cmms.sql-budget.mode=log|fail|off
+//   cmms.sql-budget.default=20
+//   cmms.sql-budget.endpoints=StoreItemConfigController.update:4,RoomController.getAll:2
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class SqlBudgetGuard implements HandlerInterceptor {
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    private record Budget(String endpoint, int limit) {}
+
+    private final Mode mode;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgetByEndpoint = new HashMap<>();
+    private final ConcurrentHashMap<Method, Budget> budgets = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public SqlBudgetGuard(@Value("${cmms.sql-budget.mode:log}") String mode,
+                          @Value("${cmms.sql-budget.default:20}") int defaultBudget,
+                          @Value("${cmms.sql-budget.endpoints:}") String spec,
+                          MeterRegistry registry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.defaultBudget = defaultBudget;
+        this.registry = registry;
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] kv = entry.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("cmms.sql-budget.endpoints: bad entry '" + entry + "'");
+            budgetByEndpoint.put(kv[0].trim(), Integer.valueOf(kv[1].trim()));
+        }
+        log.info("SQL budget guard: mode={}, default={}, {} endpoint override(s)", this.mode, defaultBudget, budgetByEndpoint.size());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (mode == Mode.OFF || !(handler instanceof HandlerMethod hm)) return true;
+
+        Budget budget = budgets.get(hm.getMethod());
+        if (budget == null) {
+            budget = budgets.computeIfAbsent(hm.getMethod(), m -> {
+                String endpoint = hm.getBeanType().getSimpleName() + "." + m.getName();
+                return new Budget(endpoint, budgetByEndpoint.getOrDefault(endpoint, defaultBudget));
+            });
+        }
+        SqlStatementCounter.budget(budget.endpoint(), budget.limit(), mode == Mode.FAIL);
+        return true;
+    }
+
+    void afterRequest() {
+        SqlStatementCounter.Trace t = SqlStatementCounter.trace();
+        if (t.count <= t.budget) return;
+
+        // Over budget: rare path, allocation is fine from here on
+        List<SqlFingerprint.Group> groups = SqlFingerprint.group(SqlStatementCounter.statements(t));
+        String top = groups.isEmpty() ? "none" : groups.get(0).fingerprint();
+        registry.counter("cmms.sql.budget.exceeded", "endpoint", t.endpoint, "fingerprint", top).increment();
+
+        StringBuilder sb = new StringBuilder();
+        for (SqlFingerprint.Group g : groups.subList(0, Math.min(5, groups.size()))) {
+            sb.append("\n  ").append(g.count()).append("x [").append(g.fingerprint()).append("] ").append(g.sample());
+        }
+        log.warn("SQL budget exceeded: {} ran {} statements (budget {}){}", t.endpoint, t.count, t.budget, sb);
+    }
+}
+
+
+// ============================================================================
+// 4. SqlBudgetConfig.java
+// Package: com.cmms.common.metrics
+// ============================================================================
+
+package com.cmms.common.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    private final SqlBudgetGuard guard;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(guard).addPathPatterns("/api/**");
+    }
+}
+
+
+// ============================================================================
+// 5. NOTES
+// ============================================================================
+
+/*
+application.yml (production):
+  cmms:
+    sql-budget:
+      mode: log
+      default: 20
+      endpoints: >-
+        RoomController.getAll:2,
+        RoomController.createBulk:20,
+        BedController.autoGenerate:20,
+        BedController.createBulk:20,
+        RolePermissionController.bulkSave:4,
+        DeviceOptionTreeController.getOptionTree:4,
+        EquipmentTypeOptionController.getAll:1,
+        StoreItemConfigController.create:4,
+        StoreItemConfigController.update:4,
+        StoreItemConfigController.toggleStatus:4,
+        StoreItemConfigController.getById:3,
+        StoreItemConfigController.getAllForStore:1,
+        StoreItemConfigController.getLowStockAlerts:1,
+        StoreItemConfigController.getHospitalLowStockAlerts:1
+
+application-dev.yml / application-test.yml:
+  cmms.sql-budget.mode: fail
+
+WHERE THE NUMBERS COME FROM (statements Hibernate prepares today):
+  StoreItemConfig create         store + item lookup, duplicate check, INSERT        = 4
+  StoreItemConfig update/toggle  findById, UPDATE, store + item re-fetch for the
+                                 response                                           = 4
+  low-stock (both)               0 once the hospital's reorder book is loaded,
+                                 1 (findReorderRules) on a cold book                = 1
+  Room/Bed createBulk            floor/room existence + duplicate query, one
+                                 batched INSERT, 1 sequence call per 50 ids (pooled
+                                 allocationSize 50), rollup update; 20 covers the
+                                 largest allowed batch
+  RolePermission bulkSave        grant states, one INSERT, one DELETE (+ role check)
+  A budget is the known-good count, not a goal: an update/toggle that starts
+  re-fetching per field, or a bulk path that falls back to one create() per
+  item, goes over it and shows up with its repeated fingerprint.
+
+SAMPLE (mode=log):
+  WARN  SqlBudgetGuard : SQL budget exceeded: StoreItemConfigController.update ran 6 statements (budget 4)
+    2x [5c1e07a2] select b1_0.id,b1_0.is_active,b1_0.store_name from biomedical_stores b1_0 where b1_0.id=?
+    2x [9f3d2b14] select i1_0.id,i1_0.item_code,i1_0.item_name from item_master i1_0 where i1_0.id=?
+    1x [0b77e9c3] select s1_0.id,... from store_item_config s1_0 where s1_0.id=?
+    1x [e2a41f60] update store_item_config set ... where id=?
+  cmms_sql_budget_exceeded_total{endpoint="StoreItemConfigController.update",fingerprint="5c1e07a2"} 1
+
+LIMITS:
+  - Only statements prepared by Hibernate are counted (same as
+    cmms.http.sql.statements); JdbcTemplate paths have their own bounded SQL
+  - Statements issued by filters before the controller (RBAC cache misses)
+    count towards the request -- budgets above leave room for one
+  - Fingerprints cover the first 64 statements of the request
+*/
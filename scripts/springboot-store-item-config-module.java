@@ -168,6 +168,29 @@ public class StoreItemConfigResponse {
     private LocalDateTime updatedAt;
 }
 
+// ---------- LowStockAlertResponse.java (DTO) ----------
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertResponse {
+    private UUID id;
+    private UUID storeId;
+    private String storeName;
+    private UUID itemId;
+    private String itemCode;
+    private String itemName;
+    private String rackNumber;
+    private String shelfNumber;
+    private String binLocation;
+    private Integer reorderLevel;
+    private Integer minOrderQty;
+    private Integer reorderTimeDays;
+    private BigDecimal currentStock;
+    private BigDecimal shortfall;      // reorderLevel - currentStock (>= 0)
+    private String alertLevel;         // CRITICAL | HIGH | MEDIUM (same bands as v_low_stock_alerts)
+    private Integer suggestedOrderQty; // see ReorderBook (store reorder engine module)
+}
+
 // ---------- StoreItemConfigRepository.java (Data Access) ----------
 @Repository
 public interface StoreItemConfigRepository extends JpaRepository<StoreItemConfig, UUID> {
@@ -187,17 +210,25 @@ public interface StoreItemConfigRepository extends JpaRepository<StoreItemConfig
     boolean existsByHospitalIdAndStoreIdAndItemIdAndIsActiveNot(
         UUID hospitalId, UUID storeId, UUID itemId, RecordStatus status);
 
-    // Low stock alerts query
+    // Reorder engine load: every ACTIVE config of the hospital with its item's stock.
+    // Same defaults as the v_store_items view; a 0 lead time counts as unset
+    // (the engine divides by it)
     @Query("""
-        SELECT sic FROM StoreItemConfig sic
+        SELECT new com.cmms.dto.ReorderRuleRow(
+            sic.id, sic.storeId, bs.storeName,
+            sic.itemId, im.itemCode, im.itemName,
+            sic.rackNumber, sic.shelfNumber, sic.binLocation,
+            COALESCE(sic.reorderLevel, 0), COALESCE(sic.minOrderQty, 1),
+            COALESCE(NULLIF(sic.reorderTimeDays, 0), 14),
+            COALESCE(im.currentStock, 0)
+        )
+        FROM StoreItemConfig sic
+        JOIN BiomedicalStore bs ON sic.storeId = bs.id
         JOIN ItemMaster im ON sic.itemId = im.id
-        WHERE sic.hospitalId = :hospitalId 
-          AND sic.storeId = :storeId
+        WHERE sic.hospitalId = :hospitalId
           AND sic.isActive = 'ACTIVE'
-          AND im.currentStock <= sic.reorderLevel
-        ORDER BY im.currentStock ASC
         """)
-    List<StoreItemConfig> findLowStockItems(UUID hospitalId, UUID storeId);
+    List<ReorderRuleRow> findReorderRules(UUID hospitalId);
 
     // Get JPQL projection for list view
     @Query("""
@@ -217,6 +248,31 @@ public interface StoreItemConfigRepository extends JpaRepository<StoreItemConfig
         ORDER BY im.itemCode
         """)
     List<StoreItemConfigResponse> findStoreItemsWithDetails(UUID hospitalId, UUID storeId);
+
+    // Export: same projection for the whole hospital (or one store), streamed.
+    // Only through StreamingExportService (needs its read-only transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+        SELECT new com.cmms.dto.StoreItemConfigResponse(
+            sic.id, sic.hospitalId, sic.storeId, bs.storeName,
+            sic.itemId, im.itemCode, im.itemName,
+            sic.rackNumber, sic.shelfNumber, sic.binLocation,
+            sic.reorderLevel, sic.minOrderQty, sic.reorderTimeDays,
+            sic.isActive, sic.remarks, sic.createdAt, sic.updatedAt
+        )
+        FROM StoreItemConfig sic
+        JOIN BiomedicalStore bs ON sic.storeId = bs.id
+        JOIN ItemMaster im ON sic.itemId = im.id
+        WHERE sic.hospitalId = :hospitalId
+          AND (:storeId IS NULL OR sic.storeId = :storeId)
+          AND sic.isActive != 'DELETED'
+        ORDER BY bs.storeName, im.itemCode
+        """)
+    Stream<StoreItemConfigResponse> streamForExport(UUID hospitalId, UUID storeId);
 }
 
 // ---------- StoreItemConfigService.java (Business Logic) ----------
@@ -227,6 +283,22 @@ public class StoreItemConfigService {
     @Autowired private StoreItemConfigRepository repository;
     @Autowired private BiomedicalStoreRepository storeRepo;
     @Autowired private ItemMasterRepository itemRepo;
+    @Autowired private ReorderEngine reorderEngine;
+    @Autowired private StreamingExportService exportService;
+
+    private static final List<ExportColumn<StoreItemConfigResponse>> EXPORT_COLUMNS = List.of(
+        ExportColumn.of("Store", StoreItemConfigResponse::getStoreName),
+        ExportColumn.of("Item Code", StoreItemConfigResponse::getItemCode),
+        ExportColumn.of("Item Name", StoreItemConfigResponse::getItemName),
+        ExportColumn.of("Rack", StoreItemConfigResponse::getRackNumber),
+        ExportColumn.of("Shelf", StoreItemConfigResponse::getShelfNumber),
+        ExportColumn.of("Bin", StoreItemConfigResponse::getBinLocation),
+        ExportColumn.of("Reorder Level", StoreItemConfigResponse::getReorderLevel),
+        ExportColumn.of("Min Order Qty", StoreItemConfigResponse::getMinOrderQty),
+        ExportColumn.of("Lead Time (days)", StoreItemConfigResponse::getReorderTimeDays),
+        ExportColumn.of("Status", StoreItemConfigResponse::getIsActive),
+        ExportColumn.of("Remarks", StoreItemConfigResponse::getRemarks),
+        ExportColumn.of("Updated At", StoreItemConfigResponse::getUpdatedAt));
 
     /* Create store-item configuration */
     public StoreItemConfigResponse create(UUID tenantId, UUID hospitalId, CreateStoreItemConfigRequest req) {
@@ -265,6 +337,7 @@ public class StoreItemConfigService {
             .build();
 
         repository.save(entity);
+        reorderEngine.invalidate(hospitalId);
         return mapToResponse(entity, store, item);
     }
 
@@ -286,6 +359,7 @@ public class StoreItemConfigService {
         entity.setRemarks(req.getRemarks());
 
         repository.save(entity);
+        reorderEngine.invalidate(hospitalId);
 
         BiomedicalStore store = storeRepo.findById(entity.getStoreId()).get();
         ItemMaster item = itemRepo.findById(entity.getItemId()).get();
@@ -303,6 +377,7 @@ public class StoreItemConfigService {
 
         entity.setIsActive(RecordStatus.DELETED);
         repository.save(entity);
+        reorderEngine.invalidate(hospitalId);
     }
 
     /* Toggle status (ACTIVE <-> INACTIVE) */
@@ -321,6 +396,7 @@ public class StoreItemConfigService {
 
         entity.setIsActive(newIsActive);
         repository.save(entity);
+        reorderEngine.invalidate(hospitalId);
 
         BiomedicalStore store = storeRepo.findById(entity.getStoreId()).get();
         ItemMaster item = itemRepo.findById(entity.getItemId()).get();
@@ -343,15 +419,24 @@ public class StoreItemConfigService {
         return repository.findStoreItemsWithDetails(hospitalId, storeId);
     }
 
-    /* Get low stock alerts */
-    public List<StoreItemConfigResponse> getLowStockAlerts(UUID hospitalId, UUID storeId) {
-        return repository.findLowStockItems(hospitalId, storeId).stream()
-            .map(sic -> {
-                BiomedicalStore store = storeRepo.findById(sic.getStoreId()).get();
-                ItemMaster item = itemRepo.findById(sic.getItemId()).get();
-                return mapToResponse(sic, store, item);
-            })
-            .collect(Collectors.toList());
+    /* Get low stock alerts for one store (open reorder suggestions, most severe first) */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LowStockAlertResponse> getLowStockAlerts(UUID hospitalId, UUID storeId) {
+        return reorderEngine.getAlerts(hospitalId, storeId);
+    }
+
+    /* Get low stock alerts for all stores of the hospital, most severe first */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LowStockAlertResponse> getHospitalLowStockAlerts(UUID hospitalId) {
+        return reorderEngine.getAlerts(hospitalId);
+    }
+
+    /* Export all configs of the hospital (or one store) as CSV / XLSX.
+       Streams from the DB on the response thread, in its own read-only transaction */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> export(UUID hospitalId, UUID storeId, ExportFormat format) {
+        return exportService.export("store-item-config", format, EXPORT_COLUMNS,
+            () -> repository.streamForExport(hospitalId, storeId));
     }
 
     /* Mapping helper */
@@ -439,12 +524,30 @@ public class StoreItemConfigController {
     }
 
     @GetMapping("/store/{storeId}/low-stock")
-    public ResponseEntity<List<StoreItemConfigResponse>> getLowStockAlerts(
+    public ResponseEntity<List<LowStockAlertResponse>> getLowStockAlerts(
             @PathVariable String storeId,
             HttpServletRequest httpReq) {
         UserContext ctx = userService.getCurrentUserContext(httpReq);
         return ResponseEntity.ok(service.getLowStockAlerts(ctx.getHospitalId(), UUID.fromString(storeId)));
     }
+
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockAlertResponse>> getHospitalLowStockAlerts(
+            HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        return ResponseEntity.ok(service.getHospitalLowStockAlerts(ctx.getHospitalId()));
+    }
+
+    // CSV / XLSX download; without storeId every store of the hospital
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String storeId,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest httpReq) {
+        UserContext ctx = userService.getCurrentUserContext(httpReq);
+        return service.export(ctx.getHospitalId(),
+            storeId != null ? UUID.fromString(storeId) : null, ExportFormat.from(format));
+    }
 }
 
 // ---------- SAMPLE JSON ----------
@@ -488,5 +591,36 @@ GET /api/store-item-config/store/550e8400-e29b-41d4-a716-446655440000
 ]
 
 GET /api/store-item-config/store/550e8400-e29b-41d4-a716-446655440000/low-stock
-Shows items below reorder level for alerts/dashboard
+Shows items below reorder level for alerts/dashboard, most severe first.
+Served from the reorder engine's open suggestions (store reorder engine module).
+[
+  {
+    "id": "770e8400-e29b-41d4-a716-446655440002",
+    "storeId": "550e8400-e29b-41d4-a716-446655440000",
+    "storeName": "Central Biomedical Store",
+    "itemId": "660e8400-e29b-41d4-a716-446655440001",
+    "itemCode": "ECGCABLE001",
+    "itemName": "ECG Cable - 3 Lead",
+    "rackNumber": "A-01",
+    "shelfNumber": "3",
+    "binLocation": "Central_Warehouse",
+    "reorderLevel": 50,
+    "minOrderQty": 10,
+    "reorderTimeDays": 7,
+    "currentStock": 12.00,
+    "shortfall": 38.00,
+    "alertLevel": "HIGH",
+    "suggestedOrderQty": 88
+  }
+]
+
+GET /api/store-item-config/low-stock
+Same rows for every store of the hospital, ordered by severity:
+CRITICAL (stock <= 0), HIGH (<= 50% of reorder level), MEDIUM; then largest
+shortfall first.
+
+GET /api/store-item-config/export?format=xlsx[&storeId=...]
+File download (store-item-config-2026-10-17.xlsx), streamed from the DB in
+constant memory (see common export module). DELETED configs are not exported.
+Store,Item Code,Item Name,Rack,Shelf,Bin,Reorder Level,Min Order Qty,Lead Time (days),Status,Remarks,Updated At
 */
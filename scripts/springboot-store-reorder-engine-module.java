@@ -0,0 +1,367 @@
+/* ====================================================================== */
+/*  STORE REORDER ENGINE (event-driven low-stock alerts)                  */
+/* ====================================================================== */
+/*
+Purpose:
+  Keep every hospital's open reorder suggestions in memory and update them
+  when stock moves, instead of comparing item_master.current_stock with
+  store_item_config.reorder_level for every item on each alert request.
+
+  - GRN posting (+accepted qty) and stock issue / consumption (-qty) go
+    through StockMovementService.applyDelta, which updates current_stock
+    atomically and publishes a StockChangedEvent
+  - After commit, ReorderEngine re-evaluates only the (store, item) configs
+    of that item; a config whose stock crosses reorder_level raises or clears
+    its suggestion (ReorderSuggestionEvent, for notifications)
+  - GET .../low-stock endpoints read the open suggestions: O(alerts), no DB
+    query once the hospital's book is loaded
+*/
+
+// ---------- StockChangedEvent.java (Domain Event) ----------
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final UUID hospitalId;
+    private final UUID itemId;
+    private final BigDecimal delta;     // + GRN posting, - issue / consumption
+    private final String source;        // GRN | CONSUMPTION | ADJUSTMENT
+}
+
+// ---------- ReorderSuggestionEvent.java (Domain Event) ----------
+@Getter
+@AllArgsConstructor
+public class ReorderSuggestionEvent {
+    public enum Type { RAISED, CLEARED }
+
+    private final Type type;
+    private final UUID hospitalId;
+    private final UUID storeId;
+    private final UUID itemId;
+    private final LowStockAlertResponse suggestion;    // state at the crossing
+}
+
+// ---------- ReorderRuleRow.java (DTO) ----------
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderRuleRow {
+    private UUID configId;
+    private UUID storeId;
+    private String storeName;
+    private UUID itemId;
+    private String itemCode;
+    private String itemName;
+    private String rackNumber;
+    private String shelfNumber;
+    private String binLocation;
+    private Integer reorderLevel;
+    private Integer minOrderQty;
+    private Integer reorderTimeDays;
+    private BigDecimal currentStock;
+}
+
+// ---------- StockMovementRepository.java (Data Access) ----------
+@Repository
+public interface StockMovementRepository extends org.springframework.data.repository.Repository<ItemMaster, UUID> {
+    // Atomic: concurrent GRN postings / issues never overwrite each other
+    @Modifying
+    @Query("UPDATE ItemMaster im SET im.currentStock = im.currentStock + :delta WHERE im.id = :itemId")
+    int addToStock(UUID itemId, BigDecimal delta);
+
+    @Query("SELECT im.currentStock FROM ItemMaster im WHERE im.id = :itemId")
+    Optional<BigDecimal> findCurrentStock(UUID itemId);
+}
+
+// ---------- StockMovementService.java (Business Logic) ----------
+@Service
+@Transactional
+@Slf4j
+public class StockMovementService {
+    @Autowired private StockMovementRepository repository;
+    @Autowired private ApplicationEventPublisher events;
+
+    /* Single entry point for stock changes (GRN posting, issue, consumption, adjustment) */
+    public void applyDelta(UUID hospitalId, UUID itemId, BigDecimal delta, String source) {
+        if (delta == null || delta.signum() == 0) return;
+        if (repository.addToStock(itemId, delta) == 0) {
+            throw new ResourceNotFoundException("Item not found");
+        }
+        events.publishEvent(new StockChangedEvent(hospitalId, itemId, delta, source));
+    }
+}
+
+// ---------- ReorderBook.java (In-memory state, one per hospital) ----------
+/*
+  Open suggestions are kept in TreeSets ordered by severity (CRITICAL, HIGH,
+  MEDIUM, then largest shortfall). Unlike a PriorityQueue, a TreeSet removes
+  or re-keys an entry in O(log n) when stock moves back above reorder level.
+  All methods are synchronized: events and reads for one hospital serialize.
+*/
+public class ReorderBook {
+    private static final Comparator<LowStockAlertResponse> BY_SEVERITY =
+        Comparator.comparingInt((LowStockAlertResponse a) -> severityRank(a.getAlertLevel()))
+            .thenComparing(LowStockAlertResponse::getShortfall, Comparator.reverseOrder())
+            .thenComparing(LowStockAlertResponse::getStoreName)
+            .thenComparing(LowStockAlertResponse::getItemCode)
+            .thenComparing(LowStockAlertResponse::getId);
+
+    private final UUID hospitalId;
+    private final long loadedAtMillis;
+    private final Map<UUID, List<ReorderRuleRow>> rulesByItem = new HashMap<>();
+    private final Map<UUID, BigDecimal> stockByItem = new HashMap<>();
+    private final Map<UUID, BigDecimal> consumedByItem = new HashMap<>();   // since load, for daily usage
+
+    private final Map<UUID, LowStockAlertResponse> openByConfig = new HashMap<>();
+    private final TreeSet<LowStockAlertResponse> open = new TreeSet<>(BY_SEVERITY);
+    private final Map<UUID, TreeSet<LowStockAlertResponse>> openByStore = new HashMap<>();
+
+    public ReorderBook(UUID hospitalId, List<ReorderRuleRow> rules) {
+        this(hospitalId, rules, null);
+    }
+
+    /*
+      Resync: rules and stock from the DB, observed usage carried over from the
+      book being replaced. A stock drop this node did not see (movement on
+      another node) counts as consumption.
+    */
+    public ReorderBook(UUID hospitalId, List<ReorderRuleRow> rules, ReorderBook previous) {
+        this.hospitalId = hospitalId;
+        this.loadedAtMillis = previous != null ? previous.loadedAtMillis : System.currentTimeMillis();
+        for (ReorderRuleRow r : rules) {
+            rulesByItem.computeIfAbsent(r.getItemId(), k -> new ArrayList<>()).add(r);
+            stockByItem.put(r.getItemId(), r.getCurrentStock());
+        }
+        if (previous != null) {
+            synchronized (previous) {
+                consumedByItem.putAll(previous.consumedByItem);
+                stockByItem.forEach((itemId, stock) -> {
+                    BigDecimal seen = previous.stockByItem.get(itemId);
+                    if (seen != null && seen.compareTo(stock) > 0) {
+                        consumedByItem.merge(itemId, seen.subtract(stock), BigDecimal::add);
+                    }
+                });
+            }
+        }
+        for (List<ReorderRuleRow> itemRules : rulesByItem.values()) {
+            for (ReorderRuleRow r : itemRules) evaluate(r, null);
+        }
+    }
+
+    public boolean tracks(UUID itemId) {
+        return rulesByItem.containsKey(itemId);
+    }
+
+    /* Re-evaluates the item's configs at the given stock; returns the crossings */
+    public synchronized List<ReorderSuggestionEvent> onStock(UUID itemId, BigDecimal currentStock, BigDecimal delta) {
+        List<ReorderRuleRow> rules = rulesByItem.get(itemId);
+        if (rules == null) return List.of();
+        stockByItem.put(itemId, currentStock);
+        if (delta.signum() < 0) consumedByItem.merge(itemId, delta.negate(), BigDecimal::add);
+
+        List<ReorderSuggestionEvent> crossings = new ArrayList<>();
+        for (ReorderRuleRow r : rules) evaluate(r, crossings);
+        return crossings;
+    }
+
+    public synchronized List<LowStockAlertResponse> alerts(UUID storeId) {
+        if (storeId == null) return new ArrayList<>(open);
+        TreeSet<LowStockAlertResponse> store = openByStore.get(storeId);
+        return store != null ? new ArrayList<>(store) : new ArrayList<>();
+    }
+
+    private void evaluate(ReorderRuleRow rule, List<ReorderSuggestionEvent> crossings) {
+        BigDecimal stock = stockByItem.get(rule.getItemId());
+        LowStockAlertResponse previous = openByConfig.remove(rule.getConfigId());
+        if (previous != null) {
+            open.remove(previous);
+            openByStore.get(rule.getStoreId()).remove(previous);
+        }
+
+        if (stock.compareTo(BigDecimal.valueOf(rule.getReorderLevel())) <= 0) {
+            LowStockAlertResponse alert = toAlert(rule, stock);
+            openByConfig.put(rule.getConfigId(), alert);
+            open.add(alert);
+            openByStore.computeIfAbsent(rule.getStoreId(), k -> new TreeSet<>(BY_SEVERITY)).add(alert);
+            if (previous == null && crossings != null) {
+                crossings.add(new ReorderSuggestionEvent(ReorderSuggestionEvent.Type.RAISED,
+                    hospitalId, rule.getStoreId(), rule.getItemId(), alert));
+            }
+        } else if (previous != null && crossings != null) {
+            crossings.add(new ReorderSuggestionEvent(ReorderSuggestionEvent.Type.CLEARED,
+                hospitalId, rule.getStoreId(), rule.getItemId(), previous));
+        }
+    }
+
+    private LowStockAlertResponse toAlert(ReorderRuleRow rule, BigDecimal stock) {
+        BigDecimal reorderLevel = BigDecimal.valueOf(rule.getReorderLevel());
+        BigDecimal shortfall = reorderLevel.subtract(stock);
+        String alertLevel = stock.signum() <= 0 ? "CRITICAL"
+            : stock.compareTo(reorderLevel.multiply(new BigDecimal("0.5"))) <= 0 ? "HIGH"
+            : "MEDIUM";
+
+        // Bring stock back to reorder level and cover usage during the lead time
+        BigDecimal leadTimeDemand = dailyUsage(rule).multiply(BigDecimal.valueOf(rule.getReorderTimeDays()));
+        int suggested = Math.max(rule.getMinOrderQty(),
+            shortfall.add(leadTimeDemand).setScale(0, RoundingMode.CEILING).intValue());
+
+        return new LowStockAlertResponse(
+            rule.getConfigId(), rule.getStoreId(), rule.getStoreName(),
+            rule.getItemId(), rule.getItemCode(), rule.getItemName(),
+            rule.getRackNumber(), rule.getShelfNumber(), rule.getBinLocation(),
+            rule.getReorderLevel(), rule.getMinOrderQty(), rule.getReorderTimeDays(),
+            stock, shortfall, alertLevel, suggested);
+    }
+
+    /*
+      Observed consumption per day once the book is a day old; before that,
+      reorder_level / reorder_time_days (reorder level is set to cover the
+      lead time, see COMMENT ON COLUMN store_item_config.reorder_level).
+    */
+    private BigDecimal dailyUsage(ReorderRuleRow rule) {
+        long days = (System.currentTimeMillis() - loadedAtMillis) / 86_400_000L;
+        BigDecimal consumed = consumedByItem.get(rule.getItemId());
+        if (days >= 1 && consumed != null) {
+            return consumed.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.valueOf(rule.getReorderLevel())
+            .divide(BigDecimal.valueOf(rule.getReorderTimeDays()), 2, RoundingMode.HALF_UP);
+    }
+
+    private static int severityRank(String alertLevel) {
+        switch (alertLevel) {
+            case "CRITICAL": return 0;
+            case "HIGH": return 1;
+            default: return 2;
+        }
+    }
+}
+
+// ---------- ReorderEngine.java (Business Logic) ----------
+@Service
+@Slf4j
+public class ReorderEngine {
+    @Autowired private StoreItemConfigRepository configRepo;
+    @Autowired private StockMovementRepository stockRepo;
+    @Autowired private ApplicationEventPublisher events;
+
+    private final Map<UUID, ReorderBook> books = new ConcurrentHashMap<>();
+    // Bumped by invalidate(): a book loaded across an invalidation is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /* Alerts for one store, most severe first */
+    public List<LowStockAlertResponse> getAlerts(UUID hospitalId, UUID storeId) {
+        return book(hospitalId).alerts(storeId);
+    }
+
+    /* Alerts for every store of the hospital, most severe first */
+    public List<LowStockAlertResponse> getAlerts(UUID hospitalId) {
+        return book(hospitalId).alerts(null);
+    }
+
+    /*
+      After commit, so only committed stock is seen. The item's stock is re-read
+      rather than adding the delta, so events applied out of commit order cannot
+      drift. The read happens outside the map; the book serializes onStock itself.
+    */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockChanged(StockChangedEvent event) {
+        ReorderBook book = books.get(event.getHospitalId());
+        if (book == null || !book.tracks(event.getItemId())) return;
+
+        BigDecimal stock = stockRepo.findCurrentStock(event.getItemId()).orElse(BigDecimal.ZERO);
+        for (ReorderSuggestionEvent crossing : book.onStock(event.getItemId(), stock, event.getDelta())) {
+            log.info("Reorder suggestion {} for item {} in store {}",
+                crossing.getType(), crossing.getItemId(), crossing.getStoreId());
+            events.publishEvent(crossing);
+        }
+    }
+
+    /*
+      Stock events and invalidate() are local to this node. Every loaded book is
+      rebuilt from the DB on this interval, so stock moved and configs changed
+      on other nodes show up here within one interval.
+    */
+    @Scheduled(fixedDelayString = "${cmms.store.reorder.resync-interval-ms:60000}",
+               initialDelayString = "${cmms.store.reorder.resync-interval-ms:60000}")
+    public void resync() {
+        for (Map.Entry<UUID, ReorderBook> e : books.entrySet()) {
+            long gen = generation.get();
+            ReorderBook old = e.getValue();
+            try {
+                ReorderBook fresh = new ReorderBook(e.getKey(), configRepo.findReorderRules(e.getKey()), old);
+                if (books.replace(e.getKey(), old, fresh) && gen != generation.get()) {
+                    books.remove(e.getKey(), fresh);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Reorder book resync failed for hospital {}", e.getKey(), ex);
+            }
+        }
+    }
+
+    /* Config create / update / delete / toggle: reload the hospital's book on next read */
+    public void invalidate(UUID hospitalId) {
+        generation.incrementAndGet();
+        books.remove(hospitalId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    books.remove(hospitalId);
+                }
+            });
+        }
+    }
+
+    // Loaded outside the map: the query must not hold a ConcurrentHashMap bin lock
+    private ReorderBook book(UUID hospitalId) {
+        ReorderBook book = books.get(hospitalId);
+        if (book != null) return book;
+
+        long gen = generation.get();
+        ReorderBook fresh = new ReorderBook(hospitalId, configRepo.findReorderRules(hospitalId));
+        ReorderBook raced = books.putIfAbsent(hospitalId, fresh);
+        if (raced != null) return raced;
+        if (gen != generation.get()) books.remove(hospitalId, fresh);   // answer this read, reload next time
+        return fresh;
+    }
+}
+
+// ---------- WIRING ----------
+
+/*
+STOCK WRITERS (must not UPDATE item_master.current_stock directly):
+  GRN posting        -> stockMovementService.applyDelta(hospitalId, itemId, +acceptedQty, "GRN")
+  Issue / consumption-> stockMovementService.applyDelta(hospitalId, itemId, -qty,         "CONSUMPTION")
+  Stock adjustment   -> stockMovementService.applyDelta(hospitalId, itemId, +/-qty,       "ADJUSTMENT")
+
+CONFIG CHANGES:
+  StoreItemConfigService create / update / delete / toggleStatus -> reorderEngine.invalidate(hospitalId)
+
+MULTI-NODE:
+  Stock events and invalidate() only reach the node that ran them; every node
+  rebuilds its loaded books each cmms.store.reorder.resync-interval-ms (60 s).
+  Alerts on other nodes lag by at most one interval; crossings caused by
+  another node's movement raise no ReorderSuggestionEvent here (the moving
+  node publishes it). Requires @EnableScheduling on the application class.
+
+COST:
+  - First alert read per hospital: one query over its ACTIVE store_item_config rows
+  - Resync: the same query per loaded hospital per interval
+  - Each stock movement: one primary-key read of current_stock, then O(configs of
+    that item x log alerts) in memory; nothing if the hospital's book is not loaded
+  - Alert reads: copy of the open suggestions, O(alerts)
+
+SAMPLE ReorderSuggestionEvent (RAISED):
+{
+  "type": "RAISED",
+  "storeId": "550e8400-e29b-41d4-a716-446655440000",
+  "itemId": "660e8400-e29b-41d4-a716-446655440001",
+  "suggestion": {
+    "itemCode": "ECGCABLE001", "reorderLevel": 50, "minOrderQty": 10, "reorderTimeDays": 7,
+    "currentStock": 48.00, "shortfall": 2.00, "alertLevel": "MEDIUM", "suggestedOrderQty": 52
+  }
+}
+  suggestedOrderQty = max(minOrderQty, ceil(shortfall + dailyUsage x reorderTimeDays))
+                    = max(10, ceil(2 + 50/7 x 7)) = 52   (no usage observed yet)
+*/
@@ -0,0 +1,796 @@
+// ============================================================================
+// TOOL MODULE: cmms-datagen (synthetic hospital-scale dataset)
+// Tables      : building, floor, room, bed, location_count_rollup,
+//               roles, role_permissions,
+//               biomedical_stores, item_master, store_item_config,
+//               inlet_power, equipment_type_option, equipment_class_option, voltage_option
+// Base Tables : resources, actions, room_type (read only)
+// Stack       : Java 17+, PostgreSQL JDBC (CopyManager), Lombok. No Spring --
+//               runs as a CLI and as a library from benchmarks / integration tests.
+// PURPOSE     : Fill a database with realistic, reproducible volumes for load
+//               tests: many tenants and orgs, deep building -> floor -> room -> bed
+//               trees, dense role_permissions, thousands of store_item_config rows
+//               and device option lists, with an ACTIVE / INACTIVE / DELETED mix.
+//               Rows go in through COPY FROM STDIN (~10M rows in a few minutes).
+//
+// Guarantees:
+//   - Same seed + same config -> same rows (one SplittableRandom per tenant,
+//     so thread scheduling does not change the content; generated ids may differ)
+//   - Natural keys are generated unique per their UNIQUE constraint, DELETED
+//     rows included: uq_room_tenant_floor_no, (tenant, building, floor_no),
+//     (tenant, room, bed_no), uq_role_resource_action, uq_store_item_config,
+//     uq_type_per_inlet / uq_class_per_inlet / uq_voltage_per_inlet
+//   - Children of a DELETED parent are DELETED (what the soft-delete APIs leave
+//     behind); children of an INACTIVE parent keep their own status
+//   - location_count_rollup is rebuilt for the generated tenants
+//   - Only tenants [firstTenantId, firstTenantId + tenants) are touched
+// ============================================================================
+
+
+// ============================================================================
+// 1. DataGenConfig.java
+// Package: com.cmms.datagen
+// ============================================================================
+
+package com.cmms.datagen;
+
+import lombok.*;
+
+@Getter @Builder(toBuilder = true)
+public class DataGenConfig {
+
+    public enum Profile { SMALL, BENCH, LARGE }
+
+    // Integration tests: a few thousand rows, seconds
+    public static DataGenConfig small(long firstTenantId) {
+        return DataGenConfig.builder()
+                .firstTenantId(firstTenantId).tenants(2).orgsPerTenant(2)
+                .buildingsPerOrg(3).floorsPerBuilding(4).roomsPerFloor(10).bedsPerRoom(4)
+                .rolesPerTenant(20).storesPerOrg(2).itemsPerOrg(200).configsPerStore(150)
+                .optionsPerInlet(5)
+                .build();
+    }
+
+    // JMH repository suites: 50 buildings, 20k beds, 500 roles in one tenant
+    public static DataGenConfig bench(long tenantId) {
+        return DataGenConfig.builder()
+                .firstTenantId(tenantId).tenants(1).orgsPerTenant(1)
+                .buildingsPerOrg(50).floorsPerBuilding(8).roomsPerFloor(10).bedsPerRoom(5)
+                .rolesPerTenant(500).storesPerOrg(4).itemsPerOrg(2_000).configsPerStore(1_500)
+                .optionsPerInlet(10)
+                .build();
+    }
+
+    // Load tests: ~10M rows (2.9M beds, ~2.5M role_permissions, 2.9M store_item_config)
+    public static DataGenConfig large(long firstTenantId) {
+        return DataGenConfig.builder()
+                .firstTenantId(firstTenantId).tenants(20).orgsPerTenant(3)
+                .buildingsPerOrg(20).floorsPerBuilding(10).roomsPerFloor(30).bedsPerRoom(8)
+                .rolesPerTenant(500).storesPerOrg(8).itemsPerOrg(8_000).configsPerStore(6_000)
+                .optionsPerInlet(20)
+                .build();
+    }
+
+    public static DataGenConfig of(Profile profile, long firstTenantId) {
+        return switch (profile) {
+            case SMALL -> small(firstTenantId);
+            case BENCH -> bench(firstTenantId);
+            case LARGE -> large(firstTenantId);
+        };
+    }
+
+    // Kept clear of real tenants by default
+    @Builder.Default private long firstTenantId = 10_000L;
+    @Builder.Default private int tenants = 1;
+    @Builder.Default private int orgsPerTenant = 1;
+
+    private int buildingsPerOrg;
+    private int floorsPerBuilding;
+    private int roomsPerFloor;
+    private int bedsPerRoom;
+
+    private int rolesPerTenant;
+    @Builder.Default private double grantDensity = 0.5;     // share of leaf resource x action cells with a row
+
+    private int storesPerOrg;
+    private int itemsPerOrg;
+    private int configsPerStore;                              // distinct items per store, <= itemsPerOrg
+
+    private int optionsPerInlet;                              // equipment types / classes / voltages per inlet power
+
+    // Percent of rows per status; DELETED = 100 - active - inactive
+    @Builder.Default private int activePct = 90;
+    @Builder.Default private int inactivePct = 7;
+
+    @Builder.Default private long seed = 42L;
+    @Builder.Default private int threads = 4;                 // tenants loaded in parallel, one connection each
+    @Builder.Default private boolean replace = false;         // purge the tenant range first
+
+    public long lastTenantId() {
+        return firstTenantId + tenants - 1;
+    }
+
+    public void validate() {
+        if (tenants < 1 || orgsPerTenant < 1) throw new IllegalArgumentException("tenants and orgs must be >= 1");
+        if (configsPerStore > itemsPerOrg)
+            throw new IllegalArgumentException("configsPerStore (" + configsPerStore + ") > itemsPerOrg (" + itemsPerOrg + ")");
+        if (activePct < 0 || inactivePct < 0 || activePct + inactivePct > 100)
+            throw new IllegalArgumentException("activePct + inactivePct must be within 0..100");
+        if (grantDensity < 0 || grantDensity > 1) throw new IllegalArgumentException("grantDensity must be within 0..1");
+    }
+}
+
+
+// ============================================================================
+// 2. CopyWriter.java
+// Package: com.cmms.datagen
+// One COPY ... FROM STDIN (text format) per table. Rows are encoded into a
+// 64 KB buffer and shipped with writeToCopy; nothing is held per row.
+// ============================================================================
+
+package com.cmms.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+final class CopyWriter implements AutoCloseable {
+
+    private final CopyIn copy;
+    private final byte[] buf = new byte[64 * 1024];
+    private final StringBuilder line = new StringBuilder(256);
+    private int pos;
+    private long rows;
+
+    CopyWriter(Connection con, String table, String... columns) throws SQLException {
+        this.copy = con.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+    }
+
+    void row(Object... values) throws SQLException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append('\t');
+            Object v = values[i];
+            if (v == null) line.append("\\N");
+            else escape(v.toString());
+        }
+        line.append('\n');
+        byte[] b = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (pos + b.length > buf.length) flush();
+        if (b.length > buf.length) {
+            copy.writeToCopy(b, 0, b.length);
+        } else {
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void escape(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pos > 0) copy.writeToCopy(buf, 0, pos);
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!copy.isActive()) return;
+        flush();
+        copy.endCopy();
+    }
+}
+
+
+// ============================================================================
+// 3. SyntheticDataGenerator.java
+// Package: com.cmms.datagen
+// Per tenant, on its own connection and in one transaction:
+//   location -> rollup -> rbac -> store -> device
+// Parents are COPYed first, then their generated ids are read back by natural
+// key (one small SELECT per level) and the children are COPYed with real ids.
+// ============================================================================
+
+package com.cmms.datagen;
+
+import com.cmms.common.enums.RecordStatus;
+import lombok.extern.slf4j.Slf4j;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class SyntheticDataGenerator {
+
+    private static final String[] ITEM_TYPES = { "Consumable", "Spare", "Accessory" };
+    private static final String[] INLET_CODES = { "AC", "DC", "BATTERY", "AC_DC" };
+
+    private final DataSource dataSource;
+    private final Map<String, LongAdder> rowsByTable = new ConcurrentSkipListMap<>();
+
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public record Result(Map<String, Long> rowsByTable, long totalRows, long millis) {}
+
+    public Result generate(DataGenConfig cfg) throws Exception {
+        cfg.validate();
+        long start = System.currentTimeMillis();
+        rowsByTable.clear();
+
+        MasterData master;
+        try (Connection con = dataSource.getConnection()) {
+            master = MasterData.load(con);
+            if (cfg.isReplace()) {
+                purge(con, cfg);
+            } else if (hasData(con, cfg)) {
+                throw new IllegalStateException("Tenants " + cfg.getFirstTenantId() + ".." + cfg.lastTenantId()
+                        + " already have data; use replace=true to regenerate them");
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(cfg.getThreads(), cfg.getTenants()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long t = cfg.getFirstTenantId(); t <= cfg.lastTenantId(); t++) {
+                long tenantId = t;
+                futures.add(pool.submit(() -> { generateTenant(cfg, master, tenantId); return null; }));
+            }
+            for (Future<?> f : futures) f.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        rowsByTable.forEach((k, v) -> counts.put(k, v.sum()));
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long millis = System.currentTimeMillis() - start;
+        log.info("Generated {} rows for tenants {}..{} in {} ms ({} rows/s)", total, cfg.getFirstTenantId(),
+                cfg.lastTenantId(), millis, millis == 0 ? total : total * 1000 / millis);
+        return new Result(counts, total, millis);
+    }
+
+    // Store module keys by hospital_id (UUID), one per org
+    public static UUID hospitalId(long tenantId, long orgId) {
+        return UUID.nameUUIDFromBytes(("cmms-datagen:hospital:" + tenantId + ":" + orgId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void generateTenant(DataGenConfig cfg, MasterData master, long tenantId) throws SQLException {
+        SplittableRandom rnd = new SplittableRandom(cfg.getSeed() * 1_000_003L + tenantId);
+        try (Connection con = dataSource.getConnection()) {
+            con.setAutoCommit(false);
+            try (Statement st = con.createStatement()) {
+                st.execute("SET LOCAL synchronous_commit = off");
+            }
+            try {
+                generateLocations(con, cfg, master, rnd, tenantId);
+                rebuildRollup(con, tenantId);
+                generateRbac(con, cfg, master, rnd, tenantId);
+                generateStores(con, cfg, rnd, tenantId);
+                generateDeviceOptions(con, cfg, rnd, tenantId);
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+        log.info("Tenant {} done", tenantId);
+    }
+
+    // ---------- LOCATION ----------
+    private void generateLocations(Connection con, DataGenConfig cfg, MasterData master,
+                                   SplittableRandom rnd, long tenantId) throws SQLException {
+        Map<String, RecordStatus> statusByKey = new HashMap<>();
+
+        try (CopyWriter w = new CopyWriter(con, "building",
+                "tenant_id", "org_id", "building_name", "building_code", "is_active")) {
+            for (long org = 1; org <= cfg.getOrgsPerTenant(); org++) {
+                for (int b = 1; b <= cfg.getBuildingsPerOrg(); b++) {
+                    String code = "BLK-" + pad(b, 3);
+                    RecordStatus s = status(cfg, rnd, RecordStatus.ACTIVE);
+                    statusByKey.put(org + ":" + code, s);
+                    w.row(tenantId, org, "Block " + b, code, s.name());
+                }
+            }
+            count("building", w);
+        }
+        // org:code -> building_id, org
+        Map<Long, long[]> buildings = new LinkedHashMap<>();
+        Map<Long, RecordStatus> buildingStatus = new HashMap<>();
+        query(con, "SELECT building_id, org_id, building_code FROM building WHERE tenant_id = ? ORDER BY building_id",
+                tenantId, rs -> {
+                    long id = rs.getLong(1), org = rs.getLong(2);
+                    buildings.put(id, new long[] { org });
+                    buildingStatus.put(id, statusByKey.get(org + ":" + rs.getString(3)));
+                });
+
+        statusByKey.clear();
+        try (CopyWriter w = new CopyWriter(con, "floor",
+                "tenant_id", "org_id", "building_id", "floor_no", "floor_name", "is_active")) {
+            for (Map.Entry<Long, long[]> b : buildings.entrySet()) {
+                for (int f = 0; f < cfg.getFloorsPerBuilding(); f++) {
+                    RecordStatus s = status(cfg, rnd, buildingStatus.get(b.getKey()));
+                    statusByKey.put(b.getKey() + ":" + f, s);
+                    w.row(tenantId, b.getValue()[0], b.getKey(), f, f == 0 ? "Ground Floor" : "Floor " + f, s.name());
+                }
+            }
+            count("floor", w);
+        }
+        List<long[]> floors = new ArrayList<>();                  // floor_id, org_id, floor_no
+        Map<Long, RecordStatus> floorStatus = new HashMap<>();
+        query(con, "SELECT floor_id, org_id, floor_no, building_id FROM floor WHERE tenant_id = ? ORDER BY floor_id",
+                tenantId, rs -> {
+                    long id = rs.getLong(1);
+                    floors.add(new long[] { id, rs.getLong(2), rs.getInt(3) });
+                    floorStatus.put(id, statusByKey.get(rs.getLong(4) + ":" + rs.getInt(3)));
+                });
+
+        statusByKey.clear();
+        try (CopyWriter w = new CopyWriter(con, "room",
+                "tenant_id", "org_id", "floor_id", "room_no", "room_name", "room_type_id", "is_active")) {
+            for (long[] f : floors) {
+                for (int r = 1; r <= cfg.getRoomsPerFloor(); r++) {
+                    String roomNo = f[2] + pad(r, 2);              // 001, 002 ... 1001 -- unique per floor
+                    RecordStatus s = status(cfg, rnd, floorStatus.get(f[0]));
+                    statusByKey.put(f[0] + ":" + roomNo, s);
+                    Long typeId = master.roomTypeIds.isEmpty() || rnd.nextInt(10) == 0 ? null
+                            : master.roomTypeIds.get(rnd.nextInt(master.roomTypeIds.size()));
+                    w.row(tenantId, f[1], f[0], roomNo, "Room " + roomNo, typeId, s.name());
+                }
+            }
+            count("room", w);
+        }
+
+        // Read rooms before the bed COPY starts: pgjdbc holds the connection for the whole COPY
+        List<Object[]> rooms = new ArrayList<>();                 // room_id, org_id, floor_id, room_no
+        query(con, "SELECT room_id, org_id, floor_id, room_no FROM room WHERE tenant_id = ? ORDER BY room_id",
+                tenantId, rs -> rooms.add(new Object[] { rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4) }));
+
+        try (CopyWriter w = new CopyWriter(con, "bed",
+                "tenant_id", "org_id", "room_id", "bed_no", "bed_code", "is_active")) {
+            for (Object[] r : rooms) {
+                RecordStatus roomStatus = statusByKey.get(r[2] + ":" + r[3]);
+                for (int b = 1; b <= cfg.getBedsPerRoom(); b++) {
+                    w.row(tenantId, r[1], r[0], b, r[3] + "-B" + b, status(cfg, rnd, roomStatus).name());
+                }
+            }
+            count("bed", w);
+        }
+    }
+
+    // Same counting rules as location-department-db-design.sql Section F, one tenant
+    private void rebuildRollup(Connection con, long tenantId) throws SQLException {
+        int n = 0;
+        n += update(con, """
+            INSERT INTO location_count_rollup (location_level, location_id, tenant_id, bed_count, active_bed_count)
+            SELECT 'ROOM', r.room_id, r.tenant_id,
+                   COUNT(bd.bed_id) FILTER (WHERE bd.is_active <> 'DELETED'),
+                   COUNT(bd.bed_id) FILTER (WHERE bd.is_active = 'ACTIVE')
+            FROM room r LEFT JOIN bed bd ON bd.room_id = r.room_id
+            WHERE r.tenant_id = ?
+            GROUP BY r.room_id, r.tenant_id
+            ON CONFLICT (location_level, location_id) DO UPDATE
+               SET bed_count = EXCLUDED.bed_count, active_bed_count = EXCLUDED.active_bed_count, updated_at = NOW()
+            """, tenantId);
+        n += update(con, """
+            INSERT INTO location_count_rollup (location_level, location_id, tenant_id, room_count, bed_count, active_bed_count)
+            SELECT 'FLOOR', fl.floor_id, fl.tenant_id,
+                   COUNT(DISTINCT r.room_id) FILTER (WHERE r.is_active <> 'DELETED'),
+                   COUNT(bd.bed_id)          FILTER (WHERE bd.is_active <> 'DELETED'),
+                   COUNT(bd.bed_id)          FILTER (WHERE bd.is_active = 'ACTIVE')
+            FROM floor fl
+            LEFT JOIN room r ON r.floor_id = fl.floor_id
+            LEFT JOIN bed bd ON bd.room_id = r.room_id
+            WHERE fl.tenant_id = ?
+            GROUP BY fl.floor_id, fl.tenant_id
+            ON CONFLICT (location_level, location_id) DO UPDATE
+               SET room_count = EXCLUDED.room_count, bed_count = EXCLUDED.bed_count,
+                   active_bed_count = EXCLUDED.active_bed_count, updated_at = NOW()
+            """, tenantId);
+        n += update(con, """
+            INSERT INTO location_count_rollup (location_level, location_id, tenant_id, floor_count, room_count, bed_count, active_bed_count)
+            SELECT 'BUILDING', b.building_id, b.tenant_id,
+                   COUNT(DISTINCT fl.floor_id) FILTER (WHERE fl.is_active <> 'DELETED'),
+                   COUNT(DISTINCT r.room_id)   FILTER (WHERE r.is_active <> 'DELETED'),
+                   COUNT(bd.bed_id)            FILTER (WHERE bd.is_active <> 'DELETED'),
+                   COUNT(bd.bed_id)            FILTER (WHERE bd.is_active = 'ACTIVE')
+            FROM building b
+            LEFT JOIN floor fl ON fl.building_id = b.building_id
+            LEFT JOIN room r   ON r.floor_id = fl.floor_id
+            LEFT JOIN bed bd   ON bd.room_id = r.room_id
+            WHERE b.tenant_id = ?
+            GROUP BY b.building_id, b.tenant_id
+            ON CONFLICT (location_level, location_id) DO UPDATE
+               SET floor_count = EXCLUDED.floor_count, room_count = EXCLUDED.room_count,
+                   bed_count = EXCLUDED.bed_count, active_bed_count = EXCLUDED.active_bed_count, updated_at = NOW()
+            """, tenantId);
+        rowsByTable.computeIfAbsent("location_count_rollup", k -> new LongAdder()).add(n);
+    }
+
+    // ---------- RBAC ----------
+    // Every (role, leaf resource, action) cell is visited once -> uq_role_resource_action holds
+    private void generateRbac(Connection con, DataGenConfig cfg, MasterData master,
+                              SplittableRandom rnd, long tenantId) throws SQLException {
+        try (CopyWriter w = new CopyWriter(con, "roles", "tenant_id", "name", "code", "scope")) {
+            for (int r = 1; r <= cfg.getRolesPerTenant(); r++) {
+                w.row(tenantId, "Role " + r, "ROLE_" + pad(r, 4), r % 50 == 1 ? "ORG" : "TENANT");
+            }
+            count("roles", w);
+        }
+        List<Long> roleIds = new ArrayList<>();
+        query(con, "SELECT id FROM roles WHERE tenant_id = ? ORDER BY id", tenantId, rs -> roleIds.add(rs.getLong(1)));
+
+        try (CopyWriter w = new CopyWriter(con, "role_permissions",
+                "tenant_id", "role_id", "resource_id", "action_id", "is_allowed", "granted_at")) {
+            String grantedAt = "2026-01-01 00:00:00+00";
+            for (Long roleId : roleIds) {
+                for (long resourceId : master.leafResourceIds) {
+                    for (long actionId : master.actionIds) {
+                        if (rnd.nextDouble() >= cfg.getGrantDensity()) continue;
+                        w.row(tenantId, roleId, resourceId, actionId, rnd.nextInt(100) < 85, grantedAt);
+                    }
+                }
+            }
+            count("role_permissions", w);
+        }
+    }
+
+    // ---------- STORE ----------
+    // Follows the columns mapped by StoreItemConfig / BiomedicalStore / ItemMaster (UUID ids, hospital_id)
+    private void generateStores(Connection con, DataGenConfig cfg, SplittableRandom rnd, long tenantId)
+            throws SQLException {
+        for (long org = 1; org <= cfg.getOrgsPerTenant(); org++) {
+            UUID hospitalId = hospitalId(tenantId, org);
+            UUID[] stores = new UUID[cfg.getStoresPerOrg()];
+            RecordStatus[] storeStatus = new RecordStatus[stores.length];
+            try (CopyWriter w = new CopyWriter(con, "biomedical_stores",
+                    "id", "tenant_id", "org_id", "store_name", "is_default", "is_active")) {
+                for (int s = 0; s < stores.length; s++) {
+                    stores[s] = uuid(rnd);
+                    storeStatus[s] = s == 0 ? RecordStatus.ACTIVE : status(cfg, rnd, RecordStatus.ACTIVE);
+                    w.row(stores[s], tenantId, org, "Store " + (s + 1), s == 0, storeStatus[s].name());
+                }
+                count("biomedical_stores", w);
+            }
+
+            UUID[] items = new UUID[cfg.getItemsPerOrg()];
+            try (CopyWriter w = new CopyWriter(con, "item_master",
+                    "id", "tenant_id", "org_id", "item_code", "item_name", "item_type", "current_stock", "is_active")) {
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = uuid(rnd);
+                    w.row(items[i], tenantId, org, "ITM-" + pad(i + 1, 6), "Item " + (i + 1),
+                            ITEM_TYPES[i % ITEM_TYPES.length], rnd.nextInt(500),
+                            status(cfg, rnd, RecordStatus.ACTIVE).name());
+                }
+                count("item_master", w);
+            }
+
+            // configsPerStore distinct items per store (partial Fisher-Yates) -> uq_store_item_config holds
+            int[] order = new int[items.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            try (CopyWriter w = new CopyWriter(con, "store_item_config",
+                    "id", "hospital_id", "store_id", "item_id", "rack_number", "shelf_number", "bin_location",
+                    "reorder_level", "min_order_qty", "reorder_time_days", "is_active")) {
+                for (int s = 0; s < stores.length; s++) {
+                    for (int k = 0; k < cfg.getConfigsPerStore(); k++) {
+                        int j = k + rnd.nextInt(order.length - k);
+                        int tmp = order[k]; order[k] = order[j]; order[j] = tmp;
+                        int reorder = 5 + rnd.nextInt(96);
+                        w.row(uuid(rnd), hospitalId, stores[s], items[order[k]],
+                                "R" + (1 + rnd.nextInt(40)), "S" + (1 + rnd.nextInt(8)),
+                                rnd.nextInt(4) == 0 ? "BIN-" + rnd.nextInt(1_000) : null,
+                                reorder, 1 + rnd.nextInt(reorder), 7 + rnd.nextInt(39),
+                                status(cfg, rnd, storeStatus[s]).name());
+                    }
+                }
+                count("store_item_config", w);
+            }
+        }
+    }
+
+    // ---------- DEVICE OPTIONS ----------
+    private void generateDeviceOptions(Connection con, DataGenConfig cfg, SplittableRandom rnd, long tenantId)
+            throws SQLException {
+        try (CopyWriter w = new CopyWriter(con, "inlet_power", "tenant_id", "code", "name", "sort_order", "is_active")) {
+            for (int i = 0; i < INLET_CODES.length; i++) {
+                w.row(tenantId, INLET_CODES[i], INLET_CODES[i].replace('_', '/') + " Power", i + 1,
+                        RecordStatus.ACTIVE.name());
+            }
+            count("inlet_power", w);
+        }
+        List<Long> inlets = new ArrayList<>();
+        query(con, "SELECT id FROM inlet_power WHERE tenant_id = ? ORDER BY id", tenantId, rs -> inlets.add(rs.getLong(1)));
+
+        int n = cfg.getOptionsPerInlet();
+        try (CopyWriter w = new CopyWriter(con, "equipment_type_option",
+                "tenant_id", "inlet_power_id", "code", "name", "is_default", "sort_order", "is_active")) {
+            for (Long inlet : inlets) {
+                for (int i = 1; i <= n; i++) {
+                    w.row(tenantId, inlet, "T" + pad(i, 3), "Equipment Type " + i, i == 1, i,
+                            (i == 1 ? RecordStatus.ACTIVE : status(cfg, rnd, RecordStatus.ACTIVE)).name());
+                }
+            }
+            count("equipment_type_option", w);
+        }
+        try (CopyWriter w = new CopyWriter(con, "equipment_class_option",
+                "tenant_id", "inlet_power_id", "code", "name", "is_default", "sort_order", "is_active")) {
+            for (Long inlet : inlets) {
+                for (int i = 1; i <= n; i++) {
+                    w.row(tenantId, inlet, "CLASS_" + pad(i, 3), "Equipment Class " + i, i == 1, i,
+                            (i == 1 ? RecordStatus.ACTIVE : status(cfg, rnd, RecordStatus.ACTIVE)).name());
+                }
+            }
+            count("equipment_class_option", w);
+        }
+        try (CopyWriter w = new CopyWriter(con, "voltage_option",
+                "tenant_id", "inlet_power_id", "display_label", "voltage_v", "frequency_hz",
+                "is_default", "sort_order", "is_active")) {
+            for (Long inlet : inlets) {
+                for (int i = 1; i <= n; i++) {
+                    int volts = 100 + 10 * i, hz = i % 2 == 0 ? 60 : 50;
+                    w.row(tenantId, inlet, volts + "V " + hz + "Hz", volts, hz, i == 1, i,
+                            (i == 1 ? RecordStatus.ACTIVE : status(cfg, rnd, RecordStatus.ACTIVE)).name());
+                }
+            }
+            count("voltage_option", w);
+        }
+    }
+
+    // ---------- PURGE ----------
+    private void purge(Connection con, DataGenConfig cfg) throws SQLException {
+        long from = cfg.getFirstTenantId(), to = cfg.lastTenantId();
+        List<UUID> hospitals = new ArrayList<>();
+        for (long t = from; t <= to; t++) {
+            for (long org = 1; org <= cfg.getOrgsPerTenant(); org++) hospitals.add(hospitalId(t, org));
+        }
+        boolean auto = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try {
+            try (PreparedStatement ps = con.prepareStatement("DELETE FROM store_item_config WHERE hospital_id = ANY(?)")) {
+                ps.setArray(1, con.createArrayOf("uuid", hospitals.toArray()));
+                ps.executeUpdate();
+            }
+            // Children before parents; building delete cascades to floor / room / bed
+            for (String table : List.of("voltage_option", "equipment_class_option", "equipment_type_option",
+                    "inlet_power", "item_master", "biomedical_stores", "role_permissions", "roles",
+                    "location_count_rollup", "building")) {
+                update(con, "DELETE FROM " + table + " WHERE tenant_id BETWEEN ? AND ?", from, to);
+            }
+            con.commit();
+        } catch (SQLException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(auto);
+        }
+        log.info("Purged tenants {}..{}", from, to);
+    }
+
+    private static boolean hasData(Connection con, DataGenConfig cfg) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT EXISTS (SELECT 1 FROM building WHERE tenant_id BETWEEN ? AND ?) "
+                        + "OR EXISTS (SELECT 1 FROM roles WHERE tenant_id BETWEEN ? AND ?)")) {
+            ps.setLong(1, cfg.getFirstTenantId());
+            ps.setLong(2, cfg.lastTenantId());
+            ps.setLong(3, cfg.getFirstTenantId());
+            ps.setLong(4, cfg.lastTenantId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // ---------- HELPERS ----------
+    private static RecordStatus status(DataGenConfig cfg, SplittableRandom rnd, RecordStatus parent) {
+        if (parent == RecordStatus.DELETED) return RecordStatus.DELETED;
+        int p = rnd.nextInt(100);
+        if (p < cfg.getActivePct()) return RecordStatus.ACTIVE;
+        if (p < cfg.getActivePct() + cfg.getInactivePct()) return RecordStatus.INACTIVE;
+        return RecordStatus.DELETED;
+    }
+
+    // Random (version 4) UUID from the tenant's generator, so reruns produce the same ids
+    private static UUID uuid(SplittableRandom rnd) {
+        long msb = (rnd.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long lsb = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static String pad(long n, int width) {
+        String s = Long.toString(n);
+        return s.length() >= width ? s : "0".repeat(width - s.length()) + s;
+    }
+
+    private void count(String table, CopyWriter w) {
+        rowsByTable.computeIfAbsent(table, k -> new LongAdder()).add(w.rows());
+    }
+
+    interface RowConsumer {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    private static void query(Connection con, String sql, long tenantId, RowConsumer rows) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, tenantId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.accept(rs);
+            }
+        }
+    }
+
+    private static int update(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+            return ps.executeUpdate();
+        }
+    }
+
+    // Global master data the generated rows point at
+    record MasterData(List<Long> leafResourceIds, List<Long> actionIds, List<Long> roomTypeIds) {
+
+        static MasterData load(Connection con) throws SQLException {
+            List<Long> leaves = new ArrayList<>(), actions = new ArrayList<>(), roomTypes = new ArrayList<>();
+            try (Statement st = con.createStatement()) {
+                try (ResultSet rs = st.executeQuery("""
+                        SELECT r.id FROM resources r
+                        WHERE r.is_active = 'ACTIVE'
+                          AND NOT EXISTS (SELECT 1 FROM resources c WHERE c.parent_id = r.id AND c.is_active = 'ACTIVE')
+                        ORDER BY r.id""")) {
+                    while (rs.next()) leaves.add(rs.getLong(1));
+                }
+                try (ResultSet rs = st.executeQuery("SELECT id FROM actions WHERE is_active = 'ACTIVE' ORDER BY id")) {
+                    while (rs.next()) actions.add(rs.getLong(1));
+                }
+                // room_type master rows are seeded for tenant 1 only
+                try (ResultSet rs = st.executeQuery(
+                        "SELECT id FROM room_type WHERE tenant_id = 1 AND is_active = 'ACTIVE' ORDER BY sort_order, id")) {
+                    while (rs.next()) roomTypes.add(rs.getLong(1));
+                }
+            }
+            if (leaves.isEmpty() || actions.isEmpty())
+                throw new IllegalStateException("resources / actions are empty -- run scripts/resources-setup.sql first");
+            return new MasterData(leaves, actions, roomTypes);
+        }
+    }
+}
+
+
+// ============================================================================
+// 4. DataGenCli.java
+// Package: com.cmms.datagen
+// java -jar cmms-datagen.jar --url=jdbc:postgresql://localhost/cmms_load --profile=large [--key=value ...]
+// Any DataGenConfig field can be overridden: --tenants=5 --beds-per-room=12 --seed=7 --replace
+// ============================================================================
+
+package com.cmms.datagen;
+
+import org.postgresql.ds.PGSimpleDataSource;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class DataGenCli {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) usage("Unexpected argument: " + a);
+            int eq = a.indexOf('=');
+            opts.put(eq < 0 ? a.substring(2) : a.substring(2, eq), eq < 0 ? "true" : a.substring(eq + 1));
+        }
+        if (opts.containsKey("help") || !opts.containsKey("url")) usage(null);
+
+        DataGenConfig.Profile profile = DataGenConfig.Profile.valueOf(
+                opts.getOrDefault("profile", "small").toUpperCase(Locale.ROOT));
+        long firstTenant = Long.parseLong(opts.getOrDefault("first-tenant", "10000"));
+        DataGenConfig.DataGenConfigBuilder b = DataGenConfig.of(profile, firstTenant).toBuilder();
+        opts.forEach((k, v) -> apply(b, k, v));
+        DataGenConfig cfg = b.build();
+
+        PGSimpleDataSource ds = new PGSimpleDataSource();
+        ds.setUrl(opts.get("url"));
+        if (opts.containsKey("user")) ds.setUser(opts.get("user"));
+        if (opts.containsKey("password")) ds.setPassword(opts.get("password"));
+
+        SyntheticDataGenerator.Result r = new SyntheticDataGenerator(ds).generate(cfg);
+        r.rowsByTable().forEach((table, n) -> System.out.printf("%-26s %,12d%n", table, n));
+        System.out.printf("%-26s %,12d rows in %.1f s%n", "TOTAL", r.totalRows(), r.millis() / 1000.0);
+    }
+
+    private static void apply(DataGenConfig.DataGenConfigBuilder b, String key, String v) {
+        switch (key) {
+            case "url", "user", "password", "profile", "first-tenant" -> { }
+            case "tenants" -> b.tenants(Integer.parseInt(v));
+            case "orgs-per-tenant" -> b.orgsPerTenant(Integer.parseInt(v));
+            case "buildings-per-org" -> b.buildingsPerOrg(Integer.parseInt(v));
+            case "floors-per-building" -> b.floorsPerBuilding(Integer.parseInt(v));
+            case "rooms-per-floor" -> b.roomsPerFloor(Integer.parseInt(v));
+            case "beds-per-room" -> b.bedsPerRoom(Integer.parseInt(v));
+            case "roles-per-tenant" -> b.rolesPerTenant(Integer.parseInt(v));
+            case "grant-density" -> b.grantDensity(Double.parseDouble(v));
+            case "stores-per-org" -> b.storesPerOrg(Integer.parseInt(v));
+            case "items-per-org" -> b.itemsPerOrg(Integer.parseInt(v));
+            case "configs-per-store" -> b.configsPerStore(Integer.parseInt(v));
+            case "options-per-inlet" -> b.optionsPerInlet(Integer.parseInt(v));
+            case "active-pct" -> b.activePct(Integer.parseInt(v));
+            case "inactive-pct" -> b.inactivePct(Integer.parseInt(v));
+            case "seed" -> b.seed(Long.parseLong(v));
+            case "threads" -> b.threads(Integer.parseInt(v));
+            case "replace" -> b.replace(Boolean.parseBoolean(v));
+            default -> usage("Unknown option: --" + key);
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("""
+            usage: cmms-datagen --url=<jdbc url> [--user=] [--password=]
+                                [--profile=small|bench|large] [--first-tenant=10000] [--seed=42]
+                                [--threads=4] [--replace] [--<config-field>=<value> ...]
+            """);
+        System.exit(error == null ? 0 : 2);
+    }
+}
+
+
+// ============================================================================
+// 5. NOTES
+// ============================================================================
+
+/*
+MODULE:
+  cmms-datagen/pom.xml -- org.postgresql:postgresql, lombok, slf4j-simple (CLI),
+  depends on the module that holds com.cmms.common.enums.RecordStatus.
+  Shaded jar, Main-Class com.cmms.datagen.DataGenCli. cmms-benchmarks and the
+  integration tests depend on it.
+
+PREREQUISITES (schema only, generator never creates tables):
+  location-department-db-design.sql, resources-setup.sql, device-management-db-design.sql,
+  RBAC roles / role_permissions, store tables as mapped by the StoreItemConfig module.
+
+PROFILES (rows, approx.; DELETED/INACTIVE per --active-pct / --inactive-pct):
+  small : 2 tenants  x 2 orgs   ~ 4k location rows, ~10k role_permissions, ~1k store configs   (< 2 s)
+  bench : 1 tenant   x 1 org    50 buildings, 400 floors, 4,000 rooms, 20,000 beds, 500 roles
+  large : 20 tenants x 3 orgs   1,200 buildings, 12,000 floors, 360,000 rooms, 2,880,000 beds,
+                                10,000 roles, ~2.5M role_permissions (depends on resources x actions),
+                                480 stores, 480,000 items, 2,880,000 store_item_config
+                                -> ~10M rows; 3-6 min on a laptop PostgreSQL with --threads=4
+
+  java -jar cmms-datagen.jar --url=jdbc:postgresql://localhost/cmms_load --user=postgres \
+       --password=postgres --profile=large --replace
+
+INTEGRATION TESTS:
+  new SyntheticDataGenerator(dataSource).generate(DataGenConfig.small(50_000L));
+  SyntheticDataGenerator.hospitalId(50_000L, 1L)   -> hospital_id for store-item-config calls
+
+THROUGHPUT:
+  - COPY text format, 64 KB writes, synchronous_commit=off per tenant transaction
+  - Parent ids are read back per tenant by natural key (buildings, floors, rooms
+    -- at most a few tens of thousands of rows), never per child row
+  - For the large profile on a fresh database: load first, create secondary
+    indexes after, then ANALYZE
+*/
@@ -0,0 +1,740 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: ticket allocation rule engine
+// Table       : ticket_routing_log (written)
+// Base Tables : ticket_allocation_global_settings, ticket_allocation_rule,
+//               ticket_allocation_rule_condition, ticket_allocation_rule_pool
+// Stack       : Java 17+, Spring Boot 3.x, Spring JDBC, PostgreSQL
+// Base URL    : (none -- called by ticket creation)
+// PURPOSE     : Route a new ticket without reading rules from the DB. Each org's
+//               ACTIVE rules are compiled once (priority order, effective date
+//               window, hashed value sets per condition) into an immutable
+//               RuleEvaluator that is swapped atomically when rules change.
+//               ticket_routing_log rows are written in batches off the
+//               request thread.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.ticket.allocation.dto
+// ============================================================================
+
+// ---------- AllocationField.java ----------
+package com.cmms.ticket.allocation.dto;
+
+// ticket_allocation_rule_condition.field_key
+public enum AllocationField {
+    DEPARTMENT, ASSET_CATEGORY, TICKET_TYPE, SEVERITY, LOCATION
+}
+
+// ---------- TicketRoutingInput.java ----------
+// Master codes of the new ticket, e.g. department "D-01", severity "S-02"
+package com.cmms.ticket.allocation.dto;
+
+import lombok.*;
+
+@Getter @Builder @AllArgsConstructor
+public class TicketRoutingInput {
+    private final Long ticketId;
+    private final String departmentCode;
+    private final String assetCategoryCode;
+    private final String ticketTypeCode;
+    private final String severityCode;
+    private final String locationCode;
+
+    public String valueOf(AllocationField field) {
+        return switch (field) {
+            case DEPARTMENT -> departmentCode;
+            case ASSET_CATEGORY -> assetCategoryCode;
+            case TICKET_TYPE -> ticketTypeCode;
+            case SEVERITY -> severityCode;
+            case LOCATION -> locationCode;
+        };
+    }
+}
+
+// ---------- PoolMember.java ----------
+package com.cmms.ticket.allocation.dto;
+
+public record PoolMember(Long poolId, String memberType, Long memberId, String memberName) {}
+
+// ---------- RoutingDecision.java ----------
+package com.cmms.ticket.allocation.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Builder(toBuilder = true) @AllArgsConstructor
+public class RoutingDecision {
+    private final Long matchedRuleId;          // null when fallback used
+    private final String matchedRuleName;
+    private final Integer matchedPriority;
+    private final boolean fallbackUsed;
+    private final String fallbackType;         // FALLBACK_QUEUE
+    private final String fallbackDetail;
+    private final String assignedToType;       // TEAM | ENGINEER | VENDOR | QUEUE
+    private final Long assignedToId;
+    private final String assignedToName;
+    private final String strategy;             // FIXED | ROUND_ROBIN | LEAST_OPEN
+    private final String overridePriority;
+    private final String overrideSla;
+    private final boolean notifyAssignee;
+    private final String notifyChannels;
+    private final int rulesEvaluated;
+    private final long evalTimeNanos;
+    private final List<PoolMember> pool;       // matched rule's ACTIVE pool (empty for fallback)
+}
+
+
+// ============================================================================
+// 2. COMPILED RULES
+// Package: com.cmms.ticket.allocation.engine
+// ============================================================================
+
+// ---------- CompiledCondition.java ----------
+// IN / EQUALS and NOT_IN / NOT_EQUALS are the same test: membership in a hashed set
+package com.cmms.ticket.allocation.engine;
+
+import com.cmms.ticket.allocation.dto.AllocationField;
+import com.cmms.ticket.allocation.dto.TicketRoutingInput;
+import java.util.Set;
+
+record CompiledCondition(AllocationField field, boolean negated, Set<String> values) {
+
+    boolean test(TicketRoutingInput ticket) {
+        String v = ticket.valueOf(field);
+        boolean in = v != null && values.contains(v);
+        return negated != in;
+    }
+}
+
+// ---------- CompiledRule.java ----------
+package com.cmms.ticket.allocation.engine;
+
+import com.cmms.ticket.allocation.dto.PoolMember;
+import com.cmms.ticket.allocation.dto.TicketRoutingInput;
+import java.util.List;
+
+record CompiledRule(
+        long ruleId, String ruleName, int priority, boolean matchAll,
+        long effectiveFromDay, long effectiveToDay,      // epoch days, inclusive
+        CompiledCondition[] conditions,
+        String assignToType, long assignToId, String assignToName, String strategy,
+        String overridePriority, String overrideSla, boolean notifyAssignee, String notifyChannels,
+        List<PoolMember> pool) {
+
+    boolean effectiveOn(long epochDay) {
+        return epochDay >= effectiveFromDay && epochDay <= effectiveToDay;
+    }
+
+    // A rule without conditions is a catch-all
+    boolean matches(TicketRoutingInput ticket) {
+        if (conditions.length == 0) return true;
+        if (matchAll) {
+            for (CompiledCondition c : conditions) if (!c.test(ticket)) return false;
+            return true;
+        }
+        for (CompiledCondition c : conditions) if (c.test(ticket)) return true;
+        return false;
+    }
+}
+
+// ---------- RuleEvaluator.java ----------
+// Immutable; one per (tenant, org). Safe to share across threads.
+package com.cmms.ticket.allocation.engine;
+
+import com.cmms.ticket.allocation.dto.RoutingDecision;
+import com.cmms.ticket.allocation.dto.TicketRoutingInput;
+import java.util.List;
+
+public final class RuleEvaluator {
+
+    private final CompiledRule[] rules;        // priority ascending (1 = highest)
+    private final boolean ruleBasedEnabled;
+    private final boolean bestMatch;           // eval_mode BEST_MATCH
+    private final String defaultFallback;
+
+    RuleEvaluator(List<CompiledRule> rules, boolean ruleBasedEnabled, boolean bestMatch, String defaultFallback) {
+        this.rules = rules.toArray(CompiledRule[]::new);
+        this.ruleBasedEnabled = ruleBasedEnabled;
+        this.bestMatch = bestMatch;
+        this.defaultFallback = defaultFallback;
+    }
+
+    // Same date the ticket is created on; the effective window is inclusive
+    public RoutingDecision evaluate(TicketRoutingInput ticket, long epochDay) {
+        long start = System.nanoTime();
+        if (!ruleBasedEnabled) {
+            return fallback("Rule-based allocation disabled", 0, start);
+        }
+
+        CompiledRule winner = null;
+        int evaluated = 0;
+        for (CompiledRule rule : rules) {
+            if (!rule.effectiveOn(epochDay)) continue;
+            evaluated++;
+            if (!rule.matches(ticket)) continue;
+            if (!bestMatch) {
+                winner = rule;
+                break;
+            }
+            // BEST_MATCH: most specific rule (most conditions) wins, priority breaks ties
+            if (winner == null || rule.conditions().length > winner.conditions().length) winner = rule;
+        }
+
+        if (winner == null) return fallback("No rule matched", evaluated, start);
+        return RoutingDecision.builder()
+                .matchedRuleId(winner.ruleId())
+                .matchedRuleName(winner.ruleName())
+                .matchedPriority(winner.priority())
+                .assignedToType(winner.assignToType())
+                .assignedToId(winner.assignToId())
+                .assignedToName(winner.assignToName())
+                .strategy(winner.strategy())
+                .overridePriority(winner.overridePriority())
+                .overrideSla(winner.overrideSla())
+                .notifyAssignee(winner.notifyAssignee())
+                .notifyChannels(winner.notifyChannels())
+                .pool(winner.pool())
+                .rulesEvaluated(evaluated)
+                .evalTimeNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    private RoutingDecision fallback(String detail, int evaluated, long start) {
+        return RoutingDecision.builder()
+                .fallbackUsed(true)
+                .fallbackType("FALLBACK_QUEUE")
+                .fallbackDetail(detail)
+                .assignedToType("QUEUE")
+                .assignedToId(0L)
+                .assignedToName(defaultFallback)
+                .strategy("FIXED")
+                .pool(List.of())
+                .rulesEvaluated(evaluated)
+                .evalTimeNanos(System.nanoTime() - start)
+                .build();
+    }
+}
+
+
+// ============================================================================
+// 3. REPOSITORY: AllocationRuleRepository.java
+// Package: com.cmms.ticket.allocation.repository
+// Four reads per compile (settings, rules, conditions, pools), the batched
+// routing log insert and the rule change notification.
+// ============================================================================
+
+package com.cmms.ticket.allocation.repository;
+
+import com.cmms.ticket.allocation.dto.PoolMember;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AllocationRuleRepository {
+
+    public static final String RULES_CHANNEL = "cmms_allocation_rules";
+
+    private final JdbcTemplate jdbc;
+
+    public record SettingsRow(boolean ruleBasedEnabled, String evalMode, String defaultFallback) {}
+
+    public record RuleRow(long ruleId, String ruleName, int priority, String matchType,
+                          LocalDate effectiveFrom, LocalDate effectiveTo,
+                          String assignToType, long assignToId, String assignToName, String strategy,
+                          String overridePriority, String overrideSla, boolean notifyAssignee, String notifyChannels) {}
+
+    public record ConditionRow(long ruleId, String fieldKey, String operator, String fieldValuesJson) {}
+
+    public record PoolRow(long ruleId, PoolMember member) {}
+
+    public record RoutingLogRow(Long tenantId, Long orgId, Long ticketId,
+                                Long matchedRuleId, String matchedRuleName, Integer matchedPriority,
+                                boolean fallbackUsed, String fallbackType, String fallbackDetail,
+                                String assignedToType, Long assignedToId, String assignedToName, String strategyUsed,
+                                int rulesEvaluated, int evalTimeMs, int evalTimeUs) {}
+
+    public List<SettingsRow> findSettings(Long tenantId, Long orgId) {
+        return jdbc.query("""
+            SELECT rule_based_enabled, eval_mode, default_fallback
+            FROM ticket_allocation_global_settings
+            WHERE tenant_id = ? AND org_id = ?
+            """,
+            (rs, i) -> new SettingsRow(rs.getBoolean("rule_based_enabled"), rs.getString("eval_mode"),
+                    rs.getString("default_fallback")),
+            tenantId, orgId);
+    }
+
+    public List<RuleRow> findActiveRules(Long tenantId, Long orgId) {
+        return jdbc.query("""
+            SELECT rule_id, rule_name, priority, match_type, effective_from, effective_to,
+                   assign_to_type, assign_to_id, assign_to_name, strategy,
+                   override_priority, override_sla, notify_assignee, notify_channels
+            FROM ticket_allocation_rule
+            WHERE tenant_id = ? AND org_id = ? AND is_active = 'ACTIVE'
+            ORDER BY priority
+            """,
+            (rs, i) -> new RuleRow(rs.getLong("rule_id"), rs.getString("rule_name"), rs.getInt("priority"),
+                    rs.getString("match_type"), toLocalDate(rs.getDate("effective_from")),
+                    toLocalDate(rs.getDate("effective_to")), rs.getString("assign_to_type"),
+                    rs.getLong("assign_to_id"), rs.getString("assign_to_name"), rs.getString("strategy"),
+                    rs.getString("override_priority"), rs.getString("override_sla"),
+                    rs.getBoolean("notify_assignee"), rs.getString("notify_channels")),
+            tenantId, orgId);
+    }
+
+    public List<ConditionRow> findActiveConditions(Long tenantId, Long orgId) {
+        return jdbc.query("""
+            SELECT c.rule_id, c.field_key, c.operator, c.field_values::text AS field_values
+            FROM ticket_allocation_rule_condition c
+            JOIN ticket_allocation_rule r ON r.rule_id = c.rule_id AND r.tenant_id = c.tenant_id
+            WHERE r.tenant_id = ? AND r.org_id = ? AND r.is_active = 'ACTIVE'
+            ORDER BY c.rule_id, c.sort_order
+            """,
+            (rs, i) -> new ConditionRow(rs.getLong("rule_id"), rs.getString("field_key"),
+                    rs.getString("operator"), rs.getString("field_values")),
+            tenantId, orgId);
+    }
+
+    public List<PoolRow> findActivePools(Long tenantId, Long orgId) {
+        return jdbc.query("""
+            SELECT p.pool_id, p.rule_id, p.member_type, p.member_id, p.member_name
+            FROM ticket_allocation_rule_pool p
+            JOIN ticket_allocation_rule r ON r.rule_id = p.rule_id AND r.tenant_id = p.tenant_id
+            WHERE r.tenant_id = ? AND r.org_id = ? AND r.is_active = 'ACTIVE' AND p.is_active = 'ACTIVE'
+            ORDER BY p.rule_id, p.pool_id
+            """,
+            (rs, i) -> new PoolRow(rs.getLong("rule_id"), new PoolMember(rs.getLong("pool_id"),
+                    rs.getString("member_type"), rs.getLong("member_id"), rs.getString("member_name"))),
+            tenantId, orgId);
+    }
+
+    public void insertRoutingLogs(List<RoutingLogRow> rows) {
+        jdbc.batchUpdate("""
+            INSERT INTO ticket_routing_log (
+                tenant_id, org_id, ticket_id, matched_rule_id, matched_rule_name, matched_priority,
+                fallback_used, fallback_type, fallback_detail,
+                assigned_to_type, assigned_to_id, assigned_to_name, strategy_used,
+                rules_evaluated, eval_time_ms, eval_time_us)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """,
+            rows, rows.size(), (ps, r) -> {
+                ps.setLong(1, r.tenantId());
+                ps.setLong(2, r.orgId());
+                ps.setLong(3, r.ticketId());
+                ps.setObject(4, r.matchedRuleId());
+                ps.setString(5, r.matchedRuleName());
+                ps.setObject(6, r.matchedPriority());
+                ps.setBoolean(7, r.fallbackUsed());
+                ps.setString(8, r.fallbackType());
+                ps.setString(9, r.fallbackDetail());
+                ps.setString(10, r.assignedToType());
+                ps.setLong(11, r.assignedToId());
+                ps.setString(12, r.assignedToName());
+                ps.setString(13, r.strategyUsed());
+                ps.setInt(14, r.rulesEvaluated());
+                ps.setInt(15, r.evalTimeMs());
+                ps.setInt(16, r.evalTimeUs());
+            });
+    }
+
+    // Delivered to every node's RuleChangeListener when the caller's transaction commits
+    public void notifyRulesChanged(Long tenantId, Long orgId) {
+        jdbc.query("SELECT pg_notify(?, ?)", rs -> { }, RULES_CHANNEL, tenantId + ":" + orgId);
+    }
+
+    private static LocalDate toLocalDate(Date d) {
+        return d != null ? d.toLocalDate() : null;
+    }
+}
+
+
+// ============================================================================
+// 4. SERVICE: RuleCompiler.java
+// Package: com.cmms.ticket.allocation.engine
+// A rule with an unknown field_key / operator or unreadable field_values is
+// left out (logged): it must never match by accident.
+// ============================================================================
+
+package com.cmms.ticket.allocation.engine;
+
+import com.cmms.ticket.allocation.dto.AllocationField;
+import com.cmms.ticket.allocation.dto.PoolMember;
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository;
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RuleCompiler {
+
+    private final AllocationRuleRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public RuleEvaluator compile(Long tenantId, Long orgId) {
+        List<SettingsRow> settings = repository.findSettings(tenantId, orgId);
+        SettingsRow s = settings.isEmpty()
+                ? new SettingsRow(true, "FIRST_MATCH", "Unassigned Queue")   // table defaults
+                : settings.get(0);
+
+        Map<Long, List<ConditionRow>> conditions = new HashMap<>();
+        for (ConditionRow c : repository.findActiveConditions(tenantId, orgId)) {
+            conditions.computeIfAbsent(c.ruleId(), k -> new ArrayList<>()).add(c);
+        }
+        Map<Long, List<PoolMember>> pools = new HashMap<>();
+        for (PoolRow p : repository.findActivePools(tenantId, orgId)) {
+            pools.computeIfAbsent(p.ruleId(), k -> new ArrayList<>()).add(p.member());
+        }
+
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (RuleRow r : repository.findActiveRules(tenantId, orgId)) {
+            try {
+                compiled.add(compileRule(r, conditions.getOrDefault(r.ruleId(), List.of()),
+                        pools.getOrDefault(r.ruleId(), List.of())));
+            } catch (IllegalArgumentException | com.fasterxml.jackson.core.JsonProcessingException e) {
+                log.warn("Allocation rule {} ({}) skipped for org {}: {}", r.ruleId(), r.ruleName(), orgId, e.getMessage());
+            }
+        }
+        return new RuleEvaluator(compiled, s.ruleBasedEnabled(), "BEST_MATCH".equals(s.evalMode()), s.defaultFallback());
+    }
+
+    private CompiledRule compileRule(RuleRow r, List<ConditionRow> rows, List<PoolMember> pool)
+            throws com.fasterxml.jackson.core.JsonProcessingException {
+        CompiledCondition[] conds = new CompiledCondition[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ConditionRow c = rows.get(i);
+            boolean negated = switch (c.operator()) {
+                case "IN", "EQUALS" -> false;
+                case "NOT_IN", "NOT_EQUALS" -> true;
+                default -> throw new IllegalArgumentException("unknown operator " + c.operator());
+            };
+            String[] values = objectMapper.readValue(c.fieldValuesJson(), String[].class);
+            // Admin-entered JSON: duplicates and nulls are tolerated, not fatal
+            Set<String> set = new HashSet<>();
+            if (values != null) for (String v : values) if (v != null) set.add(v);
+            conds[i] = new CompiledCondition(AllocationField.valueOf(c.fieldKey()), negated, set);
+        }
+        return new CompiledRule(r.ruleId(), r.ruleName(), r.priority(), !"ANY".equals(r.matchType()),
+                r.effectiveFrom() != null ? r.effectiveFrom().toEpochDay() : Long.MIN_VALUE,
+                r.effectiveTo() != null ? r.effectiveTo().toEpochDay() : Long.MAX_VALUE,
+                conds, r.assignToType(), r.assignToId(), r.assignToName(), r.strategy(),
+                r.overridePriority(), r.overrideSla(), r.notifyAssignee(), r.notifyChannels(),
+                List.copyOf(pool));
+    }
+}
+
+
+// ============================================================================
+// 5. SERVICE: RoutingLogWriter.java
+// Package: com.cmms.ticket.allocation.service
+// Bounded queue drained every 200 ms into one batched INSERT. When the queue
+// is full the row is written on the caller's thread. A batch that fails is
+// kept and retried on the next cycle; while the database is down the queue
+// fills up and callers see the write error instead of losing rows. Only a row
+// the table itself rejects (constraint violation) is logged and skipped, so
+// it cannot block the rows behind it. Needs @EnableScheduling on the
+// application class.
+// ============================================================================
+
+package com.cmms.ticket.allocation.service;
+
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository;
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository.RoutingLogRow;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoutingLogWriter {
+
+    public static final int QUEUE_CAPACITY = 10_000;
+    public static final int BATCH_SIZE = 500;
+
+    private final AllocationRuleRepository repository;
+    private final BlockingQueue<RoutingLogRow> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private List<RoutingLogRow> retry = List.of();                // guarded by this
+
+    public void submit(RoutingLogRow row) {
+        if (!queue.offer(row)) repository.insertRoutingLogs(List.of(row));
+    }
+
+    @Scheduled(fixedDelay = 200)
+    public synchronized void flush() {
+        if (!retry.isEmpty()) {
+            retry = write(retry);
+            if (!retry.isEmpty()) return;          // database still failing: leave the queue as it is
+        }
+        List<RoutingLogRow> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            retry = write(batch);
+            if (!retry.isEmpty()) return;
+            batch = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        flush();
+        int left = retry.size() + queue.size();
+        if (left > 0) log.error("Shutting down with {} ticket routing log rows not written", left);
+    }
+
+    // Returns the rows still to write (empty when done)
+    private List<RoutingLogRow> write(List<RoutingLogRow> rows) {
+        try {
+            repository.insertRoutingLogs(rows);
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            return writeOneByOne(rows);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} ticket routing log rows, retrying next cycle: {}", rows.size(), e.getMessage());
+            return rows;
+        }
+    }
+
+    // Finds the rejected row(s) of a batch; the rest are written
+    private List<RoutingLogRow> writeOneByOne(List<RoutingLogRow> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            RoutingLogRow row = rows.get(i);
+            try {
+                repository.insertRoutingLogs(List.of(row));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Ticket routing log row for ticket {} rejected, skipped", row.ticketId(), e);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write ticket routing log rows, retrying next cycle: {}", e.getMessage());
+                return new ArrayList<>(rows.subList(i, rows.size()));
+            }
+        }
+        return List.of();
+    }
+}
+
+
+// ============================================================================
+// 6. SERVICE: TicketAllocationEngine.java
+// Package: com.cmms.ticket.allocation.service
+// ============================================================================
+
+package com.cmms.ticket.allocation.service;
+
+import com.cmms.ticket.allocation.dto.PoolMember;
+import com.cmms.ticket.allocation.dto.RoutingDecision;
+import com.cmms.ticket.allocation.dto.TicketRoutingInput;
+import com.cmms.ticket.allocation.engine.RuleCompiler;
+import com.cmms.ticket.allocation.engine.RuleEvaluator;
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository;
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository.RoutingLogRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TicketAllocationEngine {
+
+    private final RuleCompiler compiler;
+    private final AllocationRuleRepository repository;
+    private final RoutingLogWriter logWriter;
+    private final PoolAssigner poolAssigner;
+
+    private record OrgKey(Long tenantId, Long orgId) {}
+
+    private final Map<OrgKey, RuleEvaluator> evaluators = new ConcurrentHashMap<>();
+
+    // ---------- ROUTE ----------
+    public RoutingDecision route(Long tenantId, Long orgId, TicketRoutingInput ticket) {
+        RoutingDecision d = evaluator(tenantId, orgId).evaluate(ticket, LocalDate.now().toEpochDay());
+
+        // ROUND_ROBIN / LEAST_OPEN rules with a pool assign to one member of it
+        PoolMember member = poolAssigner.assign(tenantId, d);
+        if (member != null) {
+            d = d.toBuilder().assignedToType(member.memberType()).assignedToId(member.memberId())
+                    .assignedToName(member.memberName()).build();
+        }
+
+        int evalUs = (int) Math.min(Integer.MAX_VALUE, d.getEvalTimeNanos() / 1_000);
+        logWriter.submit(new RoutingLogRow(tenantId, orgId, ticket.getTicketId(),
+                d.getMatchedRuleId(), d.getMatchedRuleName(), d.getMatchedPriority(),
+                d.isFallbackUsed(), d.getFallbackType(), d.getFallbackDetail(),
+                d.getAssignedToType(), d.getAssignedToId(), d.getAssignedToName(), d.getStrategy(),
+                d.getRulesEvaluated(), evalUs / 1_000, evalUs));
+        return d;
+    }
+
+    // Compiled outside the map: the four rule queries must not hold a ConcurrentHashMap bin lock.
+    // A reload() put in between wins over this compile.
+    public RuleEvaluator evaluator(Long tenantId, Long orgId) {
+        OrgKey key = new OrgKey(tenantId, orgId);
+        RuleEvaluator e = evaluators.get(key);
+        if (e != null) return e;
+        RuleEvaluator compiled = compiler.compile(tenantId, orgId);
+        RuleEvaluator raced = evaluators.putIfAbsent(key, compiled);
+        return raced != null ? raced : compiled;
+    }
+
+    // ---------- HOT SWAP ----------
+    // Rule / condition / pool / settings create, update, delete, reorder, toggle.
+    // Recompiled after commit and replaced in one put: routing never sees an
+    // empty or half-built rule set. Other nodes drop theirs through
+    // RuleChangeListener and recompile on the next ticket.
+    public void reload(Long tenantId, Long orgId) {
+        repository.notifyRulesChanged(tenantId, orgId);
+        Runnable swap = () -> evaluators.put(new OrgKey(tenantId, orgId), compiler.compile(tenantId, orgId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swap.run();
+                }
+            });
+        } else {
+            swap.run();
+        }
+    }
+
+    // From RuleChangeListener
+    void evict(Long tenantId, Long orgId) {
+        evaluators.remove(new OrgKey(tenantId, orgId));
+    }
+
+    // Listener (re)connected: notifications sent while it was away are lost
+    void evictAll() {
+        evaluators.clear();
+    }
+}
+
+// ---------- RuleChangeListener.java ----------
+// One pooled connection per node stays in LISTEN cmms_allocation_rules.
+// Evicting is all it does: the recompile runs on the next routed ticket,
+// not on this thread.
+package com.cmms.ticket.allocation.service;
+
+import com.cmms.ticket.allocation.repository.AllocationRuleRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RuleChangeListener {
+
+    private final DataSource dataSource;
+    private final TicketAllocationEngine engine;
+
+    private volatile boolean running = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform().daemon().name("allocation-rules-listener").start(this::listen);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(true);
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + AllocationRuleRepository.RULES_CHANNEL);
+                }
+                engine.evictAll();
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(5_000);
+                    if (batch == null) continue;
+                    for (PGNotification n : batch) {
+                        String[] key = n.getParameter().split(":", 2);
+                        engine.evict(Long.valueOf(key[0]), Long.valueOf(key[1]));
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Allocation rules listener connection lost: {}", e.getMessage());
+                sleepQuietly();
+            } catch (RuntimeException e) {
+                log.error("Allocation rules listener error", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(2_000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+}
+
+
+// ============================================================================
+// 7. USAGE / SAMPLE
+// ============================================================================
+
+/*
+TICKET CREATE (after the ticket row is inserted):
+  RoutingDecision d = allocationEngine.route(tenantId, orgId, TicketRoutingInput.builder()
+          .ticketId(ticket.getId())
+          .departmentCode("D-01").ticketTypeCode("TT-01").severityCode("S-02")
+          .assetCategoryCode("AC-04").locationCode("L-01")
+          .build());
+
+RULE ADMIN (any write to the four rule tables):
+  allocationEngine.reload(tenantId, orgId);
+  -> this node swaps in the recompiled rules after commit; the pg_notify sent in the
+     same transaction makes every node (this one included) drop its copy, and the
+     next ticket there recompiles. A dropped copy also rebuilds PoolAssigner state
+     for its pooled rules, as a local reload does. Listener reconnect drops all copies.
+  Writes made directly in SQL: call reload() or restart.
+
+Seed data, org 1 (FIRST_MATCH):
+  D-01 / TT-01 / S-02 -> rule 1 "Radiology Critical Breakdown" -> TEAM 1, ROUND_ROBIN, rulesEvaluated = 1
+                        assignedTo = ENGINEER 1 "Rajesh Kumar", next ticket ENGINEER 2 "Priya Sharma" (PoolAssigner)
+  D-03 / TT-05 / S-04 -> rule 4 (ANY, 2026-01-01..2026-12-31)   -> ENGINEER 3 "Vikram Singh", rulesEvaluated = 4
+  D-09 / TT-05 / S-04 -> no match -> QUEUE "Unassigned Queue", fallbackUsed = true, rulesEvaluated = 5
+
+ticket_routing_log row (written by RoutingLogWriter within ~200 ms):
+  matched_rule_id = 1, matched_priority = 1, assigned_to_type = 'ENGINEER', strategy_used = 'ROUND_ROBIN',
+  rules_evaluated = 1, eval_time_ms = 0, eval_time_us = 3
+*/
@@ -0,0 +1,561 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: ticket allocation pool assignment
+// Table       : ticket_allocation_rule_pool (checkpointed)
+// Base Tables : ticket_allocation_rule_pool, tickets (open counts, read-only)
+// Stack       : Java 17+, Spring Boot 3.x, Spring JDBC, PostgreSQL
+// Base URL    : (none -- called by TicketAllocationEngine.route)
+// PURPOSE     : Pick the pool member for ROUND_ROBIN / LEAST_OPEN rules without
+//               updating pool rows per ticket. Assignment state lives in memory
+//               on the node holding the rule's advisory-lock lease; counters
+//               are checkpointed to the pool table every few seconds.
+// ============================================================================
+
+
+// ============================================================================
+// 1. REPOSITORY: PoolStateRepository.java
+// Package: com.cmms.ticket.allocation.repository
+// ============================================================================
+
+package com.cmms.ticket.allocation.repository;
+
+import com.cmms.ticket.allocation.dto.PoolMember;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class PoolStateRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record PoolDelta(long poolId, long assignments, Timestamp lastAssignedAt) {}
+
+    public record OpenCount(String memberType, long memberId, int open) {}
+
+    // Round-robin restart point
+    public Map<Long, Timestamp> findLastAssigned(long ruleId) {
+        Map<Long, Timestamp> result = new HashMap<>();
+        jdbc.query("SELECT pool_id, last_assigned_at FROM ticket_allocation_rule_pool WHERE rule_id = ?",
+                rs -> { result.put(rs.getLong("pool_id"), rs.getTimestamp("last_assigned_at")); }, ruleId);
+        return result;
+    }
+
+    // Open tickets per assignee. tickets table belongs to the ticket module:
+    // tickets(tenant_id, assigned_to_type, assigned_to_id, status)
+    public List<OpenCount> countOpenTickets(Long tenantId) {
+        return jdbc.query("""
+            SELECT assigned_to_type, assigned_to_id, COUNT(*) AS open_count
+            FROM tickets
+            WHERE tenant_id = ? AND assigned_to_id IS NOT NULL
+              AND status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')
+            GROUP BY assigned_to_type, assigned_to_id
+            """,
+            (rs, i) -> new OpenCount(rs.getString("assigned_to_type"), rs.getLong("assigned_to_id"),
+                    rs.getInt("open_count")),
+            tenantId);
+    }
+
+    // Used when another node holds the rule's lease: least recently assigned
+    // member. Runs in the caller's ticket transaction (no second connection):
+    // the row lock is held until that transaction ends, and a rollback undoes
+    // the assignment with the ticket. SKIP LOCKED moves on to the next member
+    // instead of queueing behind an uncommitted assignment; empty when every
+    // member is locked.
+    public Optional<PoolMember> assignLeastRecent(Long tenantId, long ruleId) {
+        return jdbc.query("""
+            UPDATE ticket_allocation_rule_pool p
+            SET    last_assigned_at = NOW(), assignment_count = p.assignment_count + 1, updated_at = NOW()
+            WHERE  p.pool_id = (
+                SELECT pool_id FROM ticket_allocation_rule_pool
+                WHERE  tenant_id = ? AND rule_id = ? AND is_active = 'ACTIVE'
+                ORDER BY last_assigned_at NULLS FIRST, pool_id
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            RETURNING p.pool_id, p.member_type, p.member_id, p.member_name
+            """,
+            (rs, i) -> new PoolMember(rs.getLong("pool_id"), rs.getString("member_type"),
+                    rs.getLong("member_id"), rs.getString("member_name")),
+            tenantId, ruleId).stream().findFirst();
+    }
+
+    // Deltas, not absolute values: rows also advanced by other nodes stay right
+    public void checkpoint(List<PoolDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbc.batchUpdate("""
+            UPDATE ticket_allocation_rule_pool
+            SET    assignment_count = assignment_count + ?,
+                   last_assigned_at = GREATEST(COALESCE(last_assigned_at, ?), ?),
+                   updated_at       = NOW()
+            WHERE  pool_id = ?
+            """,
+            deltas, deltas.size(), (ps, d) -> {
+                ps.setLong(1, d.assignments());
+                ps.setTimestamp(2, d.lastAssignedAt());
+                ps.setTimestamp(3, d.lastAssignedAt());
+                ps.setLong(4, d.poolId());
+            });
+    }
+}
+
+
+// ============================================================================
+// 2. SERVICE: RuleLeaseManager.java
+// Package: com.cmms.ticket.allocation.service
+// One dedicated connection per node holds session advisory locks
+// (pg_try_advisory_lock(bigint): LOCK_CLASS in the top 16 bits, rule_id below,
+// so the id is never truncated to int). The node holding a rule's lock
+// assigns that rule from memory. If the connection dies, PostgreSQL releases
+// every lock with it and another node can take over after RETRY. Each
+// acquisition gets a new epoch, so state built under an earlier lease is
+// rebuilt.
+// ============================================================================
+
+package com.cmms.ticket.allocation.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RuleLeaseManager {
+
+    public static final int LOCK_CLASS = 0x7A11;                 // advisory lock namespace: allocation pools
+    public static final Duration RETRY = Duration.ofSeconds(30);
+    private static final int RULE_BITS = 48;
+
+    private final DataSource dataSource;
+
+    private final Map<Long, Long> held = new ConcurrentHashMap<>();   // rule id -> lease epoch
+    private final AtomicLong epochs = new AtomicLong();
+    private final Map<Long, Long> refusedUntil = new ConcurrentHashMap<>();
+    private Connection leaseConnection;                           // guarded by this
+
+    public boolean holdsOrAcquire(long ruleId) {
+        if (held.containsKey(ruleId)) return true;
+        Long retryAt = refusedUntil.get(ruleId);
+        if (retryAt != null && System.nanoTime() < retryAt) return false;
+        return tryAcquire(ruleId);
+    }
+
+    public boolean holds(long ruleId) {
+        return held.containsKey(ruleId);
+    }
+
+    // 0 when not held; changes every time the lease is (re)acquired
+    public long epoch(long ruleId) {
+        Long epoch = held.get(ruleId);
+        return epoch == null ? 0 : epoch;
+    }
+
+    private synchronized boolean tryAcquire(long ruleId) {
+        if (held.containsKey(ruleId)) return true;
+        if (ruleId < 0 || ruleId >>> RULE_BITS != 0) {
+            log.warn("Allocation pool rule id {} does not fit the lease key; assigning from the database", ruleId);
+            return false;
+        }
+        try {
+            if (leaseConnection == null) {
+                leaseConnection = dataSource.getConnection();
+                leaseConnection.setAutoCommit(true);
+            }
+            try (PreparedStatement ps = leaseConnection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                ps.setLong(1, ((long) LOCK_CLASS << RULE_BITS) | ruleId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        held.put(ruleId, epochs.incrementAndGet());
+                        refusedUntil.remove(ruleId);
+                        log.info("Allocation pool lease acquired for rule {}", ruleId);
+                        return true;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Allocation pool lease connection failed: {}", e.getMessage());
+            dropConnection();
+        }
+        refusedUntil.put(ruleId, System.nanoTime() + RETRY.toNanos());
+        return false;
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public synchronized void verify() {
+        if (leaseConnection == null) return;
+        try {
+            if (!leaseConnection.isValid(2)) dropConnection();
+        } catch (SQLException e) {
+            dropConnection();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void releaseAll() {
+        dropConnection();
+    }
+
+    // Closing the session releases all its advisory locks server-side
+    private void dropConnection() {
+        if (!held.isEmpty()) log.warn("Allocation pool leases released: {}", held.keySet());
+        held.clear();
+        if (leaseConnection != null) {
+            try {
+                leaseConnection.close();
+            } catch (SQLException ignored) {
+                // connection already broken
+            }
+            leaseConnection = null;
+        }
+    }
+}
+
+
+// ============================================================================
+// 3. SERVICE: PoolAssigner.java
+// Package: com.cmms.ticket.allocation.service
+//
+// ROUND_ROBIN : lock-free AtomicLong cursor per rule
+// LEAST_OPEN  : per rule a PriorityBlockingQueue of (open count, member) slots.
+//               Open counts are per member (one engineer can sit in several
+//               pools); every change pushes a new versioned slot into each
+//               pool's queue, stale slots are skipped on poll. Polls of one
+//               rule are serialized by one of STRIPES locks.
+// Rule state is rebuilt when the compiled pool changes (new List instance
+// after TicketAllocationEngine.reload) and when this node (re)acquires the
+// rule's lease: while another node owned it, assignments went through
+// assignLeastRecent, so the round-robin restart point and open counts are
+// re-read from the database.
+// ============================================================================
+
+package com.cmms.ticket.allocation.service;
+
+import com.cmms.ticket.allocation.dto.PoolMember;
+import com.cmms.ticket.allocation.dto.RoutingDecision;
+import com.cmms.ticket.allocation.repository.PoolStateRepository;
+import com.cmms.ticket.allocation.repository.PoolStateRepository.OpenCount;
+import com.cmms.ticket.allocation.repository.PoolStateRepository.PoolDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PoolAssigner {
+
+    private static final int STRIPES = 64;
+
+    private final PoolStateRepository repository;
+    private final RuleLeaseManager leases;
+
+    private final ReentrantLock[] stripes = newStripes();
+    private final Map<Long, RuleState> rules = new ConcurrentHashMap<>();
+    private final Map<MemberKey, MemberLoad> loads = new ConcurrentHashMap<>();
+    private final Set<Long> loadedTenants = ConcurrentHashMap.newKeySet();
+
+    private record MemberKey(Long tenantId, String memberType, long memberId) {}
+
+    private record Slot(int idx, int open, long version) {}
+
+    private static final Comparator<Slot> LEAST_OPEN_FIRST =
+            Comparator.comparingInt(Slot::open).thenComparingInt(Slot::idx);
+
+    // ---------- ASSIGN ----------
+    // null: FIXED strategy / fallback / empty pool -> keep the rule's assign_to
+    public PoolMember assign(Long tenantId, RoutingDecision d) {
+        List<PoolMember> pool = d.getPool();
+        if (d.isFallbackUsed() || pool == null || pool.isEmpty()) return null;
+        boolean leastOpen = "LEAST_OPEN".equals(d.getStrategy());
+        if (!leastOpen && !"ROUND_ROBIN".equals(d.getStrategy())) return null;
+
+        long ruleId = d.getMatchedRuleId();
+        if (!leases.holdsOrAcquire(ruleId)) {
+            return repository.assignLeastRecent(tenantId, ruleId)
+                    .orElseGet(() -> pool.get(ThreadLocalRandom.current().nextInt(pool.size())));
+        }
+
+        RuleState s = state(tenantId, ruleId, pool, leastOpen, leases.epoch(ruleId));
+        int idx;
+        if (leastOpen) {
+            ReentrantLock lock = stripe(ruleId);
+            lock.lock();
+            try {
+                idx = s.nextLeastOpen();
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            idx = s.nextRoundRobin();
+        }
+        s.assigned[idx].increment();
+        s.lastAssignedMillis.set(idx, System.currentTimeMillis());
+        return pool.get(idx);
+    }
+
+    // ---------- OPEN COUNT EVENTS (ticket module) ----------
+    public void onTicketAssigned(Long tenantId, String memberType, long memberId) {
+        MemberLoad l = loads.get(new MemberKey(tenantId, memberType, memberId));
+        if (l != null) publish(l, l.change(+1));
+    }
+
+    public void onTicketClosed(Long tenantId, String memberType, long memberId) {
+        MemberLoad l = loads.get(new MemberKey(tenantId, memberType, memberId));
+        if (l != null) publish(l, l.change(-1));
+    }
+
+    // ---------- CHECKPOINT / RESYNC ----------
+    @Scheduled(fixedDelay = 5_000)
+    public void checkpoint() {
+        List<PoolDelta> deltas = new ArrayList<>();
+        for (RuleState s : rules.values()) s.drainDeltas(deltas);
+        repository.checkpoint(deltas);
+    }
+
+    // Open counts also change through paths that do not call onTicket*
+    // (other nodes, manual reassignment): re-read them from tickets.
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void resyncOpenCounts() {
+        for (Long tenantId : loadedTenants) loadOpenCounts(tenantId);
+    }
+
+    // ---------- STATE ----------
+    private RuleState state(Long tenantId, long ruleId, List<PoolMember> pool, boolean leastOpen, long epoch) {
+        RuleState s = rules.get(ruleId);
+        if (s != null && s.pool == pool && s.leaseEpoch == epoch) return s;
+        ReentrantLock lock = stripe(ruleId);
+        lock.lock();
+        try {
+            s = rules.get(ruleId);
+            if (s != null && s.pool == pool && s.leaseEpoch == epoch) return s;
+            boolean takeover = s == null || s.leaseEpoch != epoch;
+            // Own unwritten assignments first, so the restart point read below includes them
+            if (s != null) retire(s);
+            RuleState fresh = build(tenantId, ruleId, pool, leastOpen, epoch, takeover);
+            rules.put(ruleId, fresh);
+            return fresh;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RuleState build(Long tenantId, long ruleId, List<PoolMember> pool, boolean leastOpen,
+                            long epoch, boolean takeover) {
+        RuleState s = new RuleState(ruleId, pool, epoch);
+
+        // Round robin continues after the member assigned last (survives restarts)
+        Map<Long, Timestamp> last = repository.findLastAssigned(ruleId);
+        int lastIdx = -1;
+        Timestamp newest = null;
+        for (int i = 0; i < pool.size(); i++) {
+            Timestamp t = last.get(pool.get(i).poolId());
+            if (t != null && (newest == null || t.after(newest))) {
+                newest = t;
+                lastIdx = i;
+            }
+        }
+        s.cursor.set(lastIdx + 1);
+
+        if (leastOpen) {
+            if (loadedTenants.add(tenantId) || takeover) loadOpenCounts(tenantId);
+            s.loads = new MemberLoad[pool.size()];
+            for (int i = 0; i < pool.size(); i++) {
+                PoolMember m = pool.get(i);
+                s.loads[i] = loads.computeIfAbsent(new MemberKey(tenantId, m.memberType(), m.memberId()),
+                        k -> new MemberLoad());
+                s.loads[i].rules.add(s);
+            }
+            s.reseed();
+        }
+        return s;
+    }
+
+    private void retire(RuleState old) {
+        if (old.loads != null) for (MemberLoad l : old.loads) l.rules.remove(old);
+        List<PoolDelta> deltas = new ArrayList<>();
+        old.drainDeltas(deltas);
+        repository.checkpoint(deltas);
+    }
+
+    private void loadOpenCounts(Long tenantId) {
+        Map<MemberKey, Integer> counts = new HashMap<>();
+        for (OpenCount c : repository.countOpenTickets(tenantId)) {
+            counts.put(new MemberKey(tenantId, c.memberType(), c.memberId()), c.open());
+        }
+        // Each member is set (and its heap slots refreshed) exactly once: a second set()
+        // would bump the version again and leave every published slot stale
+        Set<MemberKey> done = new HashSet<>();
+        loads.forEach((key, load) -> {
+            if (!key.tenantId().equals(tenantId)) return;
+            done.add(key);
+            publish(load, load.set(counts.getOrDefault(key, 0)));
+        });
+        counts.forEach((key, open) -> {
+            if (done.contains(key)) return;
+            MemberLoad load = loads.computeIfAbsent(key, k -> new MemberLoad());
+            publish(load, load.set(open));
+        });
+    }
+
+    private static void publish(MemberLoad load, long[] openAndVersion) {
+        for (RuleState r : load.rules) r.push(load, openAndVersion);
+    }
+
+    private ReentrantLock stripe(long ruleId) {
+        return stripes[Long.hashCode(ruleId) & (STRIPES - 1)];
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+        return locks;
+    }
+
+    // Open tickets of one member (engineer / vendor) in one tenant
+    private static final class MemberLoad {
+        final Set<RuleState> rules = ConcurrentHashMap.newKeySet();
+        private int open;
+        private long version;
+
+        synchronized long[] change(int delta) {
+            open = Math.max(0, open + delta);
+            return new long[] { open, ++version };
+        }
+
+        synchronized long[] set(int value) {
+            open = value;
+            return new long[] { open, ++version };
+        }
+
+        synchronized long[] current() {
+            return new long[] { open, version };
+        }
+
+        synchronized boolean isCurrent(long v) {
+            return version == v;
+        }
+    }
+
+    private static final class RuleState {
+        final long ruleId;
+        final List<PoolMember> pool;                 // identity = compiled rule version
+        final long leaseEpoch;                       // RuleLeaseManager.epoch when built
+        final AtomicLong cursor = new AtomicLong();
+        final LongAdder[] assigned;                  // since last checkpoint
+        final AtomicLongArray lastAssignedMillis;
+        final PriorityBlockingQueue<Slot> heap = new PriorityBlockingQueue<>(11, LEAST_OPEN_FIRST);
+        MemberLoad[] loads;                          // LEAST_OPEN only
+
+        RuleState(long ruleId, List<PoolMember> pool, long leaseEpoch) {
+            this.ruleId = ruleId;
+            this.pool = pool;
+            this.leaseEpoch = leaseEpoch;
+            this.assigned = new LongAdder[pool.size()];
+            for (int i = 0; i < assigned.length; i++) assigned[i] = new LongAdder();
+            this.lastAssignedMillis = new AtomicLongArray(pool.size());
+        }
+
+        int nextRoundRobin() {
+            return (int) Math.floorMod(cursor.getAndIncrement(), (long) pool.size());
+        }
+
+        // Caller holds the rule's stripe lock
+        int nextLeastOpen() {
+            if (heap.size() > 4 * loads.length + 16) reseed();      // too many stale slots
+            while (true) {
+                Slot top = heap.poll();
+                if (top == null) {
+                    reseed();
+                    continue;
+                }
+                MemberLoad load = loads[top.idx()];
+                if (!load.isCurrent(top.version())) continue;      // superseded by a newer slot
+                publish(load, load.change(+1));
+                return top.idx();
+            }
+        }
+
+        void push(MemberLoad load, long[] openAndVersion) {
+            for (int i = 0; i < loads.length; i++) {
+                if (loads[i] == load) heap.add(new Slot(i, (int) openAndVersion[0], openAndVersion[1]));
+            }
+        }
+
+        void reseed() {
+            heap.clear();
+            for (int i = 0; i < loads.length; i++) {
+                long[] c = loads[i].current();
+                heap.add(new Slot(i, (int) c[0], c[1]));
+            }
+        }
+
+        void drainDeltas(List<PoolDelta> out) {
+            for (int i = 0; i < assigned.length; i++) {
+                long n = assigned[i].sumThenReset();
+                if (n > 0) out.add(new PoolDelta(pool.get(i).poolId(), n, new Timestamp(lastAssignedMillis.get(i))));
+            }
+        }
+    }
+}
+
+
+// ============================================================================
+// 4. NOTES
+// ============================================================================
+
+/*
+PER TICKET (lease held by this node):
+  ROUND_ROBIN : 1 AtomicLong increment, no lock, no SQL
+  LEAST_OPEN  : 1 stripe lock + heap poll/push, no SQL
+  pool rows   : updated by checkpoint() every 5 s with summed deltas, one batch
+
+MULTI-NODE:
+  - Each rule is owned by whichever node first wins pg_try_advisory_lock(0x7A11 << 48 | rule_id)
+  - Other nodes assign that rule with assignLeastRecent (one UPDATE with SKIP LOCKED,
+    row lock held until the ticket transaction commits); LEAST_OPEN degrades to
+    least-recently-assigned there. The owner does not see those assignments until its
+    next lease acquisition (round robin) or the 5 min open-count resync (LEAST_OPEN)
+  - Ordering is strict only per node. Non-owner assignments and the owner's in-memory
+    cursor are independent, so while several nodes route the same rule a member can
+    be picked twice in a row, or skipped for a turn. Under concurrent non-owner load
+    SKIP LOCKED can also pass over the least recent member, or fall back to a random
+    one when every row is locked. Assignments stay spread evenly over time. Strict
+    rotation needs all of a rule's tickets routed on its owner node (for example,
+    tickets created through one node per tenant); this module does not forward them
+  - Owner crash / connection loss: locks released by PostgreSQL; another node takes
+    the rule over after RuleLeaseManager.RETRY (30 s). Every acquisition, including
+    the old owner getting the rule back, rebuilds the rule state: round robin restarts
+    after the last_assigned_at in the pool table, LEAST_OPEN re-reads open counts
+  - Checkpoints add deltas, so counts written by several nodes are never overwritten
+
+OPEN COUNTS (LEAST_OPEN):
+  - Loaded from tickets per tenant on first use, re-read every 5 min
+  - Ticket module calls poolAssigner.onTicketClosed(...) on resolve / close / cancel
+    and onTicketAssigned(...) on manual (re)assignment
+*/
@@ -0,0 +1,377 @@
+// ============================================================================
+// SPRING BOOT 3.x MODULE: voucher number allocator
+// Table       : voucher_series (see voucher-series-schema.sql)
+// Base Tables : voucher_series
+// Stack       : Java 17+, Spring Boot 3.x, Spring JDBC, PostgreSQL
+// Base URL    : /api/voucher-series/allocator-stats
+// PURPOSE     : Voucher numbers (GRN-48, AST-1157, WO/235 ...) without taking the
+//               voucher_series row lock per document. Each app node reserves a
+//               block of block_size numbers with one UPDATE (autocommit, on a
+//               small pool of its own) and issues them lock-free from memory. Series with
+//               gap_free = TRUE keep next_voucher_number() in the caller's
+//               transaction.
+// ============================================================================
+
+
+// ============================================================================
+// 1. DTOs
+// Package: com.cmms.voucher.dto
+// ============================================================================
+
+// ---------- SeriesPolicy.java ----------
+// Compared on reload: an unchanged policy keeps the block in hand
+package com.cmms.voucher.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor @EqualsAndHashCode
+public class SeriesPolicy {
+    private final boolean gapFree;
+    private final String prefix;
+    private final String separator;
+}
+
+// ---------- VoucherBlock.java ----------
+// Numbers firstNo..lastNo reserved by this node; next hands them out lock-free
+package com.cmms.voucher.dto;
+
+import lombok.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class VoucherBlock {
+    private final String prefix;
+    private final String separator;
+    private final long firstNo;
+    private final long lastNo;
+    private final AtomicLong next;
+
+    public VoucherBlock(String prefix, String separator, long firstNo, long lastNo) {
+        this.prefix = prefix;
+        this.separator = separator;
+        this.firstNo = firstNo;
+        this.lastNo = lastNo;
+        this.next = new AtomicLong(firstNo);
+    }
+
+    // Numbers not handed out yet (wasted if the block is dropped)
+    public long remaining() {
+        return Math.max(0, lastNo - next.get() + 1);
+    }
+}
+
+// ---------- VoucherAllocatorStats.java ----------
+package com.cmms.voucher.dto;
+
+import lombok.*;
+
+@Getter @AllArgsConstructor
+public class VoucherAllocatorStats {
+    private final long blocksReserved;       // UPDATEs on voucher_series (block mode)
+    private final long numbersReserved;      // sum of block sizes
+    private final long numbersIssued;        // block mode
+    private final long numbersWasted;        // left in dropped blocks (gaps)
+    private final long numbersInHand;        // reserved, not issued yet
+    private final long gapFreeIssued;        // next_voucher_number() calls
+}
+
+
+// ============================================================================
+// 2. REPOSITORY: VoucherSeriesRepository.java
+// Package: com.cmms.voucher.repository
+// Plain JDBC: the work is done by the SQL functions in voucher-series-schema.sql.
+// Block reservations run on a 2-connection pool of their own, in autocommit:
+// callers are inside a document transaction that already holds a connection
+// from the main pool, and waiting on that pool for a second one deadlocks
+// once every connection belongs to a caller waiting for a refill.
+// ============================================================================
+
+package com.cmms.voucher.repository;
+
+import com.cmms.common.exception.NotFoundException;
+import com.cmms.voucher.dto.SeriesPolicy;
+import com.cmms.voucher.dto.VoucherBlock;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class VoucherSeriesRepository {
+
+    private final JdbcTemplate jdbc;
+    private final HikariDataSource reservePool;
+    private final JdbcTemplate reserveJdbc;
+
+    // Not a DataSource bean: that would switch off the auto-configured main pool
+    public VoucherSeriesRepository(JdbcTemplate jdbc, DataSourceProperties properties) {
+        this.jdbc = jdbc;
+        this.reservePool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.reservePool.setPoolName("voucher-reserve");
+        this.reservePool.setMaximumPoolSize(2);
+        this.reservePool.setMinimumIdle(0);
+        this.reservePool.setAutoCommit(true);
+        this.reserveJdbc = new JdbcTemplate(reservePool);
+    }
+
+    @PreDestroy
+    public void close() {
+        reservePool.close();
+    }
+
+    public SeriesPolicy findPolicy(UUID tenantId, String moduleKey) {
+        try {
+            return jdbc.queryForObject("""
+                SELECT gap_free, prefix, separator FROM voucher_series
+                WHERE tenant_id = ? AND module_key = ? AND is_active = TRUE
+                """,
+                (rs, i) -> new SeriesPolicy(rs.getBoolean("gap_free"), rs.getString("prefix"), rs.getString("separator")),
+                tenantId, moduleKey);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("No active voucher series for module " + moduleKey);
+        }
+    }
+
+    // One UPDATE for the series' current block_size numbers, committed at once.
+    // null: the series is gap_free now (use nextInTransaction)
+    public VoucherBlock reserveBlock(UUID tenantId, String moduleKey) {
+        List<VoucherBlock> rows = reserveJdbc.query("SELECT * FROM reserve_voucher_block(?, ?)",
+                (rs, i) -> new VoucherBlock(rs.getString("r_prefix"), rs.getString("r_separator"),
+                        rs.getLong("r_first_no"), rs.getLong("r_last_no")),
+                tenantId, moduleKey);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Gap-free: row lock held until the caller's transaction ends
+    public String nextInTransaction(UUID tenantId, String moduleKey) {
+        return jdbc.queryForObject("SELECT next_voucher_number(?, ?)", String.class, tenantId, moduleKey);
+    }
+}
+
+
+// ============================================================================
+// 3. SERVICE: VoucherNumberAllocator.java
+// Package: com.cmms.voucher.service
+// ============================================================================
+
+package com.cmms.voucher.service;
+
+import com.cmms.voucher.dto.SeriesPolicy;
+import com.cmms.voucher.dto.VoucherAllocatorStats;
+import com.cmms.voucher.dto.VoucherBlock;
+import com.cmms.voucher.repository.VoucherSeriesRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+public class VoucherNumberAllocator {
+
+    // Series edits made on another node (or in SQL) are seen within this
+    private static final Duration POLICY_TTL = Duration.ofMinutes(1);
+
+    private final VoucherSeriesRepository repository;
+
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    private final LongAdder blocksReserved = new LongAdder();
+    private final LongAdder numbersReserved = new LongAdder();
+    private final LongAdder numbersIssued = new LongAdder();
+    private final LongAdder numbersWasted = new LongAdder();
+    private final LongAdder gapFreeIssued = new LongAdder();
+
+    private record SeriesKey(UUID tenantId, String moduleKey) {}
+
+    private static final class Series {
+        final SeriesPolicy policy;
+        volatile long loadedAt = System.nanoTime();
+        volatile VoucherBlock block;
+
+        Series(SeriesPolicy policy) {
+            this.policy = policy;
+        }
+    }
+
+    // ---------- NEXT NUMBER ----------
+    // Must run inside the document's transaction (needed by gap-free series).
+    // Formatting matches next_voucher_number(): prefix || separator || number.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String next(UUID tenantId, String moduleKey) {
+        SeriesKey key = new SeriesKey(tenantId, moduleKey);
+        Series s = series(key);
+
+        if (!s.policy.isGapFree()) {
+            while (true) {
+                VoucherBlock b = s.block;
+                if (b != null) {
+                    long n = b.getNext().getAndIncrement();
+                    if (n <= b.getLastNo()) {
+                        numbersIssued.increment();
+                        return b.getPrefix() + b.getSeparator() + n;
+                    }
+                }
+                if (!refill(key, s, b)) break;
+            }
+        }
+        gapFreeIssued.increment();
+        return repository.nextInTransaction(tenantId, moduleKey);
+    }
+
+    // Policy loaded outside the map, and again once POLICY_TTL has passed.
+    // Unchanged: the block in hand is kept. Changed: it is dropped.
+    private Series series(SeriesKey key) {
+        Series s = series.get(key);
+        if (s != null && System.nanoTime() - s.loadedAt < POLICY_TTL.toNanos()) return s;
+
+        SeriesPolicy policy = repository.findPolicy(key.tenantId(), key.moduleKey());
+        if (s != null && s.policy.equals(policy)) {
+            s.loadedAt = System.nanoTime();
+            return s;
+        }
+        Series fresh = new Series(policy);
+        if (s == null) {
+            Series raced = series.putIfAbsent(key, fresh);
+            return raced != null ? raced : fresh;
+        }
+        if (!series.replace(key, s, fresh)) return series(key);
+        drop(s);
+        return fresh;
+    }
+
+    // One thread reserves; the others find the new block on retry.
+    // The reservation does not use the caller's connection (see VoucherSeriesRepository).
+    // false: the series was switched to gap_free, the caller falls back to next_voucher_number()
+    private boolean refill(SeriesKey key, Series s, VoucherBlock exhausted) {
+        synchronized (s) {
+            if (s.block != exhausted) return true;
+            VoucherBlock fresh = repository.reserveBlock(key.tenantId(), key.moduleKey());
+            if (fresh == null) {
+                if (series.remove(key, s)) drop(s);          // next call reloads the policy
+                return false;
+            }
+            blocksReserved.increment();
+            numbersReserved.add(fresh.getLastNo() - fresh.getFirstNo() + 1);
+            s.block = fresh;
+            return true;
+        }
+    }
+
+    // ---------- INVALIDATE ----------
+    // Series edited (prefix, separator, gap_free, deactivated): the rest of the
+    // current block is dropped and counted as waste. Called by the voucher series
+    // update path on the node that made the edit; other nodes reload within POLICY_TTL.
+    // block_size changes need no call: every reservation reads it.
+    public void invalidate(UUID tenantId, String moduleKey) {
+        drop(series.remove(new SeriesKey(tenantId, moduleKey)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        series.keySet().forEach(k -> drop(series.remove(k)));
+    }
+
+    private void drop(Series s) {
+        if (s == null) return;
+        VoucherBlock b = s.block;
+        if (b != null) numbersWasted.add(b.remaining());
+    }
+
+    // ---------- METRICS ----------
+    public VoucherAllocatorStats stats() {
+        long inHand = series.values().stream()
+                .map(s -> s.block).filter(b -> b != null)
+                .mapToLong(VoucherBlock::remaining).sum();
+        return new VoucherAllocatorStats(blocksReserved.sum(), numbersReserved.sum(), numbersIssued.sum(),
+                numbersWasted.sum(), inHand, gapFreeIssued.sum());
+    }
+}
+
+
+// ============================================================================
+// 4. CONTROLLER: VoucherAllocatorController.java
+// Package: com.cmms.voucher.controller
+// ============================================================================
+
+package com.cmms.voucher.controller;
+
+import com.cmms.common.dto.ResponseDto;
+import com.cmms.common.service.UserService;
+import com.cmms.voucher.service.VoucherNumberAllocator;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/voucher-series")
+@RequiredArgsConstructor
+public class VoucherAllocatorController {
+
+    private final VoucherNumberAllocator allocator;
+    private final UserService userService;
+
+    // Per node, all tenants: each app instance reports its own blocks
+    @GetMapping("/allocator-stats")
+    @PreAuthorize("@rbac.can('REPORTS', 'READ')")
+    public ResponseEntity<ResponseDto> getAllocatorStats(HttpServletRequest httpReq) {
+        userService.getCurrentUserContext(httpReq);            // no signed-in user -> rejected
+        return ResponseEntity.ok(ResponseDto.success(UUID.randomUUID().toString(),
+                "Voucher allocator stats retrieved", allocator.stats()));
+    }
+}
+
+
+// ============================================================================
+// 5. USAGE / SAMPLE
+// ============================================================================
+
+/*
+CALLERS (inside their @Transactional create method):
+  String grnNo = voucherNumberAllocator.next(tenantId, "GRN");     // was: SELECT next_voucher_number(?, 'GRN')
+
+VOUCHER SERIES CHANGES:
+  update / deactivate of a series -> voucherNumberAllocator.invalidate(tenantId, moduleKey)
+  other nodes: policy re-read after POLICY_TTL (1 min); block_size is read by every reservation
+  gap_free switched on: reserve_voucher_block() returns no row -> next_voucher_number() at once
+
+--- GET /api/voucher-series/allocator-stats ---
+Signed-in user with the REPORTS / READ grant (403 otherwise).
+RESPONSE (200):
+{
+    "requestId": "va1b2c3d-...",
+    "statusCode": 200,
+    "message": "Voucher allocator stats retrieved",
+    "data": {
+        "blocksReserved": 42,
+        "numbersReserved": 840,
+        "numbersIssued": 826,
+        "numbersWasted": 0,
+        "numbersInHand": 14,
+        "gapFreeIssued": 0
+    }
+}
+
+BEHAVIOUR (gap_free = FALSE, block_size = 20, two nodes):
+  node A reserves GRN 48..67, node B reserves GRN 68..87
+  -> A issues GRN-48, GRN-49 ... while B issues GRN-68 ...: unique, not globally ordered
+  -> one voucher_series UPDATE (and row lock) per 20 documents per node, on the
+     voucher-reserve pool (2 connections), never on the document's connection
+  -> restart / invalidate / rolled-back documents leave gaps (numbersWasted)
+
+gap_free = TRUE: identical to next_voucher_number(); the row lock is held until the
+document's transaction commits, rolled-back numbers are reused.
+*/
@@ -156,6 +156,7 @@ CREATE TABLE IF NOT EXISTS ticket_routing_log (
     -- evaluation metadata
     rules_evaluated   INT NOT NULL DEFAULT 0,        -- how many rules were checked
     eval_time_ms      INT,                           -- processing time in ms
+    eval_time_us      INT,                           -- processing time in µs (in-memory evaluation is sub-ms)
 
     created_at        TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
@@ -164,6 +165,9 @@ CREATE INDEX idx_routing_log_ticket ON ticket_routing_log(tenant_id, ticket_id);
 CREATE INDEX idx_routing_log_rule   ON ticket_routing_log(tenant_id, matched_rule_id);
 CREATE INDEX idx_routing_log_date   ON ticket_routing_log(tenant_id, created_at DESC);
 
+-- Existing databases
+ALTER TABLE ticket_routing_log ADD COLUMN IF NOT EXISTS eval_time_us INT;
+
 -- ============================================================
 -- 6. VIEWS
 -- ============================================================
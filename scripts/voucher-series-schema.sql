@@ -115,6 +115,60 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
+-- ─── Block reservation (VoucherNumberAllocator) ───
+-- gap_free   : TRUE  -> every number comes from next_voucher_number() inside
+--                       the caller's transaction (row lock held until commit,
+--                       rolled-back numbers are reused). Use for modules whose
+--                       numbering must be gap-free by law / audit.
+--              FALSE -> the application reserves block_size numbers with one
+--                       UPDATE and issues them from memory; numbers left in a
+--                       block at shutdown or in rolled-back transactions are
+--                       skipped (gaps), order across nodes is not strict.
+ALTER TABLE voucher_series
+    ADD COLUMN IF NOT EXISTS gap_free   BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN IF NOT EXISTS block_size INTEGER NOT NULL DEFAULT 20
+        CHECK (block_size BETWEEN 1 AND 1000);
+
+COMMENT ON COLUMN voucher_series.gap_free IS 'TRUE: numbers allocated one by one in the caller transaction (no gaps). FALSE: allocated in blocks of block_size per app node';
+COMMENT ON COLUMN voucher_series.block_size IS 'Numbers reserved per UPDATE by each app node when gap_free = FALSE';
+
+-- Call: SELECT * FROM reserve_voucher_block('tenant-uuid', 'GRN');      -- block_size numbers
+--       SELECT * FROM reserve_voucher_block('tenant-uuid', 'GRN', 20);
+-- Returns: ('GRN', '-', 48, 67) -- numbers 48..67 now belong to the caller
+--          no row               -- the series is gap_free: use next_voucher_number()
+CREATE OR REPLACE FUNCTION reserve_voucher_block(
+    p_tenant_id  UUID,
+    p_module_key VARCHAR(10),
+    p_count      INTEGER DEFAULT NULL
+)
+RETURNS TABLE (r_prefix VARCHAR, r_separator VARCHAR, r_first_no INTEGER, r_last_no INTEGER) AS $$
+BEGIN
+    RETURN QUERY
+    UPDATE voucher_series vs
+    SET    current_no = vs.current_no + COALESCE(p_count, vs.block_size)
+    WHERE  vs.tenant_id  = p_tenant_id
+      AND  vs.module_key = p_module_key
+      AND  vs.is_active  = TRUE
+      AND  NOT vs.gap_free
+    RETURNING vs.prefix, vs.separator, vs.current_no - COALESCE(p_count, vs.block_size) + 1, vs.current_no;
+
+    IF NOT FOUND AND NOT EXISTS (
+        SELECT 1 FROM voucher_series
+        WHERE  tenant_id  = p_tenant_id
+          AND  module_key = p_module_key
+          AND  is_active  = TRUE
+    ) THEN
+        RAISE EXCEPTION 'No active voucher series found for module "%" in tenant "%"',
+            p_module_key, p_tenant_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION reserve_voucher_block IS
+    'Atomically reserves p_count (default: the series block_size) numbers and returns the range with the series prefix/separator.
+     Returns no row for gap_free series, which must use next_voucher_number() in the document transaction.
+     Usage: SELECT * FROM reserve_voucher_block(''tenant-uuid'', ''GRN'')';
+
 -- ─── Audit log for series changes ──────────────────
 CREATE TABLE IF NOT EXISTS voucher_series_audit (
     id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -137,6 +191,10 @@ BEGIN
         INSERT INTO voucher_series_audit (voucher_series_id, action, new_values, changed_by)
         VALUES (NEW.id, 'CREATE', to_jsonb(NEW), NEW.created_by);
     ELSIF TG_OP = 'UPDATE' THEN
+        -- Number allocation (current_no only) is not a configuration change
+        IF (to_jsonb(OLD) - 'current_no' - 'updated_at') = (to_jsonb(NEW) - 'current_no' - 'updated_at') THEN
+            RETURN NEW;
+        END IF;
         INSERT INTO voucher_series_audit (
             voucher_series_id, action, old_values, new_values, changed_by
         ) VALUES (